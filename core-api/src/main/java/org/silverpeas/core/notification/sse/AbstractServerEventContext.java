@@ -34,6 +34,8 @@ import java.util.function.Supplier;
 import static java.text.MessageFormat.format;
 import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
 import static org.silverpeas.core.notification.sse.ServerEventDispatcherTask.unregisterContext;
+import static org.silverpeas.core.notification.user.client.NotificationManagerSettings.getSseOutboxCapacity;
+import static org.silverpeas.core.notification.user.client.NotificationManagerSettings.isSseOutboxDisconnectOnOverflow;
 
 /**
  * This is a common implementation od {@link SilverpeasServerEventContext} interface.
@@ -45,6 +47,8 @@ import static org.silverpeas.core.notification.sse.ServerEventDispatcherTask.unr
 abstract class AbstractServerEventContext<W> implements SilverpeasServerEventContext {
 
   private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+  private final ServerEventOutbox outbox =
+      new ServerEventOutbox(getSseOutboxCapacity(), isSseOutboxDisconnectOnOverflow());
   private final SilverpeasServerEventContextManager manager;
   private final W wrappedInstance;
   private final String sessionId;
@@ -127,6 +131,44 @@ abstract class AbstractServerEventContext<W> implements SilverpeasServerEventCon
   protected abstract void performEventSend(final String name, final long id, final String data)
       throws IOException;
 
+  /**
+   * Gets the network channel to which the frames of the server events are written.
+   * @return a {@link ServerEventOutbox.FrameSink} instance.
+   * @throws IOException if the channel cannot be got.
+   */
+  protected abstract ServerEventOutbox.FrameSink getFrameSink() throws IOException;
+
+  /**
+   * Pushes the given frame into the outbox of the context and writes the waiting frames as far
+   * as the network channel accepts them without blocking.
+   * <p>
+   * If the outbox is full and the slow clients have to be disconnected, the context is closed.
+   * </p>
+   * @param frame the frame of a server event.
+   * @throws IOException if the writing fails.
+   */
+  protected void enqueue(final String frame) throws IOException {
+    if (outbox.offer(frame)) {
+      drain();
+    } else {
+      SseLogger.get().debug(() -> format("Outbox is full, closing {0}", this));
+      close();
+    }
+  }
+
+  /**
+   * Writes the waiting frames as far as the network channel accepts them without blocking.
+   * @throws IOException if the writing fails.
+   */
+  protected void drain() throws IOException {
+    outbox.drainTo(getFrameSink());
+  }
+
+  @Override
+  public int getPendingEventCount() {
+    return outbox.size();
+  }
+
   @Override
   public int hashCode() {
     return super.hashCode();
@@ -146,6 +188,9 @@ abstract class AbstractServerEventContext<W> implements SilverpeasServerEventCon
     if (getLastServerEventId() != null) {
       tsb.append("lastServerEventId", getLastServerEventId());
     }
+    tsb.append("outboxDepth", outbox.size());
+    tsb.append("outboxMaxDepth", outbox.getMaxDepth());
+    tsb.append("outboxDropped", outbox.getNbDropped());
     return tsb.toString();
   }
 }
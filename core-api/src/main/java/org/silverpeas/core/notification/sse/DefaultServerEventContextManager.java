@@ -29,8 +29,12 @@ import org.silverpeas.core.annotation.Service;
 import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -39,17 +43,29 @@ import java.util.function.Supplier;
 
 import static java.text.MessageFormat.format;
 
+/**
+ * Default implementation of {@link SilverpeasServerEventContextManager}.
+ * <p>
+ * Besides the set of all the registered contexts, the contexts are indexed by the identifier of
+ * their user and by their session identifier so that the events aimed at a user or at a session
+ * are dispatched without scanning all the contexts.
+ * </p>
+ */
 @Service
 @Singleton
 public class DefaultServerEventContextManager implements SilverpeasServerEventContextManager {
 
   final ReadWriteLock lock = new ReentrantReadWriteLock(true);
   final Set<SilverpeasServerEventContext> contexts = new HashSet<>(2000);
+  final Map<String, Set<SilverpeasServerEventContext>> contextsByUserId = new HashMap<>(2000);
+  final Map<String, Set<SilverpeasServerEventContext>> contextsBySessionId = new HashMap<>(2000);
 
   @PreDestroy
   protected void cleanContexts() {
     safeWrite(null, s -> {
       contexts.clear();
+      contextsByUserId.clear();
+      contextsBySessionId.clear();
       return true;
     });
   }
@@ -81,12 +97,61 @@ public class DefaultServerEventContextManager implements SilverpeasServerEventCo
     return safeRead(() -> new ArrayList<>(contexts));
   }
 
+  @Override
+  public List<SilverpeasServerEventContext> getContextSnapshot(final ServerEventScope scope) {
+    switch (scope.getKind()) {
+      case USER:
+        return safeRead(() -> new ArrayList<>(
+            contextsByUserId.getOrDefault(scope.getId(), Collections.emptySet())));
+      case SESSION:
+        return safeRead(() -> new ArrayList<>(
+            contextsBySessionId.getOrDefault(scope.getId(), Collections.emptySet())));
+      default:
+        return getContextSnapshot();
+    }
+  }
+
   private boolean add(final SilverpeasServerEventContext context) {
-    return safeWrite(context, contexts::add);
+    return safeWrite(context, c -> {
+      final boolean added = contexts.add(c);
+      if (added) {
+        index(contextsByUserId, getUserId(c), c);
+        index(contextsBySessionId, c.getSessionId(), c);
+      }
+      return added;
+    });
   }
 
   private boolean remove(final SilverpeasServerEventContext context) {
-    return safeWrite(context, contexts::remove);
+    return safeWrite(context, c -> {
+      final boolean removed = contexts.remove(c);
+      if (removed) {
+        unindex(contextsByUserId, getUserId(c), c);
+        unindex(contextsBySessionId, c.getSessionId(), c);
+      }
+      return removed;
+    });
+  }
+
+  private static String getUserId(final SilverpeasServerEventContext context) {
+    return context.getUser() != null ? context.getUser().getId() : null;
+  }
+
+  private static void index(final Map<String, Set<SilverpeasServerEventContext>> index,
+      final String key, final SilverpeasServerEventContext context) {
+    if (key != null) {
+      index.computeIfAbsent(key, k -> new LinkedHashSet<>(2)).add(context);
+    }
+  }
+
+  private static void unindex(final Map<String, Set<SilverpeasServerEventContext>> index,
+      final String key, final SilverpeasServerEventContext context) {
+    if (key != null) {
+      index.computeIfPresent(key, (k, indexed) -> {
+        indexed.remove(context);
+        return indexed.isEmpty() ? null : indexed;
+      });
+    }
   }
 
   private int getContextSize() {
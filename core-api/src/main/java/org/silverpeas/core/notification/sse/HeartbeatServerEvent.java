@@ -57,4 +57,9 @@ class HeartbeatServerEvent extends AbstractServerEvent implements IgnoreStoring
   public boolean isConcerned(final String receiverSessionId, final User receiver) {
     return emitterSessionId.equals(receiverSessionId);
   }
+
+  @Override
+  public ServerEventScope getScope() {
+    return ServerEventScope.session(emitterSessionId);
+  }
 }
@@ -104,6 +104,20 @@ public interface ServerEvent {
     return true;
   }
 
+  /**
+   * Gets the scope of the receivers aimed by the event. It allows the dispatching to select
+   * directly the contexts of a user or of a session instead of checking all the registered ones
+   * with {@link #isConcerned(String, User)}.
+   * <p>
+   * By default, all the contexts are aimed. An event which is concerning only one user or one
+   * session SHOULD override this method.
+   * </p>
+   * @return a {@link ServerEventScope} instance.
+   */
+  default ServerEventScope getScope() {
+    return ServerEventScope.all();
+  }
+
   /**
    * Sends the event by using the given response and taking into account the receiver linked to.
    * <br>
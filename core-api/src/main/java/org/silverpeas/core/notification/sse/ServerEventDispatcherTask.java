@@ -23,7 +23,6 @@
  */
 package org.silverpeas.core.notification.sse;
 
-import org.silverpeas.kernel.SilverpeasRuntimeException;
 import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.annotation.Bean;
 import org.silverpeas.kernel.annotation.Technical;
@@ -40,12 +39,12 @@ import org.silverpeas.kernel.logging.SilverLogger;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -100,8 +99,8 @@ public class ServerEventDispatcherTask
    * @param sessionId an identifier od a session.
    */
   public static void unregisterBySessionId(String sessionId) {
-    getContextSnapshot().stream()
-        .filter(c -> sessionId.equals(c.getSessionId()))
+    SilverpeasServerEventContextManager.get()
+        .getContextSnapshot(ServerEventScope.session(sessionId))
         .forEach(ServerEventDispatcherTask::unregisterContext);
   }
 
@@ -252,10 +251,14 @@ public class ServerEventDispatcherTask
     /**
      * Gets the context safely, so a list on which the caller can work without concurrency
      * problems.
+     * <p>
+     * Only the contexts aimed by the scope of the server event are returned.
+     * </p>
      * @return the list of context.
      */
     List<SilverpeasServerEventContext> getSafeContexts() {
-      return getContextSnapshot();
+      return SilverpeasServerEventContextManager.get()
+          .getContextSnapshot(serverEventToDispatch.getScope());
     }
 
     /**
@@ -269,11 +272,36 @@ public class ServerEventDispatcherTask
 
   /**
    * Handles a store of server events.
+   * <p>
+   * The server events are kept into a ring buffer of fixed capacity (the oldest ones are
+   * overwritten once the capacity is reached) in the order of their identifier, which is the
+   * order in which they are processed by the dispatcher task. The server events implementing
+   * {@link StoreLastOnly} are kept apart, only the last one of each discriminator being stored.
+   * </p>
+   * <p>
+   * Only the writers are synchronized between them. The replay of the server events from a given
+   * identifier finds its first event by binary search and the expiry of the oldest server events
+   * moves forward the head of the ring buffer without locking, so neither of them is blocking the
+   * storing of the new server events.
+   * </p>
    */
   static class ServerEventStore {
 
-    private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
-    private final List<StoredServerEvent> synchronizedStore = new ArrayList<>();
+    private final Object writeMutex = new Object();
+    private final int capacity;
+    private final AtomicReferenceArray<StoredServerEvent> ring;
+    private final AtomicLong head = new AtomicLong(0);
+    private volatile long tail = 0;
+    private final Map<String, StoredServerEvent> lastOnlySlots = new ConcurrentHashMap<>();
+
+    ServerEventStore() {
+      this(getSseStoreCapacity());
+    }
+
+    ServerEventStore(final int capacity) {
+      this.capacity = Math.max(capacity, 1);
+      this.ring = new AtomicReferenceArray<>(this.capacity);
+    }
 
     /**
      * Cleaning expired server events (lifetime of 40000ms maximum).
@@ -281,41 +309,66 @@ public class ServerEventDispatcherTask
     void cleanExpired() {
       final long currentTime = System.currentTimeMillis();
       final long maxLifeTime = Math.max(getSseStoreEventLifeTime(), MIN_LIFE_TIME);
-      safeWrite(() -> {
-        final Iterator<StoredServerEvent> it = synchronizedStore.iterator();
-        boolean done = false;
-        while (it.hasNext() && !done) {
-          final StoredServerEvent item = it.next();
-          final boolean canProcess = !(item.getServerEvent() instanceof KeepAlwaysLastStored);
-          if (canProcess) {
-            final long lifetime = currentTime - item.getStoreTime();
-            if (lifetime >= maxLifeTime) {
-              it.remove();
-              SseLogger.get()
-                  .debug(
-                      () -> format("Removing expired {0} lifetime of {1}ms", item.getServerEvent(),
-                          lifetime));
-            } else {
-              done = true;
-            }
-          }
+      long h = head.get();
+      while (h < tail) {
+        final StoredServerEvent item = ring.get(indexOf(h));
+        if (item != null && item.getSequence() == h &&
+            currentTime - item.getStoreTime() < maxLifeTime) {
+          break;
+        }
+        if (head.compareAndSet(h, h + 1) && item != null && item.getSequence() == h) {
+          ring.compareAndSet(indexOf(h), item, null);
+          SseLogger.get()
+              .debug(() -> format("Removing expired {0} lifetime of {1}ms", item.getServerEvent(),
+                  currentTime - item.getStoreTime()));
+        }
+        h = head.get();
+      }
+      lastOnlySlots.forEach((discriminator, item) -> {
+        final long lifetime = currentTime - item.getStoreTime();
+        if (!(item.getServerEvent() instanceof KeepAlwaysLastStored) &&
+            lifetime >= maxLifeTime && lastOnlySlots.remove(discriminator, item)) {
+          SseLogger.get()
+              .debug(() -> format("Removing expired {0} lifetime of {1}ms", item.getServerEvent(),
+                  lifetime));
         }
-        SseLogger.get()
-            .debug(() -> format("Size of the server event store (after clean): {0}",
-                synchronizedStore.size()));
       });
+      SseLogger.get()
+          .debug(() -> format("Size of the server event store (after clean): {0}", size()));
     }
 
     /**
      * Gets server events from the store which the id is higher than the given one.
      * @param lastServerEventId the last identifier performed by the client.
-     * @return a list of {@link ServerEvent} instances.
+     * @return a list of {@link ServerEvent} instances sorted by their identifier.
      */
     List<ServerEvent> getFromId(long lastServerEventId) {
-      return safeRead(() -> synchronizedStore.stream()
+      final long end = tail;
+      long low = Math.max(head.get(), end - capacity);
+      long high = end;
+      while (low < high) {
+        final long middle = (low + high) >>> 1;
+        final StoredServerEvent item = ring.get(indexOf(middle));
+        if (item == null || item.getSequence() != middle ||
+            item.getServerEvent().getId() <= lastServerEventId) {
+          // an overwritten or a cleared slot is older than all the alive server events
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      final List<StoredServerEvent> items = new ArrayList<>((int) (end - low));
+      for (long sequence = low; sequence < end; sequence++) {
+        final StoredServerEvent item = ring.get(indexOf(sequence));
+        if (item != null && item.getSequence() == sequence) {
+          items.add(item);
+        }
+      }
+      lastOnlySlots.values().stream()
           .filter(i -> i.getServerEvent().getId() > lastServerEventId)
-          .map(StoredServerEvent::getServerEvent)
-          .collect(Collectors.toList()));
+          .forEach(items::add);
+      items.sort(Comparator.comparingLong(i -> i.getServerEvent().getId()));
+      return items.stream().map(StoredServerEvent::getServerEvent).collect(Collectors.toList());
     }
 
     /**
@@ -324,39 +377,19 @@ public class ServerEventDispatcherTask
      */
     void add(final ServerEvent serverEvent) {
       if (serverEvent.isValidId() && !(serverEvent instanceof IgnoreStoring)) {
-        safeWrite(() -> {
-          if (serverEvent instanceof StoreLastOnly) {
-            removeAll((StoreLastOnly) serverEvent);
-          }
-          synchronizedStore.add(new StoredServerEvent(serverEvent));
-          SseLogger.get()
-              .debug(() -> format("Add {0} into the store (size={1})", serverEvent,
-                  synchronizedStore.size()));
-        });
-      }
-    }
-
-    /**
-     * Removes from the store all the stored server events which the type is compatible with the
-     * given one.
-     * @param storeLastOnly the server event class to identifying for removing.
-     */
-    private void removeAll(StoreLastOnly storeLastOnly) {
-      final Class<?> classToIdentify = storeLastOnly.getClass();
-      final Iterator<StoredServerEvent> it = synchronizedStore.iterator();
-      boolean done = false;
-      while (it.hasNext() && !done) {
-        final StoredServerEvent item = it.next();
-        if (classToIdentify.isInstance(item.getServerEvent())) {
-          final StoreLastOnly itemEvent = (StoreLastOnly) item.getServerEvent();
-          if (storeLastOnly.getStoreDiscriminator().equals(itemEvent.getStoreDiscriminator())) {
-            it.remove();
-            SseLogger.get()
-                .debug(() -> format("Remove {0} from the store (size={1})", item.getServerEvent(),
-                    synchronizedStore.size()));
-            done = true;
+        if (serverEvent instanceof StoreLastOnly) {
+          final String discriminator = ((StoreLastOnly) serverEvent).getStoreDiscriminator();
+          lastOnlySlots.put(discriminator, new StoredServerEvent(-1, serverEvent));
+        } else {
+          synchronized (writeMutex) {
+            final long sequence = tail;
+            ring.set(indexOf(sequence), new StoredServerEvent(sequence, serverEvent));
+            tail = sequence + 1;
+            head.accumulateAndGet(sequence + 1 - capacity, Math::max);
           }
         }
+        SseLogger.get()
+            .debug(() -> format("Add {0} into the store (size={1})", serverEvent, size()));
       }
     }
 
@@ -364,49 +397,46 @@ public class ServerEventDispatcherTask
      * Clears the store.
      */
     public void clear() {
-      synchronizedStore.clear();
-    }
-
-    <T> T safeRead(final Callable<T> process) {
-      try {
-        lock.readLock().lock();
-        try {
-          return process.call();
-        } finally {
-          lock.readLock().unlock();
+      synchronized (writeMutex) {
+        for (int i = 0; i < capacity; i++) {
+          ring.set(i, null);
         }
-      } catch (Exception e) {
-        throw new SilverpeasRuntimeException(e);
+        head.set(tail);
+        lastOnlySlots.clear();
       }
     }
 
-    void safeWrite(final Runnable process) {
-      try {
-        lock.writeLock().lock();
-        try {
-          process.run();
-        } finally {
-          lock.writeLock().unlock();
-        }
-      } catch (Exception e) {
-        throw new SilverpeasRuntimeException(e);
-      }
+    private int size() {
+      return (int) Math.min(tail - head.get(), capacity) + lastOnlySlots.size();
     }
 
+    private int indexOf(final long sequence) {
+      return (int) (sequence % capacity);
+    }
   }
 
   /**
    * Represents a server event into the store.
    */
   private static class StoredServerEvent {
+    private final long sequence;
     private final long storeTime;
     private final ServerEvent serverEvent;
 
-    private StoredServerEvent(final ServerEvent serverEvent) {
+    private StoredServerEvent(final long sequence, final ServerEvent serverEvent) {
+      this.sequence = sequence;
       this.storeTime = System.currentTimeMillis();
       this.serverEvent = serverEvent;
     }
 
+    /**
+     * Gets the position of the server event into the ring buffer of the store.
+     * @return a sequence number, -1 if the server event is not stored into the ring buffer.
+     */
+    long getSequence() {
+      return sequence;
+    }
+
     /**
      * Gets the time of the storing of the server event.
      * @return a time as long (EPOCH time).
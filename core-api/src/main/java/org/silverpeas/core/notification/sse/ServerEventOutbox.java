@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.sse;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A bounded queue of the frames of server events waiting to be written to the network channel of
+ * a {@link SilverpeasServerEventContext}.
+ * <p>
+ * The frames are pushed without waiting for the client to read them, so that a slow client never
+ * blocks the dispatching of the server events. The frames are then written to the channel as far
+ * as it can accept them without blocking; the remaining ones are written once the channel is
+ * ready again.
+ * </p>
+ * <p>
+ * When the outbox is full, either the oldest frame is dropped or the frame is refused, in which
+ * case the context has to be closed.
+ * </p>
+ */
+final class ServerEventOutbox {
+
+  private final Deque<String> frames = new ArrayDeque<>();
+  private final int capacity;
+  private final boolean disconnectOnOverflow;
+  private boolean flushRequired = false;
+  private int maxDepth = 0;
+  private long nbDropped = 0;
+
+  /**
+   * Constructs an outbox.
+   * @param capacity the maximum number of frames waiting to be written.
+   * @param disconnectOnOverflow true to refuse a frame when the outbox is full, false to drop the
+   * oldest frame instead.
+   */
+  ServerEventOutbox(final int capacity, final boolean disconnectOnOverflow) {
+    this.capacity = Math.max(capacity, 1);
+    this.disconnectOnOverflow = disconnectOnOverflow;
+  }
+
+  /**
+   * Pushes the given frame into the outbox.
+   * @param frame the frame of a server event.
+   * @return true if the frame has been pushed, false if the outbox is full and the client has to
+   * be disconnected.
+   */
+  synchronized boolean offer(final String frame) {
+    if (frames.size() >= capacity) {
+      if (disconnectOnOverflow) {
+        return false;
+      }
+      frames.pollFirst();
+      nbDropped++;
+    }
+    frames.offerLast(frame);
+    maxDepth = Math.max(maxDepth, frames.size());
+    return true;
+  }
+
+  /**
+   * Writes the waiting frames to the given sink as long as it is ready to accept them without
+   * blocking.
+   * @param sink the sink of the frames.
+   * @throws IOException if the writing fails.
+   */
+  synchronized void drainTo(final FrameSink sink) throws IOException {
+    while (!frames.isEmpty() && sink.isReady()) {
+      sink.write(frames.pollFirst());
+      flushRequired = true;
+    }
+    if (flushRequired && sink.isReady()) {
+      flushRequired = false;
+      sink.flush();
+    }
+  }
+
+  /**
+   * Gets the number of frames waiting to be written.
+   * @return the current depth of the outbox.
+   */
+  synchronized int size() {
+    return frames.size();
+  }
+
+  /**
+   * Gets the highest number of frames which have been waiting at the same time.
+   * @return the maximum depth of the outbox.
+   */
+  synchronized int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Gets the number of frames dropped because the outbox was full.
+   * @return a number of frames.
+   */
+  synchronized long getNbDropped() {
+    return nbDropped;
+  }
+
+  /**
+   * The network channel to which the frames are written.
+   */
+  interface FrameSink {
+
+    /**
+     * Indicates if a frame can be written without blocking.
+     * @return true if ready, false otherwise.
+     */
+    boolean isReady();
+
+    /**
+     * Writes the given frame.
+     * @param frame the frame of a server event.
+     * @throws IOException if the writing fails.
+     */
+    void write(final String frame) throws IOException;
+
+    /**
+     * Flushes the written frames.
+     * @throws IOException if the flush fails.
+     */
+    default void flush() throws IOException {
+    }
+  }
+}
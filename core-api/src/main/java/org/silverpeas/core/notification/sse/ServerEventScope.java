@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.sse;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
+
+/**
+ * The scope of the receivers aimed by a {@link ServerEvent}.
+ * <p>
+ * It is used by the {@link SilverpeasServerEventContextManager} to select directly the
+ * {@link SilverpeasServerEventContext} instances to which an event has to be dispatched, without
+ * scanning all the registered ones. An event without a narrower scope is aimed at all the
+ * contexts.
+ * </p>
+ * <p>
+ * Whatever the scope, {@link ServerEvent#isConcerned(String, org.silverpeas.core.admin.user.model.User)}
+ * is always verified on each selected context before sending.
+ * </p>
+ */
+public final class ServerEventScope {
+
+  /**
+   * The different kinds of scope.
+   */
+  public enum Kind {
+    /**
+     * All the contexts are aimed.
+     */
+    ALL,
+    /**
+     * Only the contexts of a user are aimed.
+     */
+    USER,
+    /**
+     * Only the contexts of a session are aimed.
+     */
+    SESSION
+  }
+
+  private static final ServerEventScope ALL = new ServerEventScope(Kind.ALL, null);
+
+  private final Kind kind;
+  private final String id;
+
+  private ServerEventScope(final Kind kind, final String id) {
+    this.kind = kind;
+    this.id = id;
+  }
+
+  /**
+   * Gets the scope aiming all the contexts.
+   * @return a {@link ServerEventScope} instance.
+   */
+  public static ServerEventScope all() {
+    return ALL;
+  }
+
+  /**
+   * Gets the scope aiming the contexts of the given user.
+   * @param userId the identifier of a user.
+   * @return a {@link ServerEventScope} instance.
+   */
+  public static ServerEventScope user(final String userId) {
+    return new ServerEventScope(Kind.USER, userId);
+  }
+
+  /**
+   * Gets the scope aiming the contexts of the given session.
+   * @param sessionId the identifier of a session.
+   * @return a {@link ServerEventScope} instance.
+   */
+  public static ServerEventScope session(final String sessionId) {
+    return new ServerEventScope(Kind.SESSION, sessionId);
+  }
+
+  /**
+   * Gets the kind of the scope.
+   * @return a {@link Kind} value.
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Gets the identifier of the user or of the session aimed by the scope.
+   * @return an identifier as string, null if the scope is {@link Kind#ALL}.
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Indicates if the given context is aimed by this scope.
+   * @param context a {@link SilverpeasServerEventContext} instance.
+   * @return true if aimed, false otherwise.
+   */
+  public boolean aims(final SilverpeasServerEventContext context) {
+    switch (kind) {
+      case USER:
+        return id != null && context.getUser() != null && id.equals(context.getUser().getId());
+      case SESSION:
+        return id != null && id.equals(context.getSessionId());
+      default:
+        return true;
+    }
+  }
+
+  @Override
+  public String toString() {
+    ToStringBuilder tsb = new ToStringBuilder(this, SHORT_PREFIX_STYLE);
+    tsb.append("kind", kind);
+    if (id != null) {
+      tsb.append("id", id);
+    }
+    return tsb.toString();
+  }
+}
@@ -57,4 +57,9 @@ class SessionPreviousCheckServerEvent extends AbstractServerEvent implements Ign
   public boolean isConcerned(final String receiverSessionId, final User receiver) {
     return emitterSessionId.equals(receiverSessionId);
   }
+
+  @Override
+  public ServerEventScope getScope() {
+    return ServerEventScope.session(emitterSessionId);
+  }
 }
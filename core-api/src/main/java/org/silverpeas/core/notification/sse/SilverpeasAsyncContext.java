@@ -33,13 +33,17 @@ import javax.servlet.AsyncEvent;
 import javax.servlet.AsyncListener;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.PrintWriter;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static java.text.MessageFormat.format;
 import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
 import static org.silverpeas.core.notification.sse.ServerEventDispatcherTask.unregisterContext;
 
@@ -49,6 +53,10 @@ import static org.silverpeas.core.notification.sse.ServerEventDispatcherTask.unr
  *   All Server Event requests performed from a HTTP Server Sent Event WEB API MUST be wrapped by
  *   this implementation and registered by {@link SilverpeasServerEventContextManager}.
  * </p>
+ * <p>
+ *   The server events are written in the non-blocking mode of the servlet output stream: they
+ *   wait into the outbox of the context until the stream is ready to accept them.
+ * </p>
  * @author Yohann Chastagnier
  */
 public class SilverpeasAsyncContext extends AbstractServerEventContext<AsyncContext>
@@ -56,6 +64,8 @@ public class SilverpeasAsyncContext extends AbstractServerEventContext<AsyncCont
 
   private static final int CLIENT_RETRY = 5000;
 
+  private final Object sinkMutex = new Object();
+  private OutputSink outputSink = null;
   private boolean heartbeat = false;
   private boolean complete = false;
   private boolean timeout = false;
@@ -88,6 +98,11 @@ public class SilverpeasAsyncContext extends AbstractServerEventContext<AsyncCont
     final AsyncListener listener = context.createListener(SilverpeasAsyncListener.class)
         .init(silverLogger, context);
     context.addListener(listener);
+    try {
+      context.getFrameSink();
+    } catch (IOException e) {
+      throw new ServletException(e);
+    }
     return context;
   }
 
@@ -144,9 +159,25 @@ public class SilverpeasAsyncContext extends AbstractServerEventContext<AsyncCont
       }
     }
     sb.append("\n\n");
-    final PrintWriter writer = getResponse().getWriter();
-    writer.append(sb.toString());
-    writer.flush();
+    enqueue(sb.toString());
+  }
+
+  /**
+   * Gets the output stream of the response set in non-blocking mode. The first call sets the
+   * write listener which is draining the outbox each time the stream is ready again.
+   * @return a {@link ServerEventOutbox.FrameSink} instance.
+   * @throws IOException if the output stream cannot be got.
+   */
+  @Override
+  protected ServerEventOutbox.FrameSink getFrameSink() throws IOException {
+    synchronized (sinkMutex) {
+      if (outputSink == null) {
+        final ServletOutputStream output = getResponse().getOutputStream();
+        outputSink = new OutputSink(output);
+        output.setWriteListener(outputSink);
+      }
+      return outputSink;
+    }
   }
 
   /**
@@ -296,6 +327,45 @@ public class SilverpeasAsyncContext extends AbstractServerEventContext<AsyncCont
     return tsb.toString();
   }
 
+  /**
+   * The non-blocking output stream of the response, which is drained each time it is ready.
+   */
+  private class OutputSink implements ServerEventOutbox.FrameSink, WriteListener {
+    private final ServletOutputStream output;
+
+    private OutputSink(final ServletOutputStream output) {
+      this.output = output;
+    }
+
+    @Override
+    public boolean isReady() {
+      return output.isReady();
+    }
+
+    @Override
+    public void write(final String frame) throws IOException {
+      output.write(frame.getBytes(UTF_8));
+    }
+
+    @Override
+    public void flush() throws IOException {
+      output.flush();
+    }
+
+    @Override
+    public void onWritePossible() throws IOException {
+      drain();
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      SseLogger.get().debug(() -> format("Write error on {0}: {1}", SilverpeasAsyncContext.this,
+          t.getMessage()));
+      markAsErrorOccurred();
+      unregisterContext(SilverpeasAsyncContext.this);
+    }
+  }
+
   private static class SilverpeasAsyncListener implements AsyncListener {
     private SilverLogger silverLogger;
     private SilverpeasAsyncContext context;
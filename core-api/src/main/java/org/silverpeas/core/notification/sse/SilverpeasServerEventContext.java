@@ -107,6 +107,18 @@ public interface SilverpeasServerEventContext {
    */
   boolean sendEvent(String name, final long id, String data) throws IOException;
 
+  /**
+   * Gets the number of server events waiting to be written to the network channel of the
+   * context.
+   * <p>
+   *   By default, the server events are written directly, so none is waiting.
+   * </p>
+   * @return a number of server events.
+   */
+  default int getPendingEventCount() {
+    return 0;
+  }
+
   /**
    * Performs a check on the context and close it if a failure is detected.
    * <p>
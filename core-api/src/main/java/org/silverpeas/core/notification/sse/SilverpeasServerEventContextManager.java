@@ -27,6 +27,7 @@ package org.silverpeas.core.notification.sse;
 import org.silverpeas.core.util.ServiceProvider;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * This interface defines the management of {@link SilverpeasServerEventContext}.
@@ -65,4 +66,16 @@ public interface SilverpeasServerEventContextManager {
    * @return a list of {@link SilverpeasServerEventContext} instances.
    */
   List<SilverpeasServerEventContext> getContextSnapshot();
+
+  /**
+   * Gets safely a snapshot of the current registered contexts aimed by the given scope.
+   * <p>
+   * By default, the whole snapshot is filtered.
+   * </p>
+   * @param scope the scope of the aimed contexts.
+   * @return a list of {@link SilverpeasServerEventContext} instances.
+   */
+  default List<SilverpeasServerEventContext> getContextSnapshot(final ServerEventScope scope) {
+    return getContextSnapshot().stream().filter(scope::aims).collect(Collectors.toList());
+  }
 }
@@ -25,9 +25,11 @@ package org.silverpeas.core.notification.sse;
 
 import org.silverpeas.core.admin.user.model.User;
 
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 import java.io.IOException;
 
+import static java.text.MessageFormat.format;
 import static org.silverpeas.core.util.JSONCodec.encodeObject;
 
 /**
@@ -36,12 +38,18 @@ import static org.silverpeas.core.util.JSONCodec.encodeObject;
  *   All Server Event requests performed from a WebSocket MUST be wrapped by this implementation
  *   and registered by {@link SilverpeasServerEventContextManager}.
  * </p>
+ * <p>
+ *   The server events are sent asynchronously one after the other: they wait into the outbox of
+ *   the context until the sending of the previous one is completed.
+ * </p>
  * @author silveryocha
  */
 public class SilverpeasWebSocketContext extends AbstractServerEventContext<Session> {
 
   private final String requestURI;
+  private final ServerEventOutbox.FrameSink asyncSink = new AsyncSink();
   private boolean closed = false;
+  private volatile boolean sending = false;
 
   /**
    * Hidden constructor.
@@ -100,8 +108,47 @@ public class SilverpeasWebSocketContext extends AbstractServerEventContext<Sessi
   @Override
   public void performEventSend(final String name, final long id, final String data)
       throws IOException {
-    getWrappedInstance().getAsyncRemote()
-        .sendObject(encodeObject(o -> o.put("name", name).put("id", id).put("data", data)));
+    enqueue(encodeObject(o -> o.put("name", name).put("id", id).put("data", data)));
+  }
+
+  @Override
+  protected ServerEventOutbox.FrameSink getFrameSink() {
+    return asyncSink;
+  }
+
+  private void onSendResult(final SendResult result) {
+    sending = false;
+    if (result.isOK()) {
+      try {
+        drain();
+      } catch (IOException e) {
+        SseLogger.get().error(e);
+        close();
+      }
+    } else {
+      SseLogger.get().debug(() -> format("Send error on {0}: {1}", this,
+          result.getException() != null ? result.getException().getMessage() : null));
+      close();
+    }
+  }
+
+  /**
+   * The asynchronous remote endpoint of the session, which accepts a new frame once the sending
+   * of the previous one is completed.
+   */
+  private class AsyncSink implements ServerEventOutbox.FrameSink {
+
+    @Override
+    public boolean isReady() {
+      return !sending;
+    }
+
+    @Override
+    public void write(final String frame) {
+      sending = true;
+      getWrappedInstance().getAsyncRemote()
+          .sendText(frame, SilverpeasWebSocketContext.this::onSendResult);
+    }
   }
 
   @Override
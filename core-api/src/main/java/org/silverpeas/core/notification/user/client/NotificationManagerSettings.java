@@ -51,6 +51,8 @@ public class NotificationManagerSettings {
   private static final int DEFAULT_SSE_JOB_TRIGGER = 45;
   private static final int DEFAULT_SSE_ASYNC_TIMEOUT = 180;
   private static final int DEFAULT_SSE_STORE_EVENT_LIFETIME = 40;
+  private static final int DEFAULT_SSE_STORE_CAPACITY = 10000;
+  private static final int DEFAULT_SSE_OUTBOX_CAPACITY = 1000;
   private static final int MS = 1000;
   static final SettingBundle DEFAULT_SETTINGS = ResourceLocator.getSettingBundle(
       "org.silverpeas.notificationManager.settings.notificationManagerSettings");
@@ -257,6 +259,32 @@ public class NotificationManagerSettings {
         .getInteger("notification.sse.store.event.lifetime", DEFAULT_SSE_STORE_EVENT_LIFETIME) * MS;
   }
 
+  /**
+   * Gets the maximum number of events stored into memory of SSE communication. Beyond it, the
+   * oldest events are removed from the store even if their lifetime is not over.
+   * @return the capacity of the store of events.
+   */
+  public static int getSseStoreCapacity() {
+    return getSettings().getInteger("notification.sse.store.capacity", DEFAULT_SSE_STORE_CAPACITY);
+  }
+
+  /**
+   * Gets the maximum number of events waiting to be written to a client of SSE communication.
+   * @return the capacity of the outbox of a client.
+   */
+  public static int getSseOutboxCapacity() {
+    return getSettings().getInteger("notification.sse.outbox.capacity", DEFAULT_SSE_OUTBOX_CAPACITY);
+  }
+
+  /**
+   * Indicates if a client of SSE communication is disconnected when its outbox is full. Otherwise,
+   * the oldest waiting event is dropped.
+   * @return true to disconnect the slow clients, false to drop their oldest events.
+   */
+  public static boolean isSseOutboxDisconnectOnOverflow() {
+    return getSettings().getBoolean("notification.sse.outbox.disconnectOnOverflow", false);
+  }
+
 
   /**
    * Indicates if the server event feature is enabled.
@@ -340,6 +368,59 @@ public class NotificationManagerSettings {
     return getSettings().getBoolean("notification.source.componentLabel");
   }
 
+  /**
+   * Gets the number of users whose delayed notifications are processed together when sending the
+   * digests of delayed notifications.
+   * @return the size of a chunk of users, at least 1.
+   */
+  public static int getDelayedNotificationChunkSize() {
+    return Math.max(1, getSettings().getInteger("notification.delayed.chunk.size", 500));
+  }
+
+  /**
+   * Gets the number of threads used to build the digests of delayed notifications of a chunk of
+   * users.
+   * @return the number of threads, at least 1.
+   */
+  public static int getDelayedNotificationRenderingThreads() {
+    return Math.max(1, getSettings().getInteger("notification.delayed.rendering.threads", 4));
+  }
+
+  /**
+   * Gets the maximum number of recipients of a same notification that are carried by one single
+   * message to the notification server. The notifications sharing the same channel and the same
+   * content are then sent as a batch instead of one message per recipient.
+   * @return the maximum size of a batch of notifications. 1 or less means no batching.
+   */
+  public static int getNotificationServerBatchSize() {
+    return getSettings().getInteger("notification.server.batch.size", 100);
+  }
+
+  /**
+   * Gets the delay between two reconciliations of the in-memory counters of the unread messages of
+   * the users with the persistence.
+   * @return the delay in minutes. 0 or less means no periodic reconciliation.
+   */
+  public static int getUnreadMessageCountersReconciliationDelay() {
+    return getSettings().getInteger("notification.unread.counters.reconciliation.delay", 30);
+  }
+
+  /**
+   * Gets the cron of the job in charge of purging the old read SILVERMAIL messages.
+   * @return cron as string, empty to deactivate the job.
+   */
+  public static String getSilvermailRetentionCron() {
+    return getSettings().getString("notification.silvermail.retention.cron", "");
+  }
+
+  /**
+   * Gets the age in days from which the read SILVERMAIL messages are purged.
+   * @return the age in days. 0 or less means the read messages are never purged.
+   */
+  public static int getSilvermailRetentionDays() {
+    return getSettings().getInteger("notification.silvermail.retention.days", 0);
+  }
+
   /**
    * Setter dedicated to tests.
    * @param newSettings the settings to use instead of the default one.
@@ -51,6 +51,9 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 @NamedQuery(name = "DelayedNotificationData.findByUserId",
     query = "select d from DelayedNotificationData d where d.userId = :userId " +
         "and d.channel in (:channels) order by d.channel")
+@NamedQuery(name = "DelayedNotificationData.findByUserIds",
+    query = "select d from DelayedNotificationData d join fetch d.resource " +
+        "where d.userId in (:userIds) and d.channel in (:channels) order by d.userId, d.channel")
 @NamedQuery(name = "DelayedNotificationData.deleteByIds",
     query = "delete from DelayedNotificationData d where d.id in (:ids)")
 public class DelayedNotificationData
@@ -87,7 +87,6 @@ public class Transaction {
    * @see javax.transaction.Status
    * @return the current transaction's status.
    */
-  @SuppressWarnings("unused")
   public static int getTransactionStatus() {
     return getTransaction().getStatus();
   }
@@ -24,12 +24,22 @@
 package org.silverpeas.core.persistence.jdbc;
 
 import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.core.util.Process;
+import org.silverpeas.kernel.SilverpeasRuntimeException;
 import org.silverpeas.kernel.annotation.Technical;
 import org.silverpeas.core.util.ServiceProvider;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.logging.SilverLogger;
+import org.silverpeas.kernel.util.StringUtil;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import javax.inject.Singleton;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
 import javax.sql.DataSource;
+import javax.transaction.Status;
 import java.sql.Connection;
 import java.sql.SQLException;
 
@@ -39,15 +49,80 @@ import java.sql.SQLException;
  * <p>
  * Currently, it wraps the connection pool spawned by the JEE application server for the data
  * source used by Silverpeas.
+ * </p>
+ * <p>
+ * Optionally, a secondary read-only data source (a replica of the primary one) can be defined
+ * with the JNDI name set in the {@code jdbc.readOnly.dataSource} general setting. In this case,
+ * the connections asked for read-only operations with {@link #getReadOnlyConnection()} are taken
+ * from this secondary data source, unless a transaction is running in the current thread or the
+ * read-your-writes consistency is explicitly required with
+ * {@link #readYourWrites(Process)}. Without any secondary data source, all the connections are
+ * taken from the primary one.
+ * </p>
  */
 @Technical
 @Bean
 @Singleton
 public class ConnectionPool {
 
+  /**
+   * The key of the database product when it cannot be resolved from the data source.
+   */
+  public static final String DEFAULT_DATABASE_PRODUCT_KEY = "default";
+  private static final ThreadLocal<Integer> readYourWritesScopes = ThreadLocal.withInitial(() -> 0);
+
   @Resource(mappedName = "java:/datasources/silverpeas")
   private DataSource dataSource;
 
+  private DataSource readOnlyDataSource;
+
+  private String databaseProductKey = DEFAULT_DATABASE_PRODUCT_KEY;
+
+  @PostConstruct
+  protected void init() {
+    lookupReadOnlyDataSource();
+    resolveDatabaseProduct();
+  }
+
+  private void lookupReadOnlyDataSource() {
+    final String jndiName = ResourceLocator.getGeneralSettingBundle()
+        .getString("jdbc.readOnly.dataSource", "");
+    if (StringUtil.isDefined(jndiName)) {
+      try {
+        readOnlyDataSource = InitialContext.doLookup(jndiName);
+      } catch (NamingException e) {
+        SilverLogger.getLogger(this)
+            .error("The read-only data source " + jndiName +
+                " isn't found. All the connections are taken from the primary data source", e);
+      }
+    }
+  }
+
+  private void resolveDatabaseProduct() {
+    try (Connection connection = dataSource.getConnection()) {
+      databaseProductKey = connection.getMetaData()
+          .getDatabaseProductName()
+          .toLowerCase()
+          .replaceAll("[^a-z0-9]", "");
+    } catch (SQLException | RuntimeException e) {
+      SilverLogger.getLogger(this)
+          .warn("The database product cannot be resolved from the data source: {0}",
+              e.getMessage());
+    }
+  }
+
+  /**
+   * Gets the key of the product of the database behind the Silverpeas data source. It is the
+   * lower-cased name of the database product without any non-alphanumeric character
+   * ({@code postgresql}, {@code oracle}, {@code microsoftsqlserver}, {@code h2}, ...). The key
+   * is resolved once from the metadata of the data source; if it cannot be resolved,
+   * {@link #DEFAULT_DATABASE_PRODUCT_KEY} is returned.
+   * @return the key of the database product.
+   */
+  public static String getDatabaseProductKey() {
+    return ServiceProvider.getService(ConnectionPool.class).databaseProductKey;
+  }
+
   /**
    * Return a connection from the Silverpeas data source.
    * @return a connection from the Silverpeas data source.
@@ -58,6 +133,44 @@ public class ConnectionPool {
     return connectionPool.getDataSourceConnection();
   }
 
+  /**
+   * Return a connection dedicated to read-only operations. The connection is taken from the
+   * secondary read-only data source if any and if neither a transaction is running in the current
+   * thread nor the read-your-writes consistency is required. Otherwise, the connection is taken
+   * from the primary Silverpeas data source.
+   * @return a connection to perform read-only operations.
+   * @throws java.sql.SQLException if an error occurs while getting an available connection.
+   */
+  public static Connection getReadOnlyConnection() throws SQLException {
+    ConnectionPool connectionPool = ServiceProvider.getService(ConnectionPool.class);
+    return connectionPool.getReadOnlyDataSourceConnection();
+  }
+
+  /**
+   * Executes the given process with the guarantee that all the reads performed within it are
+   * done against the primary data source, so that they see the writes committed just before.
+   * @param process the process to execute.
+   * @param <V> the type of the result of the process.
+   * @return the result of the process.
+   */
+  public static <V> V readYourWrites(final Process<V> process) {
+    readYourWritesScopes.set(readYourWritesScopes.get() + 1);
+    try {
+      return process.execute();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new SilverpeasRuntimeException(e);
+    } finally {
+      final int scopes = readYourWritesScopes.get() - 1;
+      if (scopes > 0) {
+        readYourWritesScopes.set(scopes);
+      } else {
+        readYourWritesScopes.remove();
+      }
+    }
+  }
+
   /**
    * Return a connection from the Silverpeas data source.
    * @return a connection from the Silverpeas data source.
@@ -67,6 +180,24 @@ public class ConnectionPool {
     return dataSource.getConnection();
   }
 
+  /**
+   * Return a connection dedicated to read-only operations.
+   * @return a connection to perform read-only operations.
+   * @throws java.sql.SQLException if an error occurs while getting an available connection.
+   * @see #getReadOnlyConnection()
+   */
+  public Connection getReadOnlyDataSourceConnection() throws SQLException {
+    if (readOnlyDataSource == null || isPrimaryDataSourceRequired()) {
+      return getDataSourceConnection();
+    }
+    return readOnlyDataSource.getConnection();
+  }
+
+  private static boolean isPrimaryDataSourceRequired() {
+    return readYourWritesScopes.get() > 0 ||
+        Transaction.getTransactionStatus() != Status.STATUS_NO_TRANSACTION;
+  }
+
   protected ConnectionPool() {
   }
-}
\ No newline at end of file
+}
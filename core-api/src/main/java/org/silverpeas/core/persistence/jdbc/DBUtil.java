@@ -125,17 +125,40 @@ public class DBUtil {
    */
   @SuppressWarnings({"ThrowableResultOfMethodCallIgnored"})
   public static int getNextId(final String identifierName, final String tableFieldIdentifierName) {
+    return getNextIds(identifierName, tableFieldIdentifierName, 1);
+  }
+
+  /**
+   * Reserves a range of consecutive new unique identifier values referenced by a name. The
+   * reservation is performed with only one update of the uniqueId table whatever the number of
+   * identifiers, which is useful to insert several rows at once.
+   * @param identifierName a name of an identifier can be the name of an existing table or a name
+   * that does not correspond to something into persistence, but the caller needs to handle
+   * unique identifiers for a resource.
+   * @param tableFieldIdentifierName the field name of the table name represented by
+   * identifierName parameter that permits to initialize the first value of unique identifier for
+   * the table in case of it is not yet referenced into the uniqueId table. If this value is not
+   * defined, the identifierName parameter is not considered as a table name.
+   * @param count the number of identifiers to reserve. It must be strictly positive.
+   * @return the first identifier of the range. The reserved identifiers are the ones from this
+   * value to this value + count - 1.
+   */
+  public static int getNextIds(final String identifierName, final String tableFieldIdentifierName,
+      final int count) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("The number of identifiers must be strictly positive");
+    }
     final String identifierNameLowerCase = identifierName.toLowerCase(Locale.ROOT);
     for (int nbAttempts = 0; nbAttempts < MAX_NB_ATTEMPT; nbAttempts++) {
       synchronized (MUTEX) {
         // Getting the next unique identifier value from uniqueId table
-        Integer nextUniqueMaxId = nextUniqueIdentifierValue(identifierNameLowerCase);
+        Integer nextUniqueMaxId = nextUniqueIdentifierValue(identifierNameLowerCase, count);
         if (nextUniqueMaxId == null) {
           // The identifier is not yet registered into uniqueId table
           registeringIdentifierName(identifierNameLowerCase, tableFieldIdentifierName);
         } else if (nextUniqueMaxId != -1) {
           // The next identifier value has been well computed
-          return nextUniqueMaxId;
+          return nextUniqueMaxId - count + 1;
         }
       }
     }
@@ -148,12 +171,13 @@ public class DBUtil {
    * Updates and returns the next identifier value for given table name.
    * @param identifierNameLowerCase the name of identifier for which the next unique identifier
    * must be computed.
-   * @return the next unique identifier if the identifier name is already registered into uniqueId
+   * @param count the number of identifiers to reserve.
+   * @return the next unique identifier (the last one of the reserved range) if the identifier name is already registered into uniqueId
    * table, -1 if identifier name is already registered into uniqueId table but a concurrent server
    * process has just performed an update too (so caller has just to retry to call the method),
    * null if the identifier name is not yet registered into uniqueId table.
    */
-  private static Integer nextUniqueIdentifierValue(String identifierNameLowerCase) {
+  private static Integer nextUniqueIdentifierValue(String identifierNameLowerCase, int count) {
 
     return Transaction.performInNew(() -> {
 
@@ -173,7 +197,7 @@ public class DBUtil {
 
         // If the current identifier value exists, then computing the next one
         if (currentUniqueValue != null) {
-          final int nextUniqueValue = (currentUniqueValue + 1);
+          final int nextUniqueValue = (currentUniqueValue + count);
           // MaxId data is part of the SQL update query clause in order to avoid to perform an
           // update whereas another server process has updated the value for the same identifier
           // name (so a typical concurrency case)
@@ -25,21 +25,43 @@ package org.silverpeas.core.persistence.jdbc;
 
 import org.silverpeas.kernel.SilverpeasRuntimeException;
 import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.persistence.jdbc.sql.ResultSetWrapper;
+import org.silverpeas.core.util.CollectionUtil;
+import org.silverpeas.kernel.bundle.ResourceLocator;
 import org.silverpeas.kernel.util.Mutable;
 
+import java.io.StringReader;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.silverpeas.core.persistence.jdbc.DBUtil.openConnection;
 
+/**
+ * Storage of texts whose the length can exceed the maximum size of a VARCHAR column.
+ * <p>
+ * By default, a text is stored into a single row of the {@code ST_LongText} table: the text
+ * itself is stored into the {@code longContent} CLOB/TEXT column whereas its first part (the
+ * 1,998 first characters) is kept into the {@code bodyContent} column. A text that is short
+ * enough is stored directly into the {@code bodyContent} column.
+ * </p>
+ * <p>
+ * The texts stored before the introduction of the {@code longContent} column, or when the
+ * {@code jdbc.longText.singleRow} general setting is set to false, are split into parts of
+ * 1,998 characters, each of them stored into a row of the table in their {@code bodyContent}
+ * column. Both storages are read transparently.
+ * </p>
+ */
 public class LongText {
   private static final int PART_SIZE_MAX = 1998;
   private static final String INSERT_LONG_TEXT =
       "insert into ST_LongText (id, orderNum, bodyContent) values (?, ?, ?)";
+  private static final String INSERT_SINGLE_ROW_LONG_TEXT =
+      "insert into ST_LongText (id, orderNum, bodyContent, longContent) values (?, 0, ?, ?)";
 
   /**
    * Hidden constructor.
@@ -49,47 +71,100 @@ public class LongText {
 
   public static int addLongText(String theText) throws SQLException {
     int theId = DBUtil.getNextId("ST_LongText", "id");
-    int orderNum = 0;
+    try (Connection connection = openConnection()) {
+      if (theText == null || theText.length() <= PART_SIZE_MAX) {
+        insertParts(connection, theId, theText == null ? "" : theText);
+      } else if (isSingleRowStorage()) {
+        insertSingleRow(connection, theId, theText);
+      } else {
+        insertParts(connection, theId, theText);
+      }
+    }
+    return theId;
+  }
 
+  /**
+   * Adds at once the given texts. The identifiers of the texts are reserved with only one
+   * request and the texts short enough to be stored into a single part are inserted with one
+   * batch of statements.
+   * @param texts the texts to add.
+   * @return the identifiers of the added texts, in the same order than the given texts.
+   * @throws SQLException if the adding fails.
+   */
+  public static int[] addLongTexts(List<String> texts) throws SQLException {
+    final int[] ids = new int[texts.size()];
+    if (texts.isEmpty()) {
+      return ids;
+    }
+    final int firstId = DBUtil.getNextIds("ST_LongText", "id", texts.size());
     try (Connection connection = openConnection();
-         PreparedStatement stmt = connection.prepareStatement(INSERT_LONG_TEXT)) {
-      if ((theText == null) || (theText.length() <= 0)) {
+         PreparedStatement shortTexts = connection.prepareStatement(INSERT_LONG_TEXT)) {
+      boolean batched = false;
+      for (int i = 0; i < ids.length; i++) {
+        final String theText = texts.get(i) == null ? "" : texts.get(i);
+        ids[i] = firstId + i;
+        if (theText.length() <= PART_SIZE_MAX) {
+          shortTexts.setInt(1, ids[i]);
+          shortTexts.setInt(2, 0);
+          shortTexts.setString(3, theText);
+          shortTexts.addBatch();
+          batched = true;
+        } else if (isSingleRowStorage()) {
+          insertSingleRow(connection, ids[i], theText);
+        } else {
+          insertParts(connection, ids[i], theText);
+        }
+      }
+      if (batched) {
+        shortTexts.executeBatch();
+      }
+    }
+    return ids;
+  }
+
+  private static void insertSingleRow(final Connection connection, final int theId,
+      final String theText) throws SQLException {
+    try (PreparedStatement stmt = connection.prepareStatement(INSERT_SINGLE_ROW_LONG_TEXT)) {
+      int i = 1;
+      stmt.setInt(i++, theId);
+      stmt.setString(i++, theText.substring(0, PART_SIZE_MAX));
+      stmt.setCharacterStream(i, new StringReader(theText), theText.length());
+      stmt.executeUpdate();
+    }
+  }
+
+  private static void insertParts(final Connection connection, final int theId,
+      final String theText) throws SQLException {
+    try (PreparedStatement stmt = connection.prepareStatement(INSERT_LONG_TEXT)) {
+      int orderNum = 0;
+      do {
+        final int partEnd = Math.min((orderNum + 1) * PART_SIZE_MAX, theText.length());
         int i = 1;
         stmt.setInt(i++, theId);
         stmt.setInt(i++, orderNum);
-        stmt.setString(i, "");
-        stmt.executeUpdate();
-      } else {
-        while (orderNum * PART_SIZE_MAX < theText.length()) {
-          final String partText;
-          if ((orderNum + 1) * PART_SIZE_MAX < theText.length()) {
-            partText = theText.substring(orderNum * PART_SIZE_MAX, (orderNum + 1) * PART_SIZE_MAX);
-          } else {
-            partText = theText.substring(orderNum * PART_SIZE_MAX);
-          }
-          int i = 1;
-          stmt.setInt(i++, theId);
-          stmt.setInt(i++, orderNum);
-          stmt.setString(i, partText);
-          stmt.executeUpdate();
-          orderNum++;
-        }
-      }
+        stmt.setString(i, theText.substring(orderNum * PART_SIZE_MAX, partEnd));
+        stmt.addBatch();
+        orderNum++;
+      } while (orderNum * PART_SIZE_MAX < theText.length());
+      stmt.executeBatch();
     }
-    return theId;
+  }
+
+  private static boolean isSingleRowStorage() {
+    return ResourceLocator.getGeneralSettingBundle().getBoolean("jdbc.longText.singleRow", true);
   }
 
   public static String getLongText(int longTextId) {
     try {
-      final StringBuilder content = new StringBuilder();
-      JdbcSqlQuery.select("bodyContent from ST_LongText")
+      final TextAssembler content = new TextAssembler();
+      JdbcSqlQuery.select("bodyContent, longContent from ST_LongText")
           .where("id = ?", longTextId)
           .addSqlPart("order by orderNum")
           .executeUnique(row -> {
-            content.append(row.getString(1));
+            content.add(row, 1);
             return null;
           });
-      return content.toString();
+      return content.getText();
     } catch (Exception e) {
       throw new SilverpeasRuntimeException(e);
     }
@@ -105,28 +180,69 @@ public class LongText {
       final int idIndex = 1;
       final int contentIndex = idIndex + 1;
       final Mutable<Integer> previousId = Mutable.empty();
-      final StringBuilder content = new StringBuilder();
+      final TextAssembler content = new TextAssembler();
       final Map<Integer, String> result = new HashMap<>();
-      JdbcSqlQuery.select("id, bodyContent from ST_LongText")
+      JdbcSqlQuery.select("id, bodyContent, longContent from ST_LongText")
           .where("id").in(longTextIds)
           .addSqlPart("order by id, orderNum")
           .execute(row -> {
             final int id = row.getInt(idIndex);
             previousId.filter(i-> i != id).ifPresent(i -> {
-              result.put(i, content.toString());
-              content.setLength(0);
+              result.put(i, content.getText());
+              content.reset();
             });
             previousId.set(id);
-            content.append(row.getString(contentIndex));
+            content.add(row, contentIndex);
             return null;
           });
-      previousId.ifPresent(i -> result.put(i, content.toString()));
+      previousId.ifPresent(i -> result.put(i, content.getText()));
       return result;
     } catch (Exception e) {
       throw new SilverpeasRuntimeException(e);
     }
   }
 
+  /**
+   * Assembles a long text from its rows read in the order of their number. The whole text is in
+   * the longContent column of a row when it is stored into a single row or when it was converted
+   * by the migration; from such a row, the text is taken as is and the parts that can remain of
+   * the legacy storage, as after an interrupted migration, are ignored.
+   */
+  private static class TextAssembler {
+    private final StringBuilder content = new StringBuilder();
+    private boolean complete = false;
+
+    /**
+     * Adds the content of the current row to the text.
+     * @param row the current row.
+     * @param bodyContentIndex the index of the bodyContent column, the longContent column being
+     * expected just after it.
+     * @throws SQLException on SQL error.
+     */
+    void add(final ResultSetWrapper row, final int bodyContentIndex) throws SQLException {
+      if (complete) {
+        return;
+      }
+      final String longContent = row.getString(bodyContentIndex + 1);
+      if (longContent != null) {
+        content.setLength(0);
+        content.append(longContent);
+        complete = true;
+      } else {
+        content.append(row.getString(bodyContentIndex));
+      }
+    }
+
+    String getText() {
+      return content.toString();
+    }
+
+    void reset() {
+      content.setLength(0);
+      complete = false;
+    }
+  }
+
   public static void removeLongText(int longTextId) {
     try {
       JdbcSqlQuery.deleteFrom("ST_LongText").where("id = ?", longTextId).execute();
@@ -134,4 +250,19 @@ public class LongText {
       throw new SilverpeasRuntimeException(e);
     }
   }
+
+  /**
+   * Removes at once the given texts. A delete statement is performed per slice of identifiers in
+   * order to respect the limitations of the databases about the in clause.
+   * @param longTextIds the identifiers of the texts to remove.
+   */
+  public static void removeLongTexts(Collection<Integer> longTextIds) {
+    try {
+      for (Collection<Integer> idBatch : CollectionUtil.split(longTextIds)) {
+        JdbcSqlQuery.deleteFrom("ST_LongText").where("id").in(idBatch).execute();
+      }
+    } catch (Exception e) {
+      throw new SilverpeasRuntimeException(e);
+    }
+  }
 }
@@ -42,6 +42,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Yohann Chastagnier
@@ -53,17 +55,21 @@ import java.util.List;
 class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
 
   private static final String SQL_REQUEST = ". SQL request: ";
+  private static final int DEFAULT_STREAM_FETCH_SIZE = 500;
 
   @Inject
   private SqlStatementParameterSetter sqlParamSetter;
 
+  @Inject
+  private JdbcSqlStatistics statistics;
+
   protected DefaultJdbcSqlExecutor() {
     // Hidden constructor
   }
 
   @Override
   public long selectCount(JdbcSqlQuery selectCountQueryBuilder) throws SQLException {
-    try (Connection con = ConnectionPool.getConnection()) {
+    try (Connection con = getReadOnlyConnection(selectCountQueryBuilder)) {
       return selectCount(con, selectCountQueryBuilder);
     }
   }
@@ -73,12 +79,15 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
       throws SQLException {
     try (PreparedStatement st = con.prepareStatement(selectCountQueryBuilder.getSqlQuery())) {
       setParameters(st, selectCountQueryBuilder.getParameters());
+      final long start = System.nanoTime();
       try (ResultSet rs = st.executeQuery()) {
         rs.next();
         long count = rs.getLong(1);
         if (rs.next()) {
           throw new IllegalArgumentException("select count execution error");
         }
+        statistics.record(selectCountQueryBuilder.getSqlQuery(),
+            selectCountQueryBuilder.getParameters(), System.nanoTime() - start, 1);
         return count;
       } catch (SQLException e) {
         SilverLogger.getLogger(this)
@@ -91,7 +100,7 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
   @Override
   public <R> ListSlice<R> select(JdbcSqlQuery selectQuery, SelectResultRowProcess<R> process)
       throws SQLException {
-    try (Connection con = ConnectionPool.getConnection()) {
+    try (Connection con = getReadOnlyConnection(selectQuery)) {
       return select(con, selectQuery, process);
     }
   }
@@ -127,8 +136,13 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
         }
       }
       setParameters(st, selectQuery.getParameters());
+      final long start = System.nanoTime();
       try (ResultSet rs = st.executeQuery()) {
-        return fetchEntities(rs, process, queryConf, countOverPaginationMethod);
+        final ListSlice<R> entities =
+            fetchEntities(rs, process, queryConf, countOverPaginationMethod);
+        statistics.record(sqlQuery, selectQuery.getParameters(), System.nanoTime() - start,
+            entities.size());
+        return entities;
       } catch (SQLException e) {
         SilverLogger.getLogger(this).debug(e.getMessage() + SQL_REQUEST + sqlQuery);
         throw e;
@@ -136,6 +150,72 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
     }
   }
 
+  @Override
+  public <R> Stream<R> stream(final JdbcSqlQuery selectQuery,
+      final SelectResultRowProcess<R> process) throws SQLException {
+    final Connection con = getReadOnlyConnection(selectQuery);
+    try {
+      // some JDBC drivers (PostgreSQL for example) fetch the rows by blocks only when the
+      // connection isn't in auto-commit mode. Out of any transaction, the auto-commit mode is
+      // then disabled for the stream lifetime.
+      final boolean autoCommit = con.getAutoCommit();
+      if (autoCommit) {
+        con.setAutoCommit(false);
+      }
+      return stream(con, selectQuery, process).onClose(() -> {
+        try {
+          if (autoCommit) {
+            con.setAutoCommit(true);
+          }
+        } catch (SQLException e) {
+          SilverLogger.getLogger(this).warn(e);
+        } finally {
+          close(con);
+        }
+      });
+    } catch (SQLException | RuntimeException e) {
+      close(con);
+      throw e;
+    }
+  }
+
+  @Override
+  public <R> Stream<R> stream(final Connection con, final JdbcSqlQuery selectQuery,
+      final SelectResultRowProcess<R> process) throws SQLException {
+    final JdbcSqlQuery.Configuration queryConf = selectQuery.getConfiguration();
+    final String sqlQuery = selectQuery.getSqlQuery();
+    final PreparedStatement st =
+        con.prepareStatement(sqlQuery, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    ResultSet rs = null;
+    try {
+      st.setFetchSize(getStreamFetchSize(queryConf));
+      if (queryConf.isResultCountLimited()) {
+        st.setMaxRows(queryConf.getOffset() + queryConf.getResultLimit());
+      }
+      setParameters(st, selectQuery.getParameters());
+      final long start = System.nanoTime();
+      rs = st.executeQuery();
+      final long duration = System.nanoTime() - start;
+      final ResultSet streamedRs = rs;
+      final ResultSetSpliterator<R> spliterator =
+          new ResultSetSpliterator<>(rs, process, queryConf);
+      return StreamSupport.stream(spliterator, false)
+          .onClose(() -> {
+            // only the execution of the query is timed as the consumption of the stream depends
+            // on the caller
+            statistics.record(sqlQuery, selectQuery.getParameters(), duration,
+                spliterator.getFetchedEntityCount());
+            close(streamedRs);
+            close(st);
+          });
+    } catch (SQLException | RuntimeException e) {
+      SilverLogger.getLogger(this).debug(e.getMessage() + SQL_REQUEST + sqlQuery);
+      close(rs);
+      close(st);
+      throw e;
+    }
+  }
+
   @Transactional(Transactional.TxType.MANDATORY)
   @Override
   public long executeModify(final JdbcSqlQuery... modifySqlQueries) throws SQLException {
@@ -166,7 +246,11 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
       modifyQuery.finalizeBeforeExecution();
       try (PreparedStatement prepStmt = con.prepareStatement(modifyQuery.getSqlQuery())) {
         setParameters(prepStmt, modifyQuery.getParameters());
-        nbUpdate += prepStmt.executeUpdate();
+        final long start = System.nanoTime();
+        final int nbModifiedRows = prepStmt.executeUpdate();
+        statistics.record(modifyQuery.getSqlQuery(), modifyQuery.getParameters(),
+            System.nanoTime() - start, nbModifiedRows);
+        nbUpdate += nbModifiedRows;
       } catch (SQLException e) {
         SilverLogger.getLogger(this)
             .debug(e.getMessage() + SQL_REQUEST + modifyQuery.getSqlQuery());
@@ -238,6 +322,40 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
     }
   }
 
+  /**
+   * Gets a connection to perform the specified select query. Unless the query is explicitly
+   * configured to read from the primary data source, the connection can be taken from the
+   * read-only data source (see {@link ConnectionPool#getReadOnlyConnection()}).
+   * @param selectQuery a select SQL query.
+   * @return a connection.
+   * @throws SQLException if an error occurs while getting an available connection.
+   */
+  private static Connection getReadOnlyConnection(final JdbcSqlQuery selectQuery)
+      throws SQLException {
+    if (selectQuery.getConfiguration().isReadFromPrimary()) {
+      return ConnectionPool.getConnection();
+    }
+    return ConnectionPool.getReadOnlyConnection();
+  }
+
+  private static int getStreamFetchSize(final JdbcSqlQuery.Configuration queryConf) {
+    if (queryConf.getFetchSize() > 0) {
+      return queryConf.getFetchSize();
+    }
+    return ResourceLocator.getGeneralSettingBundle()
+        .getInteger("jdbc.stream.fetchSize", DEFAULT_STREAM_FETCH_SIZE);
+  }
+
+  private void close(final AutoCloseable resource) {
+    if (resource != null) {
+      try {
+        resource.close();
+      } catch (Exception e) {
+        SilverLogger.getLogger(this).warn(e);
+      }
+    }
+  }
+
   private boolean isCountOverPaginationMethod(final JdbcSqlQuery.Configuration queryConf) {
     return queryConf.isResultCountLimited() && queryConf.isNeedRealOriginalSize() &&
         isCountOverPaginationMethod();
@@ -28,6 +28,7 @@ import org.silverpeas.core.util.ListSlice;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implementations of this interface must permit to execute SQL queries into processes
@@ -84,6 +85,43 @@ interface JdbcSqlExecutor {
   <R> ListSlice<R> select(Connection connection, JdbcSqlQuery selectQuery,
       SelectResultRowProcess<R> process) throws SQLException;
 
+  /**
+   * Executes the specified query that selects entities in the data source and streams them as
+   * they are read from the data source. Unlike the {@link #select(JdbcSqlQuery,
+   * SelectResultRowProcess)} method, the entities aren't all loaded into memory: the rows are
+   * fetched by blocks, with a forward-only and read-only cursor, while the stream is consumed.
+   * <p>
+   * A connection is opened for the stream lifetime. So, the returned stream MUST be closed
+   * (with a try-with-resources statement for example) in order to release the underlying JDBC
+   * resources.
+   * </p>
+   * @param <R> The type of the items in the stream.
+   * @param selectQuery the SQL query to select some entities.
+   * @param process the processor of result rows.
+   * @return a stream on the entities in the data source. If the offset and limit properties are
+   * set in the configuration of the specified query, then the stream provides only the entities
+   * matching the requested slice.
+   * @throws java.sql.SQLException on SQL error.
+   */
+  <R> Stream<R> stream(JdbcSqlQuery selectQuery, SelectResultRowProcess<R> process)
+      throws SQLException;
+
+  /**
+   * Executes the specified query that selects entities in the data source by using the given
+   * connection and streams them as they are read from the data source. The returned stream MUST
+   * be closed in order to release the underlying JDBC resources, but the given connection isn't
+   * closed with it.
+   * @param <R> The type of the items in the stream.
+   * @param connection an existing connection to the data source.
+   * @param selectQuery the SQL query to select some entities.
+   * @param process the processor of result rows.
+   * @return a stream on the entities in the data source.
+   * @throws java.sql.SQLException on SQL error.
+   * @see #stream(JdbcSqlQuery, SelectResultRowProcess)
+   */
+  <R> Stream<R> stream(Connection connection, JdbcSqlQuery selectQuery,
+      SelectResultRowProcess<R> process) throws SQLException;
+
   /**
    * Modify query executor.
    * @param modifySqlQueries the list of SQL query to execute. An SQL query is represented by a
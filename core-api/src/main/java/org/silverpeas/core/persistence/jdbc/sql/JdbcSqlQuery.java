@@ -56,6 +56,7 @@ import static org.silverpeas.core.persistence.jdbc.sql.JdbcSqlExecutorProvider.g
 public class JdbcSqlQuery {
 
   // The value of 1500 has been chosen after some production problem with some kind of databases...
+  // It is the default value when no split size is configured for the database in use.
   public static final int SPLIT_BATCH = 1500;
   private static final int SPACE_OFFSET_DETECTION = 2;
   private static final int OPEN_PARENTHESIS_OFFSET_DETECTION = 1;
@@ -699,7 +700,8 @@ public class JdbcSqlQuery {
   }
 
   /**
-   * Split executor.
+   * Split executor. The discriminant data are split into slices whose the size depends on the
+   * database in use (see {@link JdbcSqlSplitConfig}).
    * @param <I> the type of list of discriminant data.
    * @param <T> the type of the entity into result.
    * @param discriminantData a discriminant list of data.
@@ -709,14 +711,15 @@ public class JdbcSqlQuery {
   public static <I, T> Map<I, List<T>> executeBySplittingOn(final Collection<I> discriminantData,
       final SplitExecuteProcess<I, T> process) throws SQLException {
     final Map<I, List<T>> result = new HashMap<>(discriminantData.size());
-    for (Collection<I> d : CollectionUtil.split(discriminantData, SPLIT_BATCH)) {
+    for (Collection<I> d : CollectionUtil.split(discriminantData, getSplitBatchSize())) {
       process.execute(d, result);
     }
     return result;
   }
 
   /**
-   * Split executor.
+   * Split executor. The discriminant data are split into slices whose the size depends on the
+   * database in use (see {@link JdbcSqlSplitConfig}).
    * @param <I> the type of list of discriminant data.
    * @param <T> the type of the entity into result.
    * @param discriminantData a discriminant list of data.
@@ -726,12 +729,70 @@ public class JdbcSqlQuery {
   public static <I, T> Stream<T> streamBySplittingOn(final Collection<I> discriminantData,
       final SplitListProcess<I, List<T>> process) throws SQLException {
     Stream<T> result = Stream.empty();
-    for (Collection<I> d : CollectionUtil.split(discriminantData, SPLIT_BATCH)) {
+    for (Collection<I> d : CollectionUtil.split(discriminantData, getSplitBatchSize())) {
       result = Stream.concat(result, process.execute(d).stream());
     }
     return result;
   }
 
+  /**
+   * Split executor processing the slices of discriminant data in parallel. It is dedicated to
+   * read-only lookups on large lists of identifiers.
+   * <p>
+   * The slices are processed by the threads of a pool shared by all the parallel split
+   * executions (see {@link JdbcSqlSplitExecutor}), each of them with its own read-only
+   * connection passed to the given process. As the slices are processed out of the caller
+   * thread, they don't see the writes of a transaction not yet committed by the caller. The
+   * result of each slice is merged with the others in the order of the slices, so that the
+   * result is identical to the one of {@link #executeBySplittingOn(Collection,
+   * SplitExecuteProcess)}.
+   * </p>
+   * @param <I> the type of list of discriminant data.
+   * @param <T> the type of the entity into result.
+   * @param discriminantData a discriminant list of data.
+   * @param process the process computing the mapping of a slice of discriminant data.
+   * @return a mapping between given discriminant identifiers and the corresponding data.
+   * @throws java.sql.SQLException on SQL error.
+   */
+  public static <I, T> Map<I, List<T>> executeInParallelBySplittingOn(
+      final Collection<I> discriminantData, final SplitReadProcess<I, Map<I, List<T>>> process)
+      throws SQLException {
+    final List<Map<I, List<T>>> results =
+        JdbcSqlSplitExecutor.get().invoke(discriminantData, getSplitBatchSize(), process);
+    final Map<I, List<T>> result = new HashMap<>(discriminantData.size());
+    results.forEach(r -> r.forEach(
+        (k, v) -> result.computeIfAbsent(k, i -> new ArrayList<>(v.size())).addAll(v)));
+    return result;
+  }
+
+  /**
+   * Split executor processing the slices of discriminant data in parallel. The returned stream
+   * provides the data in the order of the slices, as {@link #streamBySplittingOn(Collection,
+   * SplitListProcess)} does.
+   * <p>
+   * As for {@link #executeInParallelBySplittingOn(Collection, SplitReadProcess)}, each slice is
+   * processed out of the caller thread with its own read-only connection.
+   * </p>
+   * @param <I> the type of list of discriminant data.
+   * @param <T> the type of the entity into result.
+   * @param discriminantData a discriminant list of data.
+   * @param process the process loading the data of a slice of discriminant data.
+   * @return a stream between given discriminant identifiers and the corresponding data.
+   * @throws java.sql.SQLException on SQL error.
+   */
+  public static <I, T> Stream<T> streamInParallelBySplittingOn(
+      final Collection<I> discriminantData, final SplitReadProcess<I, List<T>> process)
+      throws SQLException {
+    return JdbcSqlSplitExecutor.get()
+        .invoke(discriminantData, getSplitBatchSize(), process)
+        .stream()
+        .flatMap(List::stream);
+  }
+
+  private static int getSplitBatchSize() {
+    return JdbcSqlSplitConfig.getSplitBatchSize();
+  }
+
   /**
    * Split executor giving a result sorted exactly like the discriminantData parameter is sorted.
    * @param <I> the type of list of discriminant data.
@@ -780,6 +841,51 @@ public class JdbcSqlQuery {
     }
   }
 
+  /**
+   * Select executor streaming the entities as they are read from the data source instead of
+   * loading them all into memory. It is dedicated to the processing of large results (exports,
+   * reindexing, ...). The rows are fetched by blocks whose the size can be set with the
+   * {@link Configuration#withFetchSize(int)} configuration.
+   * <p>
+   * The returned stream is bound to an opened connection and MUST be closed once consumed:
+   * </p>
+   * <pre>
+   *   try (Stream&lt;String&gt; ids = JdbcSqlQuery.select("id").from("aTable")
+   *       .stream(r -&gt; r.getString(1))) {
+   *     ids.forEach(...);
+   *   }
+   * </pre>
+   * @param <R> the type of the items in the stream.
+   * @param process the process to execute on the ResultSet objects.
+   * @return a stream on the entities matching the query. The stream is computed from the query
+   * configuration {@link Configuration}.
+   * @throws java.sql.SQLException on SQL error.
+   */
+  public <R> Stream<R> stream(SelectResultRowProcess<R> process) throws SQLException {
+    return streamWith(null, process);
+  }
+
+  /**
+   * Select executor streaming the entities as they are read from the data source.
+   * The returned stream MUST be closed once consumed, but the given connection isn't closed with
+   * it.
+   * @param <R> the type of the items in the stream.
+   * @param connection existing connection.
+   * @param process the process to execute on the ResultSet objects.
+   * @return a stream on the entities matching the query. The stream is computed from the query
+   * configuration {@link Configuration}.
+   * @throws java.sql.SQLException on SQL error.
+   * @see #stream(SelectResultRowProcess)
+   */
+  public <R> Stream<R> streamWith(Connection connection, SelectResultRowProcess<R> process)
+      throws SQLException {
+    if (connection == null) {
+      return getJdbcSqlExecutor().stream(this, process);
+    } else {
+      return getJdbcSqlExecutor().stream(connection, this, process);
+    }
+  }
+
   /**
    * Select executor.
    * @param <R> the type of the entity.
@@ -856,6 +962,8 @@ public class JdbcSqlQuery {
     private int limit = 0;
     private int offset = 0;
     private boolean needRealOriginalSize = true;
+    private int fetchSize = 0;
+    private boolean readFromPrimary = false;
 
     int getResultLimit() {
       return limit;
@@ -865,6 +973,14 @@ public class JdbcSqlQuery {
       return offset;
     }
 
+    int getFetchSize() {
+      return fetchSize;
+    }
+
+    boolean isReadFromPrimary() {
+      return readFromPrimary;
+    }
+
     boolean isFirstResultScrolled() {
       return offset > 0;
     }
@@ -895,6 +1011,35 @@ public class JdbcSqlQuery {
       return this;
     }
 
+    /**
+     * Sets the number of rows to fetch from the data source at each round trip when the result
+     * is streamed. If not set, the value of the {@code jdbc.stream.fetchSize} general setting is
+     * taken.
+     * @param fetchSize a positive number of rows.
+     * @return itself.
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public Configuration withFetchSize(final int fetchSize) {
+      if (fetchSize < 0) {
+        throw new IllegalArgumentException("Invalid fetch size: expected positive value");
+      }
+      this.fetchSize = fetchSize;
+      return this;
+    }
+
+    /**
+     * Forces the query to be executed against the primary data source even if a read-only one
+     * is defined. It is required when the query has to see the writes done just before out of
+     * any transaction (read-your-writes consistency).
+     * @return itself.
+     * @see org.silverpeas.core.persistence.jdbc.ConnectionPool
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public Configuration readFromPrimary() {
+      this.readFromPrimary = true;
+      return this;
+    }
+
     @SuppressWarnings("UnusedReturnValue")
     public Configuration ignoreRealOriginalSize() {
       this.needRealOriginalSize = false;
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.persistence.jdbc.sql;
+
+import org.silverpeas.core.persistence.jdbc.ConnectionPool;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
+
+/**
+ * Configuration of the split executions of {@link JdbcSqlQuery}: the size of the slices of
+ * discriminant data according to the database in use, and the maximum number of slices that
+ * can be executed in parallel.
+ * <p>
+ * The size of the slices is read from the {@code jdbc.split.batch.<database>} general setting,
+ * where {@code <database>} is the key of the database product as provided by
+ * {@link ConnectionPool#getDatabaseProductKey()} ({@code postgresql}, {@code oracle},
+ * {@code microsoftsqlserver}, {@code h2}, ...). If not set, the
+ * {@code jdbc.split.batch.default} setting is taken and then {@link JdbcSqlQuery#SPLIT_BATCH}.
+ * </p>
+ */
+final class JdbcSqlSplitConfig {
+
+  private static final String SPLIT_BATCH_SETTING = "jdbc.split.batch.";
+  private static final int DEFAULT_MAX_PARALLEL_THREADS = 4;
+  private static volatile String databaseKey = null;
+
+  private JdbcSqlSplitConfig() {
+  }
+
+  /**
+   * Gets the size of the slices into which the discriminant data have to be split.
+   * @return a positive size.
+   */
+  static int getSplitBatchSize() {
+    final SettingBundle settings = ResourceLocator.getGeneralSettingBundle();
+    final int defaultSize = settings.getInteger(SPLIT_BATCH_SETTING + "default",
+        JdbcSqlQuery.SPLIT_BATCH);
+    final int size = settings.getInteger(SPLIT_BATCH_SETTING + getDatabaseKey(), defaultSize);
+    return size > 0 ? size : JdbcSqlQuery.SPLIT_BATCH;
+  }
+
+  /**
+   * Gets the maximum number of slices of discriminant data that can be processed at the same
+   * time by all the parallel split executions.
+   * @return a positive number of threads.
+   */
+  static int getMaxParallelThreads() {
+    final int max = ResourceLocator.getGeneralSettingBundle()
+        .getInteger("jdbc.split.parallel.maxThreads", DEFAULT_MAX_PARALLEL_THREADS);
+    return Math.max(max, 1);
+  }
+
+  private static String getDatabaseKey() {
+    String key = databaseKey;
+    if (key == null) {
+      key = ConnectionPool.getDatabaseProductKey();
+      databaseKey = key;
+    }
+    return key;
+  }
+}
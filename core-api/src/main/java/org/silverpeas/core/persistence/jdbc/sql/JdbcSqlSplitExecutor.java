@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.persistence.jdbc.sql;
+
+import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.core.persistence.jdbc.ConnectionPool;
+import org.silverpeas.core.util.CollectionUtil;
+import org.silverpeas.core.util.ServiceProvider;
+import org.silverpeas.kernel.annotation.Technical;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.inject.Singleton;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor of the slices of the parallel split executions of {@link JdbcSqlQuery}.
+ * <p>
+ * All the parallel split executions share the same pool of managed threads, whose the size is
+ * given by {@link JdbcSqlSplitConfig#getMaxParallelThreads()}: it is then the maximum number of
+ * slices processed at the same time in the whole platform. The slices beyond this bound wait in
+ * the queue of the pool. Each slice is processed with its own read-only connection.
+ * </p>
+ * <p>
+ * A parallel split execution requested from a slice being processed by this executor is
+ * performed in the current thread, so that the slices cannot wait for each other.
+ * </p>
+ */
+@Technical
+@Bean
+@Singleton
+public class JdbcSqlSplitExecutor {
+
+  private static final ThreadLocal<Boolean> inSlice = ThreadLocal.withInitial(() -> false);
+  private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60L;
+
+  @Resource
+  private ManagedThreadFactory managedThreadFactory;
+  private ExecutorService executor;
+
+  protected JdbcSqlSplitExecutor() {
+    // constructor to be used only by the IoD container
+  }
+
+  static JdbcSqlSplitExecutor get() {
+    return ServiceProvider.getService(JdbcSqlSplitExecutor.class);
+  }
+
+  @PostConstruct
+  protected void init() {
+    final int maxThreads = JdbcSqlSplitConfig.getMaxParallelThreads();
+    final ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads,
+        IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        managedThreadFactory);
+    pool.allowCoreThreadTimeOut(true);
+    executor = pool;
+  }
+
+  @PreDestroy
+  protected void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Processes in parallel each slice of the given discriminant data, each of them with its own
+   * read-only connection.
+   * @param discriminantData a discriminant list of data.
+   * @param sliceSize the size of the slices.
+   * @param process the process to execute on each slice.
+   * @param <I> the type of the discriminant data.
+   * @param <R> the type of the result of a slice.
+   * @return the list of the results of each slice, in the order of the slices.
+   * @throws SQLException on SQL error.
+   */
+  <I, R> List<R> invoke(final Collection<I> discriminantData, final int sliceSize,
+      final SplitReadProcess<I, R> process) throws SQLException {
+    final Collection<Collection<I>> slices = CollectionUtil.split(discriminantData, sliceSize);
+    if (slices.size() <= 1 || Boolean.TRUE.equals(inSlice.get())) {
+      return invokeInCurrentThread(slices, process);
+    }
+    final List<Future<R>> futures = new ArrayList<>(slices.size());
+    for (Collection<I> slice : slices) {
+      futures.add(executor.submit(() -> processSlice(slice, process)));
+    }
+    final List<R> results = new ArrayList<>(slices.size());
+    try {
+      for (Future<R> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof SQLException) {
+        throw (SQLException) e.getCause();
+      }
+      throw new SQLException(e.getCause());
+    } finally {
+      futures.forEach(f -> f.cancel(true));
+    }
+    return results;
+  }
+
+  private static <I, R> List<R> invokeInCurrentThread(final Collection<Collection<I>> slices,
+      final SplitReadProcess<I, R> process) throws SQLException {
+    final List<R> results = new ArrayList<>(slices.size());
+    if (slices.isEmpty()) {
+      return results;
+    }
+    try (Connection connection = ConnectionPool.getReadOnlyConnection()) {
+      for (Collection<I> slice : slices) {
+        results.add(process.execute(connection, slice));
+      }
+    }
+    return results;
+  }
+
+  private static <I, R> R processSlice(final Collection<I> slice,
+      final SplitReadProcess<I, R> process) throws SQLException {
+    inSlice.set(true);
+    try (Connection connection = ConnectionPool.getReadOnlyConnection()) {
+      return process.execute(connection, slice);
+    } finally {
+      inSlice.remove();
+    }
+  }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.persistence.jdbc.sql;
+
+import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.core.util.ServiceProvider;
+import org.silverpeas.kernel.annotation.Technical;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Singleton;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Statistics about the SQL statements executed through the {@link JdbcSqlQuery} API. The
+ * statements are gathered by their normalized form (the literal values are replaced by a
+ * {@code ?} placeholder and the lists of placeholders are collapsed) so that the executions of a
+ * same statement with different values are counted together.
+ * <p>
+ * For each normalized statement, the count of executions, the count of fetched or modified rows
+ * and the distribution of the execution times are computed. The distribution is kept into
+ * exponential buckets (powers of two of microseconds) from which the percentiles are estimated.
+ * </p>
+ * <p>
+ * The executions longer than the {@code jdbc.monitoring.slowQuery.threshold} general setting
+ * (in milliseconds) are logged with the {@code silverpeas.core.persistence.jdbc.slowqueries}
+ * logger, even when the gathering of the statistics is disabled. The values of the parameters
+ * aren't logged, only their type.
+ * </p>
+ */
+@Technical
+@Bean
+@Singleton
+public class JdbcSqlStatistics {
+
+  static final String OTHER_STATEMENTS = "<other statements>";
+  private static final String SLOW_QUERY_LOGGER = "silverpeas.core.persistence.jdbc.slowqueries";
+  private static final int MAX_STATEMENTS = 2000;
+  private static final int MAX_NORMALIZED_STATEMENTS = 5000;
+  private static final int BUCKET_COUNT = 40;
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+  private static final Pattern PLACEHOLDER_IN_LISTS =
+      Pattern.compile("(?:\\S+ IN \\(\\?, \\.\\.\\.\\) OR )+\\S+ IN \\(\\?, \\.\\.\\.\\)",
+          Pattern.CASE_INSENSITIVE);
+  private static final Pattern SPACES = Pattern.compile("\\s+");
+
+  private final Map<String, StatementMetrics> metrics = new ConcurrentHashMap<>();
+  private final Map<String, String> normalizedStatements = new ConcurrentHashMap<>();
+  private boolean enabled = false;
+  private long slowQueryThreshold = 0L;
+
+  protected JdbcSqlStatistics() {
+    // Hidden constructor
+  }
+
+  @PostConstruct
+  protected void init() {
+    final SettingBundle settings = ResourceLocator.getGeneralSettingBundle();
+    enabled = settings.getBoolean("jdbc.monitoring.enabled", false);
+    slowQueryThreshold = settings.getLong("jdbc.monitoring.slowQuery.threshold", 0L);
+  }
+
+  /**
+   * Gets the single instance of the statistics about the SQL statements.
+   * @return a {@link JdbcSqlStatistics} instance.
+   */
+  public static JdbcSqlStatistics get() {
+    return ServiceProvider.getService(JdbcSqlStatistics.class);
+  }
+
+  /**
+   * Is the gathering of statistics about the SQL statements enabled?
+   * @return true if the {@code jdbc.monitoring.enabled} general setting is set to true. The
+   * setting is read once at the initialization of the statistics.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Records the execution of the specified SQL statement. The slow executions are logged whether
+   * the gathering of the statistics is enabled or not.
+   * @param sql the executed SQL statement.
+   * @param parameters the parameters bound to the statement.
+   * @param durationInNanos the duration of the execution in nanoseconds.
+   * @param rows the count of rows fetched or modified by the statement.
+   */
+  void record(final String sql, final Collection<Object> parameters, final long durationInNanos,
+      final long rows) {
+    if (isSlow(durationInNanos)) {
+      SilverLogger.getLogger(SLOW_QUERY_LOGGER)
+          .warn("Slow SQL query ({0} ms, {1} rows): {2} with parameters {3}",
+              TimeUnit.NANOSECONDS.toMillis(durationInNanos), rows, sql,
+              maskParameters(parameters));
+    }
+    if (!enabled) {
+      return;
+    }
+    final String normalizedSql = getNormalized(sql);
+    StatementMetrics statementMetrics = metrics.get(normalizedSql);
+    if (statementMetrics == null) {
+      final String key = metrics.size() < MAX_STATEMENTS ? normalizedSql : OTHER_STATEMENTS;
+      statementMetrics = metrics.computeIfAbsent(key, k -> new StatementMetrics());
+    }
+    statementMetrics.add(durationInNanos, rows);
+  }
+
+  /**
+   * Is an execution of the given duration a slow one?
+   * @param durationInNanos the duration of an execution in nanoseconds.
+   * @return true if the {@code jdbc.monitoring.slowQuery.threshold} general setting is positive
+   * and if the duration reaches it.
+   */
+  boolean isSlow(final long durationInNanos) {
+    return slowQueryThreshold > 0 &&
+        TimeUnit.NANOSECONDS.toMillis(durationInNanos) >= slowQueryThreshold;
+  }
+
+  /**
+   * Gets the statistics of all the statements executed since the start or the last reset. They
+   * are sorted by the total execution time, the most expensive statement first.
+   * @return a list of {@link StatementStatistics} instances.
+   */
+  public List<StatementStatistics> getStatistics() {
+    return metrics.entrySet()
+        .stream()
+        .map(e -> e.getValue().snapshot(e.getKey()))
+        .sorted(Comparator.comparingLong(StatementStatistics::getTotalTime).reversed())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Clears all the gathered statistics.
+   */
+  public void reset() {
+    metrics.clear();
+    normalizedStatements.clear();
+  }
+
+  /**
+   * Gets the normalized form of the specified SQL statement. As the same statements are
+   * executed again and again, their normalized form is memoized up to a given count of
+   * statements; beyond it, the statements are normalized at each call.
+   * @param sql a SQL statement.
+   * @return the normalized form of the statement.
+   */
+  String getNormalized(final String sql) {
+    String normalizedSql = normalizedStatements.get(sql);
+    if (normalizedSql == null) {
+      normalizedSql = normalize(sql);
+      if (normalizedStatements.size() < MAX_NORMALIZED_STATEMENTS) {
+        normalizedStatements.put(sql, normalizedSql);
+      }
+    }
+    return normalizedSql;
+  }
+
+  /**
+   * Normalizes the specified SQL statement: the literal values are replaced by a {@code ?}
+   * placeholder, the lists of placeholders are collapsed into a single one and the spaces are
+   * trimmed.
+   * @param sql a SQL statement.
+   * @return the normalized form of the statement.
+   */
+  static String normalize(final String sql) {
+    String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+    normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = SPACES.matcher(normalized).replaceAll(" ").trim();
+    normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("?, ...");
+    // the big IN clauses are split into several ones joined by an OR operator (see JdbcSqlQuery)
+    return PLACEHOLDER_IN_LISTS.matcher(normalized).replaceAll(m -> {
+      final String column = m.group().substring(0, m.group().indexOf(' '));
+      return column + " IN (?, ...)";
+    });
+  }
+
+  private static String maskParameters(final Collection<Object> parameters) {
+    return parameters.stream()
+        .map(p -> p == null ? "null" : p.getClass().getSimpleName())
+        .collect(Collectors.joining(", ", "[", "]"));
+  }
+
+  /**
+   * The metrics of a given normalized statement. They are updated concurrently.
+   */
+  private static class StatementMetrics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0L);
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    void add(final long durationInNanos, final long rowCount) {
+      count.increment();
+      rows.add(rowCount);
+      totalTime.add(durationInNanos);
+      maxTime.accumulate(durationInNanos);
+      buckets.incrementAndGet(bucketOf(durationInNanos));
+    }
+
+    StatementStatistics snapshot(final String sql) {
+      final long[] distribution = new long[BUCKET_COUNT];
+      long total = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        distribution[i] = buckets.get(i);
+        total += distribution[i];
+      }
+      return new StatementStatistics(sql, count.sum(), rows.sum(), totalTime.sum(),
+          maxTime.get(), percentile(distribution, total, 0.5),
+          percentile(distribution, total, 0.99));
+    }
+
+    private static int bucketOf(final long durationInNanos) {
+      final long micros = Math.max(1L, TimeUnit.NANOSECONDS.toMicros(durationInNanos));
+      return Math.min(BUCKET_COUNT - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    /**
+     * Estimates the given percentile of the execution times as the upper bound of the bucket
+     * containing it.
+     * @return the estimated percentile in nanoseconds.
+     */
+    private static long percentile(final long[] distribution, final long total,
+        final double percentile) {
+      final long rank = (long) Math.ceil(total * percentile);
+      long cumulated = 0;
+      for (int i = 0; i < distribution.length; i++) {
+        cumulated += distribution[i];
+        if (cumulated >= rank && cumulated > 0) {
+          return TimeUnit.MICROSECONDS.toNanos(1L << (i + 1));
+        }
+      }
+      return 0L;
+    }
+  }
+
+  /**
+   * The statistics of a normalized SQL statement at a given time. The times are in nanoseconds.
+   */
+  public static class StatementStatistics {
+    private final String sql;
+    private final long count;
+    private final long rows;
+    private final long totalTime;
+    private final long maxTime;
+    private final long p50Time;
+    private final long p99Time;
+
+    StatementStatistics(final String sql, final long count, final long rows,
+        final long totalTime, final long maxTime, final long p50Time, final long p99Time) {
+      this.sql = sql;
+      this.count = count;
+      this.rows = rows;
+      this.totalTime = totalTime;
+      this.maxTime = maxTime;
+      this.p50Time = p50Time;
+      this.p99Time = p99Time;
+    }
+
+    public String getSql() {
+      return sql;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getRows() {
+      return rows;
+    }
+
+    public long getTotalTime() {
+      return totalTime;
+    }
+
+    public long getMeanTime() {
+      return count == 0 ? 0 : totalTime / count;
+    }
+
+    public long getMaxTime() {
+      return maxTime;
+    }
+
+    public long getP50Time() {
+      return p50Time;
+    }
+
+    public long getP99Time() {
+      return p99Time;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.persistence.jdbc.sql;
+
+import org.silverpeas.kernel.SilverpeasRuntimeException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator walking forward a {@link ResultSet} and converting each row into an entity with
+ * a {@link SelectResultRowProcess} instance. The rows are read lazily, only when the entity
+ * is requested by the consumer of the spliterator, so that only the rows fetched by the JDBC
+ * driver are held in memory.
+ * <p>
+ * The spliterator doesn't close the result set: this is the responsibility of the stream built
+ * upon it.
+ * </p>
+ * @param <R> the type of the entities.
+ */
+class ResultSetSpliterator<R> extends Spliterators.AbstractSpliterator<R> {
+
+  private final ResultSetWrapper rsw;
+  private final SelectResultRowProcess<R> process;
+  private final JdbcSqlQuery.Configuration queryConf;
+  private int currentIndex;
+  private int nbFetchedEntities = 0;
+  private boolean firstResultScrolled = false;
+
+  ResultSetSpliterator(final ResultSet rs, final SelectResultRowProcess<R> process,
+      final JdbcSqlQuery.Configuration queryConf) {
+    super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    this.rsw = new ResultSetWrapper(rs);
+    this.process = process;
+    this.queryConf = queryConf;
+    this.currentIndex = queryConf.getOffset() - 1;
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super R> action) {
+    try {
+      scrollToFirstResult();
+      while (!isLimitReached() && rsw.next()) {
+        currentIndex++;
+        rsw.setCurrentRowIndex(currentIndex);
+        final R entity = process.currentRow(rsw);
+        if (entity != null) {
+          nbFetchedEntities++;
+          action.accept(entity);
+          return true;
+        }
+      }
+      return false;
+    } catch (SQLException e) {
+      throw new SilverpeasRuntimeException(e);
+    }
+  }
+
+  /**
+   * The result set is forward only, so the rows before the offset are skipped by walking them.
+   * @throws SQLException on SQL error.
+   */
+  private void scrollToFirstResult() throws SQLException {
+    if (!firstResultScrolled) {
+      firstResultScrolled = true;
+      int toSkip = queryConf.getOffset();
+      while (toSkip > 0 && rsw.next()) {
+        toSkip--;
+      }
+    }
+  }
+
+  /**
+   * Gets the count of entities provided by this spliterator so far.
+   * @return the count of fetched entities.
+   */
+  int getFetchedEntityCount() {
+    return nbFetchedEntities;
+  }
+
+  private boolean isLimitReached() {
+    return queryConf.isResultCountLimited() && nbFetchedEntities >= queryConf.getResultLimit();
+  }
+}
@@ -26,6 +26,7 @@ package org.silverpeas.core.template;
 import org.silverpeas.core.template.renderer.DateRenderer;
 import org.silverpeas.core.template.renderer.StringRenderer;
 import org.silverpeas.core.util.Charsets;
+import org.silverpeas.kernel.bundle.ResourceLocator;
 import org.silverpeas.kernel.logging.SilverLogger;
 import org.silverpeas.kernel.util.StringUtil;
 import org.stringtemplate.v4.*;
@@ -37,6 +38,8 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.commons.io.FileUtils.copyDirectory;
 
@@ -66,11 +69,22 @@ import static org.apache.commons.io.FileUtils.copyDirectory;
  * '<%','%>' is to ignore indentation and newlines in multi-lines template body}
  * </pre>
  * </p>
+ * <p>
+ * The template groups are loaded once per directory and then shared by all the Silverpeas
+ * templates, so that a template file is read and compiled only once. By default, a template group
+ * is reloaded when the requested template file is added or modified: the dates of the file and of
+ * its directory are checked at most once every {@code template.cache.checkInterval} seconds for
+ * each template file. This check can be disabled with the setting
+ * {@code template.cache.checkModifications} when the templates never change at runtime. The groups
+ * are also reloaded each time the directory merging the root and the custom templates is
+ * generated.
+ * </p>
  */
 public class SilverpeasStringTemplate implements SilverpeasTemplate {
 
   private static final Object MUTEX = new Object();
   private static final String MERGED_DIR_NAME = "__merged_delete_me_on_template_modification";
+  private static final Map<String, LoadedGroup> GROUPS = new ConcurrentHashMap<>();
   private final Map<String, Object> attributes = new HashMap<>();
   private final Properties templateConfig;
   private final List<String> paths = new ArrayList<>(3);
@@ -97,6 +111,9 @@ public class SilverpeasStringTemplate implements SilverpeasTemplate {
               copyDirectory(rootPath, mergedPath, true);
               copyDirectory(customPath, mergedPath, f -> !MERGED_DIR_NAME.equals(f.getName()),
                   true);
+              // the copied files keep their date: a group loaded from a previous merged
+              // directory cannot then be detected as outdated
+              clearCache();
               paths.add(0, mergedPath.getPath());
             } catch (IOException e) {
               SilverLogger.getLogger(this).error(e);
@@ -112,7 +129,7 @@ public class SilverpeasStringTemplate implements SilverpeasTemplate {
 
   @Override
   public String applyFileTemplate(final String fileName) {
-    return applyTemplate(fileName, getRawGroupDir);
+    return applyTemplate(fileName, GroupKind.RAW);
   }
 
   /**
@@ -135,7 +152,7 @@ public class SilverpeasStringTemplate implements SilverpeasTemplate {
    */
   @Override
   public String applyFileTemplateDescriptor(String descriptor) {
-    return applyTemplate(descriptor, getGroupDir);
+    return applyTemplate(descriptor, GroupKind.DESCRIPTOR);
   }
 
   @Override
@@ -183,22 +200,17 @@ public class SilverpeasStringTemplate implements SilverpeasTemplate {
     return isTemplateFileExist(Path.of(customersRootDir, componentName.toLowerCase()), fileName);
   }
 
-  private final TriFunction<String, Charset, Character, STGroup> getRawGroupDir =
-      (templateDir, charset, token) -> new STRawGroupDir(templateDir, charset.name(), token, token);
-
-  private final TriFunction<String, Charset, Character, STGroup> getGroupDir =
-      (templateDir, charset, token) -> new STGroupDir(templateDir, charset.name(), token, token);
+  /**
+   * Clears all the template groups loaded so far. They will be loaded again at their next use.
+   */
+  public static void clearCache() {
+    GROUPS.clear();
+  }
 
-  private String applyTemplate(String fileName,
-      TriFunction<String, Charset, Character, STGroup> groupGetter) {
+  private String applyTemplate(String fileName, GroupKind kind) {
     return paths.stream()
         .filter(p -> Files.isDirectory(Path.of(p)))
-        .map(p -> {
-          var g = groupGetter.apply(p, Charsets.UTF_8, '$');
-          g.registerRenderer(String.class, new StringRenderer());
-          g.registerRenderer(Date.class, new DateRenderer());
-          return g;
-        })
+        .map(p -> getGroup(p, fileName, kind))
         .map(g -> g.getInstanceOf(fileName))
         .filter(Objects::nonNull)
         .findFirst()
@@ -211,8 +223,130 @@ public class SilverpeasStringTemplate implements SilverpeasTemplate {
     return Files.isRegularFile(rootDir.resolve(f));
   }
 
-  @FunctionalInterface
-  private interface TriFunction<T, U, V, R> {
-    R apply(T t, U u, V v);
+  private static STGroup getGroup(String templateDir, String fileName, GroupKind kind) {
+    final String key = kind.name() + ":" + templateDir;
+    LoadedGroup loaded =
+        GROUPS.computeIfAbsent(key, k -> new LoadedGroup(kind.load(templateDir, Charsets.UTF_8)));
+    final Path templateFile = Path.of(templateDir, fileName);
+    if (isModificationChecked() && loaded.isOutdated(templateFile, getCheckInterval())) {
+      final LoadedGroup reloaded = new LoadedGroup(kind.load(templateDir, Charsets.UTF_8));
+      reloaded.track(templateFile);
+      GROUPS.put(key, reloaded);
+      loaded = reloaded;
+    }
+    return loaded.group;
+  }
+
+  private static boolean isModificationChecked() {
+    return ResourceLocator.getGeneralSettingBundle()
+        .getBoolean("template.cache.checkModifications", true);
+  }
+
+  private static long getCheckInterval() {
+    return TimeUnit.SECONDS.toMillis(ResourceLocator.getGeneralSettingBundle()
+        .getInteger("template.cache.checkInterval", 10));
+  }
+
+  /**
+   * The kind of template groups: the raw templates or the template descriptors.
+   */
+  private enum GroupKind {
+    RAW {
+      @Override
+      STGroup create(final String templateDir, final Charset charset) {
+        return new STRawGroupDir(templateDir, charset.name(), '$', '$');
+      }
+    },
+    DESCRIPTOR {
+      @Override
+      STGroup create(final String templateDir, final Charset charset) {
+        return new STGroupDir(templateDir, charset.name(), '$', '$');
+      }
+    };
+
+    abstract STGroup create(final String templateDir, final Charset charset);
+
+    STGroup load(final String templateDir, final Charset charset) {
+      final STGroup group = create(templateDir, charset);
+      group.registerRenderer(String.class, new StringRenderer());
+      group.registerRenderer(Date.class, new DateRenderer());
+      return group;
+    }
+  }
+
+  /**
+   * A template group with the dates of the template files requested so far, as seen at their
+   * last check.
+   */
+  private static class LoadedGroup {
+    private final STGroup group;
+    private final Map<Path, TemplateFileDates> files = new ConcurrentHashMap<>();
+
+    private LoadedGroup(final STGroup group) {
+      this.group = group;
+    }
+
+    /**
+     * Is this group outdated regarding the specified template file? It is when the date of the
+     * file or of its directory differs from the one seen at the previous check: the file has been
+     * either modified or added (a file copied with its date only changes the date of its
+     * directory). The dates aren't checked again before the given interval is elapsed.
+     * @param templateFile the path of the requested template file.
+     * @param checkInterval the minimum time in milliseconds between two checks of the file.
+     * @return true if the group has to be loaded again, false otherwise.
+     */
+    boolean isOutdated(final Path templateFile, final long checkInterval) {
+      final Path file = toStFile(templateFile);
+      final long now = System.currentTimeMillis();
+      final TemplateFileDates checked = files.get(file);
+      if (checked != null && now - checked.checkTime < checkInterval) {
+        return false;
+      }
+      final TemplateFileDates current = new TemplateFileDates(file, now);
+      files.put(file, current);
+      return checked != null && !current.isSameVersionAs(checked);
+    }
+
+    /**
+     * Records the current dates of the specified template file, so that any further modification
+     * of the file is detected.
+     * @param templateFile the path of the requested template file.
+     */
+    void track(final Path templateFile) {
+      final Path file = toStFile(templateFile);
+      files.put(file, new TemplateFileDates(file, System.currentTimeMillis()));
+    }
+
+    private static Path toStFile(final Path templateFile) {
+      return templateFile.toString().endsWith(".st") ? templateFile :
+          Path.of(templateFile + ".st");
+    }
+  }
+
+  /**
+   * The dates of a template file and of its directory at a given time.
+   */
+  private static class TemplateFileDates {
+    private final long fileTime;
+    private final long directoryTime;
+    private final long checkTime;
+
+    private TemplateFileDates(final Path file, final long checkTime) {
+      this.fileTime = lastModifiedTime(file);
+      this.directoryTime = lastModifiedTime(file.getParent());
+      this.checkTime = checkTime;
+    }
+
+    private static long lastModifiedTime(final Path path) {
+      try {
+        return Files.exists(path) ? Files.getLastModifiedTime(path).toMillis() : -1;
+      } catch (IOException e) {
+        return -1;
+      }
+    }
+
+    boolean isSameVersionAs(final TemplateFileDates other) {
+      return fileTime == other.fileTime && directoryTime == other.directoryTime;
+    }
   }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.persistence.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.kernel.SilverpeasRuntimeException;
+import org.silverpeas.kernel.test.annotations.TestManagedBean;
+import org.silverpeas.kernel.test.annotations.TestManagedMock;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import javax.sql.DataSource;
+import javax.transaction.Status;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.apache.commons.lang3.reflect.FieldUtils.writeDeclaredField;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests on the choice of the data source from which the connections are taken by
+ * {@link ConnectionPool}.
+ */
+@EnableSilverTestEnv
+class ConnectionPoolTest {
+
+  @TestManagedMock
+  private Transaction transaction;
+
+  @TestManagedBean
+  private ConnectionPool connectionPool = new ConnectionPool();
+
+  private final Connection primaryConnection = mock(Connection.class);
+  private final Connection replicaConnection = mock(Connection.class);
+
+  @BeforeEach
+  void setUpDataSources() throws Exception {
+    final DataSource primary = mock(DataSource.class);
+    when(primary.getConnection()).thenReturn(primaryConnection);
+    final DataSource replica = mock(DataSource.class);
+    when(replica.getConnection()).thenReturn(replicaConnection);
+    writeDeclaredField(connectionPool, "dataSource", primary, true);
+    writeDeclaredField(connectionPool, "readOnlyDataSource", replica, true);
+    when(transaction.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+  }
+
+  @Test
+  void theReadOnlyConnectionsAreTakenFromTheReplicaOutOfAnyTransaction() throws SQLException {
+    assertThat(ConnectionPool.getReadOnlyConnection(), is(replicaConnection));
+    assertThat(ConnectionPool.getConnection(), is(primaryConnection));
+  }
+
+  @Test
+  void theReadOnlyConnectionsAreTakenFromThePrimaryWithinATransaction() throws SQLException {
+    when(transaction.getStatus()).thenReturn(Status.STATUS_ACTIVE);
+    assertThat(ConnectionPool.getReadOnlyConnection(), is(primaryConnection));
+
+    when(transaction.getStatus()).thenReturn(Status.STATUS_MARKED_ROLLBACK);
+    assertThat(ConnectionPool.getReadOnlyConnection(), is(primaryConnection));
+  }
+
+  @Test
+  void theReadOnlyConnectionsAreTakenFromThePrimaryWithinAReadYourWritesWindow()
+      throws SQLException {
+    final Connection connection = ConnectionPool.readYourWrites(() -> {
+      // the window is kept open once a nested one is closed
+      ConnectionPool.readYourWrites(ConnectionPool::getReadOnlyConnection);
+      return ConnectionPool.getReadOnlyConnection();
+    });
+    assertThat(connection, is(primaryConnection));
+    assertThat(ConnectionPool.getReadOnlyConnection(), is(replicaConnection));
+  }
+
+  @Test
+  void theReadYourWritesWindowIsClosedEvenWhenItsProcessFails() throws SQLException {
+    assertThrows(SilverpeasRuntimeException.class, () -> ConnectionPool.readYourWrites(() -> {
+      throw new SQLException("failure");
+    }));
+    assertThat(ConnectionPool.getReadOnlyConnection(), is(replicaConnection));
+  }
+
+  @Test
+  void theReadOnlyConnectionsAreTakenFromThePrimaryWithoutReplica() throws Exception {
+    writeDeclaredField(connectionPool, "readOnlyDataSource", null, true);
+    assertThat(ConnectionPool.getReadOnlyConnection(), is(primaryConnection));
+    assertThat(ConnectionPool.readYourWrites(ConnectionPool::getReadOnlyConnection),
+        is(primaryConnection));
+  }
+}
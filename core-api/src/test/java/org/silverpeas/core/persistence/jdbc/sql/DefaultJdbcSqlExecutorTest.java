@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.persistence.jdbc.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.persistence.jdbc.ConnectionPool;
+import org.silverpeas.core.persistence.jdbc.sql.setters.SqlStatementParameterSetter;
+import org.silverpeas.kernel.test.annotations.TestManagedMock;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.apache.commons.lang3.reflect.FieldUtils.writeDeclaredField;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests on the connections with which the select queries are executed by
+ * {@link DefaultJdbcSqlExecutor}.
+ */
+@EnableSilverTestEnv
+class DefaultJdbcSqlExecutorTest {
+
+  @TestManagedMock
+  private ConnectionPool connectionPool;
+
+  private final DefaultJdbcSqlExecutor executor = new DefaultJdbcSqlExecutor();
+
+  @BeforeEach
+  void setUpExecutor() throws Exception {
+    final Connection connection = mockConnection();
+    when(connectionPool.getDataSourceConnection()).thenReturn(connection);
+    when(connectionPool.getReadOnlyDataSourceConnection()).thenReturn(connection);
+    writeDeclaredField(executor, "sqlParamSetter", mock(SqlStatementParameterSetter.class), true);
+    writeDeclaredField(executor, "statistics", mock(JdbcSqlStatistics.class), true);
+  }
+
+  @Test
+  void aSelectQueryIsExecutedWithAReadOnlyConnectionByDefault() throws Exception {
+    executor.select(JdbcSqlQuery.select("id").from("sb_table"), row -> row.getString(1));
+    verify(connectionPool).getReadOnlyDataSourceConnection();
+    verify(connectionPool, never()).getDataSourceConnection();
+  }
+
+  @Test
+  void aSelectQueryReadingFromThePrimaryIsExecutedWithAPrimaryConnection() throws Exception {
+    executor.select(JdbcSqlQuery.select("id")
+        .from("sb_table")
+        .configure(JdbcSqlQuery.Configuration::readFromPrimary), row -> row.getString(1));
+    verify(connectionPool).getDataSourceConnection();
+    verify(connectionPool, never()).getReadOnlyDataSourceConnection();
+  }
+
+  private static Connection mockConnection() throws Exception {
+    final ResultSet resultSet = mock(ResultSet.class);
+    final PreparedStatement statement = mock(PreparedStatement.class);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    final Connection connection = mock(Connection.class);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    return connection;
+  }
+}
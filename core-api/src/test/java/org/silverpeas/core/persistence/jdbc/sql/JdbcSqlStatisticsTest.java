@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.persistence.jdbc.sql;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlStatistics.StatementStatistics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.reflect.FieldUtils.writeDeclaredField;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.silverpeas.core.persistence.jdbc.sql.JdbcSqlStatistics.normalize;
+
+/**
+ * Unit tests on the normalization of the SQL statements gathered by {@link JdbcSqlStatistics}
+ * and on the statistics computed from their executions.
+ */
+class JdbcSqlStatisticsTest {
+
+  @Test
+  void literalValuesAreReplacedByPlaceholders() {
+    assertThat(normalize("SELECT id FROM sb_table WHERE name = 'O''Neil' AND id = 26"),
+        is("SELECT id FROM sb_table WHERE name = ? AND id = ?"));
+    assertThat(normalize("SELECT id FROM sb_table2 WHERE rate > 2.5"),
+        is("SELECT id FROM sb_table2 WHERE rate > ?"));
+  }
+
+  @Test
+  void spacesAreTrimmed() {
+    assertThat(normalize("  SELECT id\n   FROM sb_table\tWHERE id = ? "),
+        is("SELECT id FROM sb_table WHERE id = ?"));
+  }
+
+  @Test
+  void listsOfPlaceholdersAreCollapsed() {
+    assertThat(normalize("SELECT id FROM sb_table WHERE id IN (?,?,?)"),
+        is("SELECT id FROM sb_table WHERE id IN (?, ...)"));
+    assertThat(normalize("SELECT id FROM sb_table WHERE id IN (?, ?)"),
+        is(normalize("SELECT id FROM sb_table WHERE id IN (?,?,?,?,?,?)")));
+  }
+
+  @Test
+  void splitInClausesAreCollapsed() {
+    assertThat(normalize("SELECT id FROM sb_table WHERE (id IN (?,?) OR id IN (?,?,?))"),
+        is("SELECT id FROM sb_table WHERE (id IN (?, ...))"));
+  }
+
+  @Test
+  void normalizedStatementsAreMemoized() {
+    final JdbcSqlStatistics statistics = new JdbcSqlStatistics();
+    final String sql = "SELECT id FROM sb_table WHERE id IN (?,?,?)";
+    final String normalized = statistics.getNormalized(sql);
+    assertThat(normalized, is("SELECT id FROM sb_table WHERE id IN (?, ...)"));
+    assertThat(statistics.getNormalized(sql), sameInstance(normalized));
+
+    statistics.reset();
+    assertThat(statistics.getNormalized(sql), is(normalized));
+  }
+
+  @Test
+  void nothingIsRecordedWhenTheStatisticsAreDisabled() {
+    final JdbcSqlStatistics statistics = new JdbcSqlStatistics();
+    statistics.record("SELECT id FROM sb_table WHERE id = ?", List.of(26), millis(5), 1);
+    assertThat(statistics.getStatistics(), empty());
+  }
+
+  @Test
+  void theSlowExecutionsAreDetectedWhenTheStatisticsAreDisabled() throws Exception {
+    final JdbcSqlStatistics statistics = new JdbcSqlStatistics();
+    assertThat(statistics.isSlow(millis(5000)), is(false));
+    writeDeclaredField(statistics, "slowQueryThreshold", 1000L, true);
+    assertThat(statistics.isEnabled(), is(false));
+    assertThat(statistics.isSlow(millis(999)), is(false));
+    assertThat(statistics.isSlow(millis(1000)), is(true));
+  }
+
+  @Test
+  void theExecutionsAreGatheredByNormalizedStatement() throws Exception {
+    final JdbcSqlStatistics statistics = enabledStatistics();
+    statistics.record("SELECT id FROM sb_table WHERE id = 26", List.of(), millis(2), 1);
+    statistics.record("SELECT id FROM sb_table WHERE id = 38", List.of(), millis(4), 0);
+    statistics.record("UPDATE sb_table SET name = ? WHERE id = ?", List.of("a", 26), millis(20),
+        1);
+    final List<StatementStatistics> result = statistics.getStatistics();
+    // the most expensive statement first
+    assertThat(result.stream().map(StatementStatistics::getSql).collect(Collectors.toList()),
+        contains("UPDATE sb_table SET name = ? WHERE id = ?",
+            "SELECT id FROM sb_table WHERE id = ?"));
+    final StatementStatistics select = result.get(1);
+    assertThat(select.getCount(), is(2L));
+    assertThat(select.getRows(), is(1L));
+    assertThat(select.getTotalTime(), is(millis(6)));
+    assertThat(select.getMeanTime(), is(millis(3)));
+    assertThat(select.getMaxTime(), is(millis(4)));
+
+    statistics.reset();
+    assertThat(statistics.getStatistics(), empty());
+  }
+
+  @Test
+  void thePercentilesAreTheUpperBoundsOfTheBucketsOfTheExecutionTimes() throws Exception {
+    final JdbcSqlStatistics statistics = enabledStatistics();
+    final String sql = "SELECT id FROM sb_table";
+    for (int i = 0; i < 98; i++) {
+      statistics.record(sql, List.of(), millis(1), 1);
+    }
+    statistics.record(sql, List.of(), millis(100), 1);
+    statistics.record(sql, List.of(), millis(100), 1);
+    final List<StatementStatistics> result = statistics.getStatistics();
+    assertThat(result, hasSize(1));
+    // 1 ms = 1000 us is in the bucket [512 us, 1024 us[, 100 ms in [65536 us, 131072 us[
+    assertThat(result.get(0).getP50Time(), is(TimeUnit.MICROSECONDS.toNanos(1024)));
+    assertThat(result.get(0).getP99Time(), is(TimeUnit.MICROSECONDS.toNanos(131072)));
+    assertThat(result.get(0).getMaxTime(), is(millis(100)));
+  }
+
+  private static JdbcSqlStatistics enabledStatistics() throws IllegalAccessException {
+    final JdbcSqlStatistics statistics = new JdbcSqlStatistics();
+    writeDeclaredField(statistics, "enabled", true, true);
+    return statistics;
+  }
+
+  private static long millis(final long durationInMillis) {
+    return TimeUnit.MILLISECONDS.toNanos(durationInMillis);
+  }
+}
@@ -0,0 +1 @@
+ALTER TABLE ST_LongText ADD COLUMN longContent CLOB NULL;
@@ -0,0 +1 @@
+ALTER TABLE ST_SilverMailMessage ADD COLUMN MSGTIMESTAMP TIMESTAMP NULL;
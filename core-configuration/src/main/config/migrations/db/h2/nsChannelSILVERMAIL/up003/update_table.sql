@@ -0,0 +1 @@
+UPDATE ST_SilverMailMessage SET MSGTIMESTAMP = PARSEDATETIME(DATEMSG, 'yyyy/MM/dd') WHERE DATEMSG IS NOT NULL;
@@ -0,0 +1,12 @@
+CREATE TABLE SB_Stat_VolumeCheckpoint
+(
+    componentId		varchar(50)		not null,
+    lastCount		TIMESTAMP		not null
+);
+
+CREATE TABLE SB_Stat_VolumeSnapshot
+(
+    componentId		varchar(50)		not null,
+    userId          integer	        not null,
+    countVolume		decimal(19)     not null
+);
@@ -1,4 +0,0 @@
-create index IND_Statistic_ResourceId on SB_Statistic_History (resourceId)
-;
-create index IND_Statistic_UserId on SB_Statistic_History (userId )
-;
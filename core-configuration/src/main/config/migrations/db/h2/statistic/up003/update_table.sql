@@ -0,0 +1,6 @@
+INSERT INTO SB_Statistic_Counter (resourceId, componentId, resourceType, nbAccess, lastAccess)
+SELECT resourceId, componentId, resourceType, COUNT(*),
+       PARSEDATETIME(MAX(CONCAT(dateStat, ' ', heureStat)), 'yyyy/MM/dd HH:mm')
+FROM SB_Statistic_History
+GROUP BY resourceId, componentId, resourceType
+;
\ No newline at end of file
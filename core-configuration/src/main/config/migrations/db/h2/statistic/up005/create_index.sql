@@ -0,0 +1,6 @@
+create index IND_Statistic_LastAccess_User on SB_Statistic_LastAccess (userId, actionType, resourceType, lastAccess)
+;
+create index IND_Statistic_LastAccess_Res on SB_Statistic_LastAccess (resourceId)
+;
+create index IND_Statistic_LastAccess_Comp on SB_Statistic_LastAccess (componentId)
+;
@@ -0,0 +1,7 @@
+INSERT INTO SB_Statistic_LastAccess
+    (userId, resourceId, componentId, resourceType, actionType, lastAccess)
+SELECT userId, resourceId, componentId, resourceType, actionType,
+       PARSEDATETIME(MAX(CONCAT(dateStat, ' ', heureStat)), 'yyyy/MM/dd HH:mm')
+FROM SB_Statistic_History
+GROUP BY userId, resourceId, componentId, resourceType, actionType
+;
@@ -221,7 +221,8 @@ CREATE TABLE ST_KeyStore (
 CREATE TABLE ST_LongText (
 	id int NOT NULL ,
 	orderNum int NOT NULL ,
-	bodyContent nvarchar(2000) NOT NULL
+	bodyContent nvarchar(2000) NOT NULL ,
+	longContent nvarchar(max) NULL
 );
 
 CREATE TABLE ST_GroupUserRole
@@ -0,0 +1 @@
+ALTER TABLE ST_LongText ADD longContent NVARCHAR(MAX) NULL;
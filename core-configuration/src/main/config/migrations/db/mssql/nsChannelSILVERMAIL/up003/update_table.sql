@@ -0,0 +1 @@
+UPDATE ST_SilverMailMessage SET MSGTIMESTAMP = CONVERT(DATETIME, DATEMSG, 111) WHERE DATEMSG IS NOT NULL;
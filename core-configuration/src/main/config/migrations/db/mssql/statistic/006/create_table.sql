@@ -0,0 +1,29 @@
+CREATE TABLE SB_Statistic_History
+(
+    dateStat		varchar(10)		NOT NULL,
+    heureStat		varchar(10)		NOT NULL,
+    userId			varchar(100)	NOT NULL,
+    resourceId		varchar(50)		NOT NULL,
+    componentId		varchar(50)		NOT NULL,
+    actionType		int				NOT NULL,
+    resourceType	varchar(50)	    NOT NULL
+);
+
+CREATE TABLE SB_Statistic_Counter
+(
+    resourceId		varchar(50)		NOT NULL,
+    componentId		varchar(50)		NOT NULL,
+    resourceType	varchar(50)	    NOT NULL,
+    nbAccess		int				NOT NULL,
+    lastAccess		DATETIME		NOT NULL
+);
+
+CREATE TABLE SB_Statistic_LastAccess
+(
+    userId			varchar(100)	NOT NULL,
+    resourceId		varchar(50)		NOT NULL,
+    componentId		varchar(50)		NOT NULL,
+    resourceType	varchar(50)	    NOT NULL,
+    actionType		int				NOT NULL,
+    lastAccess		DATETIME		NOT NULL
+);
@@ -0,0 +1,2 @@
+create index IND_Statistic_Counter_Component on SB_Statistic_Counter (componentId)
+;
\ No newline at end of file
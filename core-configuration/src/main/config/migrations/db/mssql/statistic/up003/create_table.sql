@@ -0,0 +1,8 @@
+CREATE TABLE SB_Statistic_Counter
+(
+    resourceId		varchar(50)		NOT NULL,
+    componentId		varchar(50)		NOT NULL,
+    resourceType	varchar(50)	    NOT NULL,
+    nbAccess		int				NOT NULL,
+    lastAccess		DATETIME		NOT NULL
+);
\ No newline at end of file
@@ -0,0 +1,6 @@
+INSERT INTO SB_Statistic_Counter (resourceId, componentId, resourceType, nbAccess, lastAccess)
+SELECT resourceId, componentId, resourceType, COUNT(*),
+       CONVERT(DATETIME, REPLACE(MAX(dateStat + ' ' + heureStat), '/', '-') + ':00', 120)
+FROM SB_Statistic_History
+GROUP BY resourceId, componentId, resourceType
+;
\ No newline at end of file
@@ -0,0 +1,9 @@
+CREATE TABLE SB_Statistic_LastAccess
+(
+    userId			varchar(100)	NOT NULL,
+    resourceId		varchar(50)		NOT NULL,
+    componentId		varchar(50)		NOT NULL,
+    resourceType	varchar(50)	    NOT NULL,
+    actionType		int				NOT NULL,
+    lastAccess		DATETIME		NOT NULL
+);
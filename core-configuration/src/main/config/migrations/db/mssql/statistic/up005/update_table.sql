@@ -0,0 +1,7 @@
+INSERT INTO SB_Statistic_LastAccess
+    (userId, resourceId, componentId, resourceType, actionType, lastAccess)
+SELECT userId, resourceId, componentId, resourceType, actionType,
+       CONVERT(DATETIME, REPLACE(MAX(dateStat + ' ' + heureStat), '/', '-') + ':00', 120)
+FROM SB_Statistic_History
+GROUP BY userId, resourceId, componentId, resourceType, actionType
+;
@@ -222,7 +222,8 @@ CREATE TABLE ST_KeyStore (
 CREATE TABLE ST_LongText (
 	id int NOT NULL ,
 	orderNum int NOT NULL ,
-	bodyContent varchar(2000) NOT NULL
+	bodyContent varchar(2000) NOT NULL ,
+	longContent clob NULL
 );
 
 CREATE TABLE ST_GroupUserRole
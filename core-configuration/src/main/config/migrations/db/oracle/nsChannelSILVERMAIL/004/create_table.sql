@@ -9,5 +9,6 @@ CREATE TABLE ST_SilverMailMessage (
 	SOURCE varchar (255) NULL,
 	URL varchar (255) NULL,
 	DATEMSG varchar (255) NULL,
+	MSGTIMESTAMP TIMESTAMP NULL,
 	READEN int NOT NULL
 );
@@ -0,0 +1 @@
+ALTER TABLE ST_SilverMailMessage ADD MSGTIMESTAMP TIMESTAMP NULL;
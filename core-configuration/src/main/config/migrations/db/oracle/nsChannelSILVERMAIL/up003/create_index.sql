@@ -0,0 +1,2 @@
+CREATE INDEX IN_SilverMailMessage_Readen
+    ON ST_SilverMailMessage (READEN, MSGTIMESTAMP);
@@ -0,0 +1 @@
+UPDATE ST_SilverMailMessage SET MSGTIMESTAMP = TO_TIMESTAMP(DATEMSG, 'YYYY/MM/DD') WHERE DATEMSG IS NOT NULL;
@@ -0,0 +1,14 @@
+ALTER TABLE SB_Stat_VolumeCheckpoint ADD
+	 CONSTRAINT PK_Stat_VolumeCheckpoint PRIMARY KEY
+	(
+		componentId
+	)
+;
+
+ALTER TABLE SB_Stat_VolumeSnapshot ADD
+	 CONSTRAINT PK_Stat_VolumeSnapshot PRIMARY KEY
+	(
+		componentId,
+		userId
+	)
+;
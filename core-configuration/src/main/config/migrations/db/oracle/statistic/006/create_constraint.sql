@@ -0,0 +1,19 @@
+ALTER TABLE SB_Statistic_Counter ADD
+	 CONSTRAINT PK_Statistic_Counter PRIMARY KEY
+	(
+		resourceId,
+		componentId,
+		resourceType
+	)
+;
+
+ALTER TABLE SB_Statistic_LastAccess ADD
+	 CONSTRAINT PK_Statistic_LastAccess PRIMARY KEY
+	(
+		userId,
+		resourceId,
+		componentId,
+		resourceType,
+		actionType
+	)
+;
@@ -0,0 +1,8 @@
+ALTER TABLE SB_Statistic_Counter ADD
+	 CONSTRAINT PK_Statistic_Counter PRIMARY KEY
+	(
+		resourceId,
+		componentId,
+		resourceType
+	)
+;
\ No newline at end of file
@@ -0,0 +1,18 @@
+create index IND_Statistic_ResourceId on SB_Statistic_History (resourceId)
+;
+create index IND_Statistic_UserId on SB_Statistic_History (userId )
+;
+create index IND_Statistic_Component on SB_Statistic_History (componentId, dateStat)
+;
+create index IND_Statistic_DateStat on SB_Statistic_History (dateStat)
+;
+
+create index IND_Statistic_Counter_Component on SB_Statistic_Counter (componentId)
+;
+
+create index IND_Statistic_LastAccess_User on SB_Statistic_LastAccess (userId, actionType, resourceType, lastAccess)
+;
+create index IND_Statistic_LastAccess_Res on SB_Statistic_LastAccess (resourceId)
+;
+create index IND_Statistic_LastAccess_Comp on SB_Statistic_LastAccess (componentId)
+;
@@ -0,0 +1,6 @@
+INSERT INTO SB_Statistic_Counter (resourceId, componentId, resourceType, nbAccess, lastAccess)
+SELECT resourceId, componentId, resourceType, COUNT(*),
+       TO_TIMESTAMP(MAX(dateStat || ' ' || heureStat), 'YYYY/MM/DD HH24:MI')
+FROM SB_Statistic_History
+GROUP BY resourceId, componentId, resourceType
+;
\ No newline at end of file
@@ -0,0 +1,4 @@
+create index IND_Statistic_Component on SB_Statistic_History (componentId, dateStat)
+;
+create index IND_Statistic_DateStat on SB_Statistic_History (dateStat)
+;
@@ -0,0 +1,10 @@
+ALTER TABLE SB_Statistic_LastAccess ADD
+	 CONSTRAINT PK_Statistic_LastAccess PRIMARY KEY
+	(
+		userId,
+		resourceId,
+		componentId,
+		resourceType,
+		actionType
+	)
+;
@@ -0,0 +1,7 @@
+INSERT INTO SB_Statistic_LastAccess
+    (userId, resourceId, componentId, resourceType, actionType, lastAccess)
+SELECT userId, resourceId, componentId, resourceType, actionType,
+       TO_TIMESTAMP(MAX(dateStat || ' ' || heureStat), 'YYYY/MM/DD HH24:MI')
+FROM SB_Statistic_History
+GROUP BY userId, resourceId, componentId, resourceType, actionType
+;
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Converts the long texts stored into several parts of 2000 characters into single row ones: the
+ * whole text is then stored into the 'longContent' column of the row of order 0, which keeps its
+ * first part into the 'bodyContent' column, and the other parts are deleted.
+ */
+log.info 'Converting the long texts stored into several parts into single row ones'
+long start = System.currentTimeMillis()
+int nbConverted = 0
+List<Integer> chunkedTextIds = sql.rows('''
+SELECT id
+FROM st_longtext
+GROUP BY id
+HAVING COUNT(*) > 1
+''').collect { row -> row.id as Integer }
+log.info "Identifying ${chunkedTextIds.size()} long texts stored into several parts"
+chunkedTextIds.each { id ->
+  StringBuilder content = new StringBuilder()
+  sql.eachRow('SELECT bodyContent FROM st_longtext WHERE id = ? ORDER BY orderNum', [id]) { row ->
+    content.append(row.bodyContent)
+  }
+  sql.executeUpdate('UPDATE st_longtext SET longContent = ? WHERE id = ? AND orderNum = 0',
+      [content.toString(), id])
+  sql.executeUpdate('DELETE FROM st_longtext WHERE id = ? AND orderNum > 0', [id])
+  nbConverted++
+}
+long end = System.currentTimeMillis()
+log.info "...${nbConverted} long texts converted in ${end - start}ms"
@@ -42,14 +42,18 @@ import org.silverpeas.core.notification.user.delayed.DelayedNotificationProvider
 import org.silverpeas.core.notification.user.delayed.model.DelayedNotificationData;
 import org.silverpeas.core.notification.user.model.NotificationResourceData;
 import org.silverpeas.core.notification.user.server.NotificationData;
+import org.silverpeas.core.notification.user.server.NotificationServerException;
 import org.silverpeas.core.test.WarBuilder4LibCore;
 import org.silverpeas.core.test.integration.rule.DbSetupRule;
 import org.silverpeas.core.util.Charsets;
 
 import java.io.InputStream;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 
@@ -271,6 +275,47 @@ public class DelayedNotificationDelegateIT {
         new int[]{51, 53, 54}, "de");
   }
 
+  @Test
+  public void aDigestThatCannotBeSentDoesNotPreventTheSendingOfTheOtherOnes() throws Exception {
+    final DelayedNotificationDelegateStub stub = new DelayedNotificationDelegateStub(53);
+    stub.forceDelayedNotificationsSending(List.of(51, 53, 55), getAimedChannelsBase());
+    assertThat(stub.sendedList.stream()
+            .map(NotificationData::getTargetReceipt)
+            .collect(Collectors.toList()),
+        containsInAnyOrder("user51@tests.com", "user55@tests.com"));
+
+    // Checks: the delayed notifications of the digest that wasn't sent are kept
+    assertDelayedNotificationsAreForciblySent(0, 51);
+    assertDelayedNotificationsAreForciblySent(1, 53);
+    assertDelayedNotificationsAreForciblySent(0, 55);
+  }
+
+  @Test
+  public void theDelayedNotificationsOfADigestAreDeletedRightAfterItsSending() throws Exception {
+    final List<Integer> notDeletedAfterSending = new ArrayList<>();
+    final List<Integer> sentUsers = new ArrayList<>();
+    final DelayedNotificationDelegateStub stub = new DelayedNotificationDelegateStub(null) {
+      @Override
+      protected void sendNotification(final NotificationData notificationData)
+          throws NotificationServerException {
+        // the delayed notifications of the digests already sent have to be deleted
+        for (final Integer sentUser : sentUsers) {
+          if (!DelayedNotificationProvider.getDelayedNotification()
+              .findDelayedNotificationByUserIdGroupByChannel(sentUser, getAimedChannelsBase())
+              .isEmpty()) {
+            notDeletedAfterSending.add(sentUser);
+          }
+        }
+        super.sendNotification(notificationData);
+        final String receipt = notificationData.getTargetReceipt();
+        sentUsers.add(Integer.valueOf(receipt.replaceAll("\\D", "")));
+      }
+    };
+    stub.forceDelayedNotificationsSending(List.of(51, 53, 55), getAimedChannelsBase());
+    assertThat(sentUsers, containsInAnyOrder(51, 53, 55));
+    assertThat(notDeletedAfterSending, empty());
+  }
+
   private void assertDelayedNotificationsAreForciblySent(final int expectedSendingNb,
       final Integer userId) throws Exception {
     final DelayedNotificationDelegateStub stub = new DelayedNotificationDelegateStub();
@@ -328,12 +373,23 @@ public class DelayedNotificationDelegateIT {
 
     // Fetching of the notifications that were sent
     final protected List<NotificationData> sendedList = new ArrayList<>();
+    // The user to whom the sending of a notification fails
+    private final Integer failingUserId;
 
     /**
      * Default constructor
      */
     private DelayedNotificationDelegateStub() {
+      this(null);
+    }
+
+    /**
+     * Constructor of a stub failing to send the notifications of the specified user.
+     * @param failingUserId the identifier of the user to whom no notification can be sent.
+     */
+    private DelayedNotificationDelegateStub(final Integer failingUserId) {
       super();
+      this.failingUserId = failingUserId;
     }
 
     @Override
@@ -349,7 +405,12 @@ public class DelayedNotificationDelegateIT {
     }
 
     @Override
-    protected void sendNotification(final NotificationData notificationData) {
+    protected void sendNotification(final NotificationData notificationData)
+        throws NotificationServerException {
+      if (failingUserId != null &&
+          notificationData.getTargetReceipt().equals("user" + failingUserId + "@tests.com")) {
+        throw new NotificationServerException("The notification server is unavailable");
+      }
       sendedList.add(notificationData);
     }
   }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server.channel.server;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.notification.user.client.NotificationParameterNames;
+import org.silverpeas.core.notification.user.server.NotificationData;
+import org.silverpeas.core.notification.user.server.channel.BulkMessageInsertion;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.core.persistence.jdbc.LongText;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.test.WarBuilder4LibCore;
+import org.silverpeas.core.test.integration.rule.DbSetupRule;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests on the insertion in bulk of the SERVER messages and on the fallback to the
+ * insertion one by one when the bulk insertion fails.
+ */
+@RunWith(Arquillian.class)
+public class ServerMessageBulkInsertionIT {
+
+  private static final String TABLE_CREATION =
+      "/org/silverpeas/core/notification/user/server/channel/server/create_table.sql";
+  private static final Operation LONG_TEXT_TABLE_CREATION = Operations.sql(
+      "CREATE TABLE IF NOT EXISTS ST_LongText (id INT NOT NULL, orderNum INT NOT NULL, " +
+          "bodyContent VARCHAR(2000) NOT NULL, longContent CLOB NULL, " +
+          "CONSTRAINT PK_ST_LongText PRIMARY KEY (id, orderNum))");
+  private static final Operation MESSAGES_SETUP = Operations.insertInto("ST_ServerMessage")
+      .columns("id", "userId", "header", "subject", "body", "sessionId", "type")
+      .values(0, 0, null, null, "Toto chez les papoos", "1234", null)
+      .values(1, 0, null, null, "Lolo a des lolos", "1234", null)
+      .values(2, 0, null, null, "Bidule a faim", "30", null)
+      .build();
+  private static final Operation UNIQUE_ID_SETUP = Operations.insertInto("UniqueId")
+      .columns("maxId", "tableName")
+      .values(2, "st_servermessage")
+      .values(10, "st_longtext")
+      .build();
+
+  @Rule
+  public DbSetupRule dbSetupRule = DbSetupRule.createTablesFrom(TABLE_CREATION)
+      .loadInitialDataSetFrom(LONG_TEXT_TABLE_CREATION, MESSAGES_SETUP, UNIQUE_ID_SETUP);
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4LibCore.onWarForTestClass(ServerMessageBulkInsertionIT.class)
+        .addCommonBasicUtilities()
+        .addSilverpeasExceptionBases()
+        .addAdministrationFeatures()
+        .addNotificationFeatures()
+        .testFocusedOn(
+            war -> war.addPackages(true, "org.silverpeas.core.notification.user"))
+        .build();
+  }
+
+  @Test
+  public void messagesAreInsertedInBulkWithConsecutiveIds() throws Exception {
+    ServerMessageService.get()
+        .push(List.of(notification("26", "Hello 26", "s26"), notification("38", "Hello 38", "s38"),
+            notification("26", "Bye 26", "s26")));
+
+    assertThat(getInsertedMessages(),
+        contains("3|26|11|s26", "4|38|12|s38", "5|26|13|s26"));
+    assertThat(LongText.getLongText(11), is("Hello 26"));
+    assertThat(LongText.getLongText(12), is("Hello 38"));
+    assertThat(LongText.getLongText(13), is("Bye 26"));
+  }
+
+  @Test
+  public void messagesInsertedInBulkShareTheIdsOfTheMessagesInsertedOneByOne()
+      throws Exception {
+    ServerMessageService.get()
+        .push(List.of(notification("26", "Hello 26", "s26"), notification("38", "Hello 38", "s38")));
+    ServerMessageService.get().push("26", "Bye 26", "s26");
+
+    assertThat(getInsertedMessages(), contains("3|26|11|s26", "4|38|12|s38", "5|26|13|s26"));
+  }
+
+  @Test
+  public void noMessageToInsertInBulkDoesNothing() throws Exception {
+    final BulkMessageInsertion<ServerMessageBean> insertion =
+        new BulkMessageInsertion<>("ST_ServerMessage",
+            (statement, smb) -> statement.setLong(2, smb.getUserId()), "userId");
+    final int[] ids =
+        Transaction.performInOne(() -> insertion.insert(Collections.emptyList()));
+    assertThat(ids.length, is(0));
+    assertThat(getInsertedMessages(), empty());
+  }
+
+  @Test
+  public void aFailingBulkInsertionIsRolledBack() {
+    try {
+      ServerMessageService.get()
+          .push(List.of(notification("26", "Hello 26", "s26"),
+              notification("Toto", "Hello Toto", "sToto")));
+    } catch (Exception e) {
+      // the user identifier isn't valid
+    }
+    assertThat(getInsertedMessages(), empty());
+    assertThat(LongText.listLongTexts(List.of(11, 12)).isEmpty(), is(true));
+  }
+
+  @Test
+  public void theMessagesAreInsertedOneByOneWhenTheBulkInsertionFails() throws Exception {
+    final SERVERListener listener = new SERVERListener();
+    listener.send(List.of(notification("26", "Hello 26", "s26"),
+        notification("Toto", "Hello Toto", "sToto"), notification("38", "Hello 38", "s38")));
+
+    final List<String> messages = getInsertedMessages();
+    assertThat(messages, hasSize(2));
+    assertThat(messages.get(0), startsWith("3|26|"));
+    assertThat(messages.get(1), startsWith("4|38|"));
+    assertThat(ServerMessageService.get().read("26", "s26").getContent(), is("Hello 26"));
+    assertThat(ServerMessageService.get().read("38", "s38").getContent(), is("Hello 38"));
+  }
+
+  private static NotificationData notification(final String userId, final String message,
+      final String sessionId) {
+    final NotificationData notification = new NotificationData();
+    notification.setTargetReceipt(userId);
+    notification.setMessage(message);
+    final Map<String, Object> params = new HashMap<>();
+    params.put(NotificationParameterNames.SESSIONID.toString(), sessionId);
+    notification.setTargetParam(params);
+    return notification;
+  }
+
+  private List<String> getInsertedMessages() {
+    try {
+      return JdbcSqlQuery.select("id, userId, body, sessionId FROM ST_ServerMessage")
+          .where("id > 2")
+          .addSqlPart("ORDER BY id")
+          .execute(row -> row.getInt(1) + "|" + row.getLong(2) + "|" + row.getString(3) + "|" +
+              row.getString(4));
+    } catch (SQLException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server.channel.silvermail;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.test.WarBuilder4LibCore;
+import org.silverpeas.core.test.integration.rule.DbSetupRule;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests on the purge of the old read SILVERMAIL messages.
+ */
+@RunWith(Arquillian.class)
+public class SilvermailRetentionIT {
+
+  private static final String TABLE_CREATION =
+      "/org/silverpeas/core/notification/user/server/channel/silvermail/create_table.sql";
+  private static final Instant RETENTION_DATE = Instant.parse("2024-01-01T00:00:00Z");
+  private static final Timestamp OLD = Timestamp.from(Instant.parse("2023-06-15T10:30:00Z"));
+  private static final Timestamp RECENT = Timestamp.from(Instant.parse("2024-02-01T08:00:00Z"));
+  private static final Operation LONG_TEXT_TABLE_CREATION = Operations.sql(
+      "CREATE TABLE IF NOT EXISTS ST_LongText (id INT NOT NULL, orderNum INT NOT NULL, " +
+          "bodyContent VARCHAR(2000) NOT NULL, longContent CLOB NULL, " +
+          "CONSTRAINT PK_ST_LongText PRIMARY KEY (id, orderNum))");
+  private static final Operation MESSAGES_SETUP = Operations.insertInto("ST_SilverMailMessage")
+      .columns("id", "userId", "folderId", "senderName", "subject", "body", "dateMsg",
+          "msgTimestamp", "readen")
+      .values(1, 10, 0, "Toto", "Old read", "101", "2023/06/15", OLD, 1)
+      .values(2, 10, 0, "Toto", "Old read inline", "an inline body", "2023/06/15", OLD, 1)
+      .values(3, 10, 0, "Toto", "Old unread", "103", "2023/06/15", OLD, 0)
+      .values(4, 10, 0, "Toto", "Recent read", "104", "2024/02/01", RECENT, 1)
+      .values(5, 11, 0, "Toto", "Old read", "105", "2023/06/15", OLD, 1)
+      .values(6, 11, 0, "Toto", "Without timestamp", "106", "2023/06/15", null, 1)
+      .build();
+  private static final Operation LONG_TEXTS_SETUP = Operations.insertInto("ST_LongText")
+      .columns("id", "orderNum", "bodyContent")
+      .values(101, 0, "body of 1")
+      .values(103, 0, "body of 3")
+      .values(104, 0, "body of 4")
+      .values(105, 0, "body of 5")
+      .values(106, 0, "body of 6")
+      .build();
+
+  @Rule
+  public DbSetupRule dbSetupRule = DbSetupRule.createTablesFrom(TABLE_CREATION)
+      .loadInitialDataSetFrom(LONG_TEXT_TABLE_CREATION, MESSAGES_SETUP, LONG_TEXTS_SETUP);
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4LibCore.onWarForTestClass(SilvermailRetentionIT.class)
+        .addCommonBasicUtilities()
+        .addSilverpeasExceptionBases()
+        .addAdministrationFeatures()
+        .addNotificationFeatures()
+        .testFocusedOn(war -> war.addPackages(true, "org.silverpeas.core.notification.user"))
+        .build();
+  }
+
+  @Test
+  public void theOldReadMessagesAreDeletedWithTheirBodyByChunks() throws Exception {
+    final long nbDeleted = SILVERMAILPersistence.deleteReadMessagesOlderThan(RETENTION_DATE, 2);
+    assertThat(nbDeleted, is(3L));
+    assertThat(getMessageIds(), contains(3, 4, 6));
+    assertThat(getLongTextIds(), contains(103, 104, 106));
+  }
+
+  @Test
+  public void aChunkSizeDividingTheNumberOfMessagesDeletesThemAll() throws Exception {
+    final long nbDeleted = SILVERMAILPersistence.deleteReadMessagesOlderThan(RETENTION_DATE, 3);
+    assertThat(nbDeleted, is(3L));
+    assertThat(getMessageIds(), contains(3, 4, 6));
+  }
+
+  @Test
+  public void aChunkSizeGreaterThanTheNumberOfMessagesDeletesThemAtOnce() throws Exception {
+    final long nbDeleted =
+        SILVERMAILPersistence.deleteReadMessagesOlderThan(RETENTION_DATE, 1000);
+    assertThat(nbDeleted, is(3L));
+    assertThat(getMessageIds(), contains(3, 4, 6));
+  }
+
+  @Test
+  public void nothingIsDeletedWhenNoReadMessagesAreOlderThanTheDate() throws Exception {
+    final long nbDeleted = SILVERMAILPersistence.deleteReadMessagesOlderThan(
+        Instant.parse("2023-01-01T00:00:00Z"), 2);
+    assertThat(nbDeleted, is(0L));
+    assertThat(getMessageIds(), contains(1, 2, 3, 4, 5, 6));
+    assertThat(getLongTextIds(), contains(101, 103, 104, 105, 106));
+  }
+
+  private List<Integer> getMessageIds() throws SQLException {
+    return JdbcSqlQuery.select("id FROM ST_SilverMailMessage")
+        .addSqlPart("ORDER BY id")
+        .execute(row -> row.getInt(1));
+  }
+
+  private List<Integer> getLongTextIds() throws SQLException {
+    return JdbcSqlQuery.select("id FROM ST_LongText")
+        .addSqlPart("ORDER BY id")
+        .execute(row -> row.getInt(1));
+  }
+}
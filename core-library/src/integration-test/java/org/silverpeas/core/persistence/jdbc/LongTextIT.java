@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.persistence.jdbc;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import groovy.lang.Binding;
+import groovy.lang.GroovyShell;
+import groovy.sql.Sql;
+import org.apache.commons.io.IOUtils;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.test.WarBuilder4LibCore;
+import org.silverpeas.core.test.integration.rule.DbSetupRule;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests on the storage of the long texts, either into a single row or into several
+ * parts as before the introduction of the {@code longContent} column.
+ */
+@RunWith(Arquillian.class)
+public class LongTextIT {
+
+  private static final int PART_SIZE = 1998;
+  private static final String LEGACY_PART_1 = repeat('a', PART_SIZE);
+  private static final String LEGACY_PART_2 = repeat('b', PART_SIZE);
+  private static final String LEGACY_PART_3 = "the end";
+  private static final String LEGACY_TEXT = LEGACY_PART_1 + LEGACY_PART_2 + LEGACY_PART_3;
+  private static final String MIGRATION_SCRIPT = "convertChunkedLongTexts.groovy";
+  private static final String MIGRATION_SCRIPT_PATH =
+      "../core-configuration/src/main/config/migrations/scripts/busCore/up046/" +
+          MIGRATION_SCRIPT;
+
+  public static final Operation TABLES_CREATION = Operations.sql(
+      "CREATE TABLE IF NOT EXISTS ST_LongText (id INT NOT NULL, orderNum INT NOT NULL, " +
+          "bodyContent VARCHAR(2000) NOT NULL, longContent CLOB NULL, " +
+          "CONSTRAINT PK_ST_LongText PRIMARY KEY (id, orderNum))");
+  public static final Operation CLEAN_UP = Operations.deleteAllFrom("ST_LongText", "UniqueId");
+  public static final Operation LONG_TEXT_SET_UP = Operations.insertInto("ST_LongText")
+      .columns("id", "orderNum", "bodyContent")
+      .values(1, 0, "a short text")
+      .values(2, 0, LEGACY_PART_1)
+      .values(2, 1, LEGACY_PART_2)
+      .values(2, 2, LEGACY_PART_3)
+      .build();
+  public static final Operation UNIQUE_ID_SET_UP = Operations.insertInto("UniqueId")
+      .columns("maxId", "tableName")
+      .values(2, "st_longtext")
+      .build();
+
+  @Rule
+  public DbSetupRule dbSetupRule = DbSetupRule.createDefaultTables()
+      .loadInitialDataSetFrom(TABLES_CREATION, CLEAN_UP, LONG_TEXT_SET_UP, UNIQUE_ID_SET_UP);
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4LibCore.onWarForTestClass(LongTextIT.class)
+        .addDatabaseToolFeatures()
+        .addSilverpeasExceptionBases()
+        .addMavenDependencies("org.codehaus.groovy:groovy-sql")
+        .applyManually(war -> war.addAsResource(new File(MIGRATION_SCRIPT_PATH),
+            MIGRATION_SCRIPT))
+        .build();
+  }
+
+  @Test
+  public void aShortTextIsStoredIntoASingleRowWithoutLongContent() throws Exception {
+    final int id = LongText.addLongText("a new short text");
+    assertThat(id, is(3));
+    assertThat(getRows(id), contains("0|a new short text|null"));
+    assertThat(LongText.getLongText(id), is("a new short text"));
+  }
+
+  @Test
+  public void aLongTextIsStoredIntoASingleRow() throws Exception {
+    final String text = repeat('x', PART_SIZE) + repeat('y', PART_SIZE) + "z";
+    final int id = LongText.addLongText(text);
+    assertThat(getRows(id), contains("0|" + repeat('x', PART_SIZE) + "|" + text));
+    assertThat(LongText.getLongText(id), is(text));
+  }
+
+  @Test
+  public void aNullTextIsStoredAsAnEmptyOne() throws Exception {
+    final int id = LongText.addLongText(null);
+    assertThat(LongText.getLongText(id), is(""));
+  }
+
+  @Test
+  public void aLegacyChunkedTextIsReadAsAWhole() {
+    assertThat(LongText.getLongText(2), is(LEGACY_TEXT));
+  }
+
+  @Test
+  public void listingLongTextsReadsBothStorages() throws Exception {
+    final String text = repeat('x', PART_SIZE + 10);
+    final int id = LongText.addLongText(text);
+    final Map<Integer, String> texts = LongText.listLongTexts(Arrays.asList(1, 2, id, 42));
+    assertThat(texts.size(), is(3));
+    assertThat(texts.get(1), is("a short text"));
+    assertThat(texts.get(2), is(LEGACY_TEXT));
+    assertThat(texts.get(id), is(text));
+  }
+
+  @Test
+  public void aConvertedChunkedTextIsReadAsBefore() throws Exception {
+    convertChunkedTexts();
+    assertThat(getRows(2), contains("0|" + LEGACY_PART_1 + "|" + LEGACY_TEXT));
+    assertThat(getRows(1), contains("0|a short text|null"));
+    assertThat(LongText.getLongText(2), is(LEGACY_TEXT));
+    assertThat(LongText.listLongTexts(Arrays.asList(1, 2)).get(2), is(LEGACY_TEXT));
+  }
+
+  @Test
+  public void convertingTwiceTheChunkedTextsChangesNothing() throws Exception {
+    convertChunkedTexts();
+    final List<String> rows = getRows(2);
+    convertChunkedTexts();
+    assertThat(getRows(2), is(rows));
+    assertThat(LongText.getLongText(2), is(LEGACY_TEXT));
+  }
+
+  @Test
+  public void aPartiallyConvertedChunkedTextIsReadOnlyFromItsLongContent() throws Exception {
+    // the migration was interrupted after the update of the row of order 0 and before the
+    // deletion of the other parts
+    JdbcSqlQuery.update("ST_LongText")
+        .withUpdateParam("longContent", LEGACY_TEXT)
+        .where("id = ? AND orderNum = 0", 2)
+        .execute();
+    assertThat(getRows(2), hasSize(3));
+    assertThat(LongText.getLongText(2), is(LEGACY_TEXT));
+    assertThat(LongText.listLongTexts(Arrays.asList(1, 2)).get(2), is(LEGACY_TEXT));
+
+    convertChunkedTexts();
+    assertThat(getRows(2), contains("0|" + LEGACY_PART_1 + "|" + LEGACY_TEXT));
+    assertThat(LongText.getLongText(2), is(LEGACY_TEXT));
+  }
+
+  @Test
+  public void severalTextsAreAddedAtOnceWithConsecutiveIds() throws Exception {
+    final String longText = repeat('x', PART_SIZE) + "y";
+    final int[] ids =
+        LongText.addLongTexts(Arrays.asList("first", longText, null, "", "last"));
+    assertThat(ids.length, is(5));
+    for (int i = 0; i < ids.length; i++) {
+      assertThat(ids[i], is(3 + i));
+    }
+    assertThat(getRows(ids[0]), contains("0|first|null"));
+    assertThat(getRows(ids[1]), contains("0|" + repeat('x', PART_SIZE) + "|" + longText));
+    final Map<Integer, String> texts = LongText.listLongTexts(Arrays.stream(ids).boxed()
+        .collect(Collectors.toList()));
+    assertThat(texts.get(ids[0]), is("first"));
+    assertThat(texts.get(ids[1]), is(longText));
+    assertThat(texts.get(ids[2]), is(""));
+    assertThat(texts.get(ids[3]), is(""));
+    assertThat(texts.get(ids[4]), is("last"));
+    // the identifiers are taken from the same sequence than the ones of the single texts
+    assertThat(LongText.addLongText("next"), is(8));
+  }
+
+  @Test
+  public void addingNoTextsDoesNothing() throws Exception {
+    assertThat(LongText.addLongTexts(Collections.emptyList()).length, is(0));
+    assertThat(LongText.addLongText("next"), is(3));
+  }
+
+  @Test
+  public void severalTextsAreRemovedAtOnceWhateverTheirStorage() throws Exception {
+    final int[] ids = LongText.addLongTexts(Arrays.asList("first", "second", "third"));
+    LongText.removeLongTexts(Arrays.asList(1, 2, ids[0], ids[2], 666));
+    assertThat(getRows(1), empty());
+    assertThat(getRows(2), empty());
+    assertThat(getRows(ids[0]), empty());
+    assertThat(getRows(ids[2]), empty());
+    assertThat(LongText.getLongText(ids[1]), is("second"));
+  }
+
+  @Test
+  public void removingNoTextsDoesNothing() throws Exception {
+    LongText.removeLongTexts(Collections.emptyList());
+    assertThat(getRows(1), hasSize(1));
+    assertThat(getRows(2), hasSize(3));
+  }
+
+  /**
+   * Runs the busCore up046 convertChunkedLongTexts.groovy migration script as shipped, with the
+   * same bindings than the ones provided by the migration tool.
+   */
+  private void convertChunkedTexts() throws Exception {
+    final String script;
+    try (InputStream input = getClass().getResourceAsStream("/" + MIGRATION_SCRIPT)) {
+      assertThat(input, notNullValue());
+      script = IOUtils.toString(input, StandardCharsets.UTF_8);
+    }
+    try (Connection connection = DBUtil.openConnection()) {
+      final Binding binding = new Binding();
+      binding.setVariable("sql", new Sql(connection));
+      binding.setVariable("log", Logger.getLogger(MIGRATION_SCRIPT));
+      new GroovyShell(binding).evaluate(script, MIGRATION_SCRIPT);
+    }
+  }
+
+  private List<String> getRows(final int id) throws SQLException {
+    return JdbcSqlQuery.select("orderNum, bodyContent, longContent FROM ST_LongText")
+        .where("id = ?", id)
+        .addSqlPart("ORDER BY orderNum")
+        .execute(row -> row.getInt(1) + "|" + row.getString(2) + "|" + row.getString(3));
+  }
+
+  private static String repeat(final char c, final int count) {
+    final char[] chars = new char[count];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+}
@@ -45,8 +45,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -340,6 +346,78 @@ public class JdbcSqlQueryIT {
     assertThat(rows.get(1).getRight(), is("value_60"));
   }
 
+  @Test
+  public void streamAll() throws SQLException {
+    try (Stream<Pair<Long, String>> rows = select("*").from("a_table").orderBy("id")
+        .configure(config -> config.withFetchSize(7)).stream(new TableResultProcess())) {
+      List<Long> ids = rows.map(Pair::getLeft).collect(Collectors.toList());
+      assertThat(ids, hasSize((int) NB_ROW_AT_BEGINNING));
+      for (int i = 0; i < ids.size(); i++) {
+        assertThat(ids.get(i), is((long) i));
+      }
+    }
+  }
+
+  @Test
+  public void streamWithOffsetAndLimit() throws SQLException {
+    final int resultLimit = 5;
+    final int offset = 2;
+    try (Stream<Pair<Long, String>> rows = select("*").from("a_table").where("value like ?", "%0")
+        .orderBy("id desc")
+        .configure(config -> config.withOffset(offset).withResultLimit(resultLimit))
+        .stream(new TableResultProcess(false))) {
+      List<String> values = rows.map(Pair::getRight).collect(Collectors.toList());
+      assertThat(values, contains("value_70", "value_60", "value_50", "value_40", "value_30"));
+    }
+  }
+
+  @Test
+  public void streamWithExistingConnection() throws SQLException {
+    try (Connection connection = dbSetupRule.getSafeConnectionFromDifferentThread()) {
+      try (Stream<Pair<Long, String>> rows = select("*").from("a_table").where("id").in(38, 39, 40)
+          .streamWith(connection, new TableResultProcess(false))) {
+        assertThat(rows.count(), is(3L));
+      }
+      assertThat(connection.isClosed(), is(false));
+    }
+  }
+
+  @Test
+  public void executeInParallelBySplittingOnGivesTheSameResultAsSequentially()
+      throws SQLException {
+    final List<Long> ids = addRowsUpTo(4000);
+    final Map<Long, List<String>> sequential = executeBySplittingOn(ids,
+        (idBatch, result) -> select("id, value").from("a_table").where("id").in(idBatch)
+            .execute(r -> result.computeIfAbsent(r.getLong(1), i -> new ArrayList<>())
+                .add(r.getString(2))));
+    final Map<Long, List<String>> parallel = executeInParallelBySplittingOn(ids,
+        (connection, idBatch) -> {
+          final Map<Long, List<String>> result = new HashMap<>(idBatch.size());
+          select("id, value").from("a_table").where("id").in(idBatch)
+              .executeWith(connection, r -> result.computeIfAbsent(r.getLong(1),
+                  i -> new ArrayList<>()).add(r.getString(2)));
+          return result;
+        });
+    assertThat(sequential.size(), is(ids.size()));
+    assertThat(parallel, is(sequential));
+  }
+
+  @Test
+  public void streamInParallelBySplittingOnGivesTheSameResultAsSequentially()
+      throws SQLException {
+    final List<Long> ids = addRowsUpTo(4000);
+    Collections.reverse(ids);
+    final List<Long> sequential = streamBySplittingOn(ids,
+        idBatch -> select("id").from("a_table").where("id").in(idBatch).orderBy("id desc")
+            .execute(r -> r.getLong(1))).collect(Collectors.toList());
+    final List<Long> parallel = streamInParallelBySplittingOn(ids,
+        (connection, idBatch) -> select("id").from("a_table").where("id").in(idBatch)
+            .orderBy("id desc")
+            .executeWith(connection, r -> r.getLong(1))).collect(Collectors.toList());
+    assertThat(sequential, is(ids));
+    assertThat(parallel, is(sequential));
+  }
+
   @Test
   public void createRowUsingAppendSaveParameter() {
     assertThat(getTableLines(), hasSize(100));
@@ -457,6 +535,25 @@ public class JdbcSqlQueryIT {
     assertThat(countAll().from("b_table").execute(), is(1L));
   }
 
+  /**
+   * Adds rows into a_table so that it contains the given number of rows.
+   * @param nbRows the number of rows a_table has to contain.
+   * @return the identifiers of all the rows of a_table, sorted.
+   */
+  private List<Long> addRowsUpTo(final long nbRows) throws SQLException {
+    try (Connection connection = dbSetupRule.getSafeConnectionFromDifferentThread();
+         PreparedStatement statement = connection
+             .prepareStatement("INSERT INTO a_table (id, value) VALUES (?, ?)")) {
+      for (long l = NB_ROW_AT_BEGINNING; l < nbRows; l++) {
+        statement.setLong(1, l);
+        statement.setString(2, "value_" + l);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+    return LongStream.range(0, nbRows).boxed().collect(Collectors.toList());
+  }
+
   /**
    * Gets the content of a_table.
    * @return the content of a_table.
@@ -242,6 +242,77 @@ public class DBUtilIT {
     fail("Table 'Tartempion' must not exist...");
   }
 
+  @Test
+  public void aRangeOfUniqueIdsIsReservedAtOnce() throws SQLException {
+    assertThat(actualMaxIdInUniqueIdFor("User"), is(1));
+    int firstId = DBUtil.getNextIds("User", "id", 5);
+    assertThat(firstId, is(2));
+    assertThat(actualMaxIdInUniqueIdFor("User"), is(6));
+  }
+
+  @Test
+  public void aRangeOfUniqueIdsSharesTheSequenceOfTheSingleIds() throws SQLException {
+    assertThat(DBUtil.getNextId("User", "id"), is(2));
+    assertThat(DBUtil.getNextIds("User", "id", 3), is(3));
+    assertThat(DBUtil.getNextId("User", "id"), is(6));
+    assertThat(DBUtil.getNextIds("User", "id", 1), is(7));
+    assertThat(actualMaxIdInUniqueIdFor("User"), is(7));
+  }
+
+  @Test
+  public void aRangeOfUniqueIdsForANewTableStartsAfterTheGreatestIdOfTheTable()
+      throws SQLException {
+    try (Connection connection = dbSetupRule.getSafeConnectionFromDifferentThread();
+         PreparedStatement statement = connection.prepareStatement(
+             "insert into Toto (id) values (41), (42)")) {
+      statement.executeUpdate();
+    }
+    int firstId = DBUtil.getNextIds("Toto", "id", 10);
+    assertThat(firstId, is(43));
+    assertThat(actualMaxIdInUniqueIdFor("Toto"), is(52));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void aRangeOfNoUniqueIdIsRejected() {
+    DBUtil.getNextIds("User", "id", 0);
+  }
+
+  @Test
+  public void concurrentRangesOfUniqueIdsDoNotOverlap() throws Exception {
+    final int nbThreads = 2 + (int) (Math.random() * 10);
+    final int rangeSize = 10;
+    final List<Integer> firstIds = new ArrayList<>();
+    final Thread[] threads = new Thread[nbThreads];
+    for (int i = 0; i < nbThreads; i++) {
+      threads[i] = managedThreadFactory.newThread(() -> {
+        int firstId = DBUtil.getNextIds("User", "id", rangeSize);
+        synchronized (firstIds) {
+          firstIds.add(firstId);
+        }
+      });
+    }
+    try {
+      for (Thread thread : threads) {
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    } finally {
+      for (Thread thread : threads) {
+        if (thread.isAlive()) {
+          thread.interrupt();
+        }
+      }
+    }
+    assertThat(firstIds.size(), is(nbThreads));
+    firstIds.sort(Integer::compareTo);
+    for (int i = 0; i < nbThreads; i++) {
+      assertThat(firstIds.get(i), is(2 + i * rangeSize));
+    }
+    assertThat(actualMaxIdInUniqueIdFor("User"), is(1 + nbThreads * rangeSize));
+  }
+
   private int actualMaxIdInUniqueIdFor(String tableName) throws SQLException {
     final String query = "select maxId from UniqueId where tableName = ?";
     int maxId;
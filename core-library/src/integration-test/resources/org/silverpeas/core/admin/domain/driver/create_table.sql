@@ -282,6 +282,7 @@ CREATE TABLE IF NOT EXISTS ST_LongText (
   id          INT           NOT NULL,
   orderNum    INT           NOT NULL,
   bodyContent VARCHAR(2000) NOT NULL,
+  longContent CLOB          NULL,
   CONSTRAINT PK_ST_LongText PRIMARY KEY (id,orderNum)
 );
 
@@ -25,8 +25,10 @@ package org.silverpeas.core.mail.engine;
 
 import org.silverpeas.core.annotation.Bean;
 import org.silverpeas.core.mail.MailToSend;
+import org.silverpeas.core.thread.ManagedThreadPool;
 import org.silverpeas.core.thread.task.AbstractRequestTask;
 import org.silverpeas.core.thread.task.RequestTaskManager;
+import org.silverpeas.core.util.MailSettings;
 import org.silverpeas.kernel.logging.SilverLogger;
 
 import java.util.concurrent.Semaphore;
@@ -35,16 +37,20 @@ import java.util.concurrent.Semaphore;
  * A task MailSenderTask runs in the background a batch of mail to send.<br>
  * When it get no more mail to send, the task ends and a new one will be instantiated on the next
  * mail sending request.<br>
- * Priority is given to synchronous mail sending request.
+ * Priority is given to synchronous mail sending request.<br>
+ * By default the mails are sent one by one. When several parallel senders are configured (see
+ * {@link MailSettings#getMailSenderThreads()}), the asynchronous mails are sent each in its own
+ * managed thread, at most that number of mails being sent at the same time.
  */
 @Bean
 public class MailSenderTask extends AbstractRequestTask<MailSenderTask.MailProcessContext> {
 
   /**
    * All the requests are processed by a single background thread. This thread is built and started
-   * by the start method.
+   * by the start method. The semaphore bounds the number of mails sent at the same time.
    */
-  private static final Semaphore orderedOneByOneSemaphore = new Semaphore(1, true);
+  private static final int SENDER_COUNT = MailSettings.getMailSenderThreads();
+  private static final Semaphore senderSemaphore = new Semaphore(SENDER_COUNT, true);
 
   /**
    * Add a mail to send.
@@ -57,7 +63,7 @@ public class MailSenderTask extends AbstractRequestTask<MailSenderTask.MailProce
     } else {
       // The sending is performed synchronously
       try {
-        mailToSendRequest.process(new MailProcessContext(orderedOneByOneSemaphore));
+        mailToSendRequest.process(new MailProcessContext(senderSemaphore, SENDER_COUNT));
       } catch (InterruptedException e) {
         SilverLogger.getLogger(MailSenderTask.class).error(e.getLocalizedMessage(), e);
         Thread.currentThread().interrupt();
@@ -67,19 +73,25 @@ public class MailSenderTask extends AbstractRequestTask<MailSenderTask.MailProce
 
   @Override
   protected MailProcessContext getProcessContext() {
-    return new MailProcessContext(orderedOneByOneSemaphore);
+    return new MailProcessContext(senderSemaphore, SENDER_COUNT);
   }
 
   static class MailProcessContext implements AbstractRequestTask.ProcessContext {
     private final Semaphore semaphore;
+    private final int senderCount;
 
-    MailProcessContext(final Semaphore semaphore) {
+    MailProcessContext(final Semaphore semaphore, final int senderCount) {
       this.semaphore = semaphore;
+      this.senderCount = senderCount;
     }
 
     Semaphore getSemaphore() {
       return semaphore;
     }
+
+    boolean isParallel() {
+      return senderCount > 1;
+    }
   }
 
   /**
@@ -98,13 +110,27 @@ public class MailSenderTask extends AbstractRequestTask<MailSenderTask.MailProce
 
     /**
      * As {@link MailSenderTask} can send a mail synchronously or asynchronously, this method is
-     * synchronized to ensure that one send is performed at a same time laps.
+     * synchronized to ensure that no more mails than the number of senders are sent at a same
+     * time laps. With several senders, an asynchronous mail is sent in its own managed thread.
      * @param context the context of the request processing.
      */
     @Override
     public void process(final MailProcessContext context) throws InterruptedException {
+      context.getSemaphore().acquire();
+      if (mailToSend.isAsynchronous() && context.isParallel()) {
+        try {
+          ManagedThreadPool.getPool().invoke(() -> send(context));
+        } catch (RuntimeException e) {
+          context.getSemaphore().release();
+          throw e;
+        }
+      } else {
+        send(context);
+      }
+    }
+
+    private void send(final MailProcessContext context) {
       try {
-        context.getSemaphore().acquire();
         MailSender.get().send(mailToSend);
       } finally {
         context.getSemaphore().release();
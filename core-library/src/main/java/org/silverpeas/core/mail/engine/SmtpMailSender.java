@@ -33,9 +33,11 @@ import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.kernel.logging.SilverLogger;
 
 import javax.inject.Singleton;
+import javax.annotation.PreDestroy;
+import javax.mail.Message;
 import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
 import javax.mail.Session;
-import javax.mail.Transport;
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
@@ -56,6 +58,13 @@ import java.util.Properties;
 @Singleton
 public class SmtpMailSender implements MailSender {
 
+  private final SmtpTransportPool transportPool = new SmtpTransportPool();
+
+  @PreDestroy
+  protected void closeTransports() {
+    transportPool.clear();
+  }
+
   /**
    * Retrieves the system properties and configure a mail session. For further explanations, please
    * read the <code>RFC1891</code>.
@@ -112,6 +121,9 @@ public class SmtpMailSender implements MailSender {
       // Sending.
       performSend(mail, smtpConfiguration, session, email, toAddresses);
 
+    } catch (InterruptedException e) {
+      SilverLogger.getLogger(this).error(e);
+      Thread.currentThread().interrupt();
     } catch (Exception e) {
       SilverLogger.getLogger(this).error(e);
     }
@@ -145,10 +157,12 @@ public class SmtpMailSender implements MailSender {
   /**
    * This method performs the treatment of the technical send:
    * <ul>
-   * <li>connection to the SMTP server</li>
+   * <li>getting a connection to the SMTP server from the pool of transports</li>
    * <li>sending</li>
-   * <li>closing the connection</li>
+   * <li>giving back the connection to the pool</li>
    * </ul>
+   * If a reused connection was closed by the SMTP server in the meantime, the sending is
+   * performed again, only once, with a new connection.
    * @param mail the original data from which the given {@link MimeMessage} has been initialized.
    * @param smtpConfiguration the SMTP configuration.
    * @param session the current mail session.
@@ -158,38 +172,39 @@ public class SmtpMailSender implements MailSender {
    */
   private void performSend(final MailToSend mail, final SmtpConfiguration smtpConfiguration,
       Session session, MimeMessage messageToSend, List<InternetAddress[]> batchedToAddresses)
-      throws MessagingException {
-
-    // Creating a Transport connection (TCP)
-    final Transport transport;
-    if (smtpConfiguration.isSecure()) {
-      transport = session.getTransport(SmtpConfiguration.SECURE_TRANSPORT);
-    } else {
-      transport = session.getTransport(SmtpConfiguration.SIMPLE_TRANSPORT);
-    }
-
-    // Adding send reporting listener
-    transport.addTransportListener(new SmtpMailSendReportListener(mail));
+      throws MessagingException, InterruptedException {
+    final Message.RecipientType recipientType = mail.getTo().getRecipientType().getTechnicalType();
+    int nextBatch = 0;
+    boolean retried = false;
+    while (nextBatch < batchedToAddresses.size()) {
+      final SmtpTransportPool.PooledTransport transport =
+          transportPool.acquire(smtpConfiguration, session);
+      final boolean reused = transport.getSentMessageCount() > 0;
+
+      // Adding send reporting listener
+      final SmtpMailSendReportListener listener = new SmtpMailSendReportListener(mail);
+      transport.getTransport().addTransportListener(listener);
 
-    try {
-      if (smtpConfiguration.isAuthenticate()) {
-        transport.connect(smtpConfiguration.getServer(), smtpConfiguration.getPort(),
-            smtpConfiguration.getUsername(), smtpConfiguration.getPassword());
-      } else {
-        transport.connect(smtpConfiguration.getServer(), smtpConfiguration.getPort(), null, null);
-      }
-
-      for (InternetAddress[] toAddressBatch : batchedToAddresses) {
-        messageToSend
-            .setRecipients(mail.getTo().getRecipientType().getTechnicalType(), toAddressBatch);
-        transport.sendMessage(messageToSend, toAddressBatch);
-      }
-
-    } finally {
       try {
-        transport.close();
-      } catch (Exception e) {
-        SilverLogger.getLogger(this).error(e);
+        for (; nextBatch < batchedToAddresses.size(); nextBatch++) {
+          final InternetAddress[] toAddressBatch = batchedToAddresses.get(nextBatch);
+          messageToSend.setRecipients(recipientType, toAddressBatch);
+          transport.sendMessage(messageToSend, toAddressBatch);
+        }
+      } catch (SendFailedException e) {
+        // the connection is still valid, only some receivers were rejected
+        throw e;
+      } catch (MessagingException e) {
+        transport.invalidate();
+        if (retried || !reused) {
+          throw e;
+        }
+        SilverLogger.getLogger(this).debug("SMTP connection lost, reconnecting: {0}",
+            e.getMessage());
+        retried = true;
+      } finally {
+        transport.getTransport().removeTransportListener(listener);
+        transportPool.release(transport);
       }
     }
   }
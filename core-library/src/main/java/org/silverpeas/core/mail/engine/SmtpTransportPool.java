@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.mail.engine;
+
+import org.silverpeas.core.util.MailSettings;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of transports connected to the SMTP server. Opening a connection and
+ * authenticating against the SMTP server costs far more than sending a message, so the connected
+ * transports are kept open and reused for the next messages:
+ * <ul>
+ * <li>at most {@link MailSettings#getSmtpTransportPoolSize()} transports are opened at the same
+ * time; zero or less disables the pooling, a transport being then opened for each mail,</li>
+ * <li>a transport isn't reused once it has sent
+ * {@link MailSettings#getSmtpMaxMessagesPerConnection()} messages,</li>
+ * <li>a transport idle for more than {@link MailSettings#getSmtpTransportIdleTimeout()} seconds
+ * or disconnected by the server is closed instead of being reused,</li>
+ * <li>a transport is never reused with another SMTP configuration than the one with which it
+ * was connected. The configuration is identified by its server, its port, its security, its
+ * user and a digest of its password, so that the password isn't kept by the pool.</li>
+ * </ul>
+ */
+class SmtpTransportPool {
+
+  private final int poolSize;
+  private final Semaphore permits;
+  private final Deque<PooledTransport> idleTransports = new LinkedList<>();
+
+  SmtpTransportPool() {
+    this(MailSettings.getSmtpTransportPoolSize());
+  }
+
+  /**
+   * Constructs a pool with at most the specified number of transports.
+   * @param poolSize the maximum number of transports. Zero or less disables the pooling.
+   */
+  SmtpTransportPool(final int poolSize) {
+    this.poolSize = poolSize;
+    this.permits = new Semaphore(poolSize > 0 ? poolSize : Integer.MAX_VALUE, true);
+  }
+
+  /**
+   * Acquires a transport connected to the SMTP server defined by the specified configuration. It
+   * waits for a transport to be released if the maximum number of transports is reached. The
+   * transport must be given back to the pool with the {@link #release(PooledTransport)} method.
+   * @param configuration the SMTP configuration.
+   * @param session the mail session to use if a new transport has to be opened.
+   * @return a connected transport.
+   * @throws MessagingException if the connection to the SMTP server fails.
+   * @throws InterruptedException if interrupted while waiting for a transport.
+   */
+  PooledTransport acquire(final SmtpConfiguration configuration, final Session session)
+      throws MessagingException, InterruptedException {
+    permits.acquire();
+    try {
+      final String key = keyOf(configuration);
+      PooledTransport transport = pollIdleTransport(key);
+      if (transport == null) {
+        transport = new PooledTransport(key, connect(configuration, session));
+      }
+      return transport;
+    } catch (MessagingException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Gives back the specified transport to the pool. It is closed if it cannot be reused.
+   * @param transport a transport acquired from this pool.
+   */
+  void release(final PooledTransport transport) {
+    try {
+      if (poolSize > 0 && isReusable(transport)) {
+        transport.lastUseTime = System.currentTimeMillis();
+        synchronized (idleTransports) {
+          idleTransports.addFirst(transport);
+        }
+      } else {
+        close(transport);
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Closes all the idle transports.
+   */
+  void clear() {
+    synchronized (idleTransports) {
+      idleTransports.forEach(this::close);
+      idleTransports.clear();
+    }
+  }
+
+  /**
+   * Gets the maximum number of messages a transport can send before being closed.
+   * @return the maximum number of messages per transport.
+   */
+  int getMaxMessagesPerConnection() {
+    return MailSettings.getSmtpMaxMessagesPerConnection();
+  }
+
+  /**
+   * Gets the time after which an idle transport is closed instead of being reused.
+   * @return the idle timeout in milliseconds.
+   */
+  long getIdleTimeout() {
+    return TimeUnit.SECONDS.toMillis(MailSettings.getSmtpTransportIdleTimeout());
+  }
+
+  private boolean isReusable(final PooledTransport transport) {
+    return !transport.broken && transport.sentMessageCount < getMaxMessagesPerConnection();
+  }
+
+  private PooledTransport pollIdleTransport(final String key) {
+    final long idleTimeout = getIdleTimeout();
+    final long now = System.currentTimeMillis();
+    PooledTransport transport;
+    while ((transport = pollIdleTransport()) != null) {
+      if (key.equals(transport.key) && now - transport.lastUseTime < idleTimeout &&
+          transport.transport.isConnected()) {
+        return transport;
+      }
+      close(transport);
+    }
+    return null;
+  }
+
+  private PooledTransport pollIdleTransport() {
+    synchronized (idleTransports) {
+      return idleTransports.pollFirst();
+    }
+  }
+
+  /**
+   * Opens a new transport connected to the SMTP server defined by the specified configuration.
+   * @param configuration the SMTP configuration.
+   * @param session the mail session.
+   * @return a connected transport.
+   * @throws MessagingException if the connection to the SMTP server fails.
+   */
+  Transport connect(final SmtpConfiguration configuration, final Session session)
+      throws MessagingException {
+    final Transport transport;
+    if (configuration.isSecure()) {
+      transport = session.getTransport(SmtpConfiguration.SECURE_TRANSPORT);
+    } else {
+      transport = session.getTransport(SmtpConfiguration.SIMPLE_TRANSPORT);
+    }
+    if (configuration.isAuthenticate()) {
+      transport.connect(configuration.getServer(), configuration.getPort(),
+          configuration.getUsername(), configuration.getPassword());
+    } else {
+      transport.connect(configuration.getServer(), configuration.getPort(), null, null);
+    }
+    return transport;
+  }
+
+  private void close(final PooledTransport transport) {
+    try {
+      transport.transport.close();
+    } catch (Exception e) {
+      SilverLogger.getLogger(this).error(e);
+    }
+  }
+
+  private static String keyOf(final SmtpConfiguration configuration) {
+    return configuration.getServer() + ":" + configuration.getPort() + ":" +
+        configuration.isSecure() + ":" + configuration.isAuthenticate() + ":" +
+        configuration.getUsername() + ":" + digest(configuration.getPassword());
+  }
+
+  private static String digest(final String password) {
+    if (password == null) {
+      return "";
+    }
+    try {
+      return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256")
+          .digest(password.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is supported by every Java platform
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * A transport of the pool with the count of messages it has sent.
+   */
+  static class PooledTransport {
+    private final String key;
+    private final Transport transport;
+    private int sentMessageCount = 0;
+    private long lastUseTime;
+    private boolean broken = false;
+
+    private PooledTransport(final String key, final Transport transport) {
+      this.key = key;
+      this.transport = transport;
+    }
+
+    Transport getTransport() {
+      return transport;
+    }
+
+    /**
+     * Gets the count of messages sent with this transport. A transport that has already sent some
+     * messages can have been disconnected by the SMTP server in the meantime.
+     * @return the number of messages sent so far with this transport.
+     */
+    int getSentMessageCount() {
+      return sentMessageCount;
+    }
+
+    void sendMessage(final Message message, final Address[] addresses)
+        throws MessagingException {
+      sentMessageCount++;
+      transport.sendMessage(message, addresses);
+    }
+
+    /**
+     * Marks this transport as no more usable, for example after a connection failure.
+     */
+    void invalidate() {
+      broken = true;
+    }
+  }
+}
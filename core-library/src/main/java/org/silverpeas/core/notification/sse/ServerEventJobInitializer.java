@@ -32,8 +32,10 @@ import org.silverpeas.core.scheduler.trigger.JobTrigger;
 import org.silverpeas.core.scheduler.trigger.TimeUnit;
 
 import javax.inject.Inject;
+import java.util.IntSummaryStatistics;
 import java.util.List;
 
+import static java.text.MessageFormat.format;
 import static org.silverpeas.core.notification.sse.ServerEventDispatcherTask.getContextSnapshot;
 import static org.silverpeas.core.notification.user.client.NotificationManagerSettings.getSseAsyncJobTrigger;
 
@@ -78,6 +80,13 @@ class ServerEventJobInitializer implements Initialization {
           .debug("doing quietly some stuffs over {0} {0,choice, 1#async context| 1<async contexts}",
               asyncContexts.size());
       asyncContexts.forEach(SilverpeasServerEventContext::sendHeartbeatIfEnabled);
+      SseLogger.get().debug(() -> {
+        final IntSummaryStatistics depths = asyncContexts.stream()
+            .mapToInt(SilverpeasServerEventContext::getPendingEventCount)
+            .summaryStatistics();
+        return format("Outboxes of the contexts: {0} pending events, {1} at most in one outbox",
+            depths.getSum(), depths.getCount() > 0 ? depths.getMax() : 0);
+      });
     }
   }
 }
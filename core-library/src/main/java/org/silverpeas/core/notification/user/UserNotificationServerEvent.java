@@ -25,6 +25,7 @@ package org.silverpeas.core.notification.user;
 
 import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.notification.sse.CommonServerEvent;
+import org.silverpeas.core.notification.sse.ServerEventScope;
 import org.silverpeas.core.util.JSONCodec;
 
 import static org.silverpeas.core.notification.user.server.channel.silvermail.SILVERMAILPersistence.countNotReadMessagesOfFolder;
@@ -136,4 +137,9 @@ public class UserNotificationServerEvent extends CommonServerEvent {
   public boolean isConcerned(final String receiverSessionId, final User receiver) {
     return receiver.getId().equals(emitterUserId);
   }
+
+  @Override
+  public ServerEventScope getScope() {
+    return ServerEventScope.user(emitterUserId);
+  }
 }
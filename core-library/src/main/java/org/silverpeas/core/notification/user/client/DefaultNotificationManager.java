@@ -445,9 +445,15 @@ public class DefaultNotificationManager
 
     try {
       params.trace();
+      // the data that don't depend on the recipients are computed only once and the
+      // notifications are then sent together so that they can be batched by channel and content
+      final NotificationFanOut fanOut = new NotificationFanOut(params);
+      final List<DelayedNotificationData> dnds = new ArrayList<>(recipientIds.size());
       for (String userId : recipientIds) {
-        doNewDelayedNotifications(params, userId);
+        dnds.addAll(createAllDelayedNotificationData(fanOut, userId));
       }
+      // a failure of the notification server is propagated as before the batching
+      DelayedNotificationDelegate.executeNewNotifications(dnds);
 
     } catch (Exception e) {
       throw new NotificationException(e);
@@ -461,19 +467,6 @@ public class DefaultNotificationManager
     }
   }
 
-  private void doNewDelayedNotifications(final NotificationParameters params, final String userId)
-      throws NotificationException {
-    try {
-      for (final DelayedNotificationData dnd : createAllDelayedNotificationData(params, userId)) {
-        DelayedNotificationDelegate.executeNewNotification(dnd);
-      }
-    } catch (NotificationServerException e) {
-      throw new NotificationException(e);
-    } catch (Exception ex) {
-      SilverLogger.getLogger(this).error(ex);
-    }
-  }
-
   @Override
   public void notifyExternals(NotificationParameters params,
       Collection<ExternalRecipient> externals) throws NotificationException {
@@ -772,8 +765,9 @@ public class DefaultNotificationManager
     StringBuilder theMessage = new StringBuilder(100);
     Map<String, Object> theExtraParams = new HashMap<>();
 
+    NotificationFanOut fanOut = new NotificationFanOut(params);
     NotifAddressRow nar = getNotifAddressRow(params, aUserId);
-    NotifChannelRow ncr = schema.notifChannel().getNotifChannel(nar.getNotifChannelId());
+    NotifChannelRow ncr = fanOut.getNotifChannel(nar.getNotifChannelId());
 
     // set the channel
     NotificationData nd = new NotificationData();
@@ -783,8 +777,7 @@ public class DefaultNotificationManager
     // Set subject parameter
     setSubject(params, theMessage, theExtraParams, ncr);
 
-    String senderName = getSenderName(params);
-    setSenderAddress(params, theMessage, theExtraParams, ncr, nd, senderName);
+    setSenderAddress(fanOut, theMessage, theExtraParams, ncr, nd);
 
     // Set Url parameter
     theExtraParams.put(SERVER_BASEURL.toString(), getUserAutoRedirectServerURL(aUserId));
@@ -796,10 +789,10 @@ public class DefaultNotificationManager
     }
 
     // Set Source parameter
-    setSource(params, theExtraParams, null);
+    setSource(fanOut, theExtraParams, null);
 
     // Set date parameter
-    return setCommonNotifData(params, theExtraParams, theMessage, senderName, nd);
+    return setCommonNotifData(params, theExtraParams, theMessage, fanOut.getSenderName(), nd);
   }
 
   private void setSubject(final NotificationParameters params, final StringBuilder theMessage,
@@ -812,21 +805,22 @@ public class DefaultNotificationManager
     }
   }
 
-  private void setSenderAddress(final NotificationParameters params, final StringBuilder theMessage,
+  private void setSenderAddress(final NotificationFanOut fanOut, final StringBuilder theMessage,
       final Map<String, Object> theExtraParams, final NotifChannelRow ncr,
-      final NotificationData nd, final String senderName) {
+      final NotificationData nd) {
+    final NotificationParameters params = fanOut.params;
     if (FROM_UID.equalsIgnoreCase(ncr.getFromAvailable())) {
       theExtraParams.put(FROM.toString(), Integer.toString(params.getFromUserId()));
       nd.setSenderId(Integer.toString(params.getFromUserId()));
 
     } else if (FROM_EMAIL.equalsIgnoreCase(ncr.getFromAvailable())) {
-      setSenderEmail(params, theExtraParams, senderName);
+      setSenderEmail(fanOut, theExtraParams);
     } else if (FROM_NAME.equalsIgnoreCase(ncr.getFromAvailable())) {
-      theExtraParams.put(FROM.toString(), senderName);
+      theExtraParams.put(FROM.toString(), fanOut.getSenderName());
     } else {
       theMessage.append(multilang.getString("from"))
           .append(" : ")
-          .append(senderName)
+          .append(fanOut.getSenderName())
           .append(HTML_BREAK_LINES);
     }
   }
@@ -834,11 +828,12 @@ public class DefaultNotificationManager
   private NotificationData createExternalNotificationData(NotificationParameters params, String email) throws SQLException {
     StringBuilder theMessage = new StringBuilder(100);
     Map<String, Object> theExtraParams = new HashMap<>();
+    NotificationFanOut fanOut = new NotificationFanOut(params);
 
     NotifAddressRow nar = new NotifAddressRow(BuiltInNotifAddress.BASIC_SMTP.getId(), "-1",
         multilang.getString("defaultAddressSPMAIL"), NotifChannel.SMTP.getId(), email,
         NotificationParameters.USAGE_PRO, params.getMessagePriority());
-    NotifChannelRow ncr = schema.notifChannel().getNotifChannel(nar.getNotifChannelId());
+    NotifChannelRow ncr = fanOut.getNotifChannel(nar.getNotifChannelId());
 
     // set the channel
     NotificationData nd = new NotificationData();
@@ -848,8 +843,7 @@ public class DefaultNotificationManager
     // Set subject parameter
     setSubject(params, theMessage, theExtraParams, ncr);
 
-    String senderName = getSenderName(params);
-    setSenderEmail(params, theExtraParams, senderName);
+    setSenderEmail(fanOut, theExtraParams);
 
     // Set Url parameter
     theExtraParams.put(SERVER_BASEURL.toString(), getCurrentServerURL());
@@ -860,10 +854,10 @@ public class DefaultNotificationManager
     }
 
     // Set Source parameter
-    setSource(params, theExtraParams, null);
+    setSource(fanOut, theExtraParams, null);
 
     // Set date parameter
-    return setCommonNotifData(params, theExtraParams, theMessage, senderName, nd);
+    return setCommonNotifData(params, theExtraParams, theMessage, fanOut.getSenderName(), nd);
   }
 
   @Nonnull
@@ -898,16 +892,17 @@ public class DefaultNotificationManager
     return nd;
   }
 
-  private void setSource(final NotificationParameters params,
+  private void setSource(final NotificationFanOut fanOut,
       final Map<String, Object> theExtraParams,
       final DelayedNotificationData delayedNotificationData) {
+    final NotificationParameters params = fanOut.params;
     if (StringUtil.isDefined(params.getSource())) {
       theExtraParams.put(SOURCE.toString(), params.getSource());
     } else {
       if (params.isComponentInstanceDefined()) {
         final String instanceId = String.valueOf(params.getComponentInstance());
         try {
-          final String source = computeDefaultSource(instanceId);
+          final String source = fanOut.getDefaultSource();
           theExtraParams.put(SOURCE.toString(), source);
           if (delayedNotificationData != null && delayedNotificationData.getResource() != null &&
               StringUtils.isBlank(delayedNotificationData.getResource().getResourceLocation())) {
@@ -923,8 +918,12 @@ public class DefaultNotificationManager
     }
   }
 
-  private void setSenderEmail(final NotificationParameters params,
-      final Map<String, Object> theExtraParams, final String senderName) {
+  private void setSenderEmail(final NotificationFanOut fanOut,
+      final Map<String, Object> theExtraParams) {
+    theExtraParams.put(FROM.toString(), fanOut.getSenderEmail());
+  }
+
+  private String getSenderEmail(final NotificationParameters params, final String senderName) {
     String fromEmail = null;
     if (!EmailAddress.isValid(senderName) && params.getFromUserId() >= 0) {
       fromEmail = getUserEmail(String.valueOf(params.getFromUserId()));
@@ -932,18 +931,39 @@ public class DefaultNotificationManager
     if (StringUtil.isNotDefined(fromEmail)) {
       fromEmail = AdministrationServiceProvider.getAdminService().getSilverpeasEmail();
     }
-    theExtraParams.put(FROM.toString(), fromEmail);
+    return fromEmail;
   }
 
+  /**
+   * Computes the data of the notifications to send to the specified user. Nothing is sent here,
+   * so no {@link NotificationServerException} can be thrown: the sending is done afterwards for
+   * all the recipients and its failure is propagated to the caller. Only the failure to compute
+   * the notifications of a recipient is logged and skipped.
+   * @param fanOut the data of the notification that are common to all the recipients.
+   * @param aUserId the unique identifier of a recipient.
+   * @return the data of the notifications to send to the user, empty if they cannot be computed.
+   */
   private List<DelayedNotificationData> createAllDelayedNotificationData(
-      NotificationParameters params, String aUserId) throws SQLException {
+      NotificationFanOut fanOut, String aUserId) {
+    try {
+      return createAllDelayedNotificationData(fanOut.params, fanOut, aUserId);
+    } catch (Exception e) {
+      // a failure for one recipient mustn't prevent the others to be notified
+      SilverLogger.getLogger(this).error(e);
+      return Collections.emptyList();
+    }
+  }
+
+  private List<DelayedNotificationData> createAllDelayedNotificationData(
+      NotificationParameters params, NotificationFanOut fanOut, String aUserId)
+      throws SQLException {
     final List<NotifAddressRow> nars = getAllNotifAddressRow(params, aUserId);
     final List<DelayedNotificationData> dnds = new ArrayList<>(nars.size());
 
     NotifChannelRow notifChannelRow;
     NotificationData notificationData;
     for (final NotifAddressRow curAddresseRow : nars) {
-      notifChannelRow = schema.notifChannel().getNotifChannel(curAddresseRow.getNotifChannelId());
+      notifChannelRow = fanOut.getNotifChannel(curAddresseRow.getNotifChannelId());
 
       notificationData = new NotificationData();
       // set the channel
@@ -960,9 +980,7 @@ public class DefaultNotificationManager
       // Set subject parameter
       setSubject(params, theMessage, theExtraParams, notifChannelRow);
 
-      String senderName = getSenderName(params);
-      setSenderAddress(params, theMessage, theExtraParams, notifChannelRow, notificationData,
-          senderName);
+      setSenderAddress(fanOut, theMessage, theExtraParams, notifChannelRow, notificationData);
 
       // Set Url parameter
       theExtraParams.put(SERVER_BASEURL.toString(), getUserAutoRedirectServerURL(aUserId));
@@ -981,9 +999,10 @@ public class DefaultNotificationManager
       }
 
       // Set Source parameter
-      setSource(params, theExtraParams, delayedNotificationData);
+      setSource(fanOut, theExtraParams, delayedNotificationData);
 
-      setCommonNotifData(params, theExtraParams, theMessage, senderName, notificationData);
+      setCommonNotifData(params, theExtraParams, theMessage, fanOut.getSenderName(),
+          notificationData);
     }
     return dnds;
   }
@@ -1068,4 +1087,51 @@ public class DefaultNotificationManager
   protected List<NotifChannel> getDefaultNotificationChannels() {
     return NotificationManagerSettings.getDefaultChannels();
   }
+
+  /**
+   * The data of a notification that don't depend on its recipients. They are computed at most
+   * once whatever the number of recipients to which the notification is sent.
+   */
+  private class NotificationFanOut {
+
+    private final NotificationParameters params;
+    private final Map<Integer, NotifChannelRow> channels = new HashMap<>();
+    private String senderName;
+    private String senderEmail;
+    private String defaultSource;
+
+    private NotificationFanOut(final NotificationParameters params) {
+      this.params = params;
+    }
+
+    NotifChannelRow getNotifChannel(final int channelId) throws SQLException {
+      NotifChannelRow channel = channels.get(channelId);
+      if (channel == null) {
+        channel = schema.notifChannel().getNotifChannel(channelId);
+        channels.put(channelId, channel);
+      }
+      return channel;
+    }
+
+    String getSenderName() {
+      if (senderName == null) {
+        senderName = DefaultNotificationManager.this.getSenderName(params);
+      }
+      return senderName;
+    }
+
+    String getSenderEmail() {
+      if (senderEmail == null) {
+        senderEmail = DefaultNotificationManager.this.getSenderEmail(params, getSenderName());
+      }
+      return senderEmail;
+    }
+
+    String getDefaultSource() throws AdminException {
+      if (defaultSource == null) {
+        defaultSource = computeDefaultSource(String.valueOf(params.getComponentInstance()));
+      }
+      return defaultSource;
+    }
+  }
 }
@@ -54,6 +54,18 @@ public interface DelayedNotification {
   Map<NotifChannel, List<DelayedNotificationData>> findDelayedNotificationByUserIdGroupByChannel(int userId,
       Set<NotifChannel> aimedChannels);
 
+  /**
+   * Gets in one shot the delayed notifications of several users, grouped by user and then by
+   * channel.
+   * @param userIds the identifiers of the users.
+   * @param aimedChannels the channels of the delayed notifications to get.
+   * @return the delayed notifications per channel of each user, in the order of the user
+   * identifiers.
+   */
+  Map<Integer, Map<NotifChannel, List<DelayedNotificationData>>>
+  findDelayedNotificationByUserIdsGroupByUserAndChannel(Collection<Integer> userIds,
+      Set<NotifChannel> aimedChannels);
+
   void saveDelayedNotification(DelayedNotificationData delayedNotificationData);
 
   int deleteDelayedNotifications(Collection<Long> ids);
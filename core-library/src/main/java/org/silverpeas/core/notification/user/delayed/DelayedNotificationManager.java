@@ -85,6 +85,24 @@ public class DelayedNotificationManager implements DelayedNotification {
     return result;
   }
 
+  @Override
+  public Map<Integer, Map<NotifChannel, List<DelayedNotificationData>>>
+  findDelayedNotificationByUserIdsGroupByUserAndChannel(final Collection<Integer> userIds,
+      final Set<NotifChannel> aimedChannels) {
+    final Map<Integer, Map<NotifChannel, List<DelayedNotificationData>>> result =
+        new LinkedHashMap<>();
+    if (CollectionUtil.isNotEmpty(userIds)) {
+      for (final Collection<Integer> userIdLot : CollectionUtil.split(userIds)) {
+        for (final DelayedNotificationData data : dnRepository
+            .findByUserIds(userIdLot, NotifChannel.toIds(aimedChannels))) {
+          MapUtil.putAddList(result.computeIfAbsent(data.getUserId(), u -> new LinkedHashMap<>()),
+              data.getChannel(), data);
+        }
+      }
+    }
+    return result;
+  }
+
   @Override
   public List<Integer> findAllUsersToBeNotified(final Set<NotifChannel> aimedChannels) {
     return dnRepository.findAllUsersToBeNotified(NotifChannel.toIds(aimedChannels));
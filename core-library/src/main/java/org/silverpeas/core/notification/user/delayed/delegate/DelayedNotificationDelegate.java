@@ -32,6 +32,7 @@ import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.admin.user.model.UserDetail;
 import org.silverpeas.core.notification.user.AttachmentLink;
 import org.silverpeas.core.notification.user.client.NotificationParameterNames;
+import org.silverpeas.core.notification.user.client.NotificationManagerSettings;
 import org.silverpeas.core.notification.user.client.NotificationParameters;
 import org.silverpeas.core.notification.user.client.NotificationURLProvider;
 import org.silverpeas.core.notification.user.client.constant.NotifChannel;
@@ -48,6 +49,7 @@ import org.silverpeas.core.notification.user.server.NotificationServer;
 import org.silverpeas.core.notification.user.server.NotificationServerException;
 import org.silverpeas.core.template.SilverpeasTemplate;
 import org.silverpeas.core.template.SilverpeasTemplates;
+import org.silverpeas.core.thread.ManagedThreadPool;
 import org.silverpeas.core.util.CollectionUtil;
 import org.silverpeas.core.util.DateUtil;
 import org.silverpeas.kernel.bundle.LocalizationBundle;
@@ -58,10 +60,16 @@ import org.silverpeas.kernel.logging.SilverLogger;
 
 import javax.annotation.Nonnull;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.silverpeas.core.notification.user.client.NotificationTemplateKey.NOTIFICATION_BASE_SERVER_URL;
 import static org.silverpeas.core.notification.user.client.NotificationTemplateKey.NOTIFICATION_SERVER_URL;
 import static org.silverpeas.core.notification.user.delayed.DelayedNotificationProvider.getDelayedNotification;
+import static org.silverpeas.core.thread.ManagedThreadPool.ExecutionConfig.maxThreadPoolSizeOf;
 import static org.silverpeas.core.util.MapUtil.putAddList;
 import static org.silverpeas.kernel.util.StringUtil.defaultStringIfNotDefined;
 import static org.silverpeas.kernel.util.StringUtil.isDefined;
@@ -78,12 +86,12 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
    */
   private static final int MAX_USER_DETAIL_ITEMS = 100;
   private final Map<Integer, UserDetail> userDetailCache =
-      new LinkedHashMap<>(MAX_USER_DETAIL_ITEMS);
+      new ConcurrentHashMap<>(MAX_USER_DETAIL_ITEMS);
 
   /**
-   * String templates
+   * String templates, one per thread as the digests can be built in parallel
    */
-  private SilverpeasTemplate template = null;
+  private final ThreadLocal<SilverpeasTemplate> template = new ThreadLocal<>();
 
   /**
    * Comparators
@@ -174,6 +182,40 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
     new DelayedNotificationDelegate().performNewNotificationSending(delayedNotificationData);
   }
 
+  /**
+   * Easy call of new notifications process. The notifications that aren't delayed are sent
+   * together to the notification server so that it can batch them.
+   * @param delayedNotifications the data about the notifications to send.
+   * @throws NotificationServerException if an error occurs.
+   */
+  public static void executeNewNotifications(
+      final Collection<DelayedNotificationData> delayedNotifications)
+      throws NotificationServerException {
+    new DelayedNotificationDelegate().performNewNotificationsSending(delayedNotifications);
+  }
+
+  /**
+   * Handling new notifications
+   * @param delayedNotifications the data about the notifications to send.
+   * @throws NotificationServerException if an error occurs.
+   */
+  protected void performNewNotificationsSending(
+      final Collection<DelayedNotificationData> delayedNotifications)
+      throws NotificationServerException {
+    final List<NotificationData> toSend = new ArrayList<>(delayedNotifications.size());
+    for (final DelayedNotificationData delayedNotificationData : delayedNotifications) {
+      if (!isThatToBeDelayed(delayedNotificationData)) {
+        toSend.add(delayedNotificationData.getNotificationData());
+      } else {
+        DelayedNotificationProvider.getDelayedNotification()
+            .saveDelayedNotification(delayedNotificationData);
+      }
+    }
+    if (!toSend.isEmpty()) {
+      sendNotifications(toSend);
+    }
+  }
+
   /**
    * Handling a new notification
    * @param delayedNotificationData the data about the notification to send.
@@ -306,6 +348,17 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
     performUsersDelayedNotifications(usersToBeNotified, channels);
   }
 
+  /**
+   * Performs the delayed notifications of the specified users. The users are processed by chunks
+   * in the order of their identifier. For each chunk, the delayed notifications of all its users
+   * are fetched at once and the digests are built (in parallel when several threads are
+   * configured). Then each digest is sent and its delayed notifications are deleted right after,
+   * so that an interruption of the sending re-sends at most one digest. A digest that cannot be
+   * sent is skipped: its delayed notifications are kept for a next sending.
+   * @param usersToBeNotified the identifiers of the users to notify.
+   * @param channels the channels through which the notifications will be sent.
+   * @throws NotificationServerException if an error occurs.
+   */
   private void performUsersDelayedNotifications(final List<Integer> usersToBeNotified,
       final Set<NotifChannel> channels) throws NotificationServerException {
 
@@ -314,39 +367,96 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
       return;
     }
 
-    // Performing all users to notify
-    final Collection<Long> delayedNotificationIdsToDelete = new ArrayList<>();
+    // Performing all users to notify, chunk by chunk
+    final List<Integer> orderedUsers =
+        usersToBeNotified.stream().distinct().sorted().collect(Collectors.toList());
+    final int chunkSize = NotificationManagerSettings.getDelayedNotificationChunkSize();
+    for (int i = 0; i < orderedUsers.size(); i += chunkSize) {
+      performUsersDelayedNotificationsChunk(
+          orderedUsers.subList(i, Math.min(orderedUsers.size(), i + chunkSize)), channels);
+    }
+  }
+
+  private void performUsersDelayedNotificationsChunk(final List<Integer> users,
+      final Set<NotifChannel> channels) {
+
+    // Searching the notifications of all the users of the chunk, group by users and channels
+    final List<Callable<UserDigest>> digestBuilders = new ArrayList<>();
+    getDelayedNotification().findDelayedNotificationByUserIdsGroupByUserAndChannel(users, channels)
+        .values()
+        .forEach(delayedNotifications -> delayedNotifications.forEach(
+            (channel, notifications) -> digestBuilders.add(
+                () -> buildUserDigestOnChannel(channel, notifications))));
+
+    // Building the digests
+    final List<UserDigest> digests = buildUserDigests(digestBuilders);
+
+    // Sending the digests
+    for (final UserDigest digest : digests) {
+      sendUserDigest(digest);
+    }
+  }
+
+  /**
+   * Sends the specified digest. Once sent, its delayed notifications and the associated
+   * notification resource data are deleted. A digest that cannot be sent is skipped: its delayed
+   * notifications are kept for a next sending.
+   */
+  private void sendUserDigest(final UserDigest digest) {
     try {
-      Map<NotifChannel, List<DelayedNotificationData>> delayedNotifications;
-      for (final Integer userIdToNotify : usersToBeNotified) {
-
-        // Searching current user notifications, group by channels
-        delayedNotifications = getDelayedNotification()
-            .findDelayedNotificationByUserIdGroupByChannel(userIdToNotify, channels);
-
-        // Browse channel notifications
-        for (final Map.Entry<NotifChannel, List<DelayedNotificationData>> mapEntry :
-            delayedNotifications
-            .entrySet()) {
-          delayedNotificationIdsToDelete.addAll(
-              performUserDelayedNotificationsOnChannel(mapEntry.getKey(), mapEntry.getValue()));
+      sendNotification(digest.notification);
+    } catch (NotificationServerException | RuntimeException e) {
+      SilverLogger.getLogger(this).error(e);
+      return;
+    }
+    getDelayedNotification().deleteDelayedNotifications(digest.delayedNotificationIds);
+  }
+
+  private List<UserDigest> buildUserDigests(final List<Callable<UserDigest>> digestBuilders) {
+    final int threads = NotificationManagerSettings.getDelayedNotificationRenderingThreads();
+    final List<UserDigest> digests = new ArrayList<>(digestBuilders.size());
+    if (threads <= 1 || digestBuilders.size() <= 1) {
+      for (final Callable<UserDigest> digestBuilder : digestBuilders) {
+        addUserDigest(digests, digestBuilder);
+      }
+    } else {
+      try {
+        final List<Future<UserDigest>> futures =
+            ManagedThreadPool.getPool().invoke(digestBuilders, maxThreadPoolSizeOf(threads));
+        for (final Future<UserDigest> future : futures) {
+          addUserDigest(digests, future::get);
         }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        SilverLogger.getLogger(this).error(e);
       }
-    } finally {
+    }
+    return digests;
+  }
 
-      // Deleting massively the delayed notifications treated and the associated notification
-      // resource data
-      getDelayedNotification()
-          .deleteDelayedNotifications(delayedNotificationIdsToDelete);
+  /**
+   * Adds the digest computed by the specified builder. A digest that cannot be built is skipped:
+   * its delayed notifications are kept for a next sending.
+   */
+  private void addUserDigest(final List<UserDigest> digests,
+      final Callable<UserDigest> digestBuilder) {
+    try {
+      digests.add(digestBuilder.call());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      SilverLogger.getLogger(this).error(e);
+    } catch (ExecutionException e) {
+      SilverLogger.getLogger(this).error(e.getCause());
+    } catch (Exception e) {
+      SilverLogger.getLogger(this).error(e);
     }
   }
 
-  private Collection<Long> performUserDelayedNotificationsOnChannel(final NotifChannel channel,
-      final List<DelayedNotificationData> delayedNotifications)
-      throws NotificationServerException {
+  private UserDigest buildUserDigestOnChannel(final NotifChannel channel,
+      final List<DelayedNotificationData> delayedNotifications) {
     final DelayedNotificationSyntheseData synthesis = buildSynthesis(delayedNotifications);
-    sendNotification(createNotificationData(channel, synthesis));
-    return synthesis.getDelayedNotificationIdProceeded();
+    return new UserDigest(createNotificationData(channel, synthesis),
+        synthesis.getDelayedNotificationIdProceeded());
   }
 
   private DelayedNotificationSyntheseData buildSynthesis(
@@ -507,12 +617,14 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
   }
 
   private SilverpeasTemplate getTemplate() {
-    if (template == null) {
-      template = SilverpeasTemplates
+    SilverpeasTemplate currentTemplate = template.get();
+    if (currentTemplate == null) {
+      currentTemplate = SilverpeasTemplates
           .createSilverpeasTemplateOnCore("notification/delayed")
           .mergeRootWithCustom();
+      template.set(currentTemplate);
     }
-    return template;
+    return currentTemplate;
   }
 
   /**
@@ -638,22 +750,25 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
    * @return the user with the specified identifier.
    */
   protected UserDetail getUserDetail(final Integer userId) {
-    UserDetail userDetail = userDetailCache.get(userId);
-    if (userDetail == null) {
-      if ((userId >= 0)) {
-        userDetail = getUserDetail(Integer.toString(userId));
-      } else {
-        Administration admin = AdministrationServiceProvider.getAdminService();
-        userDetail = new UserDetail();
-        userDetail.setId(Integer.toString(userId));
-        userDetail.setLastName(admin.getSilverpeasName());
-        userDetail.setEmailAddress(admin.getSilverpeasEmail());
-      }
-      if (userDetailCache.size() >= MAX_USER_DETAIL_ITEMS) {
-        userDetailCache.remove(userDetailCache.keySet().iterator().next());
-      }
-      userDetailCache.put(userId, userDetail);
+    final UserDetail userDetail = userDetailCache.get(userId);
+    if (userDetail != null) {
+      return userDetail;
+    }
+    if (userDetailCache.size() >= MAX_USER_DETAIL_ITEMS) {
+      userDetailCache.keySet().stream().findFirst().ifPresent(userDetailCache::remove);
     }
+    return userDetailCache.computeIfAbsent(userId, this::loadUserDetail);
+  }
+
+  private UserDetail loadUserDetail(final Integer userId) {
+    if (userId >= 0) {
+      return getUserDetail(Integer.toString(userId));
+    }
+    Administration admin = AdministrationServiceProvider.getAdminService();
+    final UserDetail userDetail = new UserDetail();
+    userDetail.setId(Integer.toString(userId));
+    userDetail.setLastName(admin.getSilverpeasName());
+    userDetail.setEmailAddress(admin.getSilverpeasEmail());
     return userDetail;
   }
 
@@ -685,6 +800,26 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
     notificationServer.addNotification(notificationData);
   }
 
+  /**
+   * Centralizes the sending of several notifications at once.
+   * @param notifications data about the notifications to send.
+   * @throws NotificationServerException if an error occurs.
+   */
+  protected void sendNotifications(final List<NotificationData> notifications)
+      throws NotificationServerException {
+
+    // Removing Java Strings of the computed messages, the messages being mostly shared by the
+    // notifications
+    final Map<String, String> cleanedMessages = new HashMap<>();
+    for (final NotificationData notificationData : notifications) {
+      notificationData.setMessage(cleanedMessages.computeIfAbsent(notificationData.getMessage(),
+          m -> m.replaceAll("[\r\n\t]", "")));
+    }
+
+    // Adding the notifications
+    NotificationServer.get().addNotifications(notifications);
+  }
+
   /**
    * Converts in the specified HTML content any line-feeds and tabulations by their counterpart in
    * HTML.
@@ -694,4 +829,18 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
   private String forHtml(final String content) {
     return WebEncodeHelper.convertBlanksForHtml(content);
   }
+
+  /**
+   * The digest of the delayed notifications of a user on a channel.
+   */
+  private static class UserDigest {
+    private final NotificationData notification;
+    private final Collection<Long> delayedNotificationIds;
+
+    private UserDigest(final NotificationData notification,
+        final Collection<Long> delayedNotificationIds) {
+      this.notification = notification;
+      this.delayedNotificationIds = delayedNotificationIds;
+    }
+  }
 }
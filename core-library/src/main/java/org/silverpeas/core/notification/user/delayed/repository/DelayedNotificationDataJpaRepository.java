@@ -62,6 +62,13 @@ public class DelayedNotificationDataJpaRepository
         newNamedParameters().add("userId", userId).add(CHANNELS, aimedChannels));
   }
 
+  @Override
+  public List<DelayedNotificationData> findByUserIds(final Collection<Integer> userIds,
+      final Collection<Integer> aimedChannels) {
+    return listFromNamedQuery("DelayedNotificationData.findByUserIds",
+        newNamedParameters().add("userIds", userIds).add(CHANNELS, aimedChannels));
+  }
+
   @Override
   public long deleteByIds(final Collection<Long> ids) {
     return deleteFromNamedQuery("DelayedNotificationData.deleteByIds",
@@ -43,6 +43,9 @@ public interface DelayedNotificationDataRepository
 
   List<DelayedNotificationData> findByUserId(int userId, Collection<Integer> aimedChannels);
 
+  List<DelayedNotificationData> findByUserIds(Collection<Integer> userIds,
+      Collection<Integer> aimedChannels);
+
   long deleteByIds(Collection<Long> ids);
 
   List<Integer> findUsersToBeNotified(Set<NotifChannel> aimedChannels,
@@ -26,12 +26,18 @@ package org.silverpeas.core.notification.user.server;
 import org.silverpeas.core.annotation.Bean;
 import org.silverpeas.kernel.annotation.Technical;
 import org.silverpeas.core.notification.system.JMSOperation;
+import org.silverpeas.core.notification.user.client.NotificationManagerSettings;
 import org.silverpeas.core.util.ServiceProvider;
 
 import javax.annotation.Resource;
 import javax.jms.Queue;
 import javax.jms.TextMessage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Technical
@@ -39,6 +45,7 @@ import java.util.Map;
 public class NotificationServer {
 
   private static final String JMS_HEADER_CHANNEL = "CHANNEL";
+  private static final String JMS_HEADER_BATCH = "BATCH";
 
   @Resource(lookup = "java:/jms/queue/notificationsQueue")
   private Queue queue;
@@ -71,6 +78,52 @@ public class NotificationServer {
     return notificationId;
   }
 
+  /**
+   * Adds the specified notifications. The notifications targeting the same channel with the same
+   * content are sent by batch: the content is sent only once with, for each recipient, its
+   * receipt and its own parameters. The channel listeners expand then the batch. The size of a
+   * batch is bounded by {@link NotificationManagerSettings#getNotificationServerBatchSize()}.
+   * @param notifications the notifications to send.
+   * @throws NotificationServerException if the sending of a batch fails.
+   */
+  public void addNotifications(Collection<NotificationData> notifications)
+      throws NotificationServerException {
+    final int batchSize = Math.max(1, NotificationManagerSettings.getNotificationServerBatchSize());
+    final Map<List<Object>, List<NotificationData>> variants = new LinkedHashMap<>();
+    for (NotificationData data : notifications) {
+      data.setNotificationId(0);
+      variants.computeIfAbsent(contentVariantOf(data), k -> new ArrayList<>()).add(data);
+    }
+    for (List<NotificationData> variant : variants.values()) {
+      for (int i = 0; i < variant.size(); i += batchSize) {
+        final List<NotificationData> batch =
+            variant.subList(i, Math.min(variant.size(), i + batchSize));
+        if (batch.size() == 1) {
+          addNotification(batch.get(0));
+        } else {
+          final Map<String, String> jmsHeaders = new HashMap<>();
+          jmsHeaders.put(JMS_HEADER_CHANNEL, batch.get(0).getTargetChannel());
+          jmsHeaders.put(JMS_HEADER_BATCH, String.valueOf(batch.size()));
+          try {
+            jmsSendToQueue(NotificationServerUtil.convertNotificationBatchToXML(batch), jmsHeaders);
+          } catch (Exception e) {
+            throw new NotificationServerException(e);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the key of the content variant of the specified notification: all the notifications
+   * with the same key differ only by their recipient.
+   */
+  private static List<Object> contentVariantOf(NotificationData data) {
+    return Arrays.asList(data.getTargetChannel(), data.getMessage(), data.getSenderId(),
+        data.getSenderName(), data.isAnswerAllowed(), data.getComment(), data.getTargetName(),
+        data.getPrioritySpeed(), data.getLoginUser(), data.getLoginPassword());
+  }
+
   /**
    * Send the NotificationMessage in a JMS Queue
    */
@@ -34,11 +34,14 @@ import javax.xml.parsers.SAXParserFactory;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -49,6 +52,7 @@ public class NotificationServerUtil {
   private static final String DATE_TYPEID = "#DATE#";
   private static final String BOOLEAN_TYPEID = "#BOOLEAN#";
   private static final String LIST_TYPEID = "#LIST#";
+  private static final String BATCH_RECEIPT = "#RECEIPT#";
 
   static {
     parserFactory = SAXParserFactory.newInstance();
@@ -61,6 +65,49 @@ public class NotificationServerUtil {
   }
 
   public static String convertNotificationDataToXML(NotificationData data) {
+    return convertNotificationDataToXML(data, null);
+  }
+
+  /**
+   * Converts into a single XML document the specified notifications. They are all expected to
+   * share the same channel and the same content; only their receipt and some of their target
+   * parameters can differ. The content is then written once and, for each notification, only
+   * what is specific to its recipient is written in the BATCH element of the target.
+   * @param batch a list of notifications with the same channel and the same content.
+   * @return the XML document of the batch of notifications.
+   */
+  public static String convertNotificationBatchToXML(List<NotificationData> batch) {
+    final NotificationData first = batch.get(0);
+    final Map<String, Object> sharedParams = new HashMap<>();
+    if (first.getTargetParam() != null) {
+      first.getTargetParam().forEach((key, value) -> {
+        if (batch.stream()
+            .allMatch(d -> d.getTargetParam() != null && d.getTargetParam().containsKey(key) &&
+                Objects.equals(value, d.getTargetParam().get(key)))) {
+          sharedParams.put(key, value);
+        }
+      });
+    }
+    final Map<String, Object> recipients = new LinkedHashMap<>(batch.size());
+    for (NotificationData data : batch) {
+      final Map<String, Object> recipient = new LinkedHashMap<>();
+      recipient.put(BATCH_RECEIPT, data.getTargetReceipt());
+      if (data.getTargetParam() != null) {
+        data.getTargetParam().forEach((key, value) -> {
+          if (!sharedParams.containsKey(key)) {
+            recipient.put(key, value);
+          }
+        });
+      }
+      recipients.put(String.valueOf(recipients.size()), packKeyValues(recipient));
+    }
+    final NotificationData shared = copyOf(first);
+    shared.setTargetReceipt("");
+    shared.setTargetParam(sharedParams);
+    return convertNotificationDataToXML(shared, packKeyValues(recipients));
+  }
+
+  private static String convertNotificationDataToXML(NotificationData data, String packedBatch) {
     StringBuilder xml = new StringBuilder();
 
     if (data != null) {
@@ -103,6 +150,11 @@ public class NotificationServerUtil {
       xml.append("    <PARAM><![CDATA[");
       xml.append(packKeyValues(data.getTargetParam()));
       xml.append("]]></PARAM>");
+      if (packedBatch != null) {
+        xml.append("    <BATCH><![CDATA[");
+        xml.append(packedBatch);
+        xml.append("]]></BATCH>");
+      }
       xml.append("  </TARGET>");
       xml.append("  <PRIORITY SPEED=\"");
       xml.append(data.getPrioritySpeed());
@@ -115,18 +167,85 @@ public class NotificationServerUtil {
     return xml.toString();
   }
 
-  public static NotificationData convertXMLToNotificationData(String xml)
+  /**
+   * Converts the specified XML document into the notifications it carries. If the document is
+   * about a batch of notifications, the shared content is expanded for each recipient of the
+   * batch. Otherwise a list with the single notification is returned.
+   * @param xml the XML document of one or of a batch of notifications.
+   * @return a list of notifications.
+   * @throws NotificationServerException if the XML document cannot be decoded.
+   */
+  public static List<NotificationData> convertXMLToNotificationDataList(String xml)
       throws NotificationServerException {
     NotificationData data = new NotificationData();
+    List<Map<String, Object>> batch = new ArrayList<>();
     InputStream input = new ByteArrayInputStream(xml.getBytes(Charsets.UTF_8));
     try {
       SAXParser parser = parserFactory.newSAXParser();
-      DefaultHandler handler = new NotifyContentHandler(data, parser.getXMLReader());
+      DefaultHandler handler = new NotifyContentHandler(data, parser.getXMLReader(), batch);
       parser.parse(input, handler);
     } catch (SAXException | IOException | ParserConfigurationException e) {
       throw new NotificationServerException(e);
     }
-    return data;
+    if (batch.isEmpty()) {
+      return List.of(data);
+    }
+    final List<NotificationData> notifications = new ArrayList<>(batch.size());
+    for (Map<String, Object> recipient : batch) {
+      final NotificationData notification = copyOf(data);
+      final Map<String, Object> params =
+          data.getTargetParam() == null ? new HashMap<>() : new HashMap<>(data.getTargetParam());
+      recipient.forEach((key, value) -> {
+        if (BATCH_RECEIPT.equals(key)) {
+          notification.setTargetReceipt((String) value);
+        } else {
+          params.put(key, value);
+        }
+      });
+      notification.setTargetParam(params);
+      notifications.add(notification);
+    }
+    return notifications;
+  }
+
+  /**
+   * Unpacks the content of the BATCH element of a notification.
+   * @param packedBatch the packed recipients of a batch of notifications.
+   * @return for each recipient of the batch, its receipt and its own target parameters.
+   */
+  public static List<Map<String, Object>> unpackBatch(String packedBatch) {
+    final Map<String, Object> recipients = unpackKeyValues(packedBatch);
+    final List<Map<String, Object>> batch = new ArrayList<>(recipients.size());
+    for (int i = 0; i < recipients.size(); i++) {
+      final Object recipient = recipients.get(String.valueOf(i));
+      if (recipient != null) {
+        batch.add(unpackKeyValues((String) recipient));
+      }
+    }
+    return batch;
+  }
+
+  private static NotificationData copyOf(NotificationData data) {
+    NotificationData copy = new NotificationData();
+    copy.setNotificationId(data.getNotificationId());
+    copy.setLoginUser(data.getLoginUser());
+    copy.setLoginPassword(data.getLoginPassword());
+    copy.setMessage(data.getMessage());
+    copy.setSenderId(data.getSenderId());
+    copy.setSenderName(data.getSenderName());
+    copy.setAnswerAllowed(data.isAnswerAllowed());
+    copy.setComment(data.getComment());
+    copy.setTargetChannel(data.getTargetChannel());
+    copy.setTargetReceipt(data.getTargetReceipt());
+    copy.setTargetName(data.getTargetName());
+    copy.setTargetParam(data.getTargetParam());
+    copy.setPrioritySpeed(data.getPrioritySpeed());
+    copy.setReportToSenderStatus(data.getReportToSenderStatus());
+    copy.setReportToSenderTargetChannel(data.getReportToSenderTargetChannel());
+    copy.setReportToSenderTargetReceipt(data.getReportToSenderTargetReceipt());
+    copy.setReportToSenderTargetParam(data.getReportToSenderTargetParam());
+    copy.setReportToLogStatus(data.getReportToLogStatus());
+    return copy;
   }
 
   public static Map<String, Object> unpackKeyValues(String keyValueString) {
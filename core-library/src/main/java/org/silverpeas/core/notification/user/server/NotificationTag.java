@@ -29,5 +29,5 @@ package org.silverpeas.core.notification.user.server;
 public enum NotificationTag {
 
   NOTIFY, PARAM, RECEIPT, ANSWERALLOWED, ID, SENDER, PASSWORD, USER, LOGIN, COMMENT, MESSAGE, TOLOG,
-  NAME, STATUS, TOSENDER, REPORT, CHANNEL, TARGET, SPEED, PRIORITY
+  NAME, STATUS, TOSENDER, REPORT, CHANNEL, TARGET, SPEED, PRIORITY, BATCH
 }
@@ -31,6 +31,7 @@ import org.silverpeas.core.notification.user.server.NotificationServerUtil;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.TextMessage;
+import java.util.List;
 
 public abstract class AbstractListener implements INotificationServerChannel {
 
@@ -47,7 +48,8 @@ public abstract class AbstractListener implements INotificationServerChannel {
 
   /**
    * Process a message received on NotificationServer JMS message queue: extract the message
-   * content to be sent.
+   * content to be sent. The message can carry a batch of notifications sharing the same content,
+   * in which case the notification is sent to each recipient of the batch.
    *
    * @param msg the message to be processed.
    * @throws NotificationServerException if the decoding and the sending of the specified message
@@ -55,9 +57,37 @@ public abstract class AbstractListener implements INotificationServerChannel {
    */
   protected void processMessage(Message msg) throws NotificationServerException {
     extractData(msg);
-    NotificationData nd = NotificationServerUtil.convertXMLToNotificationData(payLoad);
-    nd.traceObject();
-    send(nd);
+    List<NotificationData> notifications =
+        NotificationServerUtil.convertXMLToNotificationDataList(payLoad);
+    notifications.forEach(NotificationData::traceObject);
+    send(notifications);
+  }
+
+  /**
+   * Sends the given notifications. By default, they are sent one by one, a failure for one of
+   * them not preventing the others to be sent. A channel can override this method in order to
+   * send them at once, for example to persist them in bulk; in this case, the channel should fall
+   * back to this method when the sending at once fails.
+   * @param notifications the notifications to send.
+   * @throws NotificationServerException if the sending of at least one notification fails.
+   */
+  protected void send(List<NotificationData> notifications) throws NotificationServerException {
+    NotificationServerException failure = null;
+    for (NotificationData nd : notifications) {
+      try {
+        send(nd);
+      } catch (NotificationServerException e) {
+        // a failure for one recipient of a batch mustn't prevent the others to be notified
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
   }
 
   /**
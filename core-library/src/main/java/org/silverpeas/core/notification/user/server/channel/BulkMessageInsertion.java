@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server.channel;
+
+import org.silverpeas.core.persistence.jdbc.DBUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.silverpeas.core.persistence.jdbc.DBUtil.openConnection;
+
+/**
+ * Insertion at once of several messages of a notification channel into the table of the channel.
+ * <p>
+ * Instead of persisting each message in its own transaction with its own identifier allocation,
+ * the identifiers of all the messages are reserved with one update of the uniqueId table and
+ * the rows are inserted with one batch of statements. The identifiers are reserved from the same
+ * sequence than the one used by the JPA entities of the channel.
+ * </p>
+ * <p>
+ * The insertion takes part of the current transaction, if any. It is up to the caller to fall
+ * back to the insertion of each message one by one when the bulk insertion fails, so that a
+ * faulty message doesn't prevent the others to be persisted.
+ * </p>
+ * @param <M> the type of the messages to insert.
+ */
+public class BulkMessageInsertion<M> {
+
+  private final String tableName;
+  private final String insertQuery;
+  private final ParameterBinder<M> binder;
+
+  /**
+   * Constructs a new bulk insertion of messages.
+   * @param tableName the name of the table into which the messages are inserted. Its primary key
+   * must be the {@code id} column.
+   * @param binder the binder of the column values of a message, in the order of the given
+   * columns.
+   * @param columns the columns other than the primary key into which are saved the messages.
+   */
+  public BulkMessageInsertion(final String tableName, final ParameterBinder<M> binder,
+      final String... columns) {
+    this.tableName = tableName;
+    this.binder = binder;
+    this.insertQuery = "insert into " + tableName + " (id, " + String.join(", ", columns) +
+        ") values (?" + ", ?".repeat(columns.length) + ")";
+  }
+
+  /**
+   * Inserts the given messages.
+   * @param messages the messages to insert.
+   * @return the identifiers of the inserted messages, in the same order than the given messages.
+   * @throws SQLException if the insertion fails.
+   */
+  public int[] insert(final List<M> messages) throws SQLException {
+    final int[] ids = new int[messages.size()];
+    if (messages.isEmpty()) {
+      return ids;
+    }
+    final int firstId = DBUtil.getNextIds(tableName, "id", messages.size());
+    try (Connection connection = openConnection();
+         PreparedStatement statement = connection.prepareStatement(insertQuery)) {
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = firstId + i;
+        statement.setInt(1, ids[i]);
+        binder.bind(statement, messages.get(i));
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+    return ids;
+  }
+
+  /**
+   * Binder of the values of a message to the parameters of the insert statement.
+   * @param <M> the type of the messages.
+   */
+  @FunctionalInterface
+  public interface ParameterBinder<M> {
+
+    /**
+     * Binds the column values of the given message. The first parameter of the statement is the
+     * identifier of the message, so the column values are bound from the second parameter.
+     * @param statement the insert statement.
+     * @param message the message to insert.
+     * @throws SQLException if the binding fails.
+     */
+    void bind(final PreparedStatement statement, final M message) throws SQLException;
+  }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server.channel;
+
+import org.silverpeas.core.annotation.Service;
+import org.silverpeas.core.initialization.Initialization;
+import org.silverpeas.core.scheduler.Job;
+import org.silverpeas.core.scheduler.JobExecutionContext;
+import org.silverpeas.core.scheduler.Scheduler;
+import org.silverpeas.core.scheduler.trigger.JobTrigger;
+import org.silverpeas.core.scheduler.trigger.TimeUnit;
+import org.silverpeas.core.util.ServiceProvider;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import static org.silverpeas.core.notification.user.client.NotificationManagerSettings.getUnreadMessageCountersReconciliationDelay;
+
+/**
+ * In-memory counters, per user, of the messages which are waiting to be read on the SILVERMAIL
+ * and the POPUP channels.
+ * <p>
+ * A counter is loaded from the persistence the first time it is asked, then it is updated by
+ * the persistence of the channel on each insertion, reading or deletion of a message. A count
+ * loaded while the counter is updated can be outdated, so it isn't kept and the counter is
+ * loaded again the next time it is asked. A bulk
+ * operation on the messages of a user just invalidates its counter, which is loaded again the
+ * next time it is asked. All the counters are periodically invalidated in order to reconcile them
+ * with the persistence.
+ * </p>
+ */
+@Service
+@Singleton
+public class UnreadMessageCounters implements Initialization {
+
+  private static final String JOB_NAME = "UnreadMessageCountersReconciliationJob";
+
+  private final Map<String, Counter> silvermail = new ConcurrentHashMap<>();
+  private final Map<String, Counter> popup = new ConcurrentHashMap<>();
+
+  @Inject
+  private Scheduler scheduler;
+
+  public static UnreadMessageCounters get() {
+    return ServiceProvider.getService(UnreadMessageCounters.class);
+  }
+
+  @Override
+  public void init() throws Exception {
+    scheduler.unscheduleJob(JOB_NAME);
+    final int delay = getUnreadMessageCountersReconciliationDelay();
+    if (delay > 0) {
+      scheduler.scheduleJob(new ReconciliationJob(),
+          JobTrigger.triggerEvery(delay, TimeUnit.MINUTE));
+    }
+  }
+
+  /**
+   * Gets the number of unread messages of the given user into its SILVERMAIL inbox.
+   * @param userId the identifier of a user.
+   * @param loader the count of the unread messages into the persistence, used when the counter
+   * isn't yet loaded.
+   * @return a number of messages.
+   */
+  public long getSilvermailCount(final String userId, final LongSupplier loader) {
+    return getCount(silvermail, userId, loader);
+  }
+
+  /**
+   * Increments the number of unread messages of the given user into its SILVERMAIL inbox.
+   * @param userId the identifier of a user.
+   */
+  public void incrementSilvermail(final String userId) {
+    increment(silvermail, userId);
+  }
+
+  /**
+   * Decrements the number of unread messages of the given user into its SILVERMAIL inbox.
+   * @param userId the identifier of a user.
+   */
+  public void decrementSilvermail(final String userId) {
+    decrement(silvermail, userId);
+  }
+
+  /**
+   * Resets to zero the number of unread messages of the given user into its SILVERMAIL inbox.
+   * @param userId the identifier of a user.
+   */
+  public void resetSilvermail(final String userId) {
+    silvermail.put(userId, new Counter(0));
+  }
+
+  /**
+   * Invalidates the counter of the unread messages of the given user into its SILVERMAIL inbox.
+   * It will be loaded again the next time it is asked.
+   * @param userId the identifier of a user.
+   */
+  public void invalidateSilvermail(final String userId) {
+    silvermail.remove(userId);
+  }
+
+  /**
+   * Gets the number of POPUP messages waiting to be displayed to the given user.
+   * @param userId the identifier of a user.
+   * @param loader the count of the messages into the persistence, used when the counter isn't
+   * yet loaded.
+   * @return a number of messages.
+   */
+  public long getPopupCount(final String userId, final LongSupplier loader) {
+    return getCount(popup, userId, loader);
+  }
+
+  /**
+   * Increments the number of POPUP messages waiting to be displayed to the given user.
+   * @param userId the identifier of a user.
+   */
+  public void incrementPopup(final String userId) {
+    increment(popup, userId);
+  }
+
+  /**
+   * Decrements the number of POPUP messages waiting to be displayed to the given user.
+   * @param userId the identifier of a user.
+   */
+  public void decrementPopup(final String userId) {
+    decrement(popup, userId);
+  }
+
+  /**
+   * Invalidates the counter of the POPUP messages waiting to be displayed to the given user. It
+   * will be loaded again the next time it is asked.
+   * @param userId the identifier of a user.
+   */
+  public void invalidatePopup(final String userId) {
+    popup.remove(userId);
+  }
+
+  /**
+   * Invalidates all the counters.
+   */
+  public void clear() {
+    silvermail.clear();
+    popup.clear();
+  }
+
+  /**
+   * Gets the counter of the given user, loading it if it isn't yet. The counter is mapped before
+   * its loading so that the count in the persistence is got outside any lock of the mapping.
+   */
+  private static long getCount(final Map<String, Counter> counters, final String userId,
+      final LongSupplier loader) {
+    return counters.computeIfAbsent(userId, k -> new Counter()).get(loader);
+  }
+
+  private static void increment(final Map<String, Counter> counters, final String userId) {
+    final Counter counter = counters.get(userId);
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  private static void decrement(final Map<String, Counter> counters, final String userId) {
+    final Counter counter = counters.get(userId);
+    if (counter != null) {
+      counter.decrement();
+    }
+  }
+
+  /**
+   * A counter of messages, either loaded or waiting to be loaded. The changes of a counter not
+   * yet loaded are counted so that a count loaded meanwhile, which can be outdated, is discarded.
+   */
+  private static class Counter {
+
+    private long count;
+    private boolean loaded;
+    private long changesBeforeLoading = 0;
+
+    private Counter() {
+      this.loaded = false;
+    }
+
+    private Counter(final long count) {
+      this.count = count;
+      this.loaded = true;
+    }
+
+    /**
+     * Gets the count, loading it if it isn't yet. The loader is invoked without holding the lock
+     * of the counter.
+     * @param loader the count of the messages into the persistence.
+     * @return the count of messages.
+     */
+    long get(final LongSupplier loader) {
+      final long changes;
+      synchronized (this) {
+        if (loaded) {
+          return count;
+        }
+        changes = changesBeforeLoading;
+      }
+      final long loadedCount = loader.getAsLong();
+      synchronized (this) {
+        if (!loaded && changes == changesBeforeLoading) {
+          count = loadedCount;
+          loaded = true;
+        }
+      }
+      return loadedCount;
+    }
+
+    synchronized void increment() {
+      if (loaded) {
+        count++;
+      } else {
+        changesBeforeLoading++;
+      }
+    }
+
+    synchronized void decrement() {
+      if (loaded) {
+        count = Math.max(0, count - 1);
+      } else {
+        changesBeforeLoading++;
+      }
+    }
+  }
+
+  private static class ReconciliationJob extends Job {
+
+    private ReconciliationJob() {
+      super(JOB_NAME);
+    }
+
+    @Override
+    public void execute(final JobExecutionContext context) {
+      UnreadMessageCounters.get().clear();
+    }
+  }
+}
@@ -25,6 +25,9 @@ package org.silverpeas.core.notification.user.server.channel.popup;
 
 import org.silverpeas.core.annotation.Service;
 import org.silverpeas.core.notification.user.server.NotificationData;
+import org.silverpeas.core.notification.user.server.channel.BulkMessageInsertion;
+import org.silverpeas.core.notification.user.server.channel.UnreadMessageCounters;
+import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.persistence.jdbc.LongText;
 import org.silverpeas.core.util.DateUtil;
 import org.silverpeas.core.util.ServiceProvider;
@@ -32,8 +35,11 @@ import org.silverpeas.kernel.logging.SilverLogger;
 
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * @author dblot
@@ -44,6 +50,20 @@ public class DefaultPopupMessageService implements PopupMessageService {
 
   private static final String COMMUNICATION_PREFIX = "COMMUNICATION";
   private static final String ALERT_PREFIX = "ALERT";
+  private static final BulkMessageInsertion<POPUPMessageBean> BULK_INSERTION =
+      new BulkMessageInsertion<>("ST_PopupMessage", (statement, pmb) -> {
+        int i = 2;
+        statement.setLong(i++, pmb.getUserId());
+        statement.setString(i++, pmb.getBody());
+        statement.setString(i++, pmb.getSenderId());
+        statement.setString(i++, pmb.getSenderName());
+        statement.setString(i++, pmb.getAnswerAllowed());
+        statement.setString(i++, pmb.getSource());
+        statement.setString(i++, pmb.getUrl());
+        statement.setString(i++, pmb.getMsgDate());
+        statement.setString(i, pmb.getMsgTime());
+      }, "userId", "body", "senderId", "senderName", "answerAllowed", "source", "url", "msgDate",
+          "msgTime");
 
   /**
    * Hidden constructor
@@ -56,8 +76,11 @@ public class DefaultPopupMessageService implements PopupMessageService {
     PopupMsg popupMsg = null;
     POPUPMessageBean pmb = null;
     try {
-      // find all message to display
-      pmb = getRepository().findFirstMessageByUserId(userId);
+      // find all message to display, if any
+      if (UnreadMessageCounters.get()
+          .getPopupCount(userId, () -> getRepository().countMessagesByUserId(userId)) > 0) {
+        pmb = getRepository().findFirstMessageByUserId(userId);
+      }
     } catch (Exception e) {
       SilverLogger.getLogger(this)
           .error("Cannot read message for user {0}", new String[]{userId}, e);
@@ -121,6 +144,7 @@ public class DefaultPopupMessageService implements PopupMessageService {
       }
       try {
         repository.delete(toDel);
+        UnreadMessageCounters.get().decrementPopup(String.valueOf(toDel.getUserId()));
       } catch (Exception e) {
         SilverLogger.getLogger(this).error("Cannot delete message {0}", new String[]{msgId}, e);
       }
@@ -132,6 +156,7 @@ public class DefaultPopupMessageService implements PopupMessageService {
   public void deleteAll(String userId) {
     try {
       getRepository().deleteMessagesByUserIdAndSenderId(userId, "-1");
+      UnreadMessageCounters.get().invalidatePopup(userId);
     } catch (Exception ex) {
       SilverLogger.getLogger(this)
           .error("Cannot delete all messages for user {0}", new String[]{userId}, ex);
@@ -141,39 +166,61 @@ public class DefaultPopupMessageService implements PopupMessageService {
   @Transactional
   @Override
   public void push(String userId, NotificationData notifMsg) {
-    POPUPMessageBean pmb = new POPUPMessageBean();
     try {
-      pmb.setUserId(Long.parseLong(userId));
-
-      // CBO : UPDATE
-      if (COMMUNICATION_PREFIX.equals(notifMsg.getComment())) {
-        pmb.setBody(notifMsg.getComment() +
-            Integer.toString(LongText.addLongText(notifMsg.getMessage())));
-      } else {
-        pmb.setBody(Integer.toString(LongText.addLongText(notifMsg.getMessage())));
-      }
-      // CBO : FIN UPDATE
-      Map<String, Object> keyValue = notifMsg.getTargetParam();
-      // retrieves the SOURCE key value.
-      String tmpSourceString = (String) keyValue.get("SOURCE");
-      // retrieves the URL key value.
-      String tmpUrlString = (String) keyValue.get("URL");
-
-
-      pmb.setSenderId(notifMsg.getSenderId());
-      pmb.setSenderName(notifMsg.getSenderName());
-      pmb.setAnswerAllowed(notifMsg.isAnswerAllowed());
-      pmb.setUrl(tmpUrlString);
-      pmb.setSource(tmpSourceString);
-      pmb.setMsgDate(DateUtil.date2SQLDate(new Date()));
-      pmb.setMsgTime(DateUtil.getFormattedTime(new Date()));
+      POPUPMessageBean pmb =
+          newMessageBean(userId, notifMsg, LongText.addLongText(notifMsg.getMessage()));
       getRepository().save(pmb);
+      UnreadMessageCounters.get().incrementPopup(userId);
     } catch (Exception e) {
       SilverLogger.getLogger(this)
           .error("Cannot push message {0} for user {1}", new Object[]{notifMsg, userId}, e);
     }
   }
 
+  @Override
+  public void push(List<NotificationData> notifMsgs) {
+    Transaction.performInOne(() -> {
+      final int[] bodyIds = LongText.addLongTexts(notifMsgs.stream()
+          .map(NotificationData::getMessage)
+          .collect(Collectors.toList()));
+      final List<POPUPMessageBean> beans = new ArrayList<>(notifMsgs.size());
+      for (int i = 0; i < bodyIds.length; i++) {
+        final NotificationData notifMsg = notifMsgs.get(i);
+        beans.add(newMessageBean(notifMsg.getTargetReceipt(), notifMsg, bodyIds[i]));
+      }
+      return BULK_INSERTION.insert(beans);
+    });
+    notifMsgs.forEach(n -> UnreadMessageCounters.get().incrementPopup(n.getTargetReceipt()));
+  }
+
+  private POPUPMessageBean newMessageBean(String userId, NotificationData notifMsg,
+      int longTextId) {
+    POPUPMessageBean pmb = new POPUPMessageBean();
+    pmb.setUserId(Long.parseLong(userId));
+
+    // CBO : UPDATE
+    if (COMMUNICATION_PREFIX.equals(notifMsg.getComment())) {
+      pmb.setBody(notifMsg.getComment() + longTextId);
+    } else {
+      pmb.setBody(Integer.toString(longTextId));
+    }
+    // CBO : FIN UPDATE
+    Map<String, Object> keyValue = notifMsg.getTargetParam();
+    // retrieves the SOURCE key value.
+    String tmpSourceString = (String) keyValue.get("SOURCE");
+    // retrieves the URL key value.
+    String tmpUrlString = (String) keyValue.get("URL");
+
+    pmb.setSenderId(notifMsg.getSenderId());
+    pmb.setSenderName(notifMsg.getSenderName());
+    pmb.setAnswerAllowed(notifMsg.isAnswerAllowed());
+    pmb.setUrl(tmpUrlString);
+    pmb.setSource(tmpSourceString);
+    pmb.setMsgDate(DateUtil.date2SQLDate(new Date()));
+    pmb.setMsgTime(DateUtil.getFormattedTime(new Date()));
+    return pmb;
+  }
+
   private POPUPMessageBeanRepository getRepository() {
     return ServiceProvider.getService(POPUPMessageBeanRepository.class);
   }
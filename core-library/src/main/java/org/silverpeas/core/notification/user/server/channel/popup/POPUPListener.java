@@ -34,6 +34,7 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.jms.Message;
 import javax.jms.MessageListener;
+import java.util.List;
 
 @MessageDriven(activationConfig = {
     @ActivationConfigProperty(propertyName = "destinationType", propertyValue = "javax.jms.Queue"),
@@ -58,6 +59,21 @@ public class POPUPListener extends AbstractListener implements MessageListener {
     }
   }
 
+  @Override
+  protected void send(List<NotificationData> messages) throws NotificationServerException {
+    if (messages.size() > 1) {
+      try {
+        PopupMessageService.get().push(messages);
+        return;
+      } catch (Exception e) {
+        SilverLogger.getLogger(this)
+            .warn("Bulk insertion of {0} messages failed, inserting them one by one: {1}",
+                messages.size(), e.getMessage());
+      }
+    }
+    super.send(messages);
+  }
+
   @Override
   public void send(NotificationData message) throws NotificationServerException {
     try {
@@ -40,6 +40,13 @@ public class POPUPMessageBeanRepository extends BasicJpaEntityRepository<POPUPMe
     return findFirstByNamedQuery("findByUserId", parameters);
   }
 
+  public long countMessagesByUserId(String userId) {
+    NamedParameters parameters = newNamedParameters();
+    parameters.add("userId", Long.valueOf(userId));
+    return countFromJpqlString("select m from POPUPMessageBean m where m.userId = :userId",
+        parameters);
+  }
+
   public void deleteMessagesByUserIdAndSenderId(String userId, String senderId) {
     NamedParameters parameters = newNamedParameters();
     parameters.add("userId", Long.parseLong(userId)).add("senderId", senderId);
@@ -26,6 +26,7 @@ package org.silverpeas.core.notification.user.server.channel.popup;
 import org.silverpeas.core.admin.service.OrganizationControllerProvider;
 import org.silverpeas.core.admin.user.model.UserDetail;
 import org.silverpeas.core.exception.SilverpeasException;
+import org.silverpeas.core.notification.user.server.channel.UnreadMessageCounters;
 import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.persistence.jdbc.LongText;
 import org.silverpeas.core.persistence.jdbc.bean.IdPK;
@@ -52,6 +53,7 @@ public class POPUPPersistence {
         smb.setMsgDate(popupMsg.getDate());
         smb.setMsgTime(popupMsg.getTime());
         Transaction.performInOne(() -> getRepository().save(smb));
+        UnreadMessageCounters.get().incrementPopup(String.valueOf(smb.getUserId()));
       } catch (Exception e) {
         throw new POPUPException("POPUPPersistence.addMessage()",
             SilverpeasException.ERROR, "POPUP.EX_CANT_WRITE_MESSAGE", e);
@@ -112,6 +114,7 @@ public class POPUPPersistence {
           } catch (Exception e) {
           }
           repository.delete(toDel);
+          UnreadMessageCounters.get().decrementPopup(String.valueOf(toDel.getUserId()));
         }
         return null;
       });
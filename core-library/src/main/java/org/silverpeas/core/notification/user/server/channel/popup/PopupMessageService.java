@@ -27,6 +27,7 @@ import org.silverpeas.core.notification.user.server.NotificationData;
 import org.silverpeas.core.util.ServiceProvider;
 
 import javax.transaction.Transactional;
+import java.util.List;
 
 /**
  * @author Yohann Chastagnier
@@ -65,4 +66,13 @@ public interface PopupMessageService {
    */
   @Transactional
   void push(String userId, NotificationData notifMsg);
+
+  /**
+   * Pushes at once the given notifications, each of them as a new message to the user targeted by
+   * the notification. The messages are inserted in bulk in a single transaction: if the pushing
+   * fails, none of the messages is pushed.
+   * @param notifMsgs the notification meta data.
+   * @throws org.silverpeas.core.persistence.TransactionRuntimeException if the pushing fails.
+   */
+  void push(List<NotificationData> notifMsgs);
 }
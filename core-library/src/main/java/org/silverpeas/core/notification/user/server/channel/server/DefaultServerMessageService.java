@@ -24,12 +24,19 @@
 package org.silverpeas.core.notification.user.server.channel.server;
 
 import org.silverpeas.core.annotation.Service;
+import org.silverpeas.core.notification.user.client.NotificationParameterNames;
+import org.silverpeas.core.notification.user.server.NotificationData;
+import org.silverpeas.core.notification.user.server.channel.BulkMessageInsertion;
+import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.persistence.jdbc.LongText;
 import org.silverpeas.core.util.ServiceProvider;
 import org.silverpeas.kernel.logging.SilverLogger;
 
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @author neysseri
@@ -38,6 +45,14 @@ import javax.transaction.Transactional;
 @Singleton
 public class DefaultServerMessageService implements ServerMessageService {
 
+  private static final BulkMessageInsertion<ServerMessageBean> BULK_INSERTION =
+      new BulkMessageInsertion<>("ST_ServerMessage", (statement, smb) -> {
+        int i = 2;
+        statement.setLong(i++, smb.getUserId());
+        statement.setString(i++, smb.getBody());
+        statement.setString(i, smb.getSessionId());
+      }, "userId", "body", "sessionId");
+
   /**
    * Hidden constructor
    */
@@ -125,6 +140,26 @@ public class DefaultServerMessageService implements ServerMessageService {
     }
   }
 
+  @Override
+  public void push(List<NotificationData> notifications) {
+    Transaction.performInOne(() -> {
+      final int[] bodyIds = LongText.addLongTexts(notifications.stream()
+          .map(NotificationData::getMessage)
+          .collect(Collectors.toList()));
+      final List<ServerMessageBean> beans = new ArrayList<>(notifications.size());
+      for (int i = 0; i < bodyIds.length; i++) {
+        final NotificationData notification = notifications.get(i);
+        final ServerMessageBean smb = new ServerMessageBean();
+        smb.setUserId(Long.parseLong(notification.getTargetReceipt()));
+        smb.setBody(Integer.toString(bodyIds[i]));
+        smb.setSessionId((String) notification.getTargetParam()
+            .get(NotificationParameterNames.SESSIONID.toString()));
+        beans.add(smb);
+      }
+      return BULK_INSERTION.insert(beans);
+    });
+  }
+
   private ServerMessageBeanRepository getRepository() {
     return ServiceProvider.getService(ServerMessageBeanRepository.class);
   }
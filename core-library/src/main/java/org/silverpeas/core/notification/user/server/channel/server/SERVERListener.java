@@ -35,6 +35,7 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.jms.Message;
 import javax.jms.MessageListener;
+import java.util.List;
 import java.util.Map;
 
 @MessageDriven(activationConfig = {
@@ -60,6 +61,21 @@ public class SERVERListener extends AbstractListener implements MessageListener
     }
   }
 
+  @Override
+  protected void send(List<NotificationData> notifications) throws NotificationServerException {
+    if (notifications.size() > 1) {
+      try {
+        ServerMessageService.get().push(notifications);
+        return;
+      } catch (Exception e) {
+        SilverLogger.getLogger(this)
+            .warn("Bulk insertion of {0} messages failed, inserting them one by one: {1}",
+                notifications.size(), e.getMessage());
+      }
+    }
+    super.send(notifications);
+  }
+
   @Override
   public void send(NotificationData notification) {
     Map<String, Object> params = notification.getTargetParam();
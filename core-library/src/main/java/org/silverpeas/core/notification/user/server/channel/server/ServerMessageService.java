@@ -23,8 +23,11 @@
  */
 package org.silverpeas.core.notification.user.server.channel.server;
 
+import org.silverpeas.core.notification.user.server.NotificationData;
 import org.silverpeas.core.util.ServiceProvider;
 
+import java.util.List;
+
 /**
  * @author Yohann Chastagnier
  */
@@ -62,4 +65,13 @@ public interface ServerMessageService {
    * @param sessionId the identifier of the session.
    */
   void push(String userId, String message, String sessionId);
+
+  /**
+   * Pushes at once the given notifications, each of them as a new message to the user and to the
+   * session targeted by the notification. The messages are inserted in bulk in a single
+   * transaction: if the pushing fails, none of the messages is pushed.
+   * @param notifications the notifications to push.
+   * @throws org.silverpeas.core.persistence.TransactionRuntimeException if the pushing fails.
+   */
+  void push(List<NotificationData> notifications);
 }
@@ -36,7 +36,9 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.jms.Message;
 import javax.jms.MessageListener;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 @MessageDriven(activationConfig = {
@@ -59,30 +61,53 @@ public class SILVERMAILListener extends AbstractListener implements MessageListe
     }
   }
 
+  @Override
+  protected void send(List<NotificationData> notifications) throws NotificationServerException {
+    if (notifications.size() > 1) {
+      try {
+        List<SILVERMAILMessage> messages = new ArrayList<>(notifications.size());
+        for (NotificationData data : notifications) {
+          messages.add(toMessage(data));
+        }
+        SILVERMAILPersistence.addMessages(messages);
+        return;
+      } catch (Exception e) {
+        SilverLogger.getLogger(this)
+            .warn("Bulk insertion of {0} messages failed, inserting them one by one: {1}",
+                notifications.size(), e.getMessage());
+      }
+    }
+    super.send(notifications);
+  }
+
   @Override
   public void send(NotificationData data) throws NotificationServerException {
     try {
-      Map<String, Object> keyValue = data.getTargetParam();
-      // retrieves the SUBJECT key value.
-      String tmpSubjectString = (String) keyValue.get(NotificationParameterNames.SUBJECT.toString());
-      // retrieves the SOURCE key value.
-      String tmpSourceString = (String) keyValue.get(NotificationParameterNames.SOURCE.toString());
-      // retrieves the URL key value.
-      String tmpUrlString = (String) keyValue.get(NotificationParameterNames.URL.toString());
-      // retrieves the DATE key value.
-      Date tmpDate = (Date) keyValue.get(NotificationParameterNames.DATE.toString());
-      SILVERMAILMessage sm = new SILVERMAILMessage();
-      sm.setUserId(Integer.parseInt(data.getTargetReceipt()));
-      String senderName = StringUtil.isDefined(data.getSenderName()) ? data.getSenderName() : "";
-      sm.setSenderName(senderName);
-      sm.setSubject(tmpSubjectString);
-      sm.setUrl(tmpUrlString);
-      sm.setSource(tmpSourceString);
-      sm.setDate(tmpDate);
-      sm.setBody(data.getMessage());
-      SILVERMAILPersistence.addMessage(sm);
+      SILVERMAILPersistence.addMessage(toMessage(data));
     } catch (Exception e) {
       throw new NotificationServerException(e);
     }
   }
+
+  private SILVERMAILMessage toMessage(NotificationData data) {
+    Map<String, Object> keyValue = data.getTargetParam();
+    // retrieves the SUBJECT key value.
+    String tmpSubjectString = (String) keyValue.get(NotificationParameterNames.SUBJECT.toString());
+    // retrieves the SOURCE key value.
+    String tmpSourceString = (String) keyValue.get(NotificationParameterNames.SOURCE.toString());
+    // retrieves the URL key value.
+    String tmpUrlString = (String) keyValue.get(NotificationParameterNames.URL.toString());
+    // retrieves the DATE key value.
+    Date tmpDate = (Date) keyValue.get(NotificationParameterNames.DATE.toString());
+    SILVERMAILMessage sm = new SILVERMAILMessage();
+    sm.setUserId(Integer.parseInt(data.getTargetReceipt()));
+    String senderName = StringUtil.isDefined(data.getSenderName()) ? data.getSenderName() : "";
+    sm.setSenderName(senderName);
+    sm.setSubject(tmpSubjectString);
+    sm.setUrl(tmpUrlString);
+    sm.setSource(tmpSourceString);
+    sm.setDate(tmpDate);
+    sm.setBody(data.getMessage());
+    return sm;
+  }
 }
@@ -31,6 +31,7 @@ import javax.persistence.Entity;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
 import java.util.Objects;
 
 @Entity
@@ -71,6 +72,8 @@ public class SILVERMAILMessageBean
   private String url = "";
   @Column
   private String dateMsg;
+  @Column
+  private Instant msgTimestamp;
   @Column(length = 4000)
   private String body = "";
   @Column(nullable = false)
@@ -138,6 +141,14 @@ public class SILVERMAILMessageBean
     dateMsg = value;
   }
 
+  public Instant getMsgTimestamp() {
+    return msgTimestamp;
+  }
+
+  public void setMsgTimestamp(Instant value) {
+    msgTimestamp = value;
+  }
+
   public String getBody() {
     return body;
   }
@@ -32,20 +32,27 @@ import org.silverpeas.kernel.cache.model.SimpleCache;
 import org.silverpeas.core.cache.service.CacheAccessorProvider;
 import org.silverpeas.core.notification.sse.DefaultServerEventNotifier;
 import org.silverpeas.core.notification.user.UserNotificationServerEvent;
+import org.silverpeas.core.notification.user.server.channel.BulkMessageInsertion;
+import org.silverpeas.core.notification.user.server.channel.UnreadMessageCounters;
 import org.silverpeas.core.notification.user.server.channel.silvermail.SilvermailCriteria.QUERY_ORDER_BY;
 import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.persistence.jdbc.LongText;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
 import org.silverpeas.core.security.authorization.ForbiddenRuntimeException;
 import org.silverpeas.core.util.CollectionUtil;
 import org.silverpeas.core.util.DateUtil;
 import org.silverpeas.kernel.util.Mutable;
+import org.silverpeas.kernel.util.Pair;
 import org.silverpeas.core.util.ServiceProvider;
 import org.silverpeas.core.util.SilverpeasList;
 import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.kernel.logging.SilverLogger;
 import org.silverpeas.kernel.SilverpeasRuntimeException;
 
+import java.sql.Timestamp;
 import java.text.ParseException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -57,6 +64,25 @@ import static java.util.Collections.singletonList;
 public class SILVERMAILPersistence {
 
   private static final String CACHE_KEY = SILVERMAILPersistence.class + "@userId@";
+  private static final String INBOX = "INBOX";
+  private static final String INBOX_ID = "0";
+  private static final String SILVERMAIL_TABLE = "ST_SilverMailMessage";
+  private static final BulkMessageInsertion<SILVERMAILMessageBean> BULK_INSERTION =
+      new BulkMessageInsertion<>(SILVERMAIL_TABLE, (statement, smb) -> {
+        int i = 2;
+        statement.setLong(i++, smb.getUserId());
+        statement.setLong(i++, smb.getFolderId());
+        statement.setString(i++, smb.getSenderName());
+        statement.setString(i++, smb.getSubject());
+        statement.setString(i++, smb.getBody());
+        statement.setString(i++, smb.getSource());
+        statement.setString(i++, smb.getUrl());
+        statement.setString(i++, smb.getDateMsg());
+        statement.setTimestamp(i++,
+            smb.getMsgTimestamp() != null ? Timestamp.from(smb.getMsgTimestamp()) : null);
+        statement.setInt(i, smb.getReaden());
+      }, "userId", "folderId", "senderName", "subject", "body", "source", "url", "dateMsg",
+          "msgTimestamp", "readen");
 
   /**
    * Hidden constructor.
@@ -69,6 +95,9 @@ public class SILVERMAILPersistence {
     if (hasToUpdate) {
       smb.setReaden(1);
       Transaction.performInOne(() -> getRepository().save(smb));
+      if (smb.getFolderId() == 0) {
+        UnreadMessageCounters.get().decrementSilvermail(String.valueOf(smb.getUserId()));
+      }
       DefaultServerEventNotifier.get().notify(UserNotificationServerEvent
           .readOf(String.valueOf(smb.getUserId()), smb.getId(), smb.getSubject(), smb
               .getSenderName()));
@@ -121,20 +150,12 @@ public class SILVERMAILPersistence {
   }
 
   static void addMessage(SILVERMAILMessage silverMsg) throws SILVERMAILException {
-    SILVERMAILMessageBean smb = new SILVERMAILMessageBean();
     if (silverMsg != null) {
       try {
-        smb.setUserId(silverMsg.getUserId());
-        smb.setSenderName(silverMsg.getSenderName());
-        // 0 = INBOX
-        smb.setFolderId(0);
-        smb.setSubject(silverMsg.getSubject());
+        SILVERMAILMessageBean smb = newMessageBean(silverMsg);
         smb.setBody(Integer.toString(LongText.addLongText(silverMsg.getBody())));
-        smb.setUrl(silverMsg.getUrl());
-        smb.setSource(silverMsg.getSource());
-        smb.setDateMsg(DateUtil.date2SQLDate(silverMsg.getDate()));
-        smb.setReaden(0);
         Transaction.performInOne(() -> getRepository().save(smb));
+        UnreadMessageCounters.get().incrementSilvermail(String.valueOf(smb.getUserId()));
         DefaultServerEventNotifier.get().notify(UserNotificationServerEvent
             .creationOf(String.valueOf(smb.getUserId()), smb.getId(), smb.getSubject(),
                 smb.getSenderName()));
@@ -144,7 +165,110 @@ public class SILVERMAILPersistence {
     }
   }
 
+  /**
+   * Adds at once the given messages: their bodies and themselves are inserted with batches of
+   * statements in a single transaction. If the adding fails, none of the messages is added.
+   * @param silverMsgs the messages to add.
+   * @throws SILVERMAILException if the adding fails.
+   */
+  static void addMessages(List<SILVERMAILMessage> silverMsgs) throws SILVERMAILException {
+    final List<SILVERMAILMessageBean> beans = new ArrayList<>(silverMsgs.size());
+    final int[] ids;
+    try {
+      ids = Transaction.performInOne(() -> {
+        final int[] bodyIds = LongText.addLongTexts(silverMsgs.stream()
+            .map(SILVERMAILMessage::getBody)
+            .collect(Collectors.toList()));
+        for (int i = 0; i < bodyIds.length; i++) {
+          final SILVERMAILMessageBean smb = newMessageBean(silverMsgs.get(i));
+          smb.setBody(Integer.toString(bodyIds[i]));
+          beans.add(smb);
+        }
+        return BULK_INSERTION.insert(beans);
+      });
+    } catch (Exception e) {
+      throw new SILVERMAILException(e);
+    }
+    for (int i = 0; i < ids.length; i++) {
+      final SILVERMAILMessageBean smb = beans.get(i);
+      UnreadMessageCounters.get().incrementSilvermail(String.valueOf(smb.getUserId()));
+      DefaultServerEventNotifier.get().notify(UserNotificationServerEvent
+          .creationOf(String.valueOf(smb.getUserId()), String.valueOf(ids[i]), smb.getSubject(),
+              smb.getSenderName()));
+    }
+  }
+
+  /**
+   * Deletes the read messages older than the given date, with their body. The messages are
+   * deleted by chunks, each chunk in its own transaction, in order to not lock the whole table
+   * during the deletion.
+   * @param date the date before which the read messages are deleted.
+   * @param chunkSize the maximum number of messages deleted in a chunk.
+   * @return the number of deleted messages.
+   */
+  static long deleteReadMessagesOlderThan(final Instant date, final int chunkSize) {
+    long nbDeleted = 0;
+    int nbInChunk;
+    do {
+      nbInChunk = Transaction.performInOne(() -> {
+        final List<Pair<Integer, String>> messages = JdbcSqlQuery.select("id, body")
+            .from(SILVERMAIL_TABLE)
+            .where("readen = 1")
+            .and("msgTimestamp < ?", Timestamp.from(date))
+            .limit(chunkSize)
+            .execute(row -> Pair.of(row.getInt(1), row.getString(2)));
+        if (!messages.isEmpty()) {
+          final List<Integer> longTextIds = new ArrayList<>(messages.size());
+          final List<Integer> ids = new ArrayList<>(messages.size());
+          for (Pair<Integer, String> message : messages) {
+            ids.add(message.getFirst());
+            if (StringUtil.isInteger(message.getSecond())) {
+              longTextIds.add(Integer.parseInt(message.getSecond()));
+            }
+          }
+          LongText.removeLongTexts(longTextIds);
+          for (Collection<Integer> idBatch : CollectionUtil.split(ids)) {
+            JdbcSqlQuery.deleteFrom(SILVERMAIL_TABLE).where("id").in(idBatch).execute();
+          }
+        }
+        return messages.size();
+      });
+      nbDeleted += nbInChunk;
+    } while (nbInChunk >= chunkSize);
+    return nbDeleted;
+  }
+
+  private static SILVERMAILMessageBean newMessageBean(SILVERMAILMessage silverMsg) {
+    SILVERMAILMessageBean smb = new SILVERMAILMessageBean();
+    smb.setUserId(silverMsg.getUserId());
+    smb.setSenderName(silverMsg.getSenderName());
+    // 0 = INBOX
+    smb.setFolderId(0);
+    smb.setSubject(silverMsg.getSubject());
+    smb.setUrl(silverMsg.getUrl());
+    smb.setSource(silverMsg.getSource());
+    smb.setDateMsg(DateUtil.date2SQLDate(silverMsg.getDate()));
+    smb.setMsgTimestamp(silverMsg.getDate() != null ? silverMsg.getDate().toInstant() : null);
+    smb.setReaden(0);
+    return smb;
+  }
+
+  /**
+   * Counts the unread messages of the given folder of a user. The count of the unread messages of
+   * the inbox is taken from the in-memory counters of the unread messages.
+   * @param userId the identifier of a user.
+   * @param folderName the name of a folder.
+   * @return the number of unread messages.
+   */
   public static long countNotReadMessagesOfFolder(String userId, String folderName) {
+    if (INBOX.equals(folderName)) {
+      return UnreadMessageCounters.get()
+          .getSilvermailCount(userId, () -> countNotReadMessagesIntoPersistence(userId, folderName));
+    }
+    return countNotReadMessagesIntoPersistence(userId, folderName);
+  }
+
+  private static long countNotReadMessagesIntoPersistence(String userId, String folderName) {
     return getRepository().countByCriteria(SilvermailCriteria.get()
         .aboutUser(userId)
         .into(folderName)
@@ -215,6 +339,9 @@ public class SILVERMAILPersistence {
       if (Long.parseLong(userId) == toDel.getUserId()) {
         BackgroundProcessTask.push(new LongTextDeletionRequest(toDel.getBody()));
         repository.delete(toDel);
+        if (toDel.getReaden() != 1 && toDel.getFolderId() == 0) {
+          UnreadMessageCounters.get().decrementSilvermail(userId);
+        }
       } else {
         throw new ForbiddenRuntimeException(
             "Unauthorized deletion of message " + msgId + " for user " + userId);
@@ -226,7 +353,7 @@ public class SILVERMAILPersistence {
   }
 
   public static void deleteAllMessagesInFolder(String currentUserId) {
-    String folderId = "0";
+    String folderId = INBOX_ID;
     long nbDeleted = Transaction.performInOne(() -> {
       final List<String> longTextIds = getRepository().getLongTextIdsOfAllMessagesByUserIdAndFolderId(currentUserId, folderId);
       BackgroundProcessTask.push(new LongTextDeletionRequest(longTextIds));
@@ -234,14 +361,16 @@ public class SILVERMAILPersistence {
     });
 
     if (nbDeleted > 0) {
+      UnreadMessageCounters.get().resetSilvermail(currentUserId);
       DefaultServerEventNotifier.get().notify(UserNotificationServerEvent.clean(currentUserId));
     }
   }
 
   public static void markAllMessagesAsRead(String currentUserId) {
     long nbUpdated = Transaction.performInOne(() -> getRepository()
-        .markAsReadAllMessagesByUserIdAndFolderId(currentUserId, "0"));
+        .markAsReadAllMessagesByUserIdAndFolderId(currentUserId, INBOX_ID));
     if (nbUpdated > 0) {
+      UnreadMessageCounters.get().resetSilvermail(currentUserId);
       DefaultServerEventNotifier.get().notify(UserNotificationServerEvent.clean(currentUserId));
     }
   }
@@ -254,6 +383,7 @@ public class SILVERMAILPersistence {
     });
 
     if (nbDeleted > 0) {
+      UnreadMessageCounters.get().invalidateSilvermail(currentUserId);
       DefaultServerEventNotifier.get().notify(UserNotificationServerEvent.clean(currentUserId));
     }
   }
@@ -262,6 +392,7 @@ public class SILVERMAILPersistence {
     long nbUpdated = Transaction.performInOne(() -> getRepository()
         .markAsReadMessagesByUserIdAndByIds(currentUserId, ids));
     if (nbUpdated > 0) {
+      UnreadMessageCounters.get().invalidateSilvermail(currentUserId);
       DefaultServerEventNotifier.get().notify(UserNotificationServerEvent.clean(currentUserId));
     }
   }
@@ -304,18 +435,22 @@ public class SILVERMAILPersistence {
 
     @Override
     protected void process() {
-      Transaction.performInOne(() -> {
-        longTextIds.forEach(id -> {
-          try {
-            LongText.removeLongText(Integer.parseInt(id));
-          } catch (NumberFormatException e) {
-            SilverLogger.getLogger(SILVERMAILPersistence.class).silent(e);
-          } catch (Exception e) {
-            SilverLogger.getLogger(SILVERMAILPersistence.class).error(e);
-          }
-        });
-        return null;
+      final List<Integer> ids = new ArrayList<>(longTextIds.size());
+      longTextIds.forEach(id -> {
+        try {
+          ids.add(Integer.parseInt(id));
+        } catch (NumberFormatException e) {
+          SilverLogger.getLogger(SILVERMAILPersistence.class).silent(e);
+        }
       });
+      try {
+        Transaction.performInOne(() -> {
+          LongText.removeLongTexts(ids);
+          return null;
+        });
+      } catch (Exception e) {
+        SilverLogger.getLogger(SILVERMAILPersistence.class).error(e);
+      }
     }
   }
 }
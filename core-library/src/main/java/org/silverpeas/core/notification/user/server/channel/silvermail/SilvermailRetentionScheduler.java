@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server.channel.silvermail;
+
+import org.silverpeas.core.annotation.Service;
+import org.silverpeas.core.initialization.Initialization;
+import org.silverpeas.core.scheduler.Job;
+import org.silverpeas.core.scheduler.JobExecutionContext;
+import org.silverpeas.core.scheduler.Scheduler;
+import org.silverpeas.core.scheduler.SchedulerProvider;
+import org.silverpeas.core.scheduler.trigger.JobTrigger;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.silverpeas.core.notification.user.client.NotificationManagerSettings.getSilvermailRetentionCron;
+import static org.silverpeas.core.notification.user.client.NotificationManagerSettings.getSilvermailRetentionDays;
+import static org.silverpeas.kernel.util.StringUtil.isDefined;
+
+/**
+ * Batch in charge of purging the read SILVERMAIL messages older than the retention age set in
+ * the notification manager settings.
+ */
+@Service
+public class SilvermailRetentionScheduler implements Initialization {
+
+  protected static final String JOB_NAME = "SilvermailRetentionJob";
+  private static final int CHUNK_SIZE = 1000;
+
+  @Override
+  public void init() throws Exception {
+    final Scheduler scheduler = SchedulerProvider.getVolatileScheduler();
+    scheduler.unscheduleJob(JOB_NAME);
+    if (isRetentionEnabled()) {
+      scheduler.scheduleJob(new SilvermailRetentionJob(),
+          JobTrigger.triggerAt(getSilvermailRetentionCron()));
+    }
+  }
+
+  private static boolean isRetentionEnabled() {
+    return isDefined(getSilvermailRetentionCron()) && getSilvermailRetentionDays() > 0;
+  }
+
+  private static class SilvermailRetentionJob extends Job {
+
+    SilvermailRetentionJob() {
+      super(JOB_NAME);
+    }
+
+    @Override
+    public void execute(final JobExecutionContext context) {
+      if (isRetentionEnabled()) {
+        final Instant date = Instant.now().minus(getSilvermailRetentionDays(), ChronoUnit.DAYS);
+        try {
+          final long nbDeleted =
+              SILVERMAILPersistence.deleteReadMessagesOlderThan(date, CHUNK_SIZE);
+          SilverLogger.getLogger(this)
+              .info("{0} read messages older than {1} purged", nbDeleted, date);
+        } catch (Exception e) {
+          SilverLogger.getLogger(this).error(e.getMessage(), e);
+        }
+      }
+    }
+  }
+}
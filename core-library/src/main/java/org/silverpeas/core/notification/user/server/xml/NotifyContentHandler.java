@@ -31,6 +31,10 @@ import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author ehugonnet
  */
@@ -38,10 +42,24 @@ public class NotifyContentHandler extends DefaultHandler {
 
   private final NotificationData data;
   private final XMLReader parser;
+  private final List<Map<String, Object>> batch;
 
   public NotifyContentHandler(NotificationData data, XMLReader parser) {
+    this(data, parser, new ArrayList<>());
+  }
+
+  /**
+   * Constructs a handler of a notification that can be a batch of notifications.
+   * @param data the notification data to fill with the content shared by all the recipients.
+   * @param parser the XML reader.
+   * @param batch the list to fill with, for each recipient of the batch, its receipt and its own
+   * target parameters. Left empty if the notification isn't a batch.
+   */
+  public NotifyContentHandler(NotificationData data, XMLReader parser,
+      List<Map<String, Object>> batch) {
     this.data = data;
     this.parser = parser;
+    this.batch = batch;
   }
 
   @Override
@@ -63,7 +81,7 @@ public class NotifyContentHandler extends DefaultHandler {
         child = new CommentContentHandler(data, this, parser);
         break;
       case TARGET:
-        child = new TargetContentHandler(data, this, parser);
+        child = new TargetContentHandler(data, this, parser, batch);
         break;
       case PRIORITY:
         child = new PriorityContentHandler(data, this, parser);
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server.xml;
+
+import org.silverpeas.core.notification.user.server.NotificationServerUtil;
+import org.silverpeas.core.notification.user.server.NotificationTag;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.CharArrayWriter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handler of the BATCH element of a notification: it carries, for each recipient of a batch of
+ * notifications, the receipt and the target parameters specific to that recipient.
+ */
+class TargetBatchContentHandler extends DefaultHandler {
+
+  private final List<Map<String, Object>> batch;
+  private final ContentHandler parent;
+  private final XMLReader parser;
+  private final CharArrayWriter buffer = new CharArrayWriter();
+
+  public TargetBatchContentHandler(List<Map<String, Object>> batch, ContentHandler parent,
+      XMLReader parser) {
+    this.batch = batch;
+    this.parent = parent;
+    this.parser = parser;
+  }
+
+  @Override
+  public void characters(char[] ch, int start, int length) throws SAXException {
+    buffer.write(ch, start, length);
+  }
+
+  @Override
+  public void endElement(String uri, String localName, String qName) throws SAXException {
+    NotificationTag tag = NotificationTag.valueOf(qName);
+    if (tag == NotificationTag.BATCH) {
+      batch.addAll(NotificationServerUtil.unpackBatch(buffer.toString()));
+      parser.setContentHandler(parent);
+    }
+  }
+}
@@ -35,6 +35,10 @@ import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author ehugonnet
  */
@@ -43,11 +47,18 @@ public class TargetContentHandler extends DefaultHandler {
   private final NotificationData data;
   private final ContentHandler parent;
   private final XMLReader parser;
+  private final List<Map<String, Object>> batch;
 
   public TargetContentHandler(NotificationData data, ContentHandler parent, XMLReader parser) {
+    this(data, parent, parser, new ArrayList<>());
+  }
+
+  public TargetContentHandler(NotificationData data, ContentHandler parent, XMLReader parser,
+      List<Map<String, Object>> batch) {
     this.data = data;
     this.parent = parent;
     this.parser = parser;
+    this.batch = batch;
   }
 
   @Override
@@ -72,6 +83,10 @@ public class TargetContentHandler extends DefaultHandler {
         child = new TargetParamContentHandler(data, this, parser);
         parser.setContentHandler(child);
         break;
+      case BATCH:
+        child = new TargetBatchContentHandler(batch, this, parser);
+        parser.setContentHandler(child);
+        break;
       default:
         child = null;
         break;
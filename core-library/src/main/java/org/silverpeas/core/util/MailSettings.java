@@ -139,6 +139,41 @@ public class MailSettings {
     return configuration.getBoolean(SMTP_SECURE, false);
   }
 
+  /**
+   * Gets the maximum number of connections to the SMTP server that are opened at the same time
+   * and kept open to be reused by the next mails.
+   * @return the size of the pool of SMTP connections. Zero or less means no pooling: a
+   * connection is opened and closed for each mail.
+   */
+  public static int getSmtpTransportPoolSize() {
+    return configuration.getInteger("SMTPPoolSize", 4);
+  }
+
+  /**
+   * Gets the maximum number of messages sent through a same SMTP connection before it is closed.
+   * @return the maximum number of messages per connection.
+   */
+  public static int getSmtpMaxMessagesPerConnection() {
+    return configuration.getInteger("SMTPPoolMaxMessagesPerConnection", 100);
+  }
+
+  /**
+   * Gets the time in seconds after which an unused SMTP connection is closed instead of being
+   * reused.
+   * @return the idle timeout of a pooled SMTP connection in seconds.
+   */
+  public static int getSmtpTransportIdleTimeout() {
+    return configuration.getInteger("SMTPPoolIdleTimeout", 30);
+  }
+
+  /**
+   * Gets the number of mails that can be sent at the same time.
+   * @return the number of parallel mail senders, at least 1.
+   */
+  public static int getMailSenderThreads() {
+    return Math.max(1, configuration.getInteger("SMTPSenderThreads", 1));
+  }
+
   private MailSettings() {
   }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.mail.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.mail.MailAddress;
+import org.silverpeas.core.mail.MailContent;
+import org.silverpeas.core.mail.MailToSend;
+import org.silverpeas.core.mail.ReceiverMailAddressSet;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Transport;
+
+import static org.apache.commons.lang3.reflect.FieldUtils.writeDeclaredField;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests on the sending of mails by {@link SmtpMailSender} with the pooled transports.
+ */
+@EnableSilverTestEnv
+class SmtpMailSenderTest {
+
+  private final SmtpMailSender sender = new SmtpMailSender();
+  private final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(2);
+
+  @BeforeEach
+  void useTheTestPool() throws IllegalAccessException {
+    writeDeclaredField(sender, "transportPool", pool, true);
+  }
+
+  @Test
+  void theMailsAreSentWithTheSameConnection() throws Exception {
+    sender.send(aMail());
+    sender.send(aMail());
+
+    assertThat(pool.opened, hasSize(1));
+    verify(pool.opened.get(0), times(2)).sendMessage(any(), any());
+  }
+
+  @Test
+  void theMailIsSentAgainWithANewConnectionWhenTheReusedOneWasLost() throws Exception {
+    final Transport lost = SmtpTransportPool4Test.aTransport();
+    pool.toOpen.add(lost);
+    sender.send(aMail());
+    doThrow(new MessagingException("connection lost")).when(lost).sendMessage(any(), any());
+
+    sender.send(aMail());
+
+    assertThat(pool.opened, hasSize(2));
+    verify(lost).close();
+    verify(pool.opened.get(1)).sendMessage(any(), any());
+  }
+
+  @Test
+  void theMailIsNotSentAgainWhenANewConnectionFails() throws Exception {
+    final Transport failing = SmtpTransportPool4Test.aTransport();
+    doThrow(new MessagingException("connection failure")).when(failing)
+        .sendMessage(any(), any());
+    pool.toOpen.add(failing);
+
+    sender.send(aMail());
+
+    assertThat(pool.opened, hasSize(1));
+    verify(failing).close();
+  }
+
+  @Test
+  void theConnectionIsKeptWhenSomeReceiversAreRejected() throws Exception {
+    final Transport transport = SmtpTransportPool4Test.aTransport();
+    doThrow(new SendFailedException("invalid receivers")).doNothing().when(transport)
+        .sendMessage(any(), any());
+    pool.toOpen.add(transport);
+
+    sender.send(aMail());
+    sender.send(aMail());
+
+    assertThat(pool.opened, hasSize(1));
+    verify(transport, never()).close();
+    verify(transport, times(2)).sendMessage(any(), any());
+  }
+
+  @Test
+  void aNewConnectionIsOpenedOnceTheMaximumNumberOfMessagesIsSent() throws Exception {
+    pool.maxMessagesPerConnection = 2;
+    sender.send(aMail());
+    sender.send(aMail());
+    sender.send(aMail());
+
+    assertThat(pool.opened, hasSize(2));
+    verify(pool.opened.get(0), times(2)).sendMessage(any(), any());
+    verify(pool.opened.get(0)).close();
+    verify(pool.opened.get(1)).sendMessage(any(), any());
+  }
+
+  @Test
+  void aNewConnectionIsOpenedOnceTheIdleTimeoutIsReached() throws Exception {
+    pool.idleTimeout = 0;
+    sender.send(aMail());
+    sender.send(aMail());
+
+    assertThat(pool.opened, hasSize(2));
+    verify(pool.opened.get(0)).close();
+  }
+
+  private static MailToSend aMail() {
+    final MailToSend mail = mock(MailToSend.class);
+    when(mail.getFrom()).thenReturn(MailAddress.eMail("from@titi.org"));
+    when(mail.getTo()).thenReturn(ReceiverMailAddressSet.with(MailAddress.eMail("to@toto.org")));
+    when(mail.getSubject()).thenReturn("A subject");
+    when(mail.getContent()).thenReturn(MailContent.EMPTY);
+    return mail;
+  }
+}
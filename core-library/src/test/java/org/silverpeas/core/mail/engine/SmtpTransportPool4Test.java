@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.mail.engine;
+
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A pool of transports opening mocked transports, with limits set by the tests.
+ */
+class SmtpTransportPool4Test extends SmtpTransportPool {
+
+  final List<Transport> opened = new ArrayList<>();
+  final Deque<Transport> toOpen = new ArrayDeque<>();
+  int maxMessagesPerConnection = 100;
+  long idleTimeout = 30_000;
+
+  SmtpTransportPool4Test(final int poolSize) {
+    super(poolSize);
+  }
+
+  /**
+   * Gets a mocked transport, connected unless stated otherwise.
+   * @return a mocked transport.
+   */
+  static Transport aTransport() {
+    final Transport transport = mock(Transport.class);
+    when(transport.isConnected()).thenReturn(true);
+    return transport;
+  }
+
+  @Override
+  Transport connect(final SmtpConfiguration configuration, final Session session) {
+    final Transport transport = toOpen.isEmpty() ? aTransport() : toOpen.poll();
+    opened.add(transport);
+    return transport;
+  }
+
+  @Override
+  int getMaxMessagesPerConnection() {
+    return maxMessagesPerConnection;
+  }
+
+  @Override
+  long getIdleTimeout() {
+    return idleTimeout;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.mail.engine;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.mail.engine.SmtpTransportPool.PooledTransport;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import javax.mail.Transport;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.commons.lang3.reflect.FieldUtils.readDeclaredField;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@EnableSilverTestEnv
+class SmtpTransportPoolTest {
+
+  private final SmtpConfiguration configuration = aConfiguration("secret");
+
+  @Test
+  void aReleasedTransportIsReused() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(2);
+    final PooledTransport transport = pool.acquire(configuration, null);
+    pool.release(transport);
+
+    assertThat(pool.acquire(configuration, null), is(sameInstance(transport)));
+    assertThat(pool.opened, hasSize(1));
+    verify(transport.getTransport(), never()).close();
+  }
+
+  @Test
+  void aTransportIsClosedOnceItHasSentTheMaximumNumberOfMessages() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(2);
+    pool.maxMessagesPerConnection = 2;
+    final PooledTransport transport = pool.acquire(configuration, null);
+    transport.sendMessage(null, null);
+    pool.release(transport);
+    assertThat(pool.acquire(configuration, null), is(sameInstance(transport)));
+
+    transport.sendMessage(null, null);
+    pool.release(transport);
+    verify(transport.getTransport()).close();
+    assertThat(pool.acquire(configuration, null), is(not(sameInstance(transport))));
+    assertThat(pool.opened, hasSize(2));
+  }
+
+  @Test
+  void anIdleTransportIsClosedOnceTheIdleTimeoutIsReached() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(2);
+    pool.idleTimeout = 0;
+    final PooledTransport transport = pool.acquire(configuration, null);
+    pool.release(transport);
+
+    assertThat(pool.acquire(configuration, null), is(not(sameInstance(transport))));
+    verify(transport.getTransport()).close();
+  }
+
+  @Test
+  void aTransportDisconnectedByTheServerIsClosedInsteadOfBeingReused() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(2);
+    final PooledTransport transport = pool.acquire(configuration, null);
+    pool.release(transport);
+    when(transport.getTransport().isConnected()).thenReturn(false);
+
+    assertThat(pool.acquire(configuration, null), is(not(sameInstance(transport))));
+    verify(transport.getTransport()).close();
+  }
+
+  @Test
+  void anInvalidatedTransportIsClosedAtItsRelease() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(2);
+    final PooledTransport transport = pool.acquire(configuration, null);
+    transport.invalidate();
+    pool.release(transport);
+
+    verify(transport.getTransport()).close();
+    assertThat(pool.acquire(configuration, null), is(not(sameInstance(transport))));
+  }
+
+  @Test
+  void aTransportIsNeverReusedWithAnotherConfiguration() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(2);
+    final PooledTransport transport = pool.acquire(configuration, null);
+    pool.release(transport);
+
+    assertThat(pool.acquire(aConfiguration("other secret"), null),
+        is(not(sameInstance(transport))));
+    verify(transport.getTransport()).close();
+  }
+
+  @Test
+  void thePasswordIsNotKeptInClearByThePool() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(2);
+    final PooledTransport transport = pool.acquire(configuration, null);
+
+    final String key = (String) readDeclaredField(transport, "key", true);
+    assertThat(key, startsWith("smtp.silverpeas.org:25:false:true:bsimpson:"));
+    assertThat(key, not(containsString("secret")));
+  }
+
+  @Test
+  void noTransportIsKeptWithoutPooling() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(0);
+    final PooledTransport transport = pool.acquire(configuration, null);
+    pool.release(transport);
+
+    verify(transport.getTransport()).close();
+    assertThat(pool.acquire(configuration, null), is(not(sameInstance(transport))));
+  }
+
+  @Test
+  void theAcquisitionWaitsForATransportOnceThePoolIsExhausted() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(1);
+    final PooledTransport transport = pool.acquire(configuration, null);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<PooledTransport> next = executor.submit(() -> pool.acquire(configuration, null));
+      Thread.sleep(200);
+      assertThat(next.isDone(), is(false));
+
+      pool.release(transport);
+      assertThat(next.get(5, TimeUnit.SECONDS), is(sameInstance(transport)));
+      assertThat(pool.opened, hasSize(1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void theIdleTransportsAreClosedWhenThePoolIsCleared() throws Exception {
+    final SmtpTransportPool4Test pool = new SmtpTransportPool4Test(2);
+    final PooledTransport transport = pool.acquire(configuration, null);
+    pool.release(transport);
+    pool.clear();
+
+    final Transport closed = transport.getTransport();
+    verify(closed).close();
+    assertThat(pool.acquire(configuration, null), is(not(sameInstance(transport))));
+  }
+
+  private static SmtpConfiguration aConfiguration(final String password) {
+    final SmtpConfiguration configuration = new SmtpConfiguration();
+    configuration.setServer("smtp.silverpeas.org");
+    configuration.setPort(25);
+    configuration.setAuthenticate(true);
+    configuration.setUsername("bsimpson");
+    configuration.setPassword(password);
+    return configuration;
+  }
+}
@@ -41,16 +41,21 @@ import org.silverpeas.core.util.JSONCodec;
 import org.silverpeas.kernel.logging.Level;
 
 import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -98,7 +103,7 @@ abstract class AbstractServerEventDispatcherTaskTest {
     contextsByEventType.clear();
     serverEventStore = (ServerEventStore) FieldUtils
         .readDeclaredStaticField(ServerEventDispatcherTask.class, "serverEventStore", true);
-    serverEventContextMap.clear();
+    ((DefaultServerEventContextManager) manager).cleanContexts();
     serverEventStore.clear();
     FieldUtils.writeDeclaredStaticField(AbstractServerEvent.class, "idCounter", 0L, true);
 
@@ -141,11 +146,11 @@ abstract class AbstractServerEventDispatcherTaskTest {
     final SilverpeasAsyncContext4Test testContext = (SilverpeasAsyncContext4Test) mockedAsyncContext;
     assertThat(testContext.getNbIsPossibleCalls(), greaterThanOrEqualTo(nbPerform));
     assertThat(testContext.getSentEvents(), hasSize(nbPerform));
-    assertThat(testContext.getNbGetResponseCalls(), greaterThanOrEqualTo(nbPerform));
-    assertThat(testContext.response4Test.getNbGetWriterCalls(), greaterThanOrEqualTo(nbPerform));
-    assertThat(testContext.response4Test.getWriter().getNbFlushCalls(), greaterThanOrEqualTo(nbPerform));
+    assertThat(testContext.getNbGetResponseCalls(), is(1));
+    assertThat(testContext.response4Test.getNbGetOutputStreamCalls(), is(1));
+    assertThat(testContext.response4Test.output.getNbFlushCalls(), greaterThanOrEqualTo(nbPerform));
     StringBuilder result = new StringBuilder();
-    testContext.response4Test.printer.getAppendedValues().forEach(result::append);
+    testContext.response4Test.output.getAppendedValues().forEach(result::append);
     return result.toString();
   }
 
@@ -155,7 +160,7 @@ abstract class AbstractServerEventDispatcherTaskTest {
     assertThat(testContext.getSentEvents(), hasSize(0));
     assertThat(testContext.getNbGetRequestCalls(), is(0));
     assertThat(testContext.getNbGetResponseCalls(), is(0));
-    assertThat(testContext.response4Test.getNbGetWriterCalls(), is(0));
+    assertThat(testContext.response4Test.getNbGetOutputStreamCalls(), is(0));
   }
 
   String getSentServerMessage(final SilverpeasWebSocketContext mockedWebSocketContext) {
@@ -265,12 +270,13 @@ abstract class AbstractServerEventDispatcherTaskTest {
       super(SilverpeasServerEventContextManager.get(), wrappedInstance, sessionId, user);
       final RemoteEndpoint.Async asyncRemoteMock = mock(RemoteEndpoint.Async.class);
       when(wrappedInstance.getAsyncRemote()).thenReturn(asyncRemoteMock);
-      when(asyncRemoteMock.sendObject(anyString())).then(i -> {
+      doAnswer(i -> {
         nbGetAsyncRemoteCalls.incrementAndGet();
         final String message = i.getArgument(0, String.class);
         messages.append(message);
+        i.getArgument(1, SendHandler.class).onResult(new SendResult());
         return null;
-      });
+      }).when(asyncRemoteMock).sendText(anyString(), ArgumentMatchers.any(SendHandler.class));
     }
 
     @Override
@@ -341,21 +347,60 @@ abstract class AbstractServerEventDispatcherTaskTest {
 
   static class HttpResponse4Test extends HttpServletResponseWrapper {
 
-    private final PrintWriter4Test printer = new PrintWriter4Test();
-    private final AtomicInteger nbGetWriterCalls = new AtomicInteger(0);
+    private final ServletOutputStream4Test output = new ServletOutputStream4Test();
+    private final AtomicInteger nbGetOutputStreamCalls = new AtomicInteger(0);
 
     public HttpResponse4Test(final HttpServletResponse response) {
       super(response);
     }
 
     @Override
-    public PrintWriter4Test getWriter() {
-      nbGetWriterCalls.addAndGet(1);
-      return printer;
+    public ServletOutputStream4Test getOutputStream() {
+      nbGetOutputStreamCalls.addAndGet(1);
+      return output;
     }
 
-    public int getNbGetWriterCalls() {
-      return nbGetWriterCalls.get();
+    public int getNbGetOutputStreamCalls() {
+      return nbGetOutputStreamCalls.get();
+    }
+  }
+
+  static class ServletOutputStream4Test extends ServletOutputStream {
+    private final List<CharSequence> appends = new LinkedList<>();
+    private final AtomicInteger nbFlushCalls = new AtomicInteger(0);
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setWriteListener(final WriteListener writeListener) {
+      // the stream is always ready
+    }
+
+    @Override
+    public void write(final int b) {
+      appends.add(String.valueOf((char) b));
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      appends.add(new String(b, off, len, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void flush() {
+      nbFlushCalls.addAndGet(1);
+      IntStream.range(0, 100000).forEach(i -> {});
+    }
+
+    public List<CharSequence> getAppendedValues() {
+      return appends;
+    }
+
+    public int getNbFlushCalls() {
+      return nbFlushCalls.get();
     }
   }
 
@@ -328,7 +328,7 @@ class ServerEventDispatcherTaskLoadTest extends AbstractServerEventDispatcherTas
         test.bucket.getServerEventsByListener().forEach((k, v) -> assertThat(v, hasSize(nbEvents)));
         for (SilverpeasAsyncContext asyncContext : contexts) {
           SilverpeasAsyncContext4Test context4Test = (SilverpeasAsyncContext4Test) asyncContext;
-          final int nbCalls = context4Test.getResponse().getWriter().getAppendedValues().size();
+          final int nbCalls = context4Test.getResponse().getOutputStream().getAppendedValues().size();
           if (greaterThanAboutNbCallsOfWriterByContext.get()) {
             assertThat("asyncContext " + asyncContext.getSessionId(), nbCalls,
                 greaterThanOrEqualTo(expectedNbCallsOfWriterByContext.get()));
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.sse;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@UnitTest
+class ServerEventOutboxTest {
+
+  @Test
+  void theOldestFramesShouldBeDroppedWhenTheOutboxIsFull() throws IOException {
+    final ServerEventOutbox outbox = new ServerEventOutbox(2, false);
+    assertThat(outbox.offer("A"), is(true));
+    assertThat(outbox.offer("B"), is(true));
+    assertThat(outbox.offer("C"), is(true));
+    assertThat(outbox.size(), is(2));
+    assertThat(outbox.getNbDropped(), is(1L));
+    final SinkForTest sink = new SinkForTest(true);
+    outbox.drainTo(sink);
+    assertThat(sink.frames, contains("B", "C"));
+    assertThat(sink.nbFlushes, is(1));
+    assertThat(outbox.size(), is(0));
+    assertThat(outbox.getMaxDepth(), is(2));
+  }
+
+  @Test
+  void aFrameShouldBeRefusedWhenTheOutboxIsFullAndTheSlowClientsAreDisconnected() {
+    final ServerEventOutbox outbox = new ServerEventOutbox(2, true);
+    assertThat(outbox.offer("A"), is(true));
+    assertThat(outbox.offer("B"), is(true));
+    assertThat(outbox.offer("C"), is(false));
+    assertThat(outbox.size(), is(2));
+    assertThat(outbox.getNbDropped(), is(0L));
+  }
+
+  @Test
+  void theFramesShouldWaitUntilTheSinkIsReady() throws IOException {
+    final ServerEventOutbox outbox = new ServerEventOutbox(10, false);
+    outbox.offer("A");
+    outbox.offer("B");
+    final SinkForTest sink = new SinkForTest(false);
+    outbox.drainTo(sink);
+    assertThat(sink.frames, empty());
+    assertThat(outbox.size(), is(2));
+    sink.ready = true;
+    outbox.drainTo(sink);
+    assertThat(sink.frames, contains("A", "B"));
+    assertThat(sink.nbFlushes, is(1));
+  }
+
+  private static class SinkForTest implements ServerEventOutbox.FrameSink {
+    private final List<String> frames = new ArrayList<>();
+    private boolean ready;
+    private int nbFlushes = 0;
+
+    private SinkForTest(final boolean ready) {
+      this.ready = ready;
+    }
+
+    @Override
+    public boolean isReady() {
+      return ready;
+    }
+
+    @Override
+    public void write(final String frame) {
+      frames.add(frame);
+    }
+
+    @Override
+    public void flush() {
+      nbFlushes++;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.sse;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.notification.sse.ServerEventDispatcherTask.ServerEventStore;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@EnableSilverTestEnv
+class ServerEventStoreTest {
+
+  private ServerEventStore store;
+
+  @BeforeEach
+  void setup() throws Exception {
+    FieldUtils.writeDeclaredStaticField(AbstractServerEvent.class, "idCounter", 0L, true);
+    new SseLogger().init();
+    store = new ServerEventStore(5);
+  }
+
+  @Test
+  void replayFromAnIdentifierShouldReturnTheNextEventsSortedByIdentifier() {
+    final List<ServerEvent> events = newEvents(4);
+    events.forEach(store::add);
+    assertThat(store.getFromId(-1), contains(events.toArray()));
+    assertThat(store.getFromId(1), contains(events.get(2), events.get(3)));
+    assertThat(store.getFromId(3), empty());
+  }
+
+  @Test
+  void theOldestEventsShouldBeOverwrittenBeyondTheCapacity() {
+    final List<ServerEvent> events = newEvents(8);
+    events.forEach(store::add);
+    assertThat(store.getFromId(-1), contains(events.subList(3, 8).toArray()));
+    assertThat(store.getFromId(5), contains(events.get(6), events.get(7)));
+  }
+
+  @Test
+  void onlyTheLastStoreLastOnlyEventShouldBeKeptAmongTheOtherEvents() {
+    final ServerEvent first = newEvents(1).get(0);
+    final ServerEvent firstLastOnly = new TestServerEventCNotHandled();
+    store.add(first);
+    store.add(firstLastOnly);
+    final ServerEvent second = newEvents(1).get(0);
+    final ServerEvent secondLastOnly = new TestServerEventCNotHandled();
+    store.add(second);
+    store.add(secondLastOnly);
+    final ServerEvent third = newEvents(1).get(0);
+    store.add(third);
+    assertThat(store.getFromId(-1), contains(first, second, secondLastOnly, third));
+  }
+
+  @Test
+  void clearShouldEmptyTheStore() {
+    newEvents(3).forEach(store::add);
+    store.add(new TestServerEventCNotHandled());
+    store.clear();
+    assertThat(store.getFromId(-1), empty());
+  }
+
+  private List<ServerEvent> newEvents(final int nb) {
+    return IntStream.range(0, nb).mapToObj(i -> {
+      final ServerEvent event = new TestServerEventA();
+      event.getId();
+      return event;
+    }).collect(Collectors.toList());
+  }
+}
@@ -30,6 +30,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Yohann Chastagnier
@@ -105,6 +106,25 @@ class ServerEventWithAsyncContextDispatcherTaskTest extends AbstractServerEventD
     assertThat(serverEventContextMap.size(), is(0));
   }
 
+  @Test
+  void handleSessionScopedEventOnlyOnTheContextsOfTheSession() {
+    final SilverpeasAsyncContext mockedAsyncContext = newMockedAsyncContext(SESSION_ID);
+    final SilverpeasAsyncContext4Test otherAsyncContext = newMockedAsyncContext("OTHER_SESSION_ID");
+    ServerEventDispatcherTask.registerContext(mockedAsyncContext);
+    ServerEventDispatcherTask.registerContext(otherAsyncContext);
+    ServerEvent mockedServerEvent = newMockedServerEvent("EVENT_ONE_LINE", "Session data");
+    when(mockedServerEvent.getScope()).thenReturn(ServerEventScope.session(SESSION_ID));
+    ServerEventDispatcherTask.dispatch(mockedServerEvent);
+    afterSomeTimesCheck(() -> {
+      assertThat(getStoredServerEvents(), contains(mockedServerEvent));
+      String eventStream = getSentServerEventStream(mockedAsyncContext);
+      assertThat(eventStream,
+          is("retry: 5000\nid: 0\nevent: EVENT_ONE_LINE\ndata: Session data\n\n"));
+      assertThat(otherAsyncContext.getNbIsPossibleCalls(), is(0));
+      assertThat(otherAsyncContext.getSentEvents(), empty());
+    });
+  }
+
   @Test
   void handleEventWithDataOnOneLineWhenOneAsyncContext() {
     final SilverpeasAsyncContext mockedAsyncContext = newMockedAsyncContext(SESSION_ID);
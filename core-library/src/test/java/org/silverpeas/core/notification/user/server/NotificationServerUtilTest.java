@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@UnitTest
+class NotificationServerUtilTest {
+
+  private static final Date NOW = new Date();
+
+  @Test
+  void aSingleNotificationIsDecodedAsIs() throws Exception {
+    final NotificationData data = notificationFor("26", "http://silverpeas/26");
+    final String xml = NotificationServerUtil.convertNotificationDataToXML(data);
+
+    final List<NotificationData> decoded = NotificationServerUtil.convertXMLToNotificationDataList(xml);
+    assertThat(decoded, hasSize(1));
+    assertThat(decoded.get(0).getTargetReceipt(), is("26"));
+    assertThat(decoded.get(0).getTargetParam(), is(data.getTargetParam()));
+    assertThat(decoded.get(0).getMessage(), is(data.getMessage()));
+  }
+
+  @Test
+  void aBatchIsExpandedForEachRecipient() throws Exception {
+    final List<NotificationData> batch = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      batch.add(notificationFor(String.valueOf(i), "http://silverpeas/" + i + "?a=b;c"));
+    }
+    final String xml = NotificationServerUtil.convertNotificationBatchToXML(batch);
+    assertThat(xml.indexOf(batch.get(0).getMessage()),
+        is(xml.lastIndexOf(batch.get(0).getMessage())));
+
+    final List<NotificationData> decoded = NotificationServerUtil.convertXMLToNotificationDataList(xml);
+    assertThat(decoded, hasSize(batch.size()));
+    for (int i = 0; i < batch.size(); i++) {
+      final NotificationData expected = batch.get(i);
+      final NotificationData actual = decoded.get(i);
+      assertThat(actual.getTargetChannel(), is(expected.getTargetChannel()));
+      assertThat(actual.getTargetReceipt(), is(expected.getTargetReceipt()));
+      assertThat(actual.getMessage(), is(expected.getMessage()));
+      assertThat(actual.getSenderName(), is(expected.getSenderName()));
+      assertThat(actual.getTargetParam(), is(expected.getTargetParam()));
+    }
+  }
+
+  private static NotificationData notificationFor(final String userId, final String url) {
+    final NotificationData data = new NotificationData();
+    data.setTargetChannel("SILVERMAIL");
+    data.setTargetReceipt(userId);
+    data.setSenderName("John Doe");
+    data.setMessage("A <b>new</b> publication = 'test'; see it");
+    final Map<String, Object> params = new HashMap<>();
+    params.put("SUBJECT", "A new publication");
+    params.put("DATE", NOW);
+    params.put("URL", url);
+    data.setTargetParam(params);
+    return data;
+  }
+}
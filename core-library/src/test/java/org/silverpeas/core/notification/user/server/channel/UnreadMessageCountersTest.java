@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server.channel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@UnitTest
+class UnreadMessageCountersTest {
+
+  private static final String USER_ID = "26";
+
+  private final UnreadMessageCounters counters = new UnreadMessageCounters();
+  private ExecutorService executor;
+
+  @BeforeEach
+  void startExecutor() {
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+  @AfterEach
+  void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void aCounterIsLoadedOnlyOnce() {
+    assertThat(counters.getPopupCount(USER_ID, () -> 3), is(3L));
+    assertThat(counters.getPopupCount(USER_ID, () -> 42), is(3L));
+  }
+
+  @Test
+  void aCounterIsUpdatedOnlyOnceLoaded() {
+    counters.incrementPopup(USER_ID);
+    assertThat(counters.getPopupCount(USER_ID, () -> 3), is(3L));
+    counters.incrementPopup(USER_ID);
+    assertThat(counters.getPopupCount(USER_ID, this::failToLoad), is(4L));
+    counters.decrementPopup(USER_ID);
+    counters.decrementPopup(USER_ID);
+    assertThat(counters.getPopupCount(USER_ID, this::failToLoad), is(2L));
+  }
+
+  @Test
+  void aCounterIsNeverNegative() {
+    assertThat(counters.getSilvermailCount(USER_ID, () -> 0), is(0L));
+    counters.decrementSilvermail(USER_ID);
+    assertThat(counters.getSilvermailCount(USER_ID, this::failToLoad), is(0L));
+  }
+
+  @Test
+  void anInvalidatedCounterIsLoadedAgain() {
+    assertThat(counters.getSilvermailCount(USER_ID, () -> 3), is(3L));
+    counters.invalidateSilvermail(USER_ID);
+    assertThat(counters.getSilvermailCount(USER_ID, () -> 5), is(5L));
+    counters.clear();
+    assertThat(counters.getSilvermailCount(USER_ID, () -> 1), is(1L));
+  }
+
+  @Test
+  void anIncrementDuringTheFirstLoadingDoesNotWaitForItAndDiscardsTheLoadedCount()
+      throws Exception {
+    final CountDownLatch loadingStarted = new CountDownLatch(1);
+    final CountDownLatch loadingReleased = new CountDownLatch(1);
+    final Future<Long> loading = executor.submit(() -> counters.getPopupCount(USER_ID, () -> {
+      loadingStarted.countDown();
+      try {
+        loadingReleased.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return 3;
+    }));
+    assertThat(loadingStarted.await(5, TimeUnit.SECONDS), is(true));
+
+    // the loading is performed outside the lock of the counters, so the increment isn't blocked
+    executor.submit(() -> counters.incrementPopup(USER_ID)).get(5, TimeUnit.SECONDS);
+    loadingReleased.countDown();
+    assertThat(loading.get(5, TimeUnit.SECONDS), is(3L));
+
+    // the count loaded before the increment can be outdated, so it is loaded again
+    assertThat(counters.getPopupCount(USER_ID, () -> 4), is(4L));
+    assertThat(counters.getPopupCount(USER_ID, this::failToLoad), is(4L));
+  }
+
+  @Test
+  void aCountLoadedWithoutChangeMeanwhileIsKept() throws Exception {
+    final CountDownLatch loadingStarted = new CountDownLatch(1);
+    final CountDownLatch loadingReleased = new CountDownLatch(1);
+    final Future<Long> loading = executor.submit(() -> counters.getPopupCount(USER_ID, () -> {
+      loadingStarted.countDown();
+      try {
+        loadingReleased.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return 3;
+    }));
+    assertThat(loadingStarted.await(5, TimeUnit.SECONDS), is(true));
+    counters.incrementSilvermail(USER_ID);
+    loadingReleased.countDown();
+    assertThat(loading.get(5, TimeUnit.SECONDS), is(3L));
+
+    counters.incrementPopup(USER_ID);
+    assertThat(counters.getPopupCount(USER_ID, this::failToLoad), is(4L));
+  }
+
+  private long failToLoad() {
+    fail("The counter shouldn't be loaded");
+    return -1;
+  }
+}
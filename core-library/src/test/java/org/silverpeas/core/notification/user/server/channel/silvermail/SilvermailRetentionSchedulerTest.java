@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server.channel.silvermail;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.silverpeas.core.notification.user.client.NotificationManagerSettings;
+import org.silverpeas.core.scheduler.Scheduler;
+import org.silverpeas.core.scheduler.SchedulerException;
+import org.silverpeas.core.scheduler.SchedulerProvider;
+import org.silverpeas.core.scheduler.quartz.QuartzCronExpressionFactory;
+import org.silverpeas.core.scheduler.quartz.VolatileQuartScheduler;
+import org.silverpeas.core.test.unit.extention.FieldMocker;
+import org.silverpeas.core.test.unit.extention.JEETestContext;
+import org.silverpeas.kernel.bundle.SettingBundle;
+import org.silverpeas.kernel.test.annotations.TestManagedBean;
+import org.silverpeas.kernel.test.annotations.TestManagedBeans;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests on the scheduling of the purge of the old read SILVERMAIL messages.
+ */
+@EnableSilverTestEnv(context = JEETestContext.class)
+@TestManagedBeans(QuartzCronExpressionFactory.class)
+class SilvermailRetentionSchedulerTest {
+
+  private static final String CRON = "notification.silvermail.retention.cron";
+  private static final String DAYS = "notification.silvermail.retention.days";
+
+  @RegisterExtension
+  FieldMocker mocker = new FieldMocker();
+
+  @TestManagedBean
+  private VolatileQuartScheduler volatileQuartScheduler;
+
+  private SettingBundle mockedSettings;
+
+  @BeforeEach
+  public void setUp() {
+    volatileQuartScheduler.init();
+    mockedSettings =
+        mocker.mockField(NotificationManagerSettings.class, SettingBundle.class, "settings");
+  }
+
+  @AfterEach
+  public void shutdownScheduler() throws SchedulerException {
+    SchedulerProvider.getVolatileScheduler().shutdown();
+  }
+
+  @Test
+  void theRetentionIsDisabledByDefault() throws Exception {
+    when(mockedSettings.getString(CRON, "")).thenReturn("");
+    when(mockedSettings.getInteger(DAYS, 0)).thenReturn(0);
+    new SilvermailRetentionScheduler().init();
+    assertThat(isPurgeScheduled(), is(false));
+  }
+
+  @Test
+  void theRetentionIsDisabledWithoutAnyRetentionAge() throws Exception {
+    when(mockedSettings.getString(CRON, "")).thenReturn("0 3 * * *");
+    when(mockedSettings.getInteger(DAYS, 0)).thenReturn(0);
+    new SilvermailRetentionScheduler().init();
+    assertThat(isPurgeScheduled(), is(false));
+  }
+
+  @Test
+  void theRetentionIsDisabledWithoutAnyCron() throws Exception {
+    when(mockedSettings.getString(CRON, "")).thenReturn("");
+    when(mockedSettings.getInteger(DAYS, 0)).thenReturn(90);
+    new SilvermailRetentionScheduler().init();
+    assertThat(isPurgeScheduled(), is(false));
+  }
+
+  @Test
+  void thePurgeIsScheduledWhenTheRetentionIsEnabled() throws Exception {
+    when(mockedSettings.getString(CRON, "")).thenReturn("0 3 * * *");
+    when(mockedSettings.getInteger(DAYS, 0)).thenReturn(90);
+    new SilvermailRetentionScheduler().init();
+    assertThat(isPurgeScheduled(), is(true));
+  }
+
+  @Test
+  void thePurgeIsUnscheduledWhenTheRetentionIsDisabled() throws Exception {
+    when(mockedSettings.getString(CRON, "")).thenReturn("0 3 * * *");
+    when(mockedSettings.getInteger(DAYS, 0)).thenReturn(90);
+    new SilvermailRetentionScheduler().init();
+    assertThat(isPurgeScheduled(), is(true));
+
+    when(mockedSettings.getInteger(DAYS, 0)).thenReturn(0);
+    new SilvermailRetentionScheduler().init();
+    assertThat(isPurgeScheduled(), is(false));
+  }
+
+  private boolean isPurgeScheduled() {
+    final Scheduler scheduler = SchedulerProvider.getVolatileScheduler();
+    return scheduler.isJobScheduled(SilvermailRetentionScheduler.JOB_NAME);
+  }
+}
@@ -25,11 +25,15 @@ package org.silverpeas.core.template;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.silverpeas.core.test.unit.extention.JEETestContext;
 import org.silverpeas.kernel.test.TestContext;
 import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Properties;
 
 import static java.io.File.separator;
@@ -106,4 +110,67 @@ class SilverpeasTemplateTest {
     assertEquals("la liste donnée est = un, deux", result);
   }
 
+  @Test
+  void aModifiedTemplateIsLoadedAgain(@TempDir Path templateDir) throws IOException {
+    final Path file = Files.writeString(templateDir.resolve("greetings.st"), "bonjour $name$");
+    SilverpeasTemplate template = createSilverpeasTemplateOn(templateDir);
+    template.setAttribute("name", "toto");
+    assertEquals("bonjour toto", template.applyFileTemplate("greetings"));
+
+    touch(Files.writeString(file, "au revoir $name$"));
+    assertEquals("au revoir toto", template.applyFileTemplate("greetings"));
+
+    template = createSilverpeasTemplateOn(templateDir);
+    template.setAttribute("name", "titi");
+    assertEquals("au revoir titi", template.applyFileTemplate("greetings"));
+  }
+
+  @Test
+  void aNewTemplateIsLoaded(@TempDir Path templateDir) throws IOException {
+    Files.writeString(templateDir.resolve("greetings.st"), "bonjour $name$");
+    SilverpeasTemplate template = createSilverpeasTemplateOn(templateDir);
+    template.setAttribute("name", "toto");
+    assertEquals("bonjour toto", template.applyFileTemplate("greetings"));
+    assertEquals("", template.applyFileTemplate("farewell"));
+
+    touch(Files.writeString(templateDir.resolve("farewell.st"), "au revoir $name$"));
+    assertEquals("au revoir toto", template.applyFileTemplate("farewell"));
+  }
+
+  @Test
+  void aTemplateWithADateInTheFutureIsLoadedAgainOnlyOnce(@TempDir Path templateDir)
+      throws IOException {
+    final Path file = Files.writeString(templateDir.resolve("greetings.st"), "bonjour $name$");
+    final SilverpeasTemplate template = createSilverpeasTemplateOn(templateDir);
+    template.setAttribute("name", "toto");
+    assertEquals("bonjour toto", template.applyFileTemplate("greetings"));
+
+    touch(Files.writeString(file, "au revoir $name$"));
+    assertEquals("au revoir toto", template.applyFileTemplate("greetings"));
+
+    // the content is changed without changing the dates: the group isn't loaded again
+    final FileTime fileTime = Files.getLastModifiedTime(file);
+    final FileTime directoryTime = Files.getLastModifiedTime(templateDir);
+    Files.writeString(file, "salut $name$");
+    Files.setLastModifiedTime(file, fileTime);
+    Files.setLastModifiedTime(templateDir, directoryTime);
+    assertEquals("au revoir toto", template.applyFileTemplate("greetings"));
+  }
+
+  private static SilverpeasTemplate createSilverpeasTemplateOn(final Path templateDir) {
+    final Properties templateConfig = new Properties();
+    templateConfig.setProperty(TEMPLATE_ROOT_DIR, templateDir + separator);
+    templateConfig.setProperty(TEMPLATE_CUSTOM_DIR, templateDir + separator);
+    return SilverpeasTemplates.createSilverpeasTemplate(templateConfig);
+  }
+
+  /**
+   * Sets the modification date of the file and of its directory in the future, so that the
+   * modification is detected whatever the precision of the file system dates.
+   */
+  private static void touch(final Path file) throws IOException {
+    final FileTime time = FileTime.fromMillis(System.currentTimeMillis() + 2000);
+    Files.setLastModifiedTime(file, time);
+    Files.setLastModifiedTime(file.getParent(), time);
+  }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.dao;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.ResourceReference;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectAccess;
+import org.silverpeas.core.silverstatistics.test.WarBuilder4Statistics;
+import org.silverpeas.core.test.integration.DataSetTest;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests on the maintenance of the access counters of the resources.
+ */
+@RunWith(Arquillian.class)
+public class HistoryCounterDAOIT extends DataSetTest {
+
+  private static final String PUBLICATION = "Publication";
+  private static final ResourceReference PUBLI_1 = new ResourceReference("1", "kmelia1");
+  private static final ResourceReference PUBLI_2 = new ResourceReference("2", "kmelia1");
+  private static final ResourceReference PUBLI_3 = new ResourceReference("1", "kmelia2");
+  private static final ResourceReference PUBLI_4 = new ResourceReference("5", "kmelia2");
+
+  private static final Operation HISTORY_SETUP = Operations.insertInto("SB_Statistic_History")
+      .columns("dateStat", "heureStat", "userId", "resourceId", "componentId", "actionType",
+          "resourceType")
+      .values("2024/01/10", "10:00", "1", "1", "kmelia1", 1, PUBLICATION)
+      .values("2024/01/15", "11:30", "2", "1", "kmelia1", 1, PUBLICATION)
+      .values("2024/02/01", "09:00", "1", "1", "kmelia2", 1, PUBLICATION)
+      .build();
+  private static final Operation COUNTER_SETUP = Operations.insertInto("SB_Statistic_Counter")
+      .columns("resourceId", "componentId", "resourceType", "nbAccess", "lastAccess")
+      .values("1", "kmelia1", PUBLICATION, 5, Timestamp.valueOf("2024-02-01 09:00:00"))
+      .values("2", "kmelia1", PUBLICATION, 1, Timestamp.valueOf("2024-01-12 14:00:00"))
+      .values("5", "kmelia2", PUBLICATION, 4, Timestamp.valueOf("2024-01-20 18:00:00"))
+      .build();
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4Statistics.onWarForTestClass(HistoryCounterDAOIT.class)
+        .testFocusedOn(war -> {
+          war.addPackages(true, "org.silverpeas.core.silverstatistics");
+          war.addAsResource("org/silverpeas/silverstatistics/SilverStatistics.properties");
+        }).build();
+  }
+
+  @Override
+  protected Operation getDbSetupInitializations() {
+    return Operations.sequenceOf(HISTORY_SETUP, COUNTER_SETUP);
+  }
+
+  @Test
+  public void theCountersAreIncrementedOrCreatedOutOfAnyTransaction() throws Exception {
+    try (Connection connection = getConnection()) {
+      connection.setAutoCommit(true);
+      HistoryCounterDAO.increment(connection, newAccesses());
+    }
+    assertIncrementedCounters();
+  }
+
+  @Test
+  public void theCountersAreIncrementedOrCreatedWithinATransaction() throws Exception {
+    try (Connection connection = getConnection()) {
+      connection.setAutoCommit(false);
+      try {
+        HistoryCounterDAO.increment(connection, newAccesses());
+        connection.commit();
+      } finally {
+        connection.setAutoCommit(true);
+      }
+    }
+    assertIncrementedCounters();
+  }
+
+  @Test
+  public void theCountersOfAMovedResourceAreRecomputedFromTheHistory() throws Exception {
+    try (Connection connection = getConnection()) {
+      HistoryCounterDAO.recount(connection, "1", PUBLICATION);
+    }
+    assertThat(getCounters(), contains(
+        "1|kmelia1|2|2024-01-15 11:30:00.0",
+        "1|kmelia2|1|2024-02-01 09:00:00.0",
+        "2|kmelia1|1|2024-01-12 14:00:00.0",
+        "5|kmelia2|4|2024-01-20 18:00:00.0"));
+  }
+
+  @Test
+  public void theCountersOfAComponentInstanceAreRecomputedFromTheHistory() throws Exception {
+    try (Connection connection = getConnection()) {
+      HistoryCounterDAO.recountComponent(connection, "kmelia2");
+    }
+    assertThat(getCounters(), contains(
+        "1|kmelia1|5|2024-02-01 09:00:00.0",
+        "1|kmelia2|1|2024-02-01 09:00:00.0",
+        "2|kmelia1|1|2024-01-12 14:00:00.0"));
+  }
+
+  @Test
+  public void onlyTheCountersOfTheGivenComponentInstanceAreDeleted() throws Exception {
+    try (Connection connection = getConnection()) {
+      HistoryCounterDAO.deleteByComponent(connection, "kmelia2");
+      assertThat(HistoryCounterDAO.getCount(connection, PUBLI_4, PUBLICATION), is(0));
+      assertThat(HistoryCounterDAO.getCount(connection, PUBLI_1, PUBLICATION), is(5));
+      assertThat(HistoryCounterDAO.getCount(connection, PUBLI_2, PUBLICATION), is(1));
+    }
+  }
+
+  private static List<HistoryObjectAccess> newAccesses() {
+    return List.of(
+        newAccess("2024-03-01 08:00:00", PUBLI_1),
+        newAccess("2024-01-01 08:00:00", PUBLI_1),
+        newAccess("2024-03-02 10:00:00", PUBLI_3),
+        newAccess("2024-03-03 12:00:00", PUBLI_3),
+        newAccess("2023-12-24 20:00:00", PUBLI_2));
+  }
+
+  private static HistoryObjectAccess newAccess(final String date,
+      final ResourceReference resourceReference) {
+    return new HistoryObjectAccess(new Date(Timestamp.valueOf(date).getTime()), "1",
+        resourceReference, 1, PUBLICATION);
+  }
+
+  private void assertIncrementedCounters() throws SQLException {
+    assertThat(getCounters(), contains(
+        "1|kmelia1|7|2024-03-01 08:00:00.0",
+        "1|kmelia2|2|2024-03-03 12:00:00.0",
+        "2|kmelia1|2|2024-01-12 14:00:00.0",
+        "5|kmelia2|4|2024-01-20 18:00:00.0"));
+  }
+
+  private List<String> getCounters() throws SQLException {
+    return JdbcSqlQuery.select("resourceId, componentId, nbAccess, lastAccess")
+        .from("SB_Statistic_Counter")
+        .orderBy("resourceId, componentId")
+        .execute(r -> r.getString(1) + "|" + r.getString(2) + "|" + r.getInt(3) + "|" +
+            r.getTimestamp(4));
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.silverstatistics.access.dao;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.ResourceReference;
+import org.silverpeas.core.contribution.model.ContributionIdentifier;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectAccess;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectDetail;
+import org.silverpeas.core.silverstatistics.test.WarBuilder4Statistics;
+import org.silverpeas.core.test.integration.DataSetTest;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.silverpeas.core.contribution.model.ContributionIdentifier.from;
+
+/**
+ * Integration tests on the maintenance of the last accesses of the users to the resources.
+ */
+@RunWith(Arquillian.class)
+public class HistoryLastAccessDAOIT extends DataSetTest {
+
+  private static final String PUBLICATION = "Publication";
+  private static final ResourceReference PUBLI_1 = new ResourceReference("1", "kmelia1");
+  private static final ResourceReference PUBLI_2 = new ResourceReference("2", "kmelia1");
+  private static final ResourceReference PUBLI_3 = new ResourceReference("5", "kmelia2");
+
+  private static final Operation LAST_ACCESS_SETUP = Operations.insertInto(
+      "SB_Statistic_LastAccess")
+      .columns("userId", "resourceId", "componentId", "resourceType", "actionType", "lastAccess")
+      .values("1", "1", "kmelia1", PUBLICATION, 1, Timestamp.valueOf("2024-02-01 09:00:00"))
+      .values("1", "2", "kmelia1", PUBLICATION, 1, Timestamp.valueOf("2024-01-12 14:00:00"))
+      .values("1", "3", "kmelia1", "Node", 1, Timestamp.valueOf("2024-01-20 18:00:00"))
+      .values("1", "4", "kmelia2", PUBLICATION, 1, Timestamp.valueOf("2024-03-01 10:00:00"))
+      .values("1", "7", "kmelia1", PUBLICATION, 1, Timestamp.valueOf("2023-11-02 17:00:00"))
+      .values("2", "1", "kmelia1", PUBLICATION, 1, Timestamp.valueOf("2024-01-15 11:30:00"))
+      .values("2", "7", "kmelia1", PUBLICATION, 1, Timestamp.valueOf("2023-12-05 08:30:00"))
+      .build();
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4Statistics.onWarForTestClass(HistoryLastAccessDAOIT.class)
+        .testFocusedOn(war -> {
+          war.addPackages(true, "org.silverpeas.core.silverstatistics");
+          war.addAsResource("org/silverpeas/silverstatistics/SilverStatistics.properties");
+        }).build();
+  }
+
+  @Override
+  protected Operation getDbSetupInitializations() {
+    return LAST_ACCESS_SETUP;
+  }
+
+  @Test
+  public void theLastAccessesAreUpdatedOrCreatedOutOfAnyTransaction() throws Exception {
+    try (Connection connection = getConnection()) {
+      connection.setAutoCommit(true);
+      HistoryLastAccessDAO.save(connection, newAccesses());
+    }
+    assertSavedLastAccesses();
+  }
+
+  @Test
+  public void theLastAccessesAreUpdatedOrCreatedWithinATransaction() throws Exception {
+    try (Connection connection = getConnection()) {
+      connection.setAutoCommit(false);
+      try {
+        HistoryLastAccessDAO.save(connection, newAccesses());
+        connection.commit();
+      } finally {
+        connection.setAutoCommit(true);
+      }
+    }
+    assertSavedLastAccesses();
+  }
+
+  @Test
+  public void savingNoAccessesDoesNothing() throws Exception {
+    try (Connection connection = getConnection()) {
+      HistoryLastAccessDAO.save(connection, List.of());
+    }
+    assertThat(getLastAccesses(), hasSize(7));
+  }
+
+  @Test
+  public void theAccessedContributionsAreGotWhateverTheirInstance() throws Exception {
+    final List<ContributionIdentifier> contributions = List.of(
+        from("kmelia1", "1", PUBLICATION),
+        from("kmelia1", "2", PUBLICATION),
+        from("kmelia1", "3", PUBLICATION),
+        from("kmelia1", "6", PUBLICATION),
+        from("kmelia2", "4", PUBLICATION));
+    try (Connection connection = getConnection()) {
+      final Set<ContributionIdentifier> accessedByUser1 =
+          HistoryLastAccessDAO.getAccessed(connection, contributions, "1");
+      // the node 3 is accessed but not the publication 3
+      assertThat(accessedByUser1, containsInAnyOrder(
+          from("kmelia1", "1", PUBLICATION),
+          from("kmelia1", "2", PUBLICATION),
+          from("kmelia2", "4", PUBLICATION)));
+      final Set<ContributionIdentifier> accessedByUser2 =
+          HistoryLastAccessDAO.getAccessed(connection, contributions, "2");
+      assertThat(accessedByUser2, contains(from("kmelia1", "1", PUBLICATION)));
+      assertThat(HistoryLastAccessDAO.getAccessed(connection, contributions, "3"), empty());
+    }
+  }
+
+  @Test
+  public void theLastAccessesOfAUserAreGotFromTheMostRecentOne() throws Exception {
+    try (Connection connection = getConnection()) {
+      assertThat(details(HistoryLastAccessDAO.getLastAccesses(connection, "1", 1, PUBLICATION,
+          3)), contains(
+          "4|kmelia2|2024-03-01 10:00:00.0",
+          "1|kmelia1|2024-02-01 09:00:00.0",
+          "2|kmelia1|2024-01-12 14:00:00.0"));
+      assertThat(details(HistoryLastAccessDAO.getLastAccesses(connection, "1", 1, "Node", 3)),
+          contains("3|kmelia1|2024-01-20 18:00:00.0"));
+      assertThat(HistoryLastAccessDAO.getLastAccesses(connection, "1", 2, PUBLICATION, 3),
+          empty());
+    }
+  }
+
+  @Test
+  public void theLastAccessesOfAllTheUsersToAMovedResourceAreMoved() throws Exception {
+    try (Connection connection = getConnection()) {
+      HistoryLastAccessDAO.move(connection, new ResourceReference("7", "kmelia2"), 1,
+          PUBLICATION);
+    }
+    assertThat(getLastAccesses(), contains(
+        "1|1|kmelia1|Publication|1|2024-02-01 09:00:00.0",
+        "1|2|kmelia1|Publication|1|2024-01-12 14:00:00.0",
+        "1|3|kmelia1|Node|1|2024-01-20 18:00:00.0",
+        "1|4|kmelia2|Publication|1|2024-03-01 10:00:00.0",
+        "1|7|kmelia2|Publication|1|2023-11-02 17:00:00.0",
+        "2|1|kmelia1|Publication|1|2024-01-15 11:30:00.0",
+        "2|7|kmelia2|Publication|1|2023-12-05 08:30:00.0"));
+  }
+
+  private static List<HistoryObjectAccess> newAccesses() {
+    return List.of(
+        newAccess("2024-03-05 08:00:00", "1", PUBLI_1),
+        newAccess("2024-01-01 08:00:00", "1", PUBLI_2),
+        newAccess("2024-03-02 10:00:00", "1", PUBLI_3),
+        newAccess("2024-03-03 12:00:00", "1", PUBLI_3),
+        newAccess("2024-02-28 07:00:00", "1", PUBLI_3),
+        newAccess("2024-03-04 16:00:00", "3", PUBLI_1));
+  }
+
+  private static HistoryObjectAccess newAccess(final String date, final String userId,
+      final ResourceReference resourceReference) {
+    return new HistoryObjectAccess(new Date(Timestamp.valueOf(date).getTime()), userId,
+        resourceReference, 1, PUBLICATION);
+  }
+
+  private void assertSavedLastAccesses() throws SQLException {
+    // only the most recent access is kept for each user, resource and action
+    assertThat(getLastAccesses(), contains(
+        "1|1|kmelia1|Publication|1|2024-03-05 08:00:00.0",
+        "1|2|kmelia1|Publication|1|2024-01-12 14:00:00.0",
+        "1|3|kmelia1|Node|1|2024-01-20 18:00:00.0",
+        "1|4|kmelia2|Publication|1|2024-03-01 10:00:00.0",
+        "1|5|kmelia2|Publication|1|2024-03-03 12:00:00.0",
+        "1|7|kmelia1|Publication|1|2023-11-02 17:00:00.0",
+        "2|1|kmelia1|Publication|1|2024-01-15 11:30:00.0",
+        "2|7|kmelia1|Publication|1|2023-12-05 08:30:00.0",
+        "3|1|kmelia1|Publication|1|2024-03-04 16:00:00.0"));
+  }
+
+  private static List<String> details(final List<HistoryObjectDetail> details) {
+    return details.stream()
+        .map(d -> d.getResourceReference().getLocalId() + "|" +
+            d.getResourceReference().getComponentInstanceId() + "|" +
+            new Timestamp(d.getDate().getTime()))
+        .collect(Collectors.toList());
+  }
+
+  private List<String> getLastAccesses() throws SQLException {
+    return JdbcSqlQuery.select(
+        "userId, resourceId, componentId, resourceType, actionType, lastAccess")
+        .from("SB_Statistic_LastAccess")
+        .orderBy("userId, resourceId, componentId, resourceType")
+        .execute(r -> r.getString(1) + "|" + r.getString(2) + "|" + r.getString(3) + "|" +
+            r.getString(4) + "|" + r.getInt(5) + "|" + r.getTimestamp(6));
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.dao;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.ResourceReference;
+import org.silverpeas.core.silverstatistics.access.service.StatisticService;
+import org.silverpeas.core.silverstatistics.test.WarBuilder4Statistics;
+import org.silverpeas.core.test.integration.DataSetTest;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests on the counting of the accesses recorded into the history of the
+ * statistics.
+ */
+@RunWith(Arquillian.class)
+public class HistoryObjectDAOIT extends DataSetTest {
+
+  private static final String PUBLICATION = "Publication";
+  private static final ResourceReference PUBLI_1 = new ResourceReference("1", "kmelia1");
+  private static final ResourceReference PUBLI_2 = new ResourceReference("2", "kmelia1");
+  private static final ResourceReference PUBLI_3 = new ResourceReference("1", "kmelia2");
+  private static final ResourceReference PUBLI_4 = new ResourceReference("3", "kmelia2");
+  private static final ResourceReference PUBLI_5 = new ResourceReference("4", "kmelia3");
+  private static final List<ResourceReference> ALL =
+      List.of(PUBLI_1, PUBLI_2, PUBLI_3, PUBLI_4, PUBLI_5);
+
+  private static final Operation HISTORY_SETUP = Operations.insertInto("SB_Statistic_History")
+      .columns("dateStat", "heureStat", "userId", "resourceId", "componentId", "actionType",
+          "resourceType")
+      .values("2024/01/10", "10:00", "1", "1", "kmelia1", 1, PUBLICATION)
+      .values("2024/01/15", "11:30", "2", "1", "kmelia1", 1, PUBLICATION)
+      .values("2024/02/20", "09:15", "1", "1", "kmelia1", 1, PUBLICATION)
+      .values("2024/01/12", "14:00", "2", "2", "kmelia1", 1, PUBLICATION)
+      .values("2024/01/12", "14:05", "2", "2", "kmelia1", 1, "Node")
+      .values("2024/01/11", "08:00", "3", "1", "kmelia2", 1, PUBLICATION)
+      .values("2024/03/01", "16:45", "1", "1", "kmelia2", 1, PUBLICATION)
+      .values("2023/12/31", "23:59", "1", "4", "kmelia3", 1, PUBLICATION)
+      .build();
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4Statistics.onWarForTestClass(HistoryObjectDAOIT.class)
+        .testFocusedOn(war -> {
+          war.addPackages(true, "org.silverpeas.core.silverstatistics");
+          war.addAsResource("org/silverpeas/silverstatistics/SilverStatistics.properties");
+        }).build();
+  }
+
+  @Override
+  protected Operation getDbSetupInitializations() {
+    return HISTORY_SETUP;
+  }
+
+  @Test
+  public void theAccessesOfResourcesOfSeveralInstancesAreCounted() throws Exception {
+    try (Connection connection = getConnection()) {
+      final Map<ResourceReference, Integer> counts =
+          HistoryObjectDAO.countByResource(connection, ALL, PUBLICATION, null, null, null);
+      assertThat(counts.size(), is(5));
+      assertThat(counts.get(PUBLI_1), is(3));
+      assertThat(counts.get(PUBLI_2), is(1));
+      assertThat(counts.get(PUBLI_3), is(2));
+      assertThat(counts.get(PUBLI_4), is(0));
+      assertThat(counts.get(PUBLI_5), is(1));
+    }
+  }
+
+  @Test
+  public void theAccessesOfResourcesAreCountedInAPeriod() throws Exception {
+    try (Connection connection = getConnection()) {
+      final Map<ResourceReference, Integer> counts =
+          HistoryObjectDAO.countByResource(connection, ALL, PUBLICATION,
+              date(2024, 1, 1), date(2024, 1, 31), null);
+      assertThat(counts.get(PUBLI_1), is(2));
+      assertThat(counts.get(PUBLI_2), is(1));
+      assertThat(counts.get(PUBLI_3), is(1));
+      assertThat(counts.get(PUBLI_4), is(0));
+      assertThat(counts.get(PUBLI_5), is(0));
+    }
+  }
+
+  @Test
+  public void theAccessesOfResourcesAreCountedForSomeUsers() throws Exception {
+    try (Connection connection = getConnection()) {
+      final Map<ResourceReference, Integer> counts =
+          HistoryObjectDAO.countByResource(connection, ALL, PUBLICATION, null, null,
+              List.of("1"));
+      assertThat(counts.get(PUBLI_1), is(2));
+      assertThat(counts.get(PUBLI_2), is(0));
+      assertThat(counts.get(PUBLI_3), is(1));
+      assertThat(counts.get(PUBLI_4), is(0));
+      assertThat(counts.get(PUBLI_5), is(1));
+    }
+  }
+
+  @Test
+  public void noAccessIsCountedForNoUsers() throws Exception {
+    try (Connection connection = getConnection()) {
+      final Map<ResourceReference, Integer> counts =
+          HistoryObjectDAO.countByResource(connection, ALL, PUBLICATION, null, null,
+              Collections.emptyList());
+      assertThat(counts.size(), is(5));
+      assertThat(counts.values(), everyItem(is(0)));
+    }
+  }
+
+  @Test
+  public void theAccessedResourcesOfAllTheInstancesAreCountedInAPeriod() {
+    final StatisticService service = StatisticService.get();
+    assertThat(service.getCountByPeriod(ALL, 1, PUBLICATION, date(2024, 1, 1),
+        date(2024, 1, 31)), is(4));
+    // the resources of kmelia2 are also taken into account
+    assertThat(service.getDistinctCountByPeriod(ALL, 1, PUBLICATION, date(2024, 1, 1),
+        date(2024, 1, 31)), is(3));
+    assertThat(service.getDistinctCountByPeriod(ALL, 1, PUBLICATION, date(2024, 2, 1),
+        date(2024, 12, 31)), is(2));
+    assertThat(service.getDistinctCountByPeriodUser(ALL, 1, PUBLICATION, date(2024, 1, 1),
+        date(2024, 1, 31), List.of("2", "3")), is(3));
+    assertThat(service.getDistinctCountByPeriodUser(ALL, 1, PUBLICATION, date(2024, 1, 1),
+        date(2024, 1, 31), List.of("1")), is(1));
+  }
+
+  private static Date date(final int year, final int month, final int day) {
+    return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault())
+        .toInstant());
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.silverstatistics.access.dao;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.silverstatistics.test.WarBuilder4Statistics;
+import org.silverpeas.core.test.integration.DataSetTest;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests on the purge by chunks of the accesses recorded into the history of the
+ * statistics.
+ */
+@RunWith(Arquillian.class)
+public class HistoryPurgeIT extends DataSetTest {
+
+  private static final Operation HISTORY_SETUP = Operations.insertInto("SB_Statistic_History")
+      .columns("dateStat", "heureStat", "userId", "resourceId", "componentId", "actionType",
+          "resourceType")
+      .values("2024/01/10", "10:00", "1", "1", "kmelia1", 1, "Publication")
+      .values("2024/01/10", "10:00", "2", "1", "kmelia1", 1, "Publication")
+      .values("2024/01/10", "11:00", "1", "2", "kmelia1", 1, "Publication")
+      .values("2024/01/10", "15:00", "3", "2", "kmelia1", 1, "Publication")
+      .values("2024/01/11", "08:00", "1", "1", "kmelia1", 1, "Publication")
+      .values("2024/02/01", "09:00", "2", "1", "kmelia1", 1, "Publication")
+      .values("2023/12/31", "23:59", "1", "1", "kmelia2", 1, "Publication")
+      .values("2024/01/10", "09:00", "1", "1", "kmelia2", 1, "Publication")
+      .values("2024/03/01", "10:00", "2", "1", "kmelia2", 1, "Publication")
+      .build();
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4Statistics.onWarForTestClass(HistoryPurgeIT.class)
+        .testFocusedOn(war -> {
+          war.addPackages(true, "org.silverpeas.core.silverstatistics");
+          war.addAsResource("org/silverpeas/silverstatistics/SilverStatistics.properties");
+        }).build();
+  }
+
+  @Override
+  protected Operation getDbSetupInitializations() {
+    return HISTORY_SETUP;
+  }
+
+  @Test
+  public void theAccessesOfAComponentInstanceAreDeletedByChunksOfTheOldestOnes()
+      throws Exception {
+    try (Connection connection = getConnection()) {
+      // the second access of the chunk is done in the same minute as the first one: not the
+      // whole day but only the accesses up to this minute are deleted
+      assertThat(HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia1", 2), is(2L));
+      assertThat(getAccesses(), contains(
+          "kmelia1|2024/01/10|11:00",
+          "kmelia1|2024/01/10|15:00",
+          "kmelia1|2024/01/11|08:00",
+          "kmelia1|2024/02/01|09:00",
+          "kmelia2|2023/12/31|23:59",
+          "kmelia2|2024/01/10|09:00",
+          "kmelia2|2024/03/01|10:00"));
+      assertThat(HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia1", 2), is(2L));
+      assertThat(HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia1", 2), is(2L));
+      assertThat(HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia1", 2), is(0L));
+      assertThat(getAccesses(), contains(
+          "kmelia2|2023/12/31|23:59",
+          "kmelia2|2024/01/10|09:00",
+          "kmelia2|2024/03/01|10:00"));
+    }
+  }
+
+  @Test
+  public void theAccessesOfTheSameMinuteAsTheLastOneOfTheChunkAreDeletedWithIt()
+      throws Exception {
+    try (Connection connection = getConnection()) {
+      assertThat(HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia1", 1), is(2L));
+      assertThat(HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia1", 1), is(1L));
+      assertThat(getAccesses(), hasItems(
+          "kmelia1|2024/01/10|15:00",
+          "kmelia1|2024/01/11|08:00",
+          "kmelia1|2024/02/01|09:00"));
+    }
+  }
+
+  @Test
+  public void allTheRemainingAccessesOfAComponentInstanceAreDeletedInALargerChunk()
+      throws Exception {
+    try (Connection connection = getConnection()) {
+      assertThat(HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia1", 100), is(6L));
+      assertThat(HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia1", 100), is(0L));
+      assertThat(HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia3", 100), is(0L));
+      assertThat(getAccesses(), hasSize(3));
+    }
+  }
+
+  @Test
+  public void theAccessesBeforeADateAreDeletedByChunksOfTheOldestOnes() throws Exception {
+    try (Connection connection = getConnection()) {
+      final Date limit = date(2024, 1, 11);
+      assertThat(HistoryObjectDAO.deleteOldestBefore(connection, limit, 2), is(2L));
+      assertThat(getAccesses(), contains(
+          "kmelia1|2024/01/10|10:00",
+          "kmelia1|2024/01/10|10:00",
+          "kmelia1|2024/01/10|11:00",
+          "kmelia1|2024/01/10|15:00",
+          "kmelia1|2024/01/11|08:00",
+          "kmelia1|2024/02/01|09:00",
+          "kmelia2|2024/03/01|10:00"));
+      assertThat(HistoryObjectDAO.deleteOldestBefore(connection, limit, 2), is(2L));
+      assertThat(HistoryObjectDAO.deleteOldestBefore(connection, limit, 2), is(2L));
+      assertThat(HistoryObjectDAO.deleteOldestBefore(connection, limit, 2), is(0L));
+      assertThat(getAccesses(), contains(
+          "kmelia1|2024/01/11|08:00",
+          "kmelia1|2024/02/01|09:00",
+          "kmelia2|2024/03/01|10:00"));
+    }
+  }
+
+  @Test
+  public void noAccessIsDeletedBeforeADateOlderThanAllOfThem() throws Exception {
+    try (Connection connection = getConnection()) {
+      assertThat(HistoryObjectDAO.deleteOldestBefore(connection, date(2023, 12, 31), 2), is(0L));
+      assertThat(getAccesses(), hasSize(9));
+    }
+  }
+
+  @Test
+  public void theComponentInstancesHavingAccessesAreGot() throws Exception {
+    try (Connection connection = getConnection()) {
+      assertThat(HistoryObjectDAO.getComponentIds(connection),
+          containsInAnyOrder("kmelia1", "kmelia2"));
+      HistoryObjectDAO.deleteOldestOfComponent(connection, "kmelia1", 100);
+      assertThat(HistoryObjectDAO.getComponentIds(connection), contains("kmelia2"));
+    }
+  }
+
+  private List<String> getAccesses() throws SQLException {
+    return JdbcSqlQuery.select("componentId, dateStat, heureStat")
+        .from("SB_Statistic_History")
+        .orderBy("componentId, dateStat, heureStat")
+        .execute(r -> r.getString(1) + "|" + r.getString(2) + "|" + r.getString(3));
+  }
+
+  private static Date date(final int year, final int month, final int day) {
+    return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault())
+        .toInstant());
+  }
+}
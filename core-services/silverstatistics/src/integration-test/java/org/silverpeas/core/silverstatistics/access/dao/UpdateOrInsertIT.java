@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.silverstatistics.access.dao;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.core.persistence.jdbc.DBUtil;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.silverstatistics.test.WarBuilder4Statistics;
+import org.silverpeas.core.test.integration.DataSetTest;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests on the saving of rows by updating them or by inserting the missing ones when
+ * some of them are inserted in the meantime by another writer.
+ */
+@RunWith(Arquillian.class)
+public class UpdateOrInsertIT extends DataSetTest {
+
+  private static final Timestamp LAST_ACCESS = Timestamp.valueOf("2024-02-01 09:00:00");
+  private static final Timestamp NEW_ACCESS = Timestamp.valueOf("2024-03-04 16:00:00");
+
+  private static final Operation LAST_ACCESS_SETUP = Operations.insertInto(
+      "SB_Statistic_LastAccess")
+      .columns("userId", "resourceId", "componentId", "resourceType", "actionType", "lastAccess")
+      .values("1", "1", "kmelia1", "Publication", 1, LAST_ACCESS)
+      .build();
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4Statistics.onWarForTestClass(UpdateOrInsertIT.class)
+        .testFocusedOn(war -> {
+          war.addPackages(true, "org.silverpeas.core.silverstatistics");
+          war.addAsResource("org/silverpeas/silverstatistics/SilverStatistics.properties");
+        }).build();
+  }
+
+  @Override
+  protected Operation getDbSetupInitializations() {
+    return LAST_ACCESS_SETUP;
+  }
+
+  @Test
+  public void aRowInsertedInTheMeantimeIsUpdatedAndTheTransactionGoesOn() throws Exception {
+    // the first update of the row of the user 1 misses it, as if it was inserted just after by
+    // another writer: its insertion then fails on the primary key
+    final AtomicBoolean missed = new AtomicBoolean(false);
+    final UpdateOrInsert<String[]> saving = new UpdateOrInsert<>(
+        "UPDATE SB_Statistic_LastAccess SET lastAccess = ? WHERE userId = ? AND resourceId = ? " +
+            "AND componentId = 'kmelia1' AND resourceType = 'Publication' AND actionType = 1",
+        (statement, value) -> {
+          final boolean miss = "1".equals(value[0]) && missed.compareAndSet(false, true);
+          statement.setTimestamp(1, NEW_ACCESS);
+          statement.setString(2, miss ? "unknown" : value[0]);
+          statement.setString(3, value[1]);
+        },
+        "INSERT INTO SB_Statistic_LastAccess " +
+            "(userId, resourceId, componentId, resourceType, actionType, lastAccess) " +
+            "VALUES (?, ?, 'kmelia1', 'Publication', 1, ?)",
+        (statement, value) -> {
+          statement.setString(1, value[0]);
+          statement.setString(2, value[1]);
+          statement.setTimestamp(3, NEW_ACCESS);
+        });
+
+    Transaction.performInOne(() -> {
+      try (Connection connection = DBUtil.openConnection()) {
+        saving.save(connection, List.of(new String[]{"1", "1"}, new String[]{"2", "5"}));
+        // the transaction isn't aborted by the failed insertion
+        JdbcSqlQuery.insertInto("SB_Statistic_LastAccess")
+            .withInsertParam("userId", "3")
+            .withInsertParam("resourceId", "1")
+            .withInsertParam("componentId", "kmelia1")
+            .withInsertParam("resourceType", "Publication")
+            .withInsertParam("actionType", 1)
+            .withInsertParam("lastAccess", NEW_ACCESS)
+            .executeWith(connection);
+      }
+      return null;
+    });
+
+    assertThat(missed.get(), is(true));
+    assertThat(getLastAccesses(), contains(
+        "1|1|2024-03-04 16:00:00.0",
+        "2|5|2024-03-04 16:00:00.0",
+        "3|1|2024-03-04 16:00:00.0"));
+  }
+
+  private List<String> getLastAccesses() throws SQLException {
+    return JdbcSqlQuery.select("userId, resourceId, lastAccess")
+        .from("SB_Statistic_LastAccess")
+        .orderBy("userId, resourceId")
+        .execute(r -> r.getString(1) + "|" + r.getString(2) + "|" + r.getTimestamp(3));
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.silverstatistics.volume.service;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.silverstatistics.test.WarBuilder4Statistics;
+import org.silverpeas.core.silverstatistics.volume.dao.SilverStatisticsDAO;
+import org.silverpeas.core.silverstatistics.volume.dao.SilverStatisticsManagerDAO;
+import org.silverpeas.core.silverstatistics.volume.model.StatType;
+import org.silverpeas.core.silverstatistics.volume.model.StatisticsConfig;
+import org.silverpeas.core.test.integration.DataSetTest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+/**
+ * Integration tests on the cumulation of the access statistics whose some keys can be null.
+ */
+@RunWith(Arquillian.class)
+public class AccessSilverStatisticsManagerDAOIT extends DataSetTest {
+
+  public static final Operation TABLES_CREATION =
+      Operations.sequenceOf(Operations.sql("CREATE TABLE IF NOT EXISTS SB_Stat_Access" +
+          "(" +
+          "    dateStat        varchar(10)  not null," +
+          "    userId          integer      not null," +
+          "    peasType        varchar(50)  not null," +
+          "    spaceId         varchar(50)  null," +
+          "    componentId     varchar(50)  null," +
+          "    countAccess     decimal(19)  not null" +
+          ")"), Operations.sql("CREATE TABLE IF NOT EXISTS SB_Stat_AccessCumul" +
+          "(" +
+          "    dateStat        varchar(10)  not null," +
+          "    userId          integer      not null," +
+          "    peasType        varchar(50)  not null," +
+          "    spaceId         varchar(50)  null," +
+          "    componentId     varchar(50)  null," +
+          "    countAccess     decimal(19)  not null" +
+          ")"));
+
+  public static final Operation DROP_ALL = Operations.sql("DROP TABLE IF EXISTS SB_Stat_Access",
+      "DROP TABLE IF EXISTS SB_Stat_AccessCumul");
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4Statistics.onWarForTestClass(AccessSilverStatisticsManagerDAOIT.class)
+        .testFocusedOn(war -> {
+          war.addPackages(true, "org.silverpeas.core.silverstatistics");
+          war.addAsResource("org/silverpeas/silverstatistics/SilverStatisticsTest.properties");
+          war.addAsResource("org/silverpeas/silverstatistics/SilverStatistics.properties");
+        }).build();
+  }
+
+  @Override
+  protected Operation getDbSetupInitializations() {
+    return Operations.sequenceOf(DROP_ALL, TABLES_CREATION);
+  }
+
+  private StatisticsConfig config;
+  private static final StatType typeofStat = StatType.Access;
+
+  @Before
+  public void initialiseConfig() throws Exception {
+    config = new StatisticsConfig();
+    config.init();
+  }
+
+  @Test
+  public void theStatisticsWithNullKeysAreCumulatedIntoASingleRow() throws Exception {
+    insertDayStats();
+    try (Connection connection = getConnection()) {
+      SilverStatisticsManagerDAO.makeStatCumul(connection, typeofStat, config);
+    }
+    assertThat(getAccessTable("SB_Stat_AccessCumul"), contains(
+        "2011-04-01/1/kmelia/null/kmelia1/5",
+        "2011-04-01/2/kmelia/WA1/kmelia1/4",
+        "2011-04-01/3/kmelia/null/null/1"));
+  }
+
+  @Test
+  public void theCumulativeRowsWithNullKeysAreUpdatedInsteadOfBeingDuplicated()
+      throws Exception {
+    insertDayStats();
+    try (Connection connection = getConnection()) {
+      SilverStatisticsManagerDAO.makeStatCumul(connection, typeofStat, config);
+      SilverStatisticsManagerDAO.makeStatCumul(connection, typeofStat, config);
+    }
+    assertThat(getAccessTable("SB_Stat_AccessCumul"), contains(
+        "2011-04-01/1/kmelia/null/kmelia1/10",
+        "2011-04-01/2/kmelia/WA1/kmelia1/8",
+        "2011-04-01/3/kmelia/null/null/2"));
+  }
+
+  @Test
+  public void theStatisticsWithNullKeysAreAddedInBatchToTheirRow() throws Exception {
+    try (Connection connection = getConnection()) {
+      SilverStatisticsDAO.putDataStats(connection, typeofStat,
+          List.of(Arrays.asList("2011-04-18", "1", "kmelia", "", "kmelia1", "2"),
+              Arrays.asList("2011-04-18", "2", "kmelia", "WA1", "kmelia1", "4")), config);
+      SilverStatisticsDAO.putDataStats(connection, typeofStat,
+          List.of(Arrays.asList("2011-04-19", "2", "kmelia", "WA1", "kmelia1", "1"),
+              Arrays.asList("2011-04-19", "1", "kmelia", "", "kmelia1", "3"),
+              Arrays.asList("2011-04-19", "3", "kmelia", "", "", "1")), config);
+    }
+    assertThat(getAccessTable("SB_Stat_Access"), contains(
+        "2011-04-01/1/kmelia/null/kmelia1/5",
+        "2011-04-01/2/kmelia/WA1/kmelia1/5",
+        "2011-04-01/3/kmelia/null/null/1"));
+  }
+
+  private void insertDayStats() throws Exception {
+    final List<List<String>> dayStats =
+        List.of(Arrays.asList("2011-04-01", "1", "kmelia", null, "kmelia1", "2"),
+            Arrays.asList("2011-04-01", "1", "kmelia", null, "kmelia1", "3"),
+            Arrays.asList("2011-04-01", "2", "kmelia", "WA1", "kmelia1", "4"),
+            Arrays.asList("2011-04-01", "3", "kmelia", null, null, "1"));
+    try (Connection connection = getConnection();
+         PreparedStatement insert = connection.prepareStatement(
+             "INSERT INTO SB_Stat_Access (dateStat, userId, peasType, spaceId, componentId, " +
+                 "countAccess) VALUES (?, ?, ?, ?, ?, ?)")) {
+      for (List<String> stat : dayStats) {
+        insert.setString(1, stat.get(0));
+        insert.setInt(2, Integer.parseInt(stat.get(1)));
+        insert.setString(3, stat.get(2));
+        insert.setString(4, stat.get(3));
+        insert.setString(5, stat.get(4));
+        insert.setLong(6, Long.parseLong(stat.get(5)));
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  private List<String> getAccessTable(final String tableName) throws Exception {
+    return JdbcSqlQuery.select("* FROM " + tableName + " ORDER BY dateStat, userId")
+        .execute(row -> row.getString(1) + "/" + row.getInt(2) + "/" + row.getString(3) + "/" +
+            row.getString(4) + "/" + row.getString(5) + "/" + row.getLong(6));
+  }
+}
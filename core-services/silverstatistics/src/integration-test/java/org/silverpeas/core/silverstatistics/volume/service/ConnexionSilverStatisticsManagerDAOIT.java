@@ -34,18 +34,27 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
 import org.silverpeas.core.silverstatistics.test.WarBuilder4Statistics;
+import org.silverpeas.core.silverstatistics.volume.dao.SilverStatisticsDAO;
 import org.silverpeas.core.silverstatistics.volume.dao.SilverStatisticsManagerDAO;
 import org.silverpeas.core.silverstatistics.volume.model.DataStatsCumul;
 import org.silverpeas.core.silverstatistics.volume.model.StatType;
 import org.silverpeas.core.silverstatistics.volume.model.StatisticsConfig;
 import org.silverpeas.core.test.integration.DataSetTest;
 
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 
 /**
  * @author ehugonnet
@@ -107,6 +116,139 @@ public class ConnexionSilverStatisticsManagerDAOIT extends DataSetTest {
     assertThat(results, hasSize(1));
   }
 
+  @Test
+  public void testPutDataStatsInBatch() throws Exception {
+    try (Connection connection = getConnection()) {
+      SilverStatisticsDAO.putDataStats(connection, typeofStat,
+          Arrays.asList("2011-04-17", "1308", "512", "262"), config);
+      SilverStatisticsDAO.putDataStats(connection, typeofStat,
+          List.of(Arrays.asList("2011-04-18", "1308", "10", "20"),
+              Arrays.asList("2011-04-18", "42", "1", "2")), config);
+    }
+    JdbcSqlQuery selectQuery =
+        JdbcSqlQuery.select("* FROM SB_Stat_Connection ORDER BY userId");
+    List<DataStatsCumul> results = selectQuery.execute(
+        row -> new DataStatsCumul(row.getString(1), row.getInt(2), row.getLong(3), row.getLong(4)));
+    assertThat(results, hasSize(2));
+    assertThat(results.get(0).getUserId(), is(42));
+    assertThat(results.get(0).getCountConnection(), is(1L));
+    assertThat(results.get(1).getUserId(), is(1308));
+    assertThat(results.get(1).getDateStat(), is("2011-04-01"));
+    assertThat(results.get(1).getCountConnection(), is(522L));
+    assertThat(results.get(1).getDuration(), is(282L));
+  }
+
+  @Test
+  public void testPutDataStatsInBatchWithoutUpdateCounts() throws Exception {
+    try (Connection connection = getConnection()) {
+      SilverStatisticsDAO.putDataStats(connection, typeofStat,
+          Arrays.asList("2011-04-17", "1308", "512", "262"), config);
+      SilverStatisticsDAO.putDataStats(withoutUpdateCounts(connection), typeofStat,
+          List.of(Arrays.asList("2011-04-18", "1308", "10", "20"),
+              Arrays.asList("2011-04-18", "42", "1", "2")), config);
+    }
+    assertThat(getConnectionTable(), contains("2011-04-01/42/1/2", "2011-04-01/1308/522/282"));
+  }
+
+  @Test
+  public void testAFaultyAggregatedStatisticDoesNotDiscardTheOtherOnes() throws Exception {
+    try (Connection connection = getConnection();
+         Statement statement = connection.createStatement()) {
+      statement.execute(
+          "ALTER TABLE SB_Stat_Connection ADD CONSTRAINT no_user_666 CHECK (userId <> 666)");
+    }
+    new SilverStatisticsService().putStats(typeofStat,
+        List.of(Arrays.asList("2011-04-18", "42", "1", "2"),
+            Arrays.asList("2011-04-18", "666", "5", "5"),
+            Arrays.asList("2011-04-18", "1308", "10", "20")));
+    assertThat(getConnectionTable(), contains("2011-04-01/42/1/2", "2011-04-01/1308/10/20"));
+  }
+
+  private List<String> getConnectionTable() throws Exception {
+    return JdbcSqlQuery.select("* FROM SB_Stat_Connection ORDER BY dateStat, userId")
+        .execute(row -> row.getString(1) + "/" + row.getInt(2) + "/" + row.getLong(3) + "/" +
+            row.getLong(4));
+  }
+
+  /**
+   * Wraps the specified connection so that the batches of updates don't report the number of
+   * rows updated by each of their statements, as some JDBC drivers do.
+   */
+  private static Connection withoutUpdateCounts(final Connection connection) {
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+          final Object result = method.invoke(connection, args);
+          if (result instanceof PreparedStatement && args[0].toString().startsWith("UPDATE")) {
+            return withoutUpdateCounts((PreparedStatement) result);
+          }
+          return result;
+        });
+  }
+
+  private static PreparedStatement withoutUpdateCounts(final PreparedStatement statement) {
+    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+        new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+          final Object result = method.invoke(statement, args);
+          if ("executeBatch".equals(method.getName())) {
+            final int[] updateCounts = (int[]) result;
+            Arrays.fill(updateCounts, Statement.SUCCESS_NO_INFO);
+          }
+          return result;
+        });
+  }
+
+  @Test
+  public void testMakeStatCumulGivesTheSameResultsAsTheRowWiseCumulation() throws Exception {
+    final Random random = new Random(1308);
+    final List<List<String>> dayStats = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      dayStats.add(Arrays.asList(random.nextBoolean() ? "2011-04-01" : "2011-05-01",
+          String.valueOf(random.nextInt(40)), String.valueOf(random.nextInt(50)),
+          String.valueOf(random.nextInt(5000))));
+    }
+    try (Connection connection = getConnection()) {
+      try (PreparedStatement insert = connection.prepareStatement(
+          "INSERT INTO SB_Stat_Connection (dateStat, userId, countConnection, duration) " +
+              "VALUES (?, ?, ?, ?)")) {
+        for (List<String> stat : dayStats) {
+          insert.setString(1, stat.get(0));
+          insert.setInt(2, Integer.parseInt(stat.get(1)));
+          insert.setLong(3, Long.parseLong(stat.get(2)));
+          insert.setLong(4, Long.parseLong(stat.get(3)));
+          insert.addBatch();
+        }
+        insert.executeBatch();
+      }
+
+      initCumulTable(connection);
+      for (List<String> stat : dayStats) {
+        SilverStatisticsManagerDAO.putDataStatsCumul(connection, typeofStat, stat, config);
+      }
+      final List<String> rowWiseCumul = getCumulTable();
+
+      initCumulTable(connection);
+      SilverStatisticsManagerDAO.makeStatCumul(connection, typeofStat, config);
+      final List<String> setBasedCumul = getCumulTable();
+
+      assertThat(setBasedCumul, hasSize(greaterThan(40)));
+      assertThat(setBasedCumul, is(rowWiseCumul));
+    }
+  }
+
+  private void initCumulTable(final Connection connection) throws Exception {
+    JdbcSqlQuery.deleteFrom("SB_Stat_ConnectionCumul").executeWith(connection);
+    for (int userId = 0; userId < 40; userId += 3) {
+      SilverStatisticsManagerDAO.insertDataStatsCumul(connection, typeofStat,
+          Arrays.asList("2011-04-01", String.valueOf(userId), "10", "100"), config);
+    }
+  }
+
+  private List<String> getCumulTable() throws Exception {
+    return JdbcSqlQuery.select("* FROM SB_Stat_ConnectionCumul ORDER BY dateStat, userId")
+        .execute(row -> row.getString(1) + "/" + row.getInt(2) + "/" + row.getLong(3) + "/" +
+            row.getLong(4));
+  }
+
   @Test
   @Ignore
   public void testMakeStatCumulWithData() throws Exception {
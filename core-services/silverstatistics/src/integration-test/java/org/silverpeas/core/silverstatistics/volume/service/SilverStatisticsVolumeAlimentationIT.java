@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.volume.service;
+
+import com.ninja_squad.dbsetup.Operations;
+import com.ninja_squad.dbsetup.operation.Operation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.silverstatistics.test.WarBuilder4Statistics;
+import org.silverpeas.core.silverstatistics.volume.model.UserIdCountVolumeCouple;
+import org.silverpeas.core.test.integration.DataSetTest;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests on the counting of the volume of the component instances according to their
+ * checkpoint.
+ */
+@RunWith(Arquillian.class)
+public class SilverStatisticsVolumeAlimentationIT extends DataSetTest {
+
+  private static final Timestamp CHECKPOINT = Timestamp.valueOf("2024-01-31 23:00:00");
+  private static final Date NOW = Timestamp.valueOf("2024-02-29 23:00:00");
+
+  private static final Operation TABLES_CREATION = Operations.sql(
+      "CREATE TABLE IF NOT EXISTS SB_Stat_VolumeCheckpoint (" +
+          "componentId varchar(50) not null, lastCount TIMESTAMP not null, " +
+          "CONSTRAINT PK_Stat_VolumeCheckpoint PRIMARY KEY (componentId))",
+      "CREATE TABLE IF NOT EXISTS SB_Stat_VolumeSnapshot (" +
+          "componentId varchar(50) not null, userId integer not null, " +
+          "countVolume decimal(19) not null, " +
+          "CONSTRAINT PK_Stat_VolumeSnapshot PRIMARY KEY (componentId, userId))");
+  private static final Operation CHECKPOINTS_SETUP =
+      Operations.insertInto("SB_Stat_VolumeCheckpoint")
+          .columns("componentId", "lastCount")
+          .values("kmelia1", CHECKPOINT)
+          .values("kmelia2", CHECKPOINT)
+          .build();
+  private static final Operation SNAPSHOTS_SETUP = Operations.insertInto("SB_Stat_VolumeSnapshot")
+      .columns("componentId", "userId", "countVolume")
+      .values("kmelia1", 1, 12)
+      .values("kmelia1", 2, 3)
+      .values("kmelia2", 1, 7)
+      .build();
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4Statistics.onWarForTestClass(SilverStatisticsVolumeAlimentationIT.class)
+        .testFocusedOn(war -> {
+          war.addPackages(true, "org.silverpeas.core.silverstatistics");
+          war.addAsResource("org/silverpeas/silverstatistics/SilverStatistics.properties");
+        }).build();
+  }
+
+  @Override
+  protected Operation getDbSetupInitializations() {
+    return Operations.sequenceOf(TABLES_CREATION, CHECKPOINTS_SETUP, SNAPSHOTS_SETUP);
+  }
+
+  @Test
+  public void anInstanceWhoseModificationsAreNotTrackedIsCountedWithoutCheckpoint()
+      throws Exception {
+    final StubProvider provider = new StubProvider(false, true);
+    final Collection<UserIdCountVolumeCouple> volumes =
+        SilverStatisticsVolumeAlimentation.getVolume(provider, NOW, "WA1", "kmelia3", null);
+    assertThat(provider.nbCounts, is(1));
+    assertThat(provider.checkedDates, empty());
+    assertThat(asStrings(volumes), containsInAnyOrder("1|5", "2|4"));
+    assertThat(SilverStatisticsVolumeAlimentation.getCheckpoints().keySet(),
+        containsInAnyOrder("kmelia1", "kmelia2"));
+  }
+
+  @Test
+  public void theCheckpointOfAnInstanceWhoseModificationsAreNoMoreTrackedIsDeleted()
+      throws Exception {
+    final StubProvider provider = new StubProvider(false, false);
+    final Collection<UserIdCountVolumeCouple> volumes =
+        SilverStatisticsVolumeAlimentation.getVolume(provider, NOW, "WA1", "kmelia1", CHECKPOINT);
+    assertThat(provider.nbCounts, is(1));
+    assertThat(asStrings(volumes), containsInAnyOrder("1|5", "2|4"));
+    assertThat(SilverStatisticsVolumeAlimentation.getCheckpoints().keySet(),
+        contains("kmelia2"));
+  }
+
+  @Test
+  public void anUnmodifiedInstanceIsNotCountedAgain() throws Exception {
+    final StubProvider provider = new StubProvider(true, false);
+    final Collection<UserIdCountVolumeCouple> volumes =
+        SilverStatisticsVolumeAlimentation.getVolume(provider, NOW, "WA1", "kmelia1", CHECKPOINT);
+    assertThat(provider.nbCounts, is(0));
+    assertThat(provider.checkedDates, contains(CHECKPOINT.getTime()));
+    assertThat(asStrings(volumes), containsInAnyOrder("1|12", "2|3"));
+    assertThat(SilverStatisticsVolumeAlimentation.getCheckpoints().get("kmelia1").getTime(),
+        is(CHECKPOINT.getTime()));
+  }
+
+  @Test
+  public void aModifiedInstanceIsCountedAgainAndItsCheckpointReplaced() throws Exception {
+    final StubProvider provider = new StubProvider(true, true);
+    final Collection<UserIdCountVolumeCouple> volumes =
+        SilverStatisticsVolumeAlimentation.getVolume(provider, NOW, "WA1", "kmelia1", CHECKPOINT);
+    assertThat(provider.nbCounts, is(1));
+    assertThat(asStrings(volumes), containsInAnyOrder("1|5", "2|4"));
+    assertThat(SilverStatisticsVolumeAlimentation.getCheckpoints().get("kmelia1").getTime(),
+        is(NOW.getTime()));
+
+    // the volume saved at the checkpoint is the one just counted
+    final StubProvider unmodified = new StubProvider(true, false);
+    assertThat(asStrings(SilverStatisticsVolumeAlimentation.getVolume(unmodified, NOW, "WA1",
+        "kmelia1", NOW)), containsInAnyOrder("1|5", "2|4"));
+    assertThat(unmodified.nbCounts, is(0));
+  }
+
+  @Test
+  public void aNewInstanceIsCountedAndCheckpointed() throws Exception {
+    final StubProvider provider = new StubProvider(true, true);
+    SilverStatisticsVolumeAlimentation.getVolume(provider, NOW, "WA1", "kmelia3", null);
+    assertThat(provider.nbCounts, is(1));
+    assertThat(provider.checkedDates, empty());
+    final Map<String, Date> checkpoints = SilverStatisticsVolumeAlimentation.getCheckpoints();
+    assertThat(checkpoints.keySet(), containsInAnyOrder("kmelia1", "kmelia2", "kmelia3"));
+    assertThat(checkpoints.get("kmelia3").getTime(), is(NOW.getTime()));
+  }
+
+  @Test
+  public void theCheckpointsOfTheRemovedInstancesAreDeleted() throws Exception {
+    SilverStatisticsVolumeAlimentation.deleteCheckpointsExcept(
+        SilverStatisticsVolumeAlimentation.getCheckpoints(), Set.of("kmelia1", "kmelia3"));
+    assertThat(SilverStatisticsVolumeAlimentation.getCheckpoints().keySet(),
+        contains("kmelia1"));
+    final StubProvider unmodified = new StubProvider(true, false);
+    assertThat(SilverStatisticsVolumeAlimentation.getVolume(unmodified, NOW, "WA1", "kmelia2",
+        CHECKPOINT), empty());
+    assertThat(asStrings(SilverStatisticsVolumeAlimentation.getVolume(unmodified, NOW, "WA1",
+        "kmelia1", CHECKPOINT)), containsInAnyOrder("1|12", "2|3"));
+  }
+
+  private static List<String> asStrings(final Collection<UserIdCountVolumeCouple> volumes) {
+    return volumes.stream()
+        .map(v -> v.getUserId() + "|" + v.getCountVolume())
+        .collect(Collectors.toList());
+  }
+
+  private static UserIdCountVolumeCouple couple(final String userId, final long count) {
+    final UserIdCountVolumeCouple couple = new UserIdCountVolumeCouple();
+    couple.setUserId(userId);
+    couple.setCountVolume(count);
+    return couple;
+  }
+
+  private static class StubProvider implements ComponentStatisticsProvider {
+
+    private final boolean tracked;
+    private final boolean modified;
+    private final List<Long> checkedDates = new ArrayList<>();
+    private int nbCounts = 0;
+
+    private StubProvider(final boolean tracked, final boolean modified) {
+      this.tracked = tracked;
+      this.modified = modified;
+    }
+
+    @Override
+    public Collection<UserIdCountVolumeCouple> getVolume(final String spaceId,
+        final String componentId) {
+      nbCounts++;
+      return List.of(couple("1", 2), couple("2", 4), couple("1", 3));
+    }
+
+    @Override
+    public boolean isModificationTracked() {
+      return tracked;
+    }
+
+    @Override
+    public boolean isModifiedSince(final String componentId, final Date date) {
+      checkedDates.add(date.getTime());
+      return modified;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+CREATE TABLE IF NOT EXISTS SB_Statistic_History
+(
+    dateStat		varchar(10)		NOT NULL,
+    heureStat		varchar(10)		NOT NULL,
+    userId			varchar(100)	NOT NULL,
+    resourceId		varchar(50)		NOT NULL,
+    componentId		varchar(50)		NOT NULL,
+    actionType		int				NOT NULL,
+    resourceType	varchar(50)	    NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS SB_Statistic_Counter
+(
+    resourceId		varchar(50)		NOT NULL,
+    componentId		varchar(50)		NOT NULL,
+    resourceType	varchar(50)	    NOT NULL,
+    nbAccess		int				NOT NULL,
+    lastAccess		TIMESTAMP		NOT NULL,
+    CONSTRAINT PK_Statistic_Counter PRIMARY KEY (resourceId, componentId, resourceType)
+);
+
+CREATE TABLE IF NOT EXISTS SB_Statistic_LastAccess
+(
+    userId			varchar(100)	NOT NULL,
+    resourceId		varchar(50)		NOT NULL,
+    componentId		varchar(50)		NOT NULL,
+    resourceType	varchar(50)	    NOT NULL,
+    actionType		int				NOT NULL,
+    lastAccess		TIMESTAMP		NOT NULL,
+    CONSTRAINT PK_Statistic_LastAccess PRIMARY KEY
+        (userId, resourceId, componentId, resourceType, actionType)
+);
@@ -0,0 +1,327 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.dao;
+
+import org.silverpeas.core.ResourceReference;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectAccess;
+import org.silverpeas.core.silverstatistics.access.model.StatisticRuntimeException;
+import org.silverpeas.core.util.DateUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * DAO of the access counters of the resources. A counter sums up the accesses of a resource
+ * recorded into the history of the statistics: their number and the date of the last one. The
+ * counters are maintained along with the history so that the number of accesses of a resource
+ * can be got without counting the rows of the history.
+ */
+public class HistoryCounterDAO {
+
+  private static final String COUNTER_TABLE_NAME = "SB_Statistic_Counter";
+  private static final String HISTORY_TABLE_NAME = "SB_Statistic_History";
+  private static final String RESOURCE_ID = "resourceId";
+
+  private static final String QUERY_COUNTER_INCREMENT = "UPDATE SB_Statistic_Counter " +
+      "SET nbAccess = nbAccess + ?, " +
+      "lastAccess = CASE WHEN lastAccess < ? THEN ? ELSE lastAccess END " +
+      "WHERE resourceId = ? AND componentId = ? AND resourceType = ?";
+
+  private static final String QUERY_COUNTER_INSERT = "INSERT INTO SB_Statistic_Counter " +
+      "(resourceId, componentId, resourceType, nbAccess, lastAccess) VALUES (?, ?, ?, ?, ?)";
+
+  private static final UpdateOrInsert<Counter> COUNTER_SAVING =
+      new UpdateOrInsert<>(QUERY_COUNTER_INCREMENT, HistoryCounterDAO::setUpdateParameters,
+          QUERY_COUNTER_INSERT, HistoryCounterDAO::setInsertParameters);
+
+  private HistoryCounterDAO() {
+  }
+
+  /**
+   * Adds the given accesses to the counters of the accessed resources. The counter of a resource
+   * is created at its first access. The counters are updated with one batch of statements and
+   * the missing ones are created with another one.
+   * @param con the database connection.
+   * @param accesses the accesses newly added into the history.
+   * @throws SQLException on technical error with database.
+   */
+  public static void increment(Connection con, Collection<HistoryObjectAccess> accesses)
+      throws SQLException {
+    final Map<Key, Counter> counters = new LinkedHashMap<>();
+    for (HistoryObjectAccess access : accesses) {
+      counters.computeIfAbsent(new Key(access.getResourceReference(), access.getObjectType()),
+          k -> new Counter(k, 0, access.getDate())).add(access.getDate());
+    }
+    COUNTER_SAVING.save(con, counters.values());
+  }
+
+  /**
+   * Gets the number of accesses of the given resource.
+   * @param con the database connection.
+   * @param resourceReference the reference of a resource.
+   * @param objectType the type of the resource.
+   * @return the number of accesses of the resource, 0 if it was never accessed.
+   * @throws SQLException on technical error with database.
+   */
+  public static int getCount(Connection con, ResourceReference resourceReference,
+      String objectType) throws SQLException {
+    final Integer count = JdbcSqlQuery.select("nbAccess")
+        .from(COUNTER_TABLE_NAME)
+        .where("resourceId = ?", resourceReference.getLocalId())
+        .and("componentId = ?", resourceReference.getComponentInstanceId())
+        .and("resourceType = ?", objectType)
+        .executeUniqueWith(con, r -> r.getInt(1));
+    return count != null ? count : 0;
+  }
+
+  /**
+   * Gets the number of accesses of each of the given resources with one query per component
+   * instance and per slice of resource identifiers.
+   * @param con the database connection.
+   * @param resourceReferences the references of the resources.
+   * @param objectType the type of the resources.
+   * @return the number of accesses per resource reference. A resource never accessed is mapped
+   * to 0.
+   * @throws SQLException on technical error with database.
+   */
+  public static Map<ResourceReference, Integer> getCountByResource(Connection con,
+      Collection<ResourceReference> resourceReferences, String objectType) throws SQLException {
+    final Map<ResourceReference, Integer> result = new HashMap<>(resourceReferences.size());
+    resourceReferences.forEach(r -> result.put(r, 0));
+    final Map<String, List<String>> idsByInstance = resourceReferences.stream()
+        .collect(Collectors.groupingBy(ResourceReference::getComponentInstanceId,
+            Collectors.mapping(ResourceReference::getLocalId, Collectors.toList())));
+    for (Map.Entry<String, List<String>> instanceIds : idsByInstance.entrySet()) {
+      JdbcSqlQuery.executeBySplittingOn(instanceIds.getValue(), (idBatch, ignore) ->
+          JdbcSqlQuery.select("resourceId, componentId, nbAccess")
+              .from(COUNTER_TABLE_NAME)
+              .where("componentId = ?", instanceIds.getKey())
+              .and("resourceType = ?", objectType)
+              .and(RESOURCE_ID).in(idBatch)
+              .executeWith(con, r -> {
+                result.put(new ResourceReference(r.getString(1), r.getString(2)), r.getInt(3));
+                return null;
+              }));
+    }
+    return result;
+  }
+
+  /**
+   * Deletes the counter of the given resource.
+   * @param con the database connection.
+   * @param resourceReference the reference of a resource.
+   * @param objectType the type of the resource.
+   * @throws SQLException on technical error with database.
+   */
+  public static void delete(Connection con, ResourceReference resourceReference,
+      String objectType) throws SQLException {
+    JdbcSqlQuery.deleteFrom(COUNTER_TABLE_NAME)
+        .where("resourceId = ?", resourceReference.getLocalId())
+        .and("componentId = ?", resourceReference.getComponentInstanceId())
+        .and("resourceType = ?", objectType)
+        .executeWith(con);
+  }
+
+  /**
+   * Deletes the counters of all the resources of the given component instance.
+   * @param con the database connection.
+   * @param componentId the identifier of a component instance.
+   * @throws SQLException on technical error with database.
+   */
+  public static void deleteByComponent(Connection con, String componentId) throws SQLException {
+    JdbcSqlQuery.deleteFrom(COUNTER_TABLE_NAME)
+        .where("componentId = ?", componentId)
+        .executeWith(con);
+  }
+
+  /**
+   * Recomputes from the history the counters of the resources with the given identifier and of
+   * the given type, whatever their component instance. It is expected to be invoked once the
+   * history of such resources has been moved to another component instance.
+   * @param con the database connection.
+   * @param resourceId the identifier of the resources.
+   * @param objectType the type of the resources.
+   * @throws SQLException on technical error with database.
+   */
+  public static void recount(Connection con, String resourceId, String objectType)
+      throws SQLException {
+    JdbcSqlQuery.deleteFrom(COUNTER_TABLE_NAME)
+        .where("resourceId = ?", resourceId)
+        .and("resourceType = ?", objectType)
+        .executeWith(con);
+    insert(con, countHistory(con, JdbcSqlQuery.select(
+        "resourceId, componentId, resourceType, count(*), " +
+            "max(concat(dateStat, concat('T', heureStat)))")
+        .from(HISTORY_TABLE_NAME)
+        .where("resourceId = ?", resourceId)
+        .and("resourceType = ?", objectType)));
+  }
+
+  /**
+   * Recomputes from the history the counters of all the resources of the given component
+   * instance.
+   * @param con the database connection.
+   * @param componentId the identifier of a component instance.
+   * @throws SQLException on technical error with database.
+   */
+  public static void recountComponent(Connection con, String componentId) throws SQLException {
+    deleteByComponent(con, componentId);
+    insert(con, countHistory(con, JdbcSqlQuery.select(
+        "resourceId, componentId, resourceType, count(*), " +
+            "max(concat(dateStat, concat('T', heureStat)))")
+        .from(HISTORY_TABLE_NAME)
+        .where("componentId = ?", componentId)));
+  }
+
+  /**
+   * Gets the identifiers of the component instances having either some accesses in the history
+   * or some counters.
+   * @param con the database connection.
+   * @return a set of component instance identifiers.
+   * @throws SQLException on technical error with database.
+   */
+  public static Set<String> getComponentIds(Connection con) throws SQLException {
+    final Set<String> componentIds = new LinkedHashSet<>();
+    componentIds.addAll(JdbcSqlQuery.select("distinct componentId")
+        .from(HISTORY_TABLE_NAME)
+        .executeWith(con, r -> r.getString(1)));
+    componentIds.addAll(JdbcSqlQuery.select("distinct componentId")
+        .from(COUNTER_TABLE_NAME)
+        .executeWith(con, r -> r.getString(1)));
+    return componentIds;
+  }
+
+  private static List<Counter> countHistory(final Connection con, final JdbcSqlQuery query)
+      throws SQLException {
+    return query.groupBy("resourceId, componentId, resourceType")
+        .executeWith(con, r -> {
+          final Key key = new Key(new ResourceReference(r.getString(1), r.getString(2)),
+              r.getString(3));
+          return new Counter(key, r.getInt(4), parseLastAccess(r.getString(5)));
+        });
+  }
+
+  private static Date parseLastAccess(final String lastAccess) {
+    try {
+      final String[] dateTime = lastAccess.split("T");
+      return DateUtil.getDate(DateUtil.parse(dateTime[0]), dateTime[1]);
+    } catch (java.text.ParseException e) {
+      throw new StatisticRuntimeException(e);
+    }
+  }
+
+  private static void setUpdateParameters(final PreparedStatement prepStmt,
+      final Counter counter) throws SQLException {
+    final Timestamp lastAccess = new Timestamp(counter.lastAccess.getTime());
+    prepStmt.setInt(1, counter.nbAccess);
+    prepStmt.setTimestamp(2, lastAccess);
+    prepStmt.setTimestamp(3, lastAccess);
+    prepStmt.setString(4, counter.key.reference.getLocalId());
+    prepStmt.setString(5, counter.key.reference.getComponentInstanceId());
+    prepStmt.setString(6, counter.key.type);
+  }
+
+  private static void setInsertParameters(final PreparedStatement prepStmt,
+      final Counter counter) throws SQLException {
+    prepStmt.setString(1, counter.key.reference.getLocalId());
+    prepStmt.setString(2, counter.key.reference.getComponentInstanceId());
+    prepStmt.setString(3, counter.key.type);
+    prepStmt.setInt(4, counter.nbAccess);
+    prepStmt.setTimestamp(5, new Timestamp(counter.lastAccess.getTime()));
+  }
+
+  private static void insert(final Connection con, final List<Counter> counters)
+      throws SQLException {
+    if (counters.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement prepStmt = con.prepareStatement(QUERY_COUNTER_INSERT)) {
+      for (Counter counter : counters) {
+        setInsertParameters(prepStmt, counter);
+        prepStmt.addBatch();
+      }
+      prepStmt.executeBatch();
+    }
+  }
+
+  private static class Key {
+    private final ResourceReference reference;
+    private final String type;
+
+    private Key(final ResourceReference reference, final String type) {
+      this.reference = reference;
+      this.type = type;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return reference.equals(key.reference) && Objects.equals(type, key.type);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(reference, type);
+    }
+  }
+
+  private static class Counter {
+    private final Key key;
+    private int nbAccess;
+    private Date lastAccess;
+
+    private Counter(final Key key, final int nbAccess, final Date lastAccess) {
+      this.key = key;
+      this.nbAccess = nbAccess;
+      this.lastAccess = lastAccess;
+    }
+
+    private Counter add(final Date accessDate) {
+      nbAccess++;
+      if (accessDate.after(lastAccess)) {
+        lastAccess = accessDate;
+      }
+      return this;
+    }
+  }
+}
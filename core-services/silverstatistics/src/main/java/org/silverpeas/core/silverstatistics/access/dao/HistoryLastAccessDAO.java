@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.dao;
+
+import org.silverpeas.core.ResourceReference;
+import org.silverpeas.core.contribution.model.ContributionIdentifier;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectAccess;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectDetail;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.silverpeas.core.contribution.model.ContributionIdentifier.from;
+
+/**
+ * DAO of the last accesses of the users to the resources. For each user, resource and action,
+ * only the date of the last access recorded into the history of the statistics is kept, so that
+ * whether a user has accessed some resources, or which resources they accessed lately, can be
+ * got without scanning his whole history. The last accesses are maintained along with the
+ * history and they aren't impacted by the purge of the history.
+ */
+public class HistoryLastAccessDAO {
+
+  private static final String LAST_ACCESS_TABLE_NAME = "SB_Statistic_LastAccess";
+  private static final String RESOURCE_ID = "resourceId";
+  private static final String COMPONENT_ID = "componentId";
+
+  private static final String QUERY_LAST_ACCESS_UPDATE = "UPDATE SB_Statistic_LastAccess " +
+      "SET lastAccess = CASE WHEN lastAccess < ? THEN ? ELSE lastAccess END " +
+      "WHERE userId = ? AND resourceId = ? AND componentId = ? AND resourceType = ? " +
+      "AND actionType = ?";
+
+  private static final String QUERY_LAST_ACCESS_INSERT = "INSERT INTO SB_Statistic_LastAccess " +
+      "(userId, resourceId, componentId, resourceType, actionType, lastAccess) " +
+      "VALUES (?, ?, ?, ?, ?, ?)";
+
+  private static final UpdateOrInsert<Map.Entry<Key, Date>> LAST_ACCESS_SAVING =
+      new UpdateOrInsert<>(QUERY_LAST_ACCESS_UPDATE, HistoryLastAccessDAO::setUpdateParameters,
+          QUERY_LAST_ACCESS_INSERT, HistoryLastAccessDAO::setInsertParameters);
+
+  private HistoryLastAccessDAO() {
+  }
+
+  /**
+   * Records the given accesses as the last ones of their users to the accessed resources unless
+   * more recent accesses are already recorded. The last accesses are updated with one batch of
+   * statements and the missing ones are created with another one.
+   * @param con the database connection.
+   * @param accesses the accesses newly added into the history.
+   * @throws SQLException on technical error with database.
+   */
+  public static void save(Connection con, Collection<HistoryObjectAccess> accesses)
+      throws SQLException {
+    final Map<Key, Date> lastAccesses = new LinkedHashMap<>();
+    for (HistoryObjectAccess access : accesses) {
+      lastAccesses.merge(new Key(access), access.getDate(), (d1, d2) -> d1.after(d2) ? d1 : d2);
+    }
+    LAST_ACCESS_SAVING.save(con, lastAccesses.entrySet());
+  }
+
+  /**
+   * Gets among the given contributions the ones the user has already accessed, whatever the
+   * action.
+   * @param con the database connection.
+   * @param contributionIds the identifiers of the contributions.
+   * @param userId the identifier of a user.
+   * @return the identifiers of the contributions accessed by the user.
+   * @throws SQLException on technical error with database.
+   */
+  public static Set<ContributionIdentifier> getAccessed(Connection con,
+      Collection<ContributionIdentifier> contributionIds, String userId) throws SQLException {
+    final Set<ContributionIdentifier> accessed = new HashSet<>(contributionIds.size());
+    final Map<String, Map<String, List<String>>> idsByInstanceAndType = contributionIds.stream()
+        .collect(Collectors.groupingBy(ContributionIdentifier::getComponentInstanceId,
+            Collectors.groupingBy(ContributionIdentifier::getType,
+                Collectors.mapping(ContributionIdentifier::getLocalId, Collectors.toList()))));
+    for (Map.Entry<String, Map<String, List<String>>> instanceIds :
+        idsByInstanceAndType.entrySet()) {
+      for (Map.Entry<String, List<String>> typeIds : instanceIds.getValue().entrySet()) {
+        JdbcSqlQuery.executeBySplittingOn(typeIds.getValue(), (idBatch, ignore) ->
+            JdbcSqlQuery.select("distinct resourceId")
+                .from(LAST_ACCESS_TABLE_NAME)
+                .where("userId = ?", userId)
+                .and("componentId = ?", instanceIds.getKey())
+                .and("resourceType = ?", typeIds.getKey())
+                .and(RESOURCE_ID).in(idBatch)
+                .executeWith(con, r -> {
+                  accessed.add(from(instanceIds.getKey(), r.getString(1), typeIds.getKey()));
+                  return null;
+                }));
+      }
+    }
+    return accessed;
+  }
+
+  /**
+   * Gets the last accesses of the user to resources of the given type, from the most recent to
+   * the oldest.
+   * @param con the database connection.
+   * @param userId the identifier of a user.
+   * @param actionType the type of the action done by the user on the resources.
+   * @param objectType the type of the resources.
+   * @param nbObjects the maximum number of accesses to get.
+   * @return a list of {@link HistoryObjectDetail}, one per resource.
+   * @throws SQLException on technical error with database.
+   */
+  public static List<HistoryObjectDetail> getLastAccesses(Connection con, String userId,
+      int actionType, String objectType, int nbObjects) throws SQLException {
+    return JdbcSqlQuery.select("resourceId, componentId, lastAccess")
+        .from(LAST_ACCESS_TABLE_NAME)
+        .where("userId = ?", userId)
+        .and("actionType = ?", actionType)
+        .and("resourceType = ?", objectType)
+        .orderBy("lastAccess desc")
+        .limit(nbObjects)
+        .executeWith(con, r -> new HistoryObjectDetail(new Date(r.getTimestamp(3).getTime()),
+            userId, new ResourceReference(r.getString(1), r.getString(2))));
+  }
+
+  /**
+   * Deletes the last accesses of all the users to the given resource.
+   * @param con the database connection.
+   * @param resourceReference the reference of a resource.
+   * @param objectType the type of the resource.
+   * @throws SQLException on technical error with database.
+   */
+  public static void delete(Connection con, ResourceReference resourceReference,
+      String objectType) throws SQLException {
+    JdbcSqlQuery.deleteFrom(LAST_ACCESS_TABLE_NAME)
+        .where("resourceId = ?", resourceReference.getLocalId())
+        .and("componentId = ?", resourceReference.getComponentInstanceId())
+        .and("resourceType = ?", objectType)
+        .executeWith(con);
+  }
+
+  /**
+   * Deletes the last accesses of all the users to the resources of the given component instance.
+   * @param con the database connection.
+   * @param componentId the identifier of a component instance.
+   * @throws SQLException on technical error with database.
+   */
+  public static void deleteByComponent(Connection con, String componentId) throws SQLException {
+    JdbcSqlQuery.deleteFrom(LAST_ACCESS_TABLE_NAME)
+        .where("componentId = ?", componentId)
+        .executeWith(con);
+  }
+
+  /**
+   * Moves the last accesses of the resources with the given identifier, of the given type and
+   * for the given action to the component instance of the specified reference, as
+   * {@link HistoryObjectDAO#move(Connection, ResourceReference, int, String)} does with the
+   * history.
+   * @param con the database connection.
+   * @param toResourceReference the reference of the moved resource.
+   * @param actionType the type of the action.
+   * @param objectType the type of the resource.
+   * @throws SQLException on technical error with database.
+   */
+  public static void move(Connection con, ResourceReference toResourceReference, int actionType,
+      String objectType) throws SQLException {
+    JdbcSqlQuery.update(LAST_ACCESS_TABLE_NAME)
+        .withUpdateParam(COMPONENT_ID, toResourceReference.getComponentInstanceId())
+        .where("resourceId = ?", toResourceReference.getLocalId())
+        .and("actionType = ?", actionType)
+        .and("resourceType = ?", objectType)
+        .and("componentId <> ?", toResourceReference.getComponentInstanceId())
+        .executeWith(con);
+  }
+
+  private static void setUpdateParameters(final PreparedStatement prepStmt,
+      final Map.Entry<Key, Date> lastAccess) throws SQLException {
+    final Key key = lastAccess.getKey();
+    final Timestamp timestamp = new Timestamp(lastAccess.getValue().getTime());
+    prepStmt.setTimestamp(1, timestamp);
+    prepStmt.setTimestamp(2, timestamp);
+    prepStmt.setString(3, key.userId);
+    prepStmt.setString(4, key.reference.getLocalId());
+    prepStmt.setString(5, key.reference.getComponentInstanceId());
+    prepStmt.setString(6, key.type);
+    prepStmt.setInt(7, key.action);
+  }
+
+  private static void setInsertParameters(final PreparedStatement prepStmt,
+      final Map.Entry<Key, Date> lastAccess) throws SQLException {
+    final Key key = lastAccess.getKey();
+    prepStmt.setString(1, key.userId);
+    prepStmt.setString(2, key.reference.getLocalId());
+    prepStmt.setString(3, key.reference.getComponentInstanceId());
+    prepStmt.setString(4, key.type);
+    prepStmt.setInt(5, key.action);
+    prepStmt.setTimestamp(6, new Timestamp(lastAccess.getValue().getTime()));
+  }
+
+  private static class Key {
+    private final String userId;
+    private final ResourceReference reference;
+    private final String type;
+    private final int action;
+
+    private Key(final HistoryObjectAccess access) {
+      this.userId = access.getUserId();
+      this.reference = access.getResourceReference();
+      this.type = access.getObjectType();
+      this.action = access.getActionType();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return action == key.action && userId.equals(key.userId) &&
+          reference.equals(key.reference) && Objects.equals(type, key.type);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, reference, type, action);
+    }
+  }
+}
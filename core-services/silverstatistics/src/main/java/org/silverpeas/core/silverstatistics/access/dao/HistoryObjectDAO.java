@@ -24,37 +24,29 @@
 package org.silverpeas.core.silverstatistics.access.dao;
 
 import org.silverpeas.core.ResourceReference;
-import org.silverpeas.core.contribution.model.ContributionIdentifier;
 import org.silverpeas.core.persistence.jdbc.DBUtil;
 import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
 import org.silverpeas.core.silverstatistics.access.model.HistoryByUser;
 import org.silverpeas.core.silverstatistics.access.model.HistoryCriteria;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectAccess;
 import org.silverpeas.core.silverstatistics.access.model.HistoryObjectDetail;
 import org.silverpeas.core.silverstatistics.access.model.StatisticRuntimeException;
 import org.silverpeas.core.util.DateUtil;
-import org.silverpeas.kernel.util.Pair;
 import org.silverpeas.core.util.SilverpeasList;
-import org.silverpeas.kernel.util.StringUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import static java.util.Collections.emptyList;
-import static java.util.Optional.ofNullable;
-import static org.silverpeas.core.contribution.model.ContributionIdentifier.from;
 import static org.silverpeas.core.util.DateUtil.*;
 import static org.silverpeas.kernel.util.StringUtil.isDefined;
 
@@ -71,16 +63,6 @@ public class HistoryObjectDAO {
       "DELETE FROM SB_Statistic_History WHERE resourceId = ? AND componentId = ? AND resourceType" +
           " = ?";
 
-  private static final String QUERY_STATISTIC_DELETE_BY_COMPONENT =
-      "DELETE FROM SB_Statistic_History WHERE componentId = ?";
-
-  private static final String QUERY_STATISTIC_COUNT =
-      "SELECT COUNT(resourceId) FROM SB_Statistic_History WHERE resourceId=? AND ComponentId =? " +
-          "AND resourceType = ?";
-
-  private static final String QUERY_STATISTIC_COUNT_BY_PERIOD =
-      "SELECT COUNT(resourceId) FROM SB_Statistic_History WHERE resourceId=? AND ComponentId =? " +
-          "AND resourceType = ? AND datestat >= ? AND datestat <= ?";
   private static final String RESOURCE_ID = "resourceId";
 
   private HistoryObjectDAO() {
@@ -129,25 +111,41 @@ public class HistoryObjectDAO {
    */
   public static void add(Connection con, String userId, ResourceReference resourceReference, int actionType,
       String objectType) throws SQLException {
-
-    PreparedStatement prepStmt = null;
-
-    try {
-      Date now = new Date();
-      prepStmt = con.prepareStatement(QUERY_STATISTIC_INSERT);
-      prepStmt.setString(1, date2SQLDate(now));
-      prepStmt.setString(2, DateUtil.formatTime(now));
-      prepStmt.setString(3, userId);
-      prepStmt.setString(4, resourceReference.getId());
-      prepStmt.setString(5, resourceReference.getInstanceId());
-      prepStmt.setInt(6, actionType);
-      prepStmt.setString(7, objectType);
+    try (PreparedStatement prepStmt = con.prepareStatement(QUERY_STATISTIC_INSERT)) {
+      setInsertParameters(prepStmt,
+          new HistoryObjectAccess(new Date(), userId, resourceReference, actionType, objectType));
       prepStmt.executeUpdate();
-    } finally {
-      DBUtil.close(prepStmt);
     }
   }
 
+  /**
+   * Adds at once the given accesses with one batch of statements.
+   * @param con the database connection.
+   * @param accesses the accesses to add into the history.
+   * @throws SQLException on technical error with database.
+   */
+  public static void add(Connection con, Collection<HistoryObjectAccess> accesses)
+      throws SQLException {
+    try (PreparedStatement prepStmt = con.prepareStatement(QUERY_STATISTIC_INSERT)) {
+      for (HistoryObjectAccess access : accesses) {
+        setInsertParameters(prepStmt, access);
+        prepStmt.addBatch();
+      }
+      prepStmt.executeBatch();
+    }
+  }
+
+  private static void setInsertParameters(final PreparedStatement prepStmt,
+      final HistoryObjectAccess access) throws SQLException {
+    prepStmt.setString(1, date2SQLDate(access.getDate()));
+    prepStmt.setString(2, DateUtil.formatTime(access.getDate()));
+    prepStmt.setString(3, access.getUserId());
+    prepStmt.setString(4, access.getResourceReference().getId());
+    prepStmt.setString(5, access.getResourceReference().getInstanceId());
+    prepStmt.setInt(6, access.getActionType());
+    prepStmt.setString(7, access.getObjectType());
+  }
+
   /**
    * Finds by user last access date and number of access.
    * @param con the database connection.
@@ -229,102 +227,138 @@ public class HistoryObjectDAO {
     }
   }
 
-  public static void deleteStatsOfComponent(Connection con, String componentId)
-      throws SQLException {
-    PreparedStatement prepStmt = null;
-    try {
-      prepStmt = con.prepareStatement(QUERY_STATISTIC_DELETE_BY_COMPONENT);
-      prepStmt.setString(1, componentId);
-      prepStmt.executeUpdate();
-    } finally {
-      DBUtil.close(prepStmt);
-    }
+  /**
+   * Gets the identifiers of all the component instances having accesses in the history.
+   * @param con the database connection.
+   * @return a list of component instance identifiers.
+   * @throws SQLException on technical error with database.
+   */
+  public static List<String> getComponentIds(Connection con) throws SQLException {
+    return JdbcSqlQuery.select("distinct componentId")
+        .from(HISTORY_TABLE_NAME)
+        .executeWith(con, r -> r.getString(1));
   }
 
-  public static int getCount(Connection con, Collection<ResourceReference> resourceReferences, String objectType)
+  /**
+   * Deletes a chunk of the oldest accesses of the given component instance: the first
+   * {@code chunkSize} accesses ordered by date and by time, and the other accesses of the same
+   * minute as the last of them. The chunk is bounded by the date and the time of this last access
+   * rather than by a number of rows because the history has no unique key.
+   * @param con the database connection.
+   * @param componentId the identifier of a component instance.
+   * @param chunkSize the minimum number of accesses to delete.
+   * @return the number of deleted accesses, 0 when there is no more access of the component
+   * instance.
+   * @throws SQLException on technical error with database.
+   */
+  public static long deleteOldestOfComponent(Connection con, String componentId, int chunkSize)
       throws SQLException {
-    int nb = 0;
-    for (ResourceReference pk : resourceReferences) {
-      nb = nb + getCount(con, pk, objectType);
-    }
-    return nb;
+    final Optional<String[]> boundary = getChunkBoundary(con, JdbcSqlQuery
+        .select("dateStat, heureStat")
+        .from(HISTORY_TABLE_NAME)
+        .where("componentId = ?", componentId), chunkSize);
+    final JdbcSqlQuery deletion = JdbcSqlQuery.deleteFrom(HISTORY_TABLE_NAME)
+        .where("componentId = ?", componentId);
+    boundary.ifPresent(b -> andUpTo(deletion, b));
+    return deletion.executeWith(con);
   }
 
-  public static int getCount(Connection con, ResourceReference resourceReference, String objectType)
+  /**
+   * Deletes a chunk of the accesses done before the given date: the first {@code chunkSize} of
+   * them ordered by date and by time, and the other accesses of the same minute as the last of
+   * them.
+   * @param con the database connection.
+   * @param date the date before which the accesses are deleted.
+   * @param chunkSize the minimum number of accesses to delete.
+   * @return the number of deleted accesses, 0 when there is no more access before the date.
+   * @throws SQLException on technical error with database.
+   */
+  public static long deleteOldestBefore(Connection con, Date date, int chunkSize)
       throws SQLException {
-    int nb = 0;
-
-    PreparedStatement prepStmt = null;
-    ResultSet rs = null;
-    try {
-      prepStmt = con.prepareStatement(QUERY_STATISTIC_COUNT);
-      prepStmt.setString(1, resourceReference.getId());
-      prepStmt.setString(2, resourceReference.getInstanceId());
-      prepStmt.setString(3, objectType);
-      rs = prepStmt.executeQuery();
-      if (rs.next()) {
-        nb = rs.getInt(1);
-      }
-      return nb;
-    } finally {
-      DBUtil.close(rs, prepStmt);
-    }
+    final String sqlDate = date2SQLDate(date);
+    final Optional<String[]> boundary = getChunkBoundary(con, JdbcSqlQuery
+        .select("dateStat, heureStat")
+        .from(HISTORY_TABLE_NAME)
+        .where("dateStat < ?", sqlDate), chunkSize);
+    final JdbcSqlQuery deletion = JdbcSqlQuery.deleteFrom(HISTORY_TABLE_NAME)
+        .where("dateStat < ?", sqlDate);
+    boundary.ifPresent(b -> andUpTo(deletion, b));
+    return deletion.executeWith(con);
   }
 
-  public static int getCountByPeriod(Connection con, ResourceReference resourceRef,
-      String objectType, Date startDate, Date endDate) throws SQLException {
-    int nb = 0;
+  /**
+   * Gets the date and the time of the {@code chunkSize}-th access selected by the given query.
+   * Only this access is fetched, the previous ones being skipped.
+   * @return the date and the time of the last access of the chunk, nothing if the query selects
+   * fewer accesses than the chunk size.
+   */
+  private static Optional<String[]> getChunkBoundary(final Connection con,
+      final JdbcSqlQuery query, final int chunkSize) throws SQLException {
+    return Optional.ofNullable(query.orderBy("dateStat, heureStat")
+        .offset(chunkSize - 1)
+        .limit(1)
+        .configure(JdbcSqlQuery.Configuration::ignoreRealOriginalSize)
+        .executeUniqueWith(con, r -> new String[]{r.getString(1), r.getString(2)}));
+  }
 
-    PreparedStatement prepStmt = null;
-    ResultSet rs = null;
-    try {
-      prepStmt = con.prepareStatement(QUERY_STATISTIC_COUNT_BY_PERIOD);
-      prepStmt.setString(1, resourceRef.getLocalId());
-      prepStmt.setString(2, resourceRef.getComponentInstanceId());
-      prepStmt.setString(3, objectType);
-      prepStmt.setString(4, date2SQLDate(startDate));
-      prepStmt.setString(5, date2SQLDate(endDate));
-      rs = prepStmt.executeQuery();
-      if (rs.next()) {
-        nb = rs.getInt(1);
-      }
-      return nb;
-    } finally {
-      DBUtil.close(rs, prepStmt);
-    }
+  private static void andUpTo(final JdbcSqlQuery query, final String[] dateAndTime) {
+    query.and("(dateStat < ? OR (dateStat = ? AND heureStat <= ?))", dateAndTime[0],
+        dateAndTime[0], dateAndTime[1]);
   }
 
-  public static Stream<Pair<ContributionIdentifier, Integer>> countByPeriodAndUser(
-      final Connection con, final Collection<ContributionIdentifier> contributionIds,
-      final Date startDate, final Date endDate, final String userId) throws SQLException {
-    final Set<String> ids = contributionIds.stream()
-        .map(ContributionIdentifier::getLocalId)
-        .collect(Collectors.toSet());
-    final Set<String> instanceIds = contributionIds.stream()
-        .map(ContributionIdentifier::getComponentInstanceId)
-        .collect(Collectors.toSet());
-    final Set<String> types = contributionIds.stream()
-        .map(ContributionIdentifier::getType)
-        .collect(Collectors.toSet());
-    final Map<ContributionIdentifier, Integer> result = new HashMap<>(contributionIds.size());
-    JdbcSqlQuery.executeBySplittingOn(ids, (idBatch, ignore) ->
-        JdbcSqlQuery.executeBySplittingOn(instanceIds, (instanceIdBatch, ignoreToo) ->
-            JdbcSqlQuery.executeBySplittingOn(types, (typeBatch, ignoreAlsoToo) -> JdbcSqlQuery
-                .select("resourceId, ComponentId, resourceType, count(*)")
+  /**
+   * Counts the accesses to each of the given resources. The counts are computed by grouped
+   * queries, one per component instance and per slice of resource identifiers, instead of one
+   * query per resource.
+   * @param con the database connection.
+   * @param resourceReferences the references of the resources.
+   * @param objectType the type of the resources.
+   * @param startDate the date from which the accesses are counted. Null for no lower bound.
+   * @param endDate the date until which the accesses are counted. Null for no upper bound.
+   * @param userIds the identifiers of the users whose the accesses are counted. Null for all the
+   * users.
+   * @return the number of accesses per resource reference. A resource without any access is
+   * mapped to 0.
+   * @throws SQLException on technical error with database.
+   */
+  public static Map<ResourceReference, Integer> countByResource(final Connection con,
+      final Collection<ResourceReference> resourceReferences, final String objectType,
+      final Date startDate, final Date endDate, final Collection<String> userIds)
+      throws SQLException {
+    final Map<ResourceReference, Integer> result = new HashMap<>(resourceReferences.size());
+    resourceReferences.forEach(r -> result.put(r, 0));
+    if (userIds != null && userIds.isEmpty()) {
+      return result;
+    }
+    final Map<String, Set<String>> idsByInstance = resourceReferences.stream()
+        .collect(Collectors.groupingBy(ResourceReference::getComponentInstanceId,
+            Collectors.mapping(ResourceReference::getLocalId, Collectors.toSet())));
+    final Collection<String> users = userIds != null ? userIds : List.of("");
+    for (Map.Entry<String, Set<String>> instanceIds : idsByInstance.entrySet()) {
+      JdbcSqlQuery.executeBySplittingOn(instanceIds.getValue(), (idBatch, ignore) ->
+          JdbcSqlQuery.executeBySplittingOn(users, (userBatch, ignoreToo) -> {
+            final JdbcSqlQuery sqlQuery = JdbcSqlQuery.select("resourceId, componentId, count(*)")
                 .from(HISTORY_TABLE_NAME)
-                .where(RESOURCE_ID).in(idBatch)
-                .and("ComponentId").in(instanceIdBatch)
-                .and("resourceType").in(typeBatch)
-                .and("datestat >= ?", date2SQLDate(startDate != null ? startDate : MINIMUM_DATE))
-                .and("datestat <= ?", date2SQLDate(endDate != null ? endDate : MAXIMUM_DATE))
-                .and("userid = ?", userId)
-                .groupBy("resourceId, ComponentId, resourceType")
-                .executeWith(con, r -> {
-                  final ContributionIdentifier cId = from(r.getString(2), r.getString(1), r.getString(3));
-                  result.put(cId, r.getInt(4));
-                  return null;
-                }))));
-    return contributionIds.stream().map(i -> Pair.of(i, result.getOrDefault(i, 0)));
+                .where("componentId = ?", instanceIds.getKey())
+                .and("resourceType = ?", objectType)
+                .and(RESOURCE_ID).in(idBatch);
+            if (startDate != null) {
+              sqlQuery.and("datestat >= ?", date2SQLDate(startDate));
+            }
+            if (endDate != null) {
+              sqlQuery.and("datestat <= ?", date2SQLDate(endDate));
+            }
+            if (userIds != null) {
+              sqlQuery.and(USER_ID).in(userBatch);
+            }
+            sqlQuery.groupBy("resourceId, componentId").executeWith(con, r -> {
+              result.merge(new ResourceReference(r.getString(1), r.getString(2)), r.getInt(3),
+                  Integer::sum);
+              return null;
+            });
+          }));
+    }
+    return result;
   }
 
   public static void move(Connection con, ResourceReference toResourceReference, int actionType, String objectType)
@@ -346,98 +380,4 @@ public class HistoryObjectDAO {
       DBUtil.close(prepStmt);
     }
   }
-
-  public static List<String> getListObjectAccessByPeriod(Connection con,
-      List<ResourceReference> primaryKeys, String objectType, Date startDate, Date endDate)
-      throws SQLException {
-    return getListObjectAccessByPeriodAndUser(con, primaryKeys, objectType, startDate, endDate, null);
-  }
-
-  public static List<String> getListObjectAccessByPeriodAndUser(Connection con,
-      List<ResourceReference> primaryKeys, String objectType, Date startDate, Date endDate,
-      String userId) throws SQLException {
-    final String instanceId = ofNullable(primaryKeys).flatMap(l -> l.stream().findFirst())
-        .map(ResourceReference::getComponentInstanceId)
-        .orElse(null);
-    final List<String> ids = ofNullable(primaryKeys).orElse(emptyList())
-        .stream()
-        .map(ResourceReference::getLocalId)
-        .collect(Collectors.toList());
-    final List<String> result = new ArrayList<>(ids.size());
-    JdbcSqlQuery.executeBySplittingOn(ids, (idBatch, ignore) -> {
-      final JdbcSqlQuery sqlQuery = JdbcSqlQuery.select(RESOURCE_ID)
-          .from(HISTORY_TABLE_NAME)
-          .where("ComponentId = ?", instanceId)
-          .and("resourceType = ?", objectType)
-          .and(RESOURCE_ID).in(idBatch)
-          .and("datestat >= ?", date2SQLDate(startDate))
-          .and("datestat <= ?", date2SQLDate(endDate));
-      if (StringUtil.isDefined(userId)) {
-        sqlQuery.and("userId = ?", userId);
-      }
-      sqlQuery.executeWith(con, r -> {
-        result.add(r.getString(1));
-        return null;
-      });
-    });
-    return result;
-  }
-
-  /**
-   * Gets the last history detail of each object associated to a user. The result is sorted on the
-   * datetime from the youngest to the oldest
-   * @param con
-   * @param userId
-   * @param actionType
-   * @param objectType
-   * @param nbObjects
-   * @return
-   * @throws SQLException
-   */
-  public static Collection<HistoryObjectDetail> getLastHistoryDetailOfObjectsForUser(Connection con,
-      String userId, int actionType, String objectType, int nbObjects) throws SQLException {
-
-
-    String selectStatement =
-        "select componentId, resourceId, datestat, heurestat" + " from SB_Statistic_History" +
-            " where userId='" + userId + "'" + " and actionType=" + actionType +
-            " and resourceType='" + objectType + "'" + " order by datestat desc, heurestat desc";
-
-    Statement stmt = null;
-    ResultSet rs = null;
-    List<HistoryObjectDetail> result = new ArrayList<>();
-    Set<ResourceReference> performedIds = new HashSet<>(nbObjects * 2);
-    Date date;
-
-    try {
-      stmt = con.createStatement();
-      // Setting a cursor to avoid performance problems
-      stmt.setFetchSize(50);
-      rs = stmt.executeQuery(selectStatement);
-
-      while (rs.next() && performedIds.size() < nbObjects) {
-
-        // Id
-        String componentId = rs.getString(1);
-        String foreignId = rs.getString(2);
-        ResourceReference resourceReference = new ResourceReference(foreignId, componentId);
-
-        // If id is already performed, then it is skiped
-        if (performedIds.add(resourceReference)) {
-          try {
-            // First the date of the day is parsed
-            date = DateUtil.parse(rs.getString(3));
-            // Then the hour is set
-            date = DateUtil.getDate(date, rs.getString(4));
-          } catch (java.text.ParseException e) {
-            throw new StatisticRuntimeException(e);
-          }
-          result.add(new HistoryObjectDetail(date, userId, resourceReference));
-        }
-      }
-    } finally {
-      DBUtil.close(rs, stmt);
-    }
-    return result;
-  }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Saver of rows by updating them and by inserting the ones that don't exist yet. The updates are
+ * performed with one batch of statements and the missing rows are inserted with another one.
+ * <p>
+ * A missing row can be inserted in the meantime by another writer, so the insertion can fail on
+ * an integrity constraint. Some databases, like PostgreSQL, abort then the whole transaction.
+ * So, within a transaction, the insertion is rolled back to a savepoint taken just before it and
+ * the rows are updated again. Out of any transaction, the missing rows are inserted one by one,
+ * each of them being updated when its insertion fails.
+ * </p>
+ * @param <T> the type of the values saved into the rows.
+ */
+final class UpdateOrInsert<T> {
+
+  private final String updateQuery;
+  private final ParameterBinder<T> updateBinder;
+  private final String insertQuery;
+  private final ParameterBinder<T> insertBinder;
+
+  /**
+   * Constructs a new saver of rows.
+   * @param updateQuery the statement updating the row of a value.
+   * @param updateBinder the binder of a value to the parameters of the update statement.
+   * @param insertQuery the statement inserting the row of a value.
+   * @param insertBinder the binder of a value to the parameters of the insert statement.
+   */
+  UpdateOrInsert(final String updateQuery, final ParameterBinder<T> updateBinder,
+      final String insertQuery, final ParameterBinder<T> insertBinder) {
+    this.updateQuery = updateQuery;
+    this.updateBinder = updateBinder;
+    this.insertQuery = insertQuery;
+    this.insertBinder = insertBinder;
+  }
+
+  /**
+   * Saves the given values, each of them into its own row.
+   * @param con the database connection.
+   * @param values the values to save.
+   * @throws SQLException on technical error with database.
+   */
+  void save(final Connection con, final Collection<T> values) throws SQLException {
+    final List<T> missing = update(con, values);
+    if (missing.isEmpty()) {
+      return;
+    }
+    if (con.getAutoCommit()) {
+      insertOneByOne(con, missing);
+      return;
+    }
+    final Savepoint savepoint = con.setSavepoint();
+    try {
+      insert(con, missing);
+    } catch (SQLException e) {
+      if (!isIntegrityViolation(e)) {
+        throw e;
+      }
+      // some of the missing rows have been inserted in the meantime by another writer
+      con.rollback(savepoint);
+      insert(con, update(con, missing));
+    }
+  }
+
+  private List<T> update(final Connection con, final Collection<T> values)
+      throws SQLException {
+    final List<T> missing = new ArrayList<>();
+    if (values.isEmpty()) {
+      return missing;
+    }
+    final List<T> updated = new ArrayList<>(values);
+    final int[] counts;
+    try (PreparedStatement prepStmt = con.prepareStatement(updateQuery)) {
+      for (T value : updated) {
+        updateBinder.bind(prepStmt, value);
+        prepStmt.addBatch();
+      }
+      counts = prepStmt.executeBatch();
+    }
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] == 0) {
+        missing.add(updated.get(i));
+      }
+    }
+    return missing;
+  }
+
+  private void insert(final Connection con, final List<T> values) throws SQLException {
+    if (values.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement prepStmt = con.prepareStatement(insertQuery)) {
+      for (T value : values) {
+        insertBinder.bind(prepStmt, value);
+        prepStmt.addBatch();
+      }
+      prepStmt.executeBatch();
+    }
+  }
+
+  private void insertOneByOne(final Connection con, final List<T> values) throws SQLException {
+    for (T value : values) {
+      try {
+        insert(con, List.of(value));
+      } catch (SQLException e) {
+        // the row has been inserted in the meantime by another writer
+        if (!isIntegrityViolation(e) || !update(con, List.of(value)).isEmpty()) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private static boolean isIntegrityViolation(final SQLException e) {
+    SQLException current = e;
+    while (current != null) {
+      if (current.getSQLState() != null && current.getSQLState().startsWith("23")) {
+        return true;
+      }
+      current = current.getNextException();
+    }
+    return false;
+  }
+
+  /**
+   * Binder of a value to the parameters of a statement.
+   * @param <T> the type of the value.
+   */
+  @FunctionalInterface
+  interface ParameterBinder<T> {
+
+    /**
+     * Binds the given value to the parameters of the statement.
+     * @param statement the statement.
+     * @param value the value to bind.
+     * @throws SQLException if the binding fails.
+     */
+    void bind(final PreparedStatement statement, final T value) throws SQLException;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.model;
+
+import org.silverpeas.core.ResourceReference;
+
+import java.util.Date;
+
+/**
+ * An action of a user on a resource to record into the history of the accesses to the
+ * resources.
+ */
+public class HistoryObjectAccess {
+
+  private final Date date;
+  private final String userId;
+  private final ResourceReference resourceReference;
+  private final int actionType;
+  private final String objectType;
+
+  /**
+   * Constructs a new access to a resource.
+   * @param date the date at which the action was performed.
+   * @param userId the identifier of the user who performed the action.
+   * @param resourceReference the reference of the resource.
+   * @param actionType the type of the action.
+   * @param objectType the type of the resource.
+   */
+  public HistoryObjectAccess(final Date date, final String userId,
+      final ResourceReference resourceReference, final int actionType, final String objectType) {
+    this.date = date;
+    this.userId = userId;
+    this.resourceReference = resourceReference;
+    this.actionType = actionType;
+    this.objectType = objectType;
+  }
+
+  public Date getDate() {
+    return date;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public ResourceReference getResourceReference() {
+    return resourceReference;
+  }
+
+  public int getActionType() {
+    return actionType;
+  }
+
+  public String getObjectType() {
+    return objectType;
+  }
+}
@@ -33,46 +33,137 @@ import org.silverpeas.core.annotation.Service;
 import org.silverpeas.core.contribution.model.Contribution;
 import org.silverpeas.core.contribution.model.ContributionIdentifier;
 import org.silverpeas.core.contribution.model.SilverpeasContent;
+import org.silverpeas.core.initialization.Initialization;
+import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.persistence.jdbc.DBUtil;
+import org.silverpeas.core.scheduler.Job;
+import org.silverpeas.core.scheduler.JobExecutionContext;
+import org.silverpeas.core.scheduler.Scheduler;
+import org.silverpeas.core.scheduler.SchedulerProvider;
+import org.silverpeas.core.scheduler.trigger.JobTrigger;
+import org.silverpeas.core.scheduler.trigger.TimeUnit;
+import org.silverpeas.core.silverstatistics.access.dao.HistoryCounterDAO;
+import org.silverpeas.core.silverstatistics.access.dao.HistoryLastAccessDAO;
 import org.silverpeas.core.silverstatistics.access.dao.HistoryObjectDAO;
 import org.silverpeas.core.silverstatistics.access.model.HistoryByUser;
 import org.silverpeas.core.silverstatistics.access.model.HistoryCriteria;
 import org.silverpeas.core.silverstatistics.access.model.HistoryCriteria.QUERY_ORDER_BY;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectAccess;
 import org.silverpeas.core.silverstatistics.access.model.HistoryObjectDetail;
 import org.silverpeas.core.silverstatistics.access.model.StatisticRuntimeException;
-import org.silverpeas.kernel.util.Pair;
+import org.silverpeas.core.thread.ManagedThreadPool;
+import org.silverpeas.core.util.DateUtil;
+import org.silverpeas.core.util.file.FileRepositoryManager;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
 import org.silverpeas.core.util.SilverpeasList;
 
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static org.silverpeas.core.silverstatistics.access.dao.HistoryObjectDAO.countByPeriodAndUser;
+import static org.silverpeas.kernel.util.StringUtil.isDefined;
 
 /**
- * Default implementation of Statistic service layer which manage statistics
+ * Default implementation of Statistic service layer which manage statistics.
+ * <p>
+ * The accesses to record are buffered and written by batches either periodically or once a given
+ * number of them are waiting (see the {@code history.buffer.*} properties of the SilverStatistics
+ * settings). The buffered accesses are never flushed on the read path: the counts by period, the
+ * accesses of a user to some contributions and the last accesses of a user merge the buffered
+ * accesses matching them with the ones read from the database. The other reads, as the total
+ * counts or the detailed history of the accesses, can lag behind by the flush delay.
+ * </p>
+ * <p>
+ * The total number of accesses of a resource is read from a counter maintained along with the
+ * history; the history itself is queried only for the detailed reports (by period, by user, ...).
+ * </p>
  */
 @Service
 @Singleton
 @Transactional(Transactional.TxType.SUPPORTS)
-public class DefaultStatisticService implements StatisticService, ComponentInstanceDeletion {
+public class DefaultStatisticService
+    implements StatisticService, ComponentInstanceDeletion, Initialization {
 
   public static final int ACTION_ACCESS = 1;
+  private static final String FLUSH_JOB_NAME = "StatisticHistoryFlushJob";
+
+  @Inject
+  private Event<ComponentHistoryPurge> purges;
+  private HistoryWriteBuffer buffer;
 
   protected DefaultStatisticService() {
   }
 
+  @Override
+  public void init() throws Exception {
+    final SettingBundle settings =
+        ResourceLocator.getSettingBundle("org.silverpeas.silverstatistics.SilverStatistics");
+    final int capacity = settings.getInteger("history.buffer.capacity", 10000);
+    if (capacity <= 0) {
+      return;
+    }
+    final String spillPath = settings.getString("history.buffer.spill.path", "");
+    final Path spillDir = isDefined(spillPath) ? Paths.get(spillPath) :
+        Paths.get(FileRepositoryManager.getInitDataDirPath(), "statistics");
+    buffer = new HistoryWriteBuffer(this::writeHistory, capacity,
+        settings.getInteger("history.buffer.flush.size", 500), spillDir,
+        () -> ManagedThreadPool.getPool().invoke(this::flush));
+    final Scheduler scheduler = SchedulerProvider.getVolatileScheduler();
+    scheduler.unscheduleJob(FLUSH_JOB_NAME);
+    scheduler.scheduleJob(new Job(FLUSH_JOB_NAME) {
+      @Override
+      public void execute(final JobExecutionContext context) {
+        flush();
+      }
+    }, JobTrigger.triggerEvery(settings.getInteger("history.buffer.flush.delay", 5),
+        TimeUnit.SECOND));
+  }
+
+  @Override
+  public void release() throws Exception {
+    if (buffer != null) {
+      buffer.close();
+    }
+  }
+
+  /**
+   * Writes all the buffered accesses into the history.
+   */
+  void flush() {
+    if (buffer != null) {
+      buffer.flush();
+    }
+  }
+
+  private void writeHistory(final List<HistoryObjectAccess> accesses) {
+    Transaction.performInOne(() -> {
+      try (Connection con = getConnection()) {
+        HistoryObjectDAO.add(con, accesses);
+        HistoryCounterDAO.increment(con, accesses);
+        HistoryLastAccessDAO.save(con, accesses);
+      }
+      return null;
+    });
+  }
+
   private Connection getConnection() {
     try {
       return DBUtil.openConnection();
@@ -83,8 +174,13 @@ public class DefaultStatisticService implements StatisticService, ComponentInsta
 
   @Override
   public void addStat(String userId, ResourceReference resourceReference, int actionType, String objectType) {
-    try (Connection con = getConnection()) {
-      HistoryObjectDAO.add(con, userId, resourceReference, actionType, objectType);
+    final HistoryObjectAccess access =
+        new HistoryObjectAccess(new Date(), userId, resourceReference, actionType, objectType);
+    if (buffer != null && buffer.offer(access)) {
+      return;
+    }
+    try {
+      writeHistory(List.of(access));
     } catch (Exception e) {
       throw new StatisticRuntimeException(e);
     }
@@ -98,7 +194,10 @@ public class DefaultStatisticService implements StatisticService, ComponentInsta
   @Override
   public int getCount(List<ResourceReference> resourceReferences, int action, String objectType) {
     try (Connection con = getConnection()) {
-      return HistoryObjectDAO.getCount(con, resourceReferences, objectType);
+      return HistoryCounterDAO.getCountByResource(con, resourceReferences, objectType).values()
+          .stream()
+          .mapToInt(Integer::intValue)
+          .sum();
     } catch (Exception e) {
       throw new StatisticRuntimeException(e);
     }
@@ -107,7 +206,7 @@ public class DefaultStatisticService implements StatisticService, ComponentInsta
   @Override
   public int getCount(ResourceReference resourceReference, int action, String objectType) {
     try (Connection con = getConnection()) {
-      return HistoryObjectDAO.getCount(con, resourceReference, objectType);
+      return HistoryCounterDAO.getCount(con, resourceReference, objectType);
     } catch (Exception e) {
       throw new StatisticRuntimeException(e);
     }
@@ -213,8 +312,11 @@ public class DefaultStatisticService implements StatisticService, ComponentInsta
 
   @Override
   public void deleteStats(ResourceReference resourceReference, String objectType) {
+    flush();
     try (Connection con = getConnection()) {
       HistoryObjectDAO.deleteHistoryByObject(con, resourceReference, objectType);
+      HistoryCounterDAO.delete(con, resourceReference, objectType);
+      HistoryLastAccessDAO.delete(con, resourceReference, objectType);
     } catch (Exception e) {
       throw new StatisticRuntimeException(e);
     }
@@ -227,104 +329,137 @@ public class DefaultStatisticService implements StatisticService, ComponentInsta
 
   @Override
   public void moveStat(ResourceReference toResourceReference, int actionType, String objectType) {
+    flush();
     try (Connection con = getConnection()) {
       HistoryObjectDAO.move(con, toResourceReference, actionType, objectType);
+      HistoryCounterDAO.recount(con, toResourceReference.getLocalId(), objectType);
+      HistoryLastAccessDAO.move(con, toResourceReference, actionType, objectType);
     } catch (Exception e) {
       throw new StatisticRuntimeException(e);
     }
   }
 
   @Override
-  public int getCountByPeriod(List<ResourceReference> refs, int action, String objectType,
-      Date startDate, Date endDate) {
-    int nb = 0;
+  public Map<ResourceReference, Integer> getCountByResource(
+      Collection<ResourceReference> resourceReferences, String objectType) {
     try (Connection con = getConnection()) {
-      for (ResourceReference aRef : refs) {
-        nb += HistoryObjectDAO.getCountByPeriod(con, aRef, objectType, startDate, endDate);
-      }
+      return HistoryCounterDAO.getCountByResource(con, resourceReferences, objectType);
     } catch (Exception e) {
       throw new StatisticRuntimeException(e);
     }
-    return nb;
+  }
+
+  @Override
+  public int getCountByPeriod(List<ResourceReference> refs, int action, String objectType,
+      Date startDate, Date endDate) {
+    return countByResource(refs, objectType, startDate, endDate, null).values()
+        .stream()
+        .mapToInt(Integer::intValue)
+        .sum();
   }
 
   @Override
   public int getCountByPeriodAndUser(List<ResourceReference> refs, String objectType,
       Date startDate, Date endDate, List<String> userIds) {
-    int nb = 0;
-    if (!userIds.isEmpty()) {
-      final Set<ContributionIdentifier> ids = refs.stream()
-          .map(k -> ContributionIdentifier.from(k, objectType))
-          .collect(Collectors.toSet());
-      try (Connection con = getConnection()) {
-        nb += userIds.stream().flatMapToInt(u -> {
-          try {
-            return countByPeriodAndUser(con, ids, startDate, endDate, u).mapToInt(Pair::getSecond);
-          } catch (SQLException e) {
-            throw new StatisticRuntimeException(e);
-          }
-        }).sum();
-      } catch (Exception e) {
-        throw new StatisticRuntimeException(e);
-      }
-    }
-    return nb;
+    return countByResource(refs, objectType, startDate, endDate, userIds).values()
+        .stream()
+        .mapToInt(Integer::intValue)
+        .sum();
   }
 
   @Override
   public int getDistinctCountByPeriod(List<ResourceReference> refs, int action, String objectType,
       Date startDate, Date endDate) {
-    try (Connection con = getConnection()) {
-      List<String> objectIds =
-          HistoryObjectDAO.getListObjectAccessByPeriod(con, refs, objectType, startDate, endDate);
-      Set<String> distinctObjectIds = new HashSet<>(objectIds);
-      return distinctObjectIds.size();
-    } catch (Exception e) {
-      throw new StatisticRuntimeException(e);
-    }
+    return (int) countByResource(refs, objectType, startDate, endDate, null).values()
+        .stream()
+        .filter(c -> c > 0)
+        .count();
   }
 
   @Override
   public int getDistinctCountByPeriodUser(List<ResourceReference> refs, int action,
       String objectType, Date startDate, Date endDate, List<String> userIds) {
-    int nb = 0;
-    if (userIds != null && !userIds.isEmpty()) {
-      Set<String> distinctObjectIds = new HashSet<>(userIds.size());
-      try (Connection con = getConnection()) {
-        for (String userId : userIds) {
-          List<String> objectIds =
-              HistoryObjectDAO.getListObjectAccessByPeriodAndUser(con, refs, objectType, startDate,
-                  endDate, userId);
-          distinctObjectIds.addAll(objectIds);
-        }
-        nb = distinctObjectIds.size();
-      } catch (Exception e) {
-        throw new StatisticRuntimeException(e);
-      }
+    if (userIds == null) {
+      return 0;
     }
-    return nb;
+    return (int) countByResource(refs, objectType, startDate, endDate, userIds).values()
+        .stream()
+        .filter(c -> c > 0)
+        .count();
+  }
+
+  private Map<ResourceReference, Integer> countByResource(
+      final Collection<ResourceReference> refs, final String objectType, final Date startDate,
+      final Date endDate, final Collection<String> userIds) {
+    final Map<ResourceReference, Integer> counts;
+    try (Connection con = getConnection()) {
+      counts = HistoryObjectDAO.countByResource(con, refs, objectType, startDate, endDate,
+          userIds);
+    } catch (Exception e) {
+      throw new StatisticRuntimeException(e);
+    }
+    // the days are compared as in the history, from their yyyy/MM/dd representation
+    final String startDay = startDate != null ? DateUtil.date2SQLDate(startDate) : null;
+    final String endDay = endDate != null ? DateUtil.date2SQLDate(endDate) : null;
+    getPending(a -> Objects.equals(a.getObjectType(), objectType) &&
+        (userIds == null || userIds.contains(a.getUserId())) &&
+        counts.containsKey(a.getResourceReference()) &&
+        isInPeriod(DateUtil.date2SQLDate(a.getDate()), startDay, endDay))
+        .forEach(a -> counts.merge(a.getResourceReference(), 1, Integer::sum));
+    return counts;
+  }
+
+  private static boolean isInPeriod(final String day, final String startDay,
+      final String endDay) {
+    return (startDay == null || day.compareTo(startDay) >= 0) &&
+        (endDay == null || day.compareTo(endDay) <= 0);
+  }
+
+  /**
+   * Gets the accesses satisfying the given filter that are buffered, so not yet written into
+   * the history.
+   * @param filter the filter on the accesses.
+   * @return a list of buffered accesses, from the oldest to the most recent.
+   */
+  private List<HistoryObjectAccess> getPending(final Predicate<HistoryObjectAccess> filter) {
+    return buffer != null ? buffer.getPending(filter) : List.of();
   }
 
   @Override
   public Collection<HistoryObjectDetail> getLastHistoryOfObjectsForUser(String userId,
       int actionType, String objectType, int nbObjects) {
+    final List<HistoryObjectDetail> lastAccesses = new ArrayList<>();
+    getPending(a -> Objects.equals(a.getUserId(), userId) && a.getActionType() == actionType &&
+        Objects.equals(a.getObjectType(), objectType))
+        .forEach(a -> lastAccesses.add(
+            new HistoryObjectDetail(a.getDate(), userId, a.getResourceReference())));
     try (Connection con = getConnection()) {
-      return HistoryObjectDAO
-          .getLastHistoryDetailOfObjectsForUser(con, userId, actionType, objectType, nbObjects);
+      lastAccesses.addAll(HistoryLastAccessDAO
+          .getLastAccesses(con, userId, actionType, objectType, nbObjects));
     } catch (Exception e) {
       throw new StatisticRuntimeException(e);
     }
+    final Set<ResourceReference> resources = new HashSet<>(lastAccesses.size());
+    return lastAccesses.stream()
+        .sorted(Comparator.comparing(HistoryObjectDetail::getDate).reversed())
+        .filter(a -> resources.add(a.getResourceReference()))
+        .limit(nbObjects)
+        .collect(Collectors.toList());
   }
 
   @Override
   public <T extends Contribution> Stream<T> filterRead(final Collection<T> contributions,
       final String userId) {
     try (final Connection con = getConnection()) {
-      final Map<ContributionIdentifier, T> indexed = contributions.stream()
-          .collect(Collectors.toMap(Contribution::getIdentifier, c -> c));
-      return countByPeriodAndUser(con, indexed.keySet(), null, null, userId)
-          .filter(p -> p.getSecond() > 0)
-          .map(p -> indexed.get(p.getFirst()));
+      final Set<ContributionIdentifier> ids =
+          contributions.stream().map(Contribution::getIdentifier).collect(Collectors.toSet());
+      final Set<ContributionIdentifier> accessed = HistoryLastAccessDAO.getAccessed(con, ids,
+          userId);
+      getPending(a -> Objects.equals(a.getUserId(), userId)).stream()
+          .map(a -> ContributionIdentifier.from(a.getResourceReference(), a.getObjectType()))
+          .filter(ids::contains)
+          .forEach(accessed::add);
+      return contributions.stream().filter(c -> accessed.contains(c.getIdentifier()));
     } catch (Exception e) {
       throw new StatisticRuntimeException(e);
     }
@@ -336,18 +471,23 @@ public class DefaultStatisticService implements StatisticService, ComponentInsta
 
   /**
    * Deletes the resources belonging to the specified component instance. This method is invoked
-   * by Silverpeas when a component instance is being deleted.
+   * by Silverpeas when a component instance is being deleted. The access counters are deleted
+   * at once whereas the history of the accesses, which can be huge, is purged by chunks in
+   * background once the deletion is committed.
    * @param componentInstanceId the unique identifier of a component instance.
    */
   @Override
   @Transactional
   public void delete(final String componentInstanceId) {
+    flush();
     try (Connection con = getConnection()) {
-      HistoryObjectDAO.deleteStatsOfComponent(con, componentInstanceId);
+      HistoryCounterDAO.deleteByComponent(con, componentInstanceId);
+      HistoryLastAccessDAO.deleteByComponent(con, componentInstanceId);
     } catch (Exception e) {
       throw new SilverpeasRuntimeException(
           "A failure occurred when deleting the statistics relative to the component instance " +
               componentInstanceId, e);
     }
+    purges.fire(new ComponentHistoryPurge(componentInstanceId));
   }
 }
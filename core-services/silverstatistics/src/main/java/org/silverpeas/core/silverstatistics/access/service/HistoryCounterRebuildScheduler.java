@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.service;
+
+import org.silverpeas.core.annotation.Service;
+import org.silverpeas.core.initialization.Initialization;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.core.persistence.jdbc.DBUtil;
+import org.silverpeas.core.scheduler.Job;
+import org.silverpeas.core.scheduler.JobExecutionContext;
+import org.silverpeas.core.scheduler.Scheduler;
+import org.silverpeas.core.scheduler.SchedulerProvider;
+import org.silverpeas.core.scheduler.trigger.JobTrigger;
+import org.silverpeas.core.silverstatistics.access.dao.HistoryCounterDAO;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import java.sql.Connection;
+import java.util.Set;
+
+import static org.silverpeas.kernel.util.StringUtil.isDefined;
+
+/**
+ * Batch in charge of rebuilding from the history of the statistics the access counters of the
+ * resources. The counters are maintained along with the history, so the rebuild is only a safety
+ * net against a drift of them (a manual purge of the history for example). It is scheduled with
+ * the cron of the {@code history.counter.rebuild.cron} property of the SilverStatistics settings,
+ * and it is disabled when this property isn't set.
+ */
+@Service
+public class HistoryCounterRebuildScheduler implements Initialization {
+
+  protected static final String JOB_NAME = "StatisticHistoryCounterRebuildJob";
+
+  @Override
+  public void init() throws Exception {
+    final String cron =
+        ResourceLocator.getSettingBundle("org.silverpeas.silverstatistics.SilverStatistics")
+            .getString("history.counter.rebuild.cron", "");
+    final Scheduler scheduler = SchedulerProvider.getVolatileScheduler();
+    scheduler.unscheduleJob(JOB_NAME);
+    if (isDefined(cron)) {
+      scheduler.scheduleJob(new HistoryCounterRebuildJob(), JobTrigger.triggerAt(cron));
+    }
+  }
+
+  /**
+   * Rebuilds the counters of the resources, component instance by component instance, each of
+   * them within its own transaction.
+   */
+  public static void rebuild() {
+    final Set<String> componentIds = Transaction.performInOne(() -> {
+      try (Connection con = DBUtil.openConnection()) {
+        return HistoryCounterDAO.getComponentIds(con);
+      }
+    });
+    for (String componentId : componentIds) {
+      try {
+        Transaction.performInOne(() -> {
+          try (Connection con = DBUtil.openConnection()) {
+            HistoryCounterDAO.recountComponent(con, componentId);
+          }
+          return null;
+        });
+      } catch (Exception e) {
+        SilverLogger.getLogger(HistoryCounterRebuildScheduler.class)
+            .error("Rebuild of the access counters of " + componentId + " failed", e);
+      }
+    }
+  }
+
+  private static class HistoryCounterRebuildJob extends Job {
+
+    HistoryCounterRebuildJob() {
+      super(JOB_NAME);
+    }
+
+    @Override
+    public void execute(final JobExecutionContext context) {
+      rebuild();
+      SilverLogger.getLogger(this).info("Access counters of the resources rebuilt");
+    }
+  }
+}
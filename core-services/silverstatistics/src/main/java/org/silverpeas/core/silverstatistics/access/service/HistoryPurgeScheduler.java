@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.service;
+
+import org.silverpeas.core.admin.service.OrganizationController;
+import org.silverpeas.core.annotation.Service;
+import org.silverpeas.core.initialization.Initialization;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.core.persistence.jdbc.DBUtil;
+import org.silverpeas.core.scheduler.Job;
+import org.silverpeas.core.scheduler.JobExecutionContext;
+import org.silverpeas.core.scheduler.Scheduler;
+import org.silverpeas.core.scheduler.SchedulerProvider;
+import org.silverpeas.core.scheduler.trigger.JobTrigger;
+import org.silverpeas.core.silverstatistics.access.dao.HistoryObjectDAO;
+import org.silverpeas.core.thread.ManagedThreadPool;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.silverpeas.kernel.util.StringUtil.isDefined;
+
+/**
+ * Batch in charge of purging the history of the statistics. The accesses older than the number
+ * of months of the {@code history.retention.months} property of the SilverStatistics settings
+ * are deleted with the cron of the {@code history.purge.cron} property; the history is kept
+ * entirely when the retention isn't set. The access counters of the resources aren't impacted by
+ * the purge.
+ * <p>
+ * The accesses are deleted by chunks of at least {@code history.purge.chunk.size} accesses, each
+ * of them within its own transaction, so that the history table isn't locked for a long time.
+ * The history of a deleted component instance is also purged this way, in background, once the
+ * deletion is committed.
+ * </p>
+ * <p>
+ * The history of the component instances that don't exist anymore, as the one left by an
+ * interrupted purge, is purged in background at startup and with each retention purge.
+ * </p>
+ */
+@Service
+public class HistoryPurgeScheduler implements Initialization {
+
+  protected static final String JOB_NAME = "StatisticHistoryPurgeJob";
+
+  @Override
+  public void init() throws Exception {
+    final SettingBundle settings = getSettings();
+    final String cron = settings.getString("history.purge.cron", "");
+    final Scheduler scheduler = SchedulerProvider.getVolatileScheduler();
+    scheduler.unscheduleJob(JOB_NAME);
+    if (settings.getInteger("history.retention.months", 0) > 0 && isDefined(cron)) {
+      scheduler.scheduleJob(new HistoryPurgeJob(), JobTrigger.triggerAt(cron));
+    }
+    ManagedThreadPool.getPool().invoke(() -> {
+      try {
+        final long deleted = purgeOrphans();
+        SilverLogger.getLogger(this)
+            .info("{0} accesses of deleted component instances purged from the history",
+                deleted);
+      } catch (Exception e) {
+        SilverLogger.getLogger(this)
+            .error("Purge of the access history of the deleted component instances failed", e);
+      }
+    });
+  }
+
+  /**
+   * Purges in background the history of a component instance once its deletion is committed.
+   * @param purge the purge of the history of a deleted component instance.
+   */
+  void onComponentHistoryPurge(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) ComponentHistoryPurge purge) {
+    purgeComponentInBackground(purge.getComponentId());
+  }
+
+  /**
+   * Deletes the accesses older than the retention period. Nothing is done when no retention is
+   * set.
+   * @return the number of deleted accesses.
+   */
+  public static long purgeExpired() {
+    final int retention = getSettings().getInteger("history.retention.months", 0);
+    if (retention <= 0) {
+      return 0;
+    }
+    final Date limit = Date.from(LocalDate.now()
+        .minusMonths(retention)
+        .atStartOfDay(ZoneId.systemDefault())
+        .toInstant());
+    final int chunkSize = getChunkSize();
+    long total = 0;
+    long deleted;
+    do {
+      deleted = Transaction.performInOne(() -> {
+        try (Connection con = DBUtil.openConnection()) {
+          return HistoryObjectDAO.deleteOldestBefore(con, limit, chunkSize);
+        }
+      });
+      total += deleted;
+    } while (deleted > 0);
+    return total;
+  }
+
+  /**
+   * Deletes all the accesses of the given component instance.
+   * @param componentId the identifier of a component instance.
+   * @return the number of deleted accesses.
+   */
+  public static long purgeComponent(final String componentId) {
+    final int chunkSize = getChunkSize();
+    long total = 0;
+    long deleted;
+    do {
+      deleted = Transaction.performInOne(() -> {
+        try (Connection con = DBUtil.openConnection()) {
+          return HistoryObjectDAO.deleteOldestOfComponent(con, componentId, chunkSize);
+        }
+      });
+      total += deleted;
+    } while (deleted > 0);
+    return total;
+  }
+
+  /**
+   * Deletes the accesses of all the component instances that don't exist anymore.
+   * @return the number of deleted accesses.
+   */
+  public static long purgeOrphans() {
+    final List<String> componentIds = Transaction.performInOne(() -> {
+      try (Connection con = DBUtil.openConnection()) {
+        return HistoryObjectDAO.getComponentIds(con);
+      }
+    });
+    final OrganizationController controller = OrganizationController.get();
+    long total = 0;
+    for (String componentId : componentIds) {
+      if (isDefined(componentId) && controller.getComponentInstance(componentId).isEmpty()) {
+        total += purgeComponent(componentId);
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Deletes in background all the accesses of the given component instance. As each chunk is
+   * committed on its own, an interrupted purge keeps only the accesses of the chunks not yet
+   * deleted: they are deleted by the next purge of the history of the deleted component
+   * instances.
+   * @param componentId the identifier of a component instance.
+   */
+  private static void purgeComponentInBackground(final String componentId) {
+    ManagedThreadPool.getPool().invoke(() -> {
+      try {
+        purgeComponent(componentId);
+      } catch (Exception e) {
+        SilverLogger.getLogger(HistoryPurgeScheduler.class)
+            .error("Purge of the access history of " + componentId + " failed", e);
+      }
+    });
+  }
+
+  private static int getChunkSize() {
+    return Math.max(1, getSettings().getInteger("history.purge.chunk.size", 10000));
+  }
+
+  private static SettingBundle getSettings() {
+    return ResourceLocator.getSettingBundle("org.silverpeas.silverstatistics.SilverStatistics");
+  }
+
+  private static class HistoryPurgeJob extends Job {
+
+    HistoryPurgeJob() {
+      super(JOB_NAME);
+    }
+
+    @Override
+    public void execute(final JobExecutionContext context) {
+      final long deleted = purgeExpired();
+      SilverLogger.getLogger(this).info("{0} expired accesses purged from the history", deleted);
+      final long orphans = purgeOrphans();
+      SilverLogger.getLogger(this)
+          .info("{0} accesses of deleted component instances purged from the history", orphans);
+    }
+  }
+}
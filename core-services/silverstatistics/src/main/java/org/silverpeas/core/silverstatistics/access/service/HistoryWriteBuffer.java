@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.service;
+
+import org.silverpeas.core.ResourceReference;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectAccess;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A bounded write-behind buffer of the accesses to record into the history of the statistics.
+ * <p>
+ * The accesses are kept in memory and written at once by {@link #flush()}. Once the number of
+ * buffered accesses reaches the flush size, the flush trigger given at construction is invoked;
+ * the flush is also expected to be invoked periodically. When the buffer is full, an access is
+ * refused and it is up to the caller to write it directly.
+ * </p>
+ * <p>
+ * When a spill directory is given, each buffered access is also appended to a journal file in
+ * this directory. At each flush, the journal is renamed into a segment file which is deleted
+ * once its accesses are written. The segments left by a failed flush or by a crash, as well as
+ * the journal found at construction, are written by the next flushes: an access can then be
+ * written twice but it is never lost. The left segments are tracked in memory; the spill
+ * directory is only scanned at construction.
+ * </p>
+ * <p>
+ * A left segment whose writing fails whereas other accesses are written by the same flush is
+ * considered as faulty. After {@link #MAX_WRITE_FAILURES} such failures, it is put in quarantine:
+ * it is renamed with the {@link #QUARANTINE_SUFFIX} suffix and it isn't written anymore. The
+ * failures occurring while no accesses can be written at all, as when the database is
+ * unavailable, aren't counted.
+ * </p>
+ */
+class HistoryWriteBuffer {
+
+  private static final String JOURNAL = "history.journal";
+  private static final String SEGMENT_PREFIX = "history-";
+  private static final String SEGMENT_SUFFIX = ".segment";
+  private static final char SEPARATOR = '\t';
+  static final String QUARANTINE_SUFFIX = ".quarantine";
+  static final int MAX_WRITE_FAILURES = 3;
+
+  private final HistoryWriter writer;
+  private final int capacity;
+  private final int flushSize;
+  private final Path spillDir;
+  private final Runnable flushTrigger;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final AtomicBoolean flushTriggered = new AtomicBoolean(false);
+  private final ConcurrentSkipListMap<Path, Integer> leftSegments = new ConcurrentSkipListMap<>();
+  private List<HistoryObjectAccess> pending = new ArrayList<>();
+  private BufferedWriter journal;
+  private long segmentSequence = 0;
+
+  /**
+   * Constructs a new buffer.
+   * @param writer the writer of the accesses into the persistence.
+   * @param capacity the maximum number of accesses the buffer can hold.
+   * @param flushSize the number of buffered accesses from which the flush trigger is invoked.
+   * @param spillDir the directory of the journal and of the segment files. Null to keep the
+   * accesses only in memory.
+   * @param flushTrigger the trigger of an asynchronous flush of the buffer.
+   * @throws IOException if the journal cannot be opened.
+   */
+  HistoryWriteBuffer(final HistoryWriter writer, final int capacity, final int flushSize,
+      final Path spillDir, final Runnable flushTrigger) throws IOException {
+    this.writer = writer;
+    this.capacity = capacity;
+    this.flushSize = Math.min(flushSize, capacity);
+    this.spillDir = spillDir;
+    this.flushTrigger = flushTrigger;
+    if (spillDir != null) {
+      Files.createDirectories(spillDir);
+      try (DirectoryStream<Path> files =
+               Files.newDirectoryStream(spillDir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+        files.forEach(segment -> leftSegments.put(segment, 0));
+      }
+      final Path previousJournal = spillDir.resolve(JOURNAL);
+      if (Files.exists(previousJournal)) {
+        // the journal of a previous run: its accesses weren't all written
+        final Path segment = nextSegment();
+        Files.move(previousJournal, segment);
+        leftSegments.put(segment, 0);
+      }
+      journal = openJournal();
+    }
+  }
+
+  /**
+   * Buffers the given access.
+   * @param access an access to record.
+   * @return true if the access is buffered, false if the buffer is full or if the access cannot
+   * be journaled. In that case, the access has to be written directly.
+   */
+  boolean offer(final HistoryObjectAccess access) {
+    final boolean flushRequired;
+    lock.lock();
+    try {
+      if (pending.size() >= capacity || !journalize(access)) {
+        return false;
+      }
+      pending.add(access);
+      flushRequired = pending.size() >= flushSize;
+    } finally {
+      lock.unlock();
+    }
+    if (flushRequired && flushTriggered.compareAndSet(false, true)) {
+      flushTrigger.run();
+    }
+    return true;
+  }
+
+  /**
+   * Gets the number of accesses currently buffered.
+   * @return the number of accesses waiting to be written.
+   */
+  int size() {
+    lock.lock();
+    try {
+      return pending.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the buffered accesses satisfying the given filter, in the order they were buffered.
+   * The accesses being written by a flush at the same time aren't among them.
+   * @param filter the filter on the accesses to get.
+   * @return a list of the buffered accesses satisfying the filter.
+   */
+  List<HistoryObjectAccess> getPending(final Predicate<HistoryObjectAccess> filter) {
+    lock.lock();
+    try {
+      return pending.stream().filter(filter).collect(Collectors.toList());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes all the buffered accesses as well as the ones of the segments left by previous
+   * flushes. If the writing fails, the accesses are kept: in their segment file when a spill
+   * directory is set, otherwise in memory within the limit of the capacity of the buffer.
+   */
+  void flush() {
+    if (leftSegments.isEmpty() && size() == 0) {
+      return;
+    }
+    flushLock.lock();
+    try {
+      flushTriggered.set(false);
+      final List<HistoryObjectAccess> batch;
+      final Path segment;
+      lock.lock();
+      try {
+        batch = pending;
+        pending = new ArrayList<>();
+        segment = batch.isEmpty() ? null : rotateJournal();
+      } finally {
+        lock.unlock();
+      }
+      final List<Path> failedSegments = new ArrayList<>();
+      boolean written = writeLeftSegments(failedSegments);
+      if (!batch.isEmpty()) {
+        if (write(batch, segment)) {
+          written = true;
+        } else if (segment != null) {
+          leftSegments.put(segment, 0);
+          failedSegments.add(segment);
+        }
+      }
+      if (written) {
+        failedSegments.forEach(this::countFailure);
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * Flushes the buffer and closes the journal.
+   */
+  void close() {
+    flush();
+    lock.lock();
+    try {
+      if (journal != null) {
+        journal.close();
+        journal = null;
+      }
+    } catch (IOException e) {
+      SilverLogger.getLogger(this).error(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean write(final List<HistoryObjectAccess> batch, final Path segment) {
+    try {
+      writer.write(batch);
+    } catch (Exception e) {
+      SilverLogger.getLogger(this)
+          .error("Writing of {0} accesses into the history failed", new Object[]{batch.size()},
+              e);
+      if (segment == null) {
+        restore(batch);
+      }
+      return false;
+    }
+    if (segment != null) {
+      delete(segment);
+    }
+    return true;
+  }
+
+  private void restore(final List<HistoryObjectAccess> batch) {
+    lock.lock();
+    try {
+      final int nbRestored = Math.min(batch.size(), capacity - pending.size());
+      pending.addAll(0, batch.subList(0, nbRestored));
+      if (nbRestored < batch.size()) {
+        SilverLogger.getLogger(this)
+            .error("{0} accesses lost, the history buffer being full",
+                batch.size() - nbRestored);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean writeLeftSegments(final List<Path> failedSegments) {
+    boolean written = false;
+    for (Path segment : leftSegments.keySet()) {
+      try {
+        final List<HistoryObjectAccess> accesses = read(segment);
+        if (!accesses.isEmpty()) {
+          writer.write(accesses);
+          written = true;
+        }
+      } catch (Exception e) {
+        // only the first failure of a flush is logged, the next ones being likely of the same
+        // cause
+        if (failedSegments.isEmpty()) {
+          SilverLogger.getLogger(this)
+              .error("Writing of the accesses of {0} into the history failed",
+                  new Object[]{segment}, e);
+        } else {
+          SilverLogger.getLogger(this).silent(e);
+        }
+        failedSegments.add(segment);
+        continue;
+      }
+      leftSegments.remove(segment);
+      delete(segment);
+    }
+    return written;
+  }
+
+  private void countFailure(final Path segment) {
+    final int nbFailures = leftSegments.merge(segment, 1, Integer::sum);
+    if (nbFailures >= MAX_WRITE_FAILURES) {
+      leftSegments.remove(segment);
+      final Path quarantined = segment.resolveSibling(segment.getFileName() + QUARANTINE_SUFFIX);
+      try {
+        Files.move(segment, quarantined);
+        SilverLogger.getLogger(this)
+            .error("The accesses of {0} cannot be written into the history: put in quarantine " +
+                "as {1}", segment, quarantined);
+      } catch (IOException e) {
+        SilverLogger.getLogger(this).error(e);
+      }
+    }
+  }
+
+  private void delete(final Path segment) {
+    try {
+      Files.deleteIfExists(segment);
+    } catch (IOException e) {
+      SilverLogger.getLogger(this).error(e);
+    }
+  }
+
+  private boolean journalize(final HistoryObjectAccess access) {
+    if (journal == null) {
+      return true;
+    }
+    try {
+      journal.write(toLine(access));
+      journal.newLine();
+      journal.flush();
+      return true;
+    } catch (IOException e) {
+      SilverLogger.getLogger(this).error(e);
+      return false;
+    }
+  }
+
+  private Path rotateJournal() {
+    if (journal == null) {
+      return null;
+    }
+    try {
+      journal.close();
+      final Path segment = nextSegment();
+      Files.move(spillDir.resolve(JOURNAL), segment);
+      journal = openJournal();
+      return segment;
+    } catch (IOException e) {
+      SilverLogger.getLogger(this).error(e);
+      // the journal cannot be used anymore: the accesses are kept only in memory
+      journal = null;
+      return null;
+    }
+  }
+
+  private BufferedWriter openJournal() throws IOException {
+    return Files.newBufferedWriter(spillDir.resolve(JOURNAL), StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  private Path nextSegment() {
+    final String name = String.format("%s%019d-%09d%s", SEGMENT_PREFIX,
+        System.currentTimeMillis(), segmentSequence++, SEGMENT_SUFFIX);
+    return spillDir.resolve(name);
+  }
+
+  private static List<HistoryObjectAccess> read(final Path segment) throws IOException {
+    final List<HistoryObjectAccess> accesses = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+        // a truncated line is the one being written at a crash
+        if (fields.length == 6) {
+          accesses.add(new HistoryObjectAccess(new Date(Long.parseLong(fields[0])),
+              nullIfEmpty(fields[1]), new ResourceReference(fields[2], fields[3]),
+              Integer.parseInt(fields[4]), nullIfEmpty(fields[5])));
+        }
+      }
+    }
+    return accesses;
+  }
+
+  private static String toLine(final HistoryObjectAccess access) {
+    return String.valueOf(access.getDate().getTime()) + SEPARATOR +
+        clean(access.getUserId()) + SEPARATOR +
+        clean(access.getResourceReference().getId()) + SEPARATOR +
+        clean(access.getResourceReference().getInstanceId()) + SEPARATOR +
+        access.getActionType() + SEPARATOR +
+        clean(access.getObjectType());
+  }
+
+  private static String clean(final String value) {
+    return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+  }
+
+  private static String nullIfEmpty(final String value) {
+    return value.isEmpty() ? null : value;
+  }
+
+  /**
+   * Writer of the accesses into the persistence.
+   */
+  @FunctionalInterface
+  interface HistoryWriter {
+
+    /**
+     * Writes at once the given accesses.
+     * @param accesses the accesses to write.
+     * @throws Exception if the writing fails.
+     */
+    void write(final List<HistoryObjectAccess> accesses) throws Exception;
+  }
+}
@@ -36,6 +36,7 @@ import org.silverpeas.core.util.SilverpeasList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 /**
@@ -82,6 +83,18 @@ public interface StatisticService {
 
   int getCount(SilverpeasContent content);
 
+  /**
+   * Gets the number of accesses to each of the given resources. The counts are computed with
+   * grouped queries, so prefer this method to a call of {@link #getCount(ResourceReference,
+   * String)} per resource.
+   * @param resourceReferences the references of the resources.
+   * @param objectType String representation of an object type
+   * @return the number of accesses per resource reference. A resource without any access is
+   * mapped to 0.
+   */
+  Map<ResourceReference, Integer> getCountByResource(
+      Collection<ResourceReference> resourceReferences, String objectType);
+
   void moveStat(ResourceReference toResourceReference, int actionType, String objectType);
 
   /**
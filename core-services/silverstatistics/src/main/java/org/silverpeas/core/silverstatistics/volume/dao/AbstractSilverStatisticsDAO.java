@@ -36,6 +36,8 @@ import java.sql.Types;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Common functionalities for statistics DAO
@@ -60,6 +62,41 @@ public class AbstractSilverStatisticsDAO {
    */
   protected static void insertData(Connection con, String tableName, StatType type,
       List<String> valueKeys, StatisticsConfig conf) throws SQLException {
+    try (PreparedStatement prepStmt = con.prepareStatement(
+        computeInsertStatement(tableName, type, conf))) {
+      setInsertParameters(prepStmt, type, valueKeys, conf);
+      prepStmt.executeUpdate();
+    }
+  }
+
+  /**
+   * Inserts with one batch of statements the specified statistics data of the given type into
+   * the referred datasource.
+   *
+   * @param con           a connection with the datasource
+   * @param tableName     the table into which the data will be inserted
+   * @param type          the type of statistics
+   * @param valueKeysList the data to insert, one list of values per row
+   * @param conf          the statistics configuration.
+   * @throws SQLException if error occurs while inserting the data into the datasource
+   */
+  protected static void insertData(Connection con, String tableName, StatType type,
+      Collection<List<String>> valueKeysList, StatisticsConfig conf) throws SQLException {
+    if (valueKeysList.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement prepStmt = con.prepareStatement(
+        computeInsertStatement(tableName, type, conf))) {
+      for (List<String> valueKeys : valueKeysList) {
+        setInsertParameters(prepStmt, type, valueKeys, conf);
+        prepStmt.addBatch();
+      }
+      prepStmt.executeBatch();
+    }
+  }
+
+  private static String computeInsertStatement(String tableName, StatType type,
+      StatisticsConfig conf) {
     StringBuilder statementBuilder = new StringBuilder("INSERT INTO ");
     statementBuilder.append(tableName).append("(");
 
@@ -71,26 +108,26 @@ public class AbstractSilverStatisticsDAO {
     statementBuilder.append("VALUES(?");
     statementBuilder.append(",?".repeat(Math.max(0, conf.getNumberOfKeys(type) - 1)));
     statementBuilder.append(")");
-    String statement = statementBuilder.toString();
+    return statementBuilder.toString();
+  }
 
+  private static void setInsertParameters(PreparedStatement prepStmt, StatType type,
+      List<String> valueKeys, StatisticsConfig conf) throws SQLException {
     int i = 0;
-    try (PreparedStatement prepStmt = con.prepareStatement(statement)) {
-      for (String currentKey : theKeys) {
-        i++;
-        StatDataType currentType = StatDataType.valueOf(conf.getKeyType(type, currentKey));
-
-        String tmpString = valueKeys.get(i - 1);
-        if (currentType == StatDataType.DECIMAL) {
-          setDecimalStatementParam(prepStmt, i, tmpString, currentKey, type, conf);
-        }
-        if (currentType == StatDataType.INTEGER) {
-          setIntegerStatementParam(prepStmt, i, tmpString, currentKey, type, conf);
-        }
-        if (currentType == StatDataType.VARCHAR) {
-          setVarcharStatementParam(prepStmt, i, tmpString, currentKey);
-        }
+    for (String currentKey : conf.getAllKeys(type)) {
+      i++;
+      StatDataType currentType = StatDataType.valueOf(conf.getKeyType(type, currentKey));
+
+      String tmpString = valueKeys.get(i - 1);
+      if (currentType == StatDataType.DECIMAL) {
+        setDecimalStatementParam(prepStmt, i, tmpString, currentKey, type, conf);
+      }
+      if (currentType == StatDataType.INTEGER) {
+        setIntegerStatementParam(prepStmt, i, tmpString, currentKey, type, conf);
+      }
+      if (currentType == StatDataType.VARCHAR) {
+        setVarcharStatementParam(prepStmt, i, tmpString, currentKey);
       }
-      prepStmt.executeUpdate();
     }
   }
 
@@ -141,6 +178,131 @@ public class AbstractSilverStatisticsDAO {
     return new Statements(selectStatement, updateStatement, theKeys, stopputstat);
   }
 
+  /**
+   * Computes the statement to update in a batch the rows of the specified statistics: the
+   * cumulative keys are the first parameters of the statement, followed by the other keys which
+   * identify the row to update. As a null key can only be matched with {@code IS NULL}, the
+   * statement depends on the keys without value of the given statistic: it can be used in a
+   * batch only for the statistics whose the same keys are without value.
+   *
+   * @param tableName the table to update
+   * @param type      the type of statistics
+   * @param valueKeys the data of a statistic
+   * @param conf      the statistics configuration.
+   * @return the update statement.
+   */
+  protected static String computeBatchUpdateStatement(String tableName, StatType type,
+      List<String> valueKeys, StatisticsConfig conf) {
+    final List<String> theKeys = conf.getAllKeys(type);
+    final boolean isCumulTable = tableName.endsWith("Cumul");
+    final String setClause = theKeys.stream()
+        .filter(k -> conf.isCumulKey(type, k))
+        .map(k -> k + "=" + (isCumulTable ? "?" : k + "+?"))
+        .collect(Collectors.joining(", "));
+    return "UPDATE " + tableName + " SET " + setClause + " WHERE " +
+        computeRowWhereClause(type, valueKeys, conf);
+  }
+
+  /**
+   * Computes the statement counting the rows of the specified statistics: the keys which
+   * identify the row are the parameters of the statement, in the same order as in the where
+   * clause of the statement computed by
+   * {@link #computeBatchUpdateStatement(String, StatType, List, StatisticsConfig)}.
+   *
+   * @param tableName the table to look into
+   * @param type      the type of statistics
+   * @param valueKeys the data of a statistic
+   * @param conf      the statistics configuration.
+   * @return the count statement.
+   */
+  protected static String computeRowCountStatement(String tableName, StatType type,
+      List<String> valueKeys, StatisticsConfig conf) {
+    return "SELECT COUNT(*) FROM " + tableName + " WHERE " +
+        computeRowWhereClause(type, valueKeys, conf);
+  }
+
+  private static String computeRowWhereClause(StatType type, List<String> valueKeys,
+      StatisticsConfig conf) {
+    final List<String> theKeys = conf.getAllKeys(type);
+    return IntStream.range(0, theKeys.size())
+        .filter(k -> !conf.isCumulKey(type, theKeys.get(k)))
+        .mapToObj(k -> theKeys.get(k) +
+            (isNullRowKey(theKeys.get(k), valueKeys.get(k)) ? " IS NULL" : "=?"))
+        .collect(Collectors.joining(" AND "));
+  }
+
+  private static boolean isNullRowKey(String keyName, String value) {
+    return !"dateStat".equals(keyName) && !StringUtil.isDefined(value);
+  }
+
+  /**
+   * Sets the parameters identifying the row to update in a statement computed by
+   * {@link #computeBatchUpdateStatement(String, StatType, List, StatisticsConfig)} or to count in
+   * a statement computed by
+   * {@link #computeRowCountStatement(String, StatType, List, StatisticsConfig)}. The keys without
+   * value are matched in the statement with {@code IS NULL} and then aren't parameters.
+   *
+   * @param pstmt      the update statement
+   * @param firstIndex the index of the first parameter of the where clause
+   * @param type       the type of statistics
+   * @param valueKeys  the data of the statistics
+   * @param conf       the statistics configuration.
+   * @throws SQLException if error occurs while setting the parameters.
+   */
+  protected static void setBatchUpdateWhereParameters(PreparedStatement pstmt, int firstIndex,
+      StatType type, List<String> valueKeys, StatisticsConfig conf) throws SQLException {
+    int paramIndex = firstIndex;
+    int k = -1;
+    for (String keyNameCurrent : conf.getAllKeys(type)) {
+      k++;
+      if (conf.isCumulKey(type, keyNameCurrent)) {
+        continue;
+      }
+      final String value = valueKeys.get(k);
+      if (isNullRowKey(keyNameCurrent, value)) {
+        continue;
+      }
+      final StatDataType currentType =
+          StatDataType.valueOf(conf.getKeyType(type, keyNameCurrent));
+      if ("dateStat".equals(keyNameCurrent)) {
+        pstmt.setString(paramIndex, value.substring(0, 8) + "01");
+      } else if (currentType == StatDataType.INTEGER) {
+        pstmt.setInt(paramIndex, Integer.parseInt(value));
+      } else if (currentType == StatDataType.DECIMAL) {
+        pstmt.setLong(paramIndex, Long.parseLong(value));
+      } else {
+        pstmt.setString(paramIndex, value);
+      }
+      paramIndex++;
+    }
+  }
+
+  /**
+   * Are the keys identifying the row of the specified statistics well formed?
+   *
+   * @param type      the type of statistics
+   * @param valueKeys the data of the statistics
+   * @param conf      the statistics configuration.
+   * @return true if the numeric keys other than the cumulative ones are numbers, false otherwise.
+   */
+  protected static boolean areValidRowKeys(StatType type, List<String> valueKeys,
+      StatisticsConfig conf) {
+    int k = -1;
+    for (String keyNameCurrent : conf.getAllKeys(type)) {
+      k++;
+      if (conf.isCumulKey(type, keyNameCurrent)) {
+        continue;
+      }
+      final StatDataType currentType =
+          StatDataType.valueOf(conf.getKeyType(type, keyNameCurrent));
+      if ((currentType == StatDataType.DECIMAL && !StringUtil.isLong(valueKeys.get(k))) ||
+          (currentType == StatDataType.INTEGER && !StringUtil.isInteger(valueKeys.get(k)))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private static void prepareStatementHeader(StringBuilder selectStatement,
       StringBuilder updateStatement, String tableName, Iterator<String> iteratorKeys, StatType type,
       StatisticsConfig conf) {
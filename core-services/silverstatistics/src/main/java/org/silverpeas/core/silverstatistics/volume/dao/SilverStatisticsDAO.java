@@ -28,7 +28,13 @@ import org.silverpeas.core.silverstatistics.volume.model.StatisticsConfig;
 import org.silverpeas.kernel.util.StringUtil;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This is the feeding statistics DAO Object
@@ -96,6 +102,101 @@ public class SilverStatisticsDAO extends AbstractSilverStatisticsDAO {
     }
   }
 
+  /**
+   * Adds the specified statistics to the statistic table defined inside conf parameter with
+   * batches of statements: the rows matching the statistics are first updated at once, per set
+   * of keys without value, and the statistics without any matching row are then inserted at
+   * once. If the JDBC driver doesn't
+   * report the number of updated rows, the existence of the row of each statistic is then
+   * checked. Statistics whose the keys are malformed are ignored.
+   *
+   * @param con           the database connection
+   * @param type          the statistic type
+   * @param valueKeysList the statistics to add, each of them as a list of values
+   * @param conf          the statistics configuration
+   * @throws SQLException if error occurs with the datasource
+   */
+  public static void putDataStats(Connection con, StatType type,
+      Collection<List<String>> valueKeysList, StatisticsConfig conf) throws SQLException {
+    final List<List<String>> stats = valueKeysList.stream()
+        .filter(v -> areValidRowKeys(type, v, conf))
+        .collect(Collectors.toList());
+    if (stats.isEmpty()) {
+      return;
+    }
+    final String tableName = conf.getTableName(type);
+    final List<String> theKeys = conf.getAllKeys(type);
+    final int nbCumulKeys = (int) theKeys.stream().filter(k -> conf.isCumulKey(type, k)).count();
+    final List<List<String>> statsToInsert = new ArrayList<>();
+    final List<List<String>> statsToCheck = new ArrayList<>();
+    final Map<String, List<List<String>>> statsByUpdate =
+        groupByStatement(stats, v -> computeBatchUpdateStatement(tableName, type, v, conf));
+    for (Map.Entry<String, List<List<String>>> batch : statsByUpdate.entrySet()) {
+      final List<List<String>> batchStats = batch.getValue();
+      final int[] updateCounts;
+      try (PreparedStatement pstmt = con.prepareStatement(batch.getKey())) {
+        for (List<String> valueKeys : batchStats) {
+          initUpdateStatement(pstmt, theKeys, valueKeys, type, conf);
+          setBatchUpdateWhereParameters(pstmt, nbCumulKeys + 1, type, valueKeys, conf);
+          pstmt.addBatch();
+        }
+        updateCounts = pstmt.executeBatch();
+      }
+      for (int i = 0; i < updateCounts.length; i++) {
+        if (updateCounts[i] == 0) {
+          statsToInsert.add(batchStats.get(i));
+        } else if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+          statsToCheck.add(batchStats.get(i));
+        }
+      }
+    }
+    statsToInsert.addAll(getStatsWithoutRow(con, tableName, type, statsToCheck, conf));
+    insertData(con, tableName, type, statsToInsert, conf);
+  }
+
+  /**
+   * Groups the specified statistics by the statement computed for each of them, in the order of
+   * the statistics.
+   */
+  private static Map<String, List<List<String>>> groupByStatement(List<List<String>> stats,
+      Function<List<String>, String> statement) {
+    final Map<String, List<List<String>>> statsByStatement = new LinkedHashMap<>();
+    for (List<String> valueKeys : stats) {
+      statsByStatement.computeIfAbsent(statement.apply(valueKeys), s -> new ArrayList<>())
+          .add(valueKeys);
+    }
+    return statsByStatement;
+  }
+
+  /**
+   * Gets among the specified statistics those without any row in the given table. It is used
+   * when the JDBC driver doesn't report the number of rows updated by each statement of a batch:
+   * as the rows are looked for once updated, a statistic with a row is a statistic whose the
+   * row was updated.
+   */
+  private static List<List<String>> getStatsWithoutRow(Connection con, String tableName,
+      StatType type, List<List<String>> stats, StatisticsConfig conf) throws SQLException {
+    final List<List<String>> statsWithoutRow = new ArrayList<>();
+    if (stats.isEmpty()) {
+      return statsWithoutRow;
+    }
+    final Map<String, List<List<String>>> statsByCount =
+        groupByStatement(stats, v -> computeRowCountStatement(tableName, type, v, conf));
+    for (Map.Entry<String, List<List<String>>> count : statsByCount.entrySet()) {
+      try (PreparedStatement pstmt = con.prepareStatement(count.getKey())) {
+        for (List<String> valueKeys : count.getValue()) {
+          setBatchUpdateWhereParameters(pstmt, 1, type, valueKeys, conf);
+          try (ResultSet rs = pstmt.executeQuery()) {
+            if (!rs.next() || rs.getInt(1) == 0) {
+              statsWithoutRow.add(valueKeys);
+            }
+          }
+        }
+      }
+    }
+    return statsWithoutRow;
+  }
+
   private static void initUpdateStatement(PreparedStatement pstmt, List<String> theKeys, List<String> valueKeys,
                                           StatType type, StatisticsConfig conf) throws SQLException {
     int countCumulKey = 0;
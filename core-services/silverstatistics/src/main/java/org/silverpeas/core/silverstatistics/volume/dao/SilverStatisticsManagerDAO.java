@@ -27,9 +27,9 @@ import org.silverpeas.core.persistence.jdbc.DBUtil;
 import org.silverpeas.core.silverstatistics.volume.model.*;
 import org.silverpeas.kernel.logging.SilverLogger;
 
-import javax.annotation.Nonnull;
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * This is the DAO Object for purge, agregat on the month
@@ -134,64 +134,64 @@ public class SilverStatisticsManagerDAO extends AbstractSilverStatisticsDAO {
   }
 
   /**
+   * Cumulates the statistics of the day into the cumulative table of the given statistic type
+   * with two set-based statements: the cumulative rows matching some statistics of the day are
+   * updated from the sums of these statistics (or their maximum in {@link StatisticMode#Replace}
+   * mode), then the statistics of the day without any cumulative row are inserted as grouped
+   * sums.
+   *
    * @param con       the database connection
    * @param statsType the statistic type
    * @param conf      statistic database configuration
    */
   public static void makeStatCumul(Connection con, StatType statsType, StatisticsConfig conf) {
-    String keyNameCurrent;
-    String selectStatement = "SELECT * FROM " + conf.getTableName(statsType);
-    try (Statement stmt = con.createStatement();
-         ResultSet rs = stmt.executeQuery(selectStatement)) {
-      Collection<String> theKeys = conf.getAllKeys(statsType);
-      while (rs.next()) {
-        List<String> valueKeys = new ArrayList<>();
-
-        for (String theKey : theKeys) {
-          keyNameCurrent = theKey;
-          StatDataType currentType =
-              StatDataType.valueOf(conf.getKeyType(statsType, keyNameCurrent));
-          final String addToValueKeys = getValueKey(rs, keyNameCurrent, currentType);
-          valueKeys.add(addToValueKeys);
-        }
-        putDataStatsCumul(con, statsType, valueKeys, conf);
+    final String tableName = conf.getTableName(statsType);
+    final String cumulTableName = tableName + CUMUL;
+    final List<String> rowKeys = new ArrayList<>();
+    final List<String> cumulKeys = new ArrayList<>();
+    for (String key : conf.getAllKeys(statsType)) {
+      if (conf.isCumulKey(statsType, key)) {
+        cumulKeys.add(key);
+      } else {
+        rowKeys.add(key);
       }
+    }
+    final boolean isReplaceMode = conf.getModeCumul(statsType) == StatisticMode.Replace;
+    final String aggregate = isReplaceMode ? "MAX" : "SUM";
+    // the keys are compared in a null-safe way as the rows with a null key are grouped together
+    final String dayRowMatchesCumulRow = rowKeys.stream()
+        .map(k -> nullSafeEquals("d." + k, cumulTableName + "." + k))
+        .collect(Collectors.joining(" AND "));
+
+    final StringBuilder updateStatement = new StringBuilder("UPDATE ").append(cumulTableName)
+        .append(" SET ");
+    updateStatement.append(cumulKeys.stream()
+        .map(k -> k + " = " + (isReplaceMode ? "" : k + " + ") + "(SELECT " + aggregate + "(d." +
+            k + ") FROM " + tableName + " d WHERE " + dayRowMatchesCumulRow + ")")
+        .collect(Collectors.joining(", ")));
+    updateStatement.append(" WHERE EXISTS (SELECT 1 FROM ").append(tableName).append(" d WHERE ")
+        .append(dayRowMatchesCumulRow).append(")");
+
+    final String columns = String.join(", ", rowKeys) + ", " + String.join(", ", cumulKeys);
+    final String insertStatement = "INSERT INTO " + cumulTableName + " (" + columns + ") " +
+        "SELECT " + rowKeys.stream().map(k -> "d." + k).collect(Collectors.joining(", ")) +
+        ", " + cumulKeys.stream().map(k -> aggregate + "(d." + k + ")")
+        .collect(Collectors.joining(", ")) +
+        " FROM " + tableName + " d WHERE NOT EXISTS (SELECT 1 FROM " + cumulTableName +
+        " WHERE " + dayRowMatchesCumulRow + ")" +
+        " GROUP BY " + rowKeys.stream().map(k -> "d." + k).collect(Collectors.joining(", "));
+
+    try (Statement stmt = con.createStatement()) {
+      stmt.executeUpdate(updateStatement.toString());
+      stmt.executeUpdate(insertStatement);
     } catch (SQLException e) {
       SilverLogger.getLogger(SilverStatisticsManagerDAO.class)
           .error("Error while making stat cummul", e);
     }
   }
 
-  @Nonnull
-  private static String getValueKey(final ResultSet rs, final String keyNameCurrent,
-                                    final StatDataType currentType) throws SQLException {
-    final String valueKey;
-    switch (currentType) {
-      case INTEGER:
-        int tmpInt = rs.getInt(keyNameCurrent);
-        if (rs.wasNull()) {
-          valueKey = "";
-        } else {
-          valueKey = String.valueOf(tmpInt);
-        }
-        break;
-      case DECIMAL:
-        long longValue = rs.getLong(keyNameCurrent);
-        if (rs.wasNull()) {
-          valueKey = "";
-        } else {
-          valueKey = String.valueOf(longValue);
-        }
-        break;
-      case VARCHAR:
-        String value = rs.getString(keyNameCurrent);
-        valueKey = Objects.requireNonNullElse(value, "");
-        break;
-      default:
-        valueKey = "";
-        break;
-    }
-    return valueKey;
+  private static String nullSafeEquals(final String left, final String right) {
+    return "(" + left + " = " + right + " OR (" + left + " IS NULL AND " + right + " IS NULL))";
   }
 
   static void deleteTablesOfTheDay(Connection con, StatType statsType, StatisticsConfig conf) {
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.volume.dao;
+
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
+import org.silverpeas.core.silverstatistics.volume.model.UserIdCountVolumeCouple;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO of the checkpoints of the volume statistics. The checkpoint of a component instance is the
+ * date at which its volume was last counted, and it comes with the snapshot of the volume per
+ * user computed at that date. Both of them allow the volume alimentation to recount only the
+ * component instances modified since their checkpoint. Only the component instances whose the
+ * statistics provider tracks the modifications have a checkpoint.
+ */
+public class VolumeCheckpointDAO {
+
+  private static final String CHECKPOINT_TABLE_NAME = "SB_Stat_VolumeCheckpoint";
+  private static final String SNAPSHOT_TABLE_NAME = "SB_Stat_VolumeSnapshot";
+  private static final String COMPONENT_ID = "componentId";
+
+  private static final String QUERY_SNAPSHOT_INSERT = "INSERT INTO SB_Stat_VolumeSnapshot " +
+      "(componentId, userId, countVolume) VALUES (?, ?, ?)";
+
+  private VolumeCheckpointDAO() {
+  }
+
+  /**
+   * Gets the checkpoints of all the component instances whose the volume was already counted.
+   * @param con the database connection.
+   * @return the date of the last count per component instance identifier.
+   * @throws SQLException on technical error with database.
+   */
+  public static Map<String, Date> getCheckpoints(Connection con) throws SQLException {
+    final Map<String, Date> checkpoints = new HashMap<>();
+    JdbcSqlQuery.select("componentId, lastCount")
+        .from(CHECKPOINT_TABLE_NAME)
+        .executeWith(con, r -> {
+          checkpoints.put(r.getString(1), new Date(r.getTimestamp(2).getTime()));
+          return null;
+        });
+    return checkpoints;
+  }
+
+  /**
+   * Gets the volume per user of the given component instance as it was computed at its last
+   * checkpoint.
+   * @param con the database connection.
+   * @param componentId the identifier of a component instance.
+   * @return a list of {@link UserIdCountVolumeCouple}, one per user.
+   * @throws SQLException on technical error with database.
+   */
+  public static List<UserIdCountVolumeCouple> getSnapshot(Connection con, String componentId)
+      throws SQLException {
+    return JdbcSqlQuery.select("userId, countVolume")
+        .from(SNAPSHOT_TABLE_NAME)
+        .where("componentId = ?", componentId)
+        .executeWith(con, r -> {
+          final UserIdCountVolumeCouple couple = new UserIdCountVolumeCouple();
+          couple.setUserId(String.valueOf(r.getInt(1)));
+          couple.setCountVolume(r.getLong(2));
+          return couple;
+        });
+  }
+
+  /**
+   * Replaces the checkpoint and the snapshot of the given component instance.
+   * @param con the database connection.
+   * @param componentId the identifier of a component instance.
+   * @param lastCount the date at which the volume was counted.
+   * @param volumes the volume per user of the component instance. A user must appear only once.
+   * @throws SQLException on technical error with database.
+   */
+  public static void saveCheckpoint(Connection con, String componentId, Date lastCount,
+      Collection<UserIdCountVolumeCouple> volumes) throws SQLException {
+    delete(con, componentId);
+    JdbcSqlQuery.insertInto(CHECKPOINT_TABLE_NAME)
+        .withInsertParam(COMPONENT_ID, componentId)
+        .withInsertParam("lastCount", new Timestamp(lastCount.getTime()))
+        .executeWith(con);
+    if (volumes.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement prepStmt = con.prepareStatement(QUERY_SNAPSHOT_INSERT)) {
+      for (UserIdCountVolumeCouple volume : volumes) {
+        prepStmt.setString(1, componentId);
+        prepStmt.setInt(2, Integer.parseInt(volume.getUserId()));
+        prepStmt.setLong(3, volume.getCountVolume());
+        prepStmt.addBatch();
+      }
+      prepStmt.executeBatch();
+    }
+  }
+
+  /**
+   * Deletes the checkpoint and the snapshot of the given component instance.
+   * @param con the database connection.
+   * @param componentId the identifier of a component instance.
+   * @throws SQLException on technical error with database.
+   */
+  public static void delete(Connection con, String componentId) throws SQLException {
+    JdbcSqlQuery.deleteFrom(SNAPSHOT_TABLE_NAME)
+        .where("componentId = ?", componentId)
+        .executeWith(con);
+    JdbcSqlQuery.deleteFrom(CHECKPOINT_TABLE_NAME)
+        .where("componentId = ?", componentId)
+        .executeWith(con);
+  }
+}
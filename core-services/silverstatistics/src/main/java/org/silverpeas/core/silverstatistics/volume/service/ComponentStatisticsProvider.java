@@ -30,6 +30,7 @@ import org.silverpeas.core.util.ServiceProvider;
 import org.silverpeas.kernel.logging.SilverLogger;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.Optional;
 
 /**
@@ -77,6 +78,41 @@ public interface ComponentStatisticsProvider {
   Collection<UserIdCountVolumeCouple> getVolume(String spaceId, String componentId)
       throws SilverpeasException;
 
+  /**
+   * Does this provider track the modifications of the component instances, so that
+   * {@link #isModifiedSince(String, Date)} can be used to avoid recounting an unchanged
+   * component instance? The volume alimentation keeps the volume counted for a component
+   * instance only when its provider tracks the modifications.
+   * <p>
+   * By default, the modifications aren't tracked. A provider overriding
+   * {@link #isModifiedSince(String, Date)} MUST override this method to return true.
+   * </p>
+   * @return true if the modifications of the component instances are tracked, false otherwise.
+   */
+  default boolean isModificationTracked() {
+    return false;
+  }
+
+  /**
+   * Is the volume of the given component instance modified since the given date? When the
+   * modifications are tracked, the volume alimentation invokes this method to know whether the
+   * component instance has to be recounted with {@link #getVolume(String, String)} or whether the
+   * volume counted at the given date is still valid.
+   * <p>
+   * By default, the component instance is always considered as modified. A provider able to
+   * detect cheaply the contributions created, modified or deleted since a date SHOULD override
+   * this method, as well as {@link #isModificationTracked()}.
+   * </p>
+   * @param componentId the identifier of the current looked component instance.
+   * @param date the date at which the volume of the component instance was last counted.
+   * @return true if some contributions were created, modified or deleted since the given date,
+   * false otherwise.
+   * @throws SilverpeasException on technical error.
+   */
+  default boolean isModifiedSince(String componentId, Date date) throws SilverpeasException {
+    return true;
+  }
+
   /**
    * Gets the memory size of documents of the application instance by taking into account only
    * the specific files handled by the application.
@@ -30,29 +30,34 @@ import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 
 /**
- * Compute the size in terms of number of files.
+ * Compute both the total size and the number of files of a directory in one walk.
  */
-public class FileNumberComputer extends AbstractComputer {
+public class DirectoryStatsComputer extends AbstractComputer {
 
+  private long size = 0L;
   private long count = 0L;
 
-  FileNumberComputer(File directory, final boolean onlyComponentData) {
+  DirectoryStatsComputer(File directory, final boolean onlyComponentData) {
     super(directory, onlyComponentData);
   }
 
   @Override
   protected void handleTransverseFile(final Path file, final BasicFileAttributes attrs) {
+    size += attrs.size();
     count++;
   }
 
   @Override
   protected void setTransverseResult(final DirectoryStats result) {
+    result.addDirectorySize(size);
     result.addFileNumber(count);
   }
 
   @Override
   protected void setSpecificResult(final DirectoryStats result,
       final ComponentStatisticsProvider componentStatistics) {
+    result
+        .addDirectorySize(componentStatistics.memorySizeOfSpecificFiles(result.getDirectoryName()));
     result.addFileNumber(componentStatistics.countSpecificFiles(result.getDirectoryName()));
   }
 }
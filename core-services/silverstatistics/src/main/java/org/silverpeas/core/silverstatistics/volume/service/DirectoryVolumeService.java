@@ -28,6 +28,7 @@ import org.apache.commons.io.filefilter.DirectoryFileFilter;
 import org.apache.commons.io.filefilter.NameFileFilter;
 import org.silverpeas.core.admin.service.OrganizationController;
 import org.silverpeas.core.silverstatistics.volume.model.DirectoryStats;
+import org.silverpeas.core.thread.ManagedThreadPool;
 import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.core.util.file.FileRepositoryManager;
 
@@ -35,15 +36,16 @@ import java.io.File;
 import java.io.FileFilter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
+import static org.silverpeas.core.thread.ManagedThreadPool.ExecutionConfig.maxThreadPoolSizeOf;
+
 /**
  * Compute the size in terms of number of files and total size of all the components available for a
  * specified user.
@@ -72,67 +74,75 @@ public class DirectoryVolumeService {
     return result;
   }
 
-  private List<FileNumberComputer> buildFileNumberScanners(File dataDirectory, String userId) {
-    File[] files = listDirectoriesToScan(dataDirectory, userId);
-    List<FileNumberComputer> result = new ArrayList<>(files.length);
-    for (File componentDir : files) {
-      result.add(new FileNumberComputer(componentDir, onlyComponentData));
-    }
-    return result;
-  }
-
   long getTotalSize() throws InterruptedException, ExecutionException {
     List<DirectorySizeComputer> scanners = buildSizeScanners(workspace, null);
     long totalSize = 0L;
-    ExecutorService executor = Executors.newFixedThreadPool(getNumberOfThread());
-    List<Future<DirectoryStats>> result = executor.invokeAll(scanners);
-    try {
-      for (Future<DirectoryStats> future : result) {
-        DirectoryStats stats = future.get();
-        totalSize = totalSize + stats.getDirectorySize();
-      }
-    } finally {
-      executor.shutdown();
+    List<Future<DirectoryStats>> result = ManagedThreadPool.getPool()
+        .invoke(scanners, maxThreadPoolSizeOf(getNumberOfThread()));
+    for (Future<DirectoryStats> future : result) {
+      DirectoryStats stats = future.get();
+      totalSize = totalSize + stats.getDirectorySize();
     }
     return totalSize;
   }
 
+  /**
+   * Gets the size of the data directory of each component instance available for the given
+   * user. The sizes are the ones kept by the {@link DirectoryVolumeTracker}.
+   * @param userId the identifier of a user.
+   * @return for each component instance identifier, an array with the size as first element.
+   * @throws InterruptedException if the computing of the sizes is interrupted.
+   * @throws ExecutionException if the computing of a size fails.
+   */
   public Map<String, String[]> getSizeVentilation(String userId) throws
       InterruptedException, ExecutionException {
-    List<DirectorySizeComputer> scanners = buildSizeScanners(workspace, userId);
-    Map<String, String[]> volume = new HashMap<>(scanners.size());
-    ExecutorService executor = Executors.newFixedThreadPool(getNumberOfThread());
-    List<Future<DirectoryStats>> result = executor.invokeAll(scanners);
-    try {
-      for (Future<DirectoryStats> future : result) {
-        DirectoryStats stats = future.get();
-        volume.put(stats.getDirectoryName(), new String[]{String.valueOf(stats.getDirectorySize()),
-          null, null});
-      }
-    } finally {
-      executor.shutdown();
+    Collection<DirectoryStats> stats = getComponentStats(userId);
+    Map<String, String[]> volume = new HashMap<>(stats.size());
+    for (DirectoryStats componentStats : stats) {
+      volume.put(componentStats.getDirectoryName(),
+          new String[]{String.valueOf(componentStats.getDirectorySize()), null, null});
     }
     return volume;
   }
 
+  /**
+   * Gets the number of files in the data directory of each component instance available for the
+   * given user. The numbers are the ones kept by the {@link DirectoryVolumeTracker}.
+   * @param userId the identifier of a user.
+   * @return for each component instance identifier, an array with the number of files as first
+   * element.
+   * @throws InterruptedException if the counting of the files is interrupted.
+   * @throws ExecutionException if the counting of the files of a directory fails.
+   */
   public Map<String, String[]> getFileNumberVentilation(String userId) throws
       InterruptedException, ExecutionException {
-    List<FileNumberComputer> scanners = buildFileNumberScanners(workspace, userId);
-    Map<String, String[]> volume = new HashMap<>(scanners.size());
-    ExecutorService executor = Executors.newFixedThreadPool(getNumberOfThread());
-    List<Future<DirectoryStats>> result = executor.invokeAll(scanners);
-    try {
-      for (Future<DirectoryStats> future : result) {
-        DirectoryStats stats = future.get();
-        volume.put(stats.getDirectoryName(), new String[]{String.valueOf(stats.getNumberOfFiles()),
-          null, null});
-      }
-    } finally {
-      executor.shutdown();
+    Collection<DirectoryStats> stats = getComponentStats(userId);
+    Map<String, String[]> volume = new HashMap<>(stats.size());
+    for (DirectoryStats componentStats : stats) {
+      volume.put(componentStats.getDirectoryName(),
+          new String[]{String.valueOf(componentStats.getNumberOfFiles()), null, null});
     }
     return volume;
   }
 
+  private Collection<DirectoryStats> getComponentStats(String userId)
+      throws InterruptedException, ExecutionException {
+    File[] files = listDirectoriesToScan(workspace, userId);
+    if (onlyComponentData) {
+      return DirectoryVolumeTracker.get().getStats(files).values();
+    }
+    List<DirectoryStatsComputer> scanners = new ArrayList<>(files.length);
+    for (File componentDir : files) {
+      scanners.add(new DirectoryStatsComputer(componentDir, false));
+    }
+    List<DirectoryStats> stats = new ArrayList<>(scanners.size());
+    for (Future<DirectoryStats> future : ManagedThreadPool.getPool()
+        .invoke(scanners, maxThreadPoolSizeOf(getNumberOfThread()))) {
+      stats.add(future.get());
+    }
+    return stats;
+  }
+
   private File[] listDirectoriesToScan(File dataDirectory, String userId) {
     final OrganizationController controller = OrganizationController.get();
     final FileFilter filter;
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.volume.service;
+
+import org.apache.commons.io.filefilter.DirectoryFileFilter;
+import org.silverpeas.core.annotation.Service;
+import org.silverpeas.core.initialization.Initialization;
+import org.silverpeas.core.scheduler.Job;
+import org.silverpeas.core.scheduler.JobExecutionContext;
+import org.silverpeas.core.scheduler.Scheduler;
+import org.silverpeas.core.scheduler.SchedulerProvider;
+import org.silverpeas.core.scheduler.trigger.JobTrigger;
+import org.silverpeas.core.scheduler.trigger.TimeUnit;
+import org.silverpeas.core.silverstatistics.volume.model.DirectoryStats;
+import org.silverpeas.core.thread.ManagedThreadPool;
+import org.silverpeas.core.util.ServiceProvider;
+import org.silverpeas.core.util.file.FileRepositoryManager;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import javax.inject.Singleton;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.silverpeas.core.thread.ManagedThreadPool.ExecutionConfig.maxThreadPoolSizeOf;
+import static org.silverpeas.kernel.util.StringUtil.isDefined;
+
+/**
+ * Keeps the size and the number of files of the data directory of each component instance so
+ * that they are not computed again each time the volume statistics are looked at.
+ * <p>
+ * The stats of all the component instances are computed in background at startup; only the ones
+ * of a component instance created since are computed at their first request. They are then
+ * computed again only once the component instance is marked as modified, which is done on each
+ * creation, update, move or deletion of an attachment: the modified component instances are
+ * refreshed in background every {@code volume.directory.refresh.delay} seconds and as soon as
+ * their stats are requested, the last computed stats being served meanwhile. As the specific
+ * files of the applications aren't notified, all the stats are also reconciled with the data
+ * directory according to the cron of the {@code volume.directory.reconciliation.cron} property.
+ * </p>
+ */
+@Service
+@Singleton
+public class DirectoryVolumeTracker implements Initialization {
+
+  private static final String REFRESH_JOB_NAME = "DirectoryVolumeRefreshJob";
+  private static final String RECONCILIATION_JOB_NAME = "DirectoryVolumeReconciliationJob";
+
+  private final Map<String, DirectoryStats> statsByComponent = new ConcurrentHashMap<>();
+  private final Set<String> modifiedComponents = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+  public static DirectoryVolumeTracker get() {
+    return ServiceProvider.getService(DirectoryVolumeTracker.class);
+  }
+
+  @Override
+  public void init() throws Exception {
+    final SettingBundle settings =
+        ResourceLocator.getSettingBundle("org.silverpeas.silverstatistics.SilverStatistics");
+    final Scheduler scheduler = SchedulerProvider.getVolatileScheduler();
+    scheduler.unscheduleJob(REFRESH_JOB_NAME);
+    scheduler.scheduleJob(new Job(REFRESH_JOB_NAME) {
+      @Override
+      public void execute(final JobExecutionContext context) {
+        refresh();
+      }
+    }, JobTrigger.triggerEvery(settings.getInteger("volume.directory.refresh.delay", 60),
+        TimeUnit.SECOND));
+    final String cron = settings.getString("volume.directory.reconciliation.cron", "");
+    scheduler.unscheduleJob(RECONCILIATION_JOB_NAME);
+    if (isDefined(cron)) {
+      scheduler.scheduleJob(new Job(RECONCILIATION_JOB_NAME) {
+        @Override
+        public void execute(final JobExecutionContext context) {
+          reconcile();
+        }
+      }, JobTrigger.triggerAt(cron));
+    }
+    // warms the cache so that the first requests don't walk the whole data directory
+    ManagedThreadPool.getPool().invoke(this::reconcile);
+  }
+
+  /**
+   * Marks the data of the given component instance as modified. Its stats will be computed again
+   * at the next refresh.
+   * @param componentId the identifier of a component instance.
+   */
+  public void setModified(final String componentId) {
+    if (isDefined(componentId)) {
+      modifiedComponents.add(componentId);
+    }
+  }
+
+  /**
+   * Gets the stats of the given data directories of component instances. Only the stats never
+   * computed are computed here, in parallel. For the component instances modified since their
+   * last computing, the last computed stats are got and a refresh is started in background.
+   * @param componentDirectories the data directories of some component instances.
+   * @return the stats of the directories indexed by their name.
+   * @throws InterruptedException if the computing is interrupted.
+   * @throws ExecutionException if the computing of the stats of a directory fails.
+   */
+  public Map<String, DirectoryStats> getStats(final File[] componentDirectories)
+      throws InterruptedException, ExecutionException {
+    final Map<String, DirectoryStats> stats = new HashMap<>(componentDirectories.length);
+    final List<File> directoriesToCompute = new ArrayList<>();
+    boolean outdated = false;
+    for (File directory : componentDirectories) {
+      final String componentId = directory.getName();
+      final DirectoryStats componentStats = statsByComponent.get(componentId);
+      if (componentStats != null) {
+        stats.put(componentId, componentStats);
+        outdated |= modifiedComponents.contains(componentId);
+      } else {
+        directoriesToCompute.add(directory);
+      }
+    }
+    for (DirectoryStats componentStats : compute(directoriesToCompute)) {
+      stats.put(componentStats.getDirectoryName(), componentStats);
+    }
+    if (outdated) {
+      refreshInBackground();
+    }
+    return stats;
+  }
+
+  /**
+   * Starts in background the refresh of the stats of the modified component instances, unless
+   * such a refresh is already running.
+   */
+  void refreshInBackground() {
+    if (refreshing.compareAndSet(false, true)) {
+      ManagedThreadPool.getPool().invoke(() -> {
+        try {
+          refresh();
+        } finally {
+          refreshing.set(false);
+        }
+      });
+    }
+  }
+
+  /**
+   * Computes again the stats of the component instances modified since their last computing.
+   */
+  void refresh() {
+    final List<File> directoriesToCompute = new ArrayList<>(modifiedComponents.size());
+    for (String componentId : modifiedComponents) {
+      final File directory = new File(FileRepositoryManager.getUploadPath(), componentId);
+      if (directory.isDirectory()) {
+        directoriesToCompute.add(directory);
+      } else {
+        modifiedComponents.remove(componentId);
+        statsByComponent.remove(componentId);
+      }
+    }
+    try {
+      compute(directoriesToCompute);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      SilverLogger.getLogger(this).error(e);
+    } catch (ExecutionException e) {
+      SilverLogger.getLogger(this).error(e.getCause());
+    }
+  }
+
+  /**
+   * Computes again the stats of all the data directories of component instances, whether they
+   * are marked as modified or not, and forgets the ones of the directories that no longer exist.
+   */
+  void reconcile() {
+    final File[] directories =
+        new File(FileRepositoryManager.getUploadPath()).listFiles(DirectoryFileFilter.DIRECTORY);
+    if (directories == null) {
+      return;
+    }
+    try {
+      final Set<String> componentIds = new HashSet<>(directories.length);
+      compute(List.of(directories)).forEach(s -> componentIds.add(s.getDirectoryName()));
+      statsByComponent.keySet().retainAll(componentIds);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      SilverLogger.getLogger(this).error(e);
+    } catch (ExecutionException e) {
+      SilverLogger.getLogger(this).error(e.getCause());
+    }
+  }
+
+  private List<DirectoryStats> compute(final List<File> directories)
+      throws InterruptedException, ExecutionException {
+    if (directories.isEmpty()) {
+      return List.of();
+    }
+    final List<DirectoryStatsComputer> computers = new ArrayList<>(directories.size());
+    for (File directory : directories) {
+      // unmarked before the computing so that a modification occurring meanwhile isn't lost
+      modifiedComponents.remove(directory.getName());
+      computers.add(new DirectoryStatsComputer(directory, true));
+    }
+    final List<Future<DirectoryStats>> futures = ManagedThreadPool.getPool()
+        .invoke(computers, maxThreadPoolSizeOf(Runtime.getRuntime().availableProcessors()));
+    final List<DirectoryStats> stats = new ArrayList<>(futures.size());
+    for (Future<DirectoryStats> future : futures) {
+      final DirectoryStats componentStats = future.get();
+      statsByComponent.put(componentStats.getDirectoryName(), componentStats);
+      stats.add(componentStats);
+    }
+    return stats;
+  }
+}
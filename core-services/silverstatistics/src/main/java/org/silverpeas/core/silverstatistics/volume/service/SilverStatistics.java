@@ -32,6 +32,15 @@ public interface SilverStatistics {
 
   public void putStats(StatType typeOfStats, String data);
 
+  /**
+   * Puts the given statistic into an aggregate of the statistics of the same type and with the
+   * same keys. The aggregates are put into the statistic tables either periodically or once
+   * there are too many of them.
+   * @param typeOfStats the statistic type
+   * @param data the value to put in statistic
+   */
+  public void aggregateStats(StatType typeOfStats, String data);
+
   public void makeStatAllCumul();
 
   public void makeVolumeAlimentationForAllComponents();
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.volume.service;
+
+import org.silverpeas.core.silverstatistics.volume.model.StatDataType;
+import org.silverpeas.core.silverstatistics.volume.model.StatType;
+import org.silverpeas.core.silverstatistics.volume.model.StatisticsConfig;
+import org.silverpeas.kernel.util.StringUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aggregator of statistics. The statistics of a given type sharing the same non-cumulative keys
+ * (with the date of the statistic truncated to its month as in the statistic tables) are merged
+ * into one by summing their cumulative keys. So, the statistics can be then put into the
+ * statistic tables with only one update or insert per aggregate.
+ */
+class SilverStatisticsAggregator {
+
+  private static final String DATE_STAT = "dateStat";
+
+  private final StatisticsConfig config;
+  private final ReentrantLock lock = new ReentrantLock();
+  private Map<StatType, Map<List<String>, long[]>> aggregates = new EnumMap<>(StatType.class);
+  private int size = 0;
+
+  SilverStatisticsAggregator(final StatisticsConfig config) {
+    this.config = config;
+  }
+
+  /**
+   * Adds the given statistic to its aggregate.
+   * @param type the type of the statistic.
+   * @param valueKeys the values of the keys of the statistic. They are expected to be well
+   * formed.
+   * @return the number of aggregates.
+   */
+  int add(final StatType type, final List<String> valueKeys) {
+    final List<String> keys = config.getAllKeys(type);
+    final List<String> rowKeys = new ArrayList<>(keys.size());
+    final List<Long> cumulValues = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      final String keyName = keys.get(i);
+      final String value = valueKeys.get(i);
+      if (config.isCumulKey(type, keyName)) {
+        cumulValues.add(parseCumulValue(type, keyName, value));
+      } else if (DATE_STAT.equals(keyName)) {
+        rowKeys.add(value.substring(0, 8) + "01");
+      } else {
+        rowKeys.add(value);
+      }
+    }
+    lock.lock();
+    try {
+      final long[] sums = aggregates.computeIfAbsent(type, t -> new HashMap<>())
+          .computeIfAbsent(rowKeys, k -> {
+            size++;
+            return new long[cumulValues.size()];
+          });
+      for (int i = 0; i < sums.length; i++) {
+        sums[i] += cumulValues.get(i);
+      }
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Takes all the aggregates computed so far. The aggregator is then empty.
+   * @return the aggregated statistics per type, each of them as the values of its keys.
+   */
+  Map<StatType, Collection<List<String>>> drain() {
+    final Map<StatType, Map<List<String>, long[]>> drained;
+    lock.lock();
+    try {
+      drained = aggregates;
+      aggregates = new EnumMap<>(StatType.class);
+      size = 0;
+    } finally {
+      lock.unlock();
+    }
+    final Map<StatType, Collection<List<String>>> stats = new EnumMap<>(StatType.class);
+    drained.forEach((type, typeAggregates) -> {
+      final List<List<String>> typeStats = new ArrayList<>(typeAggregates.size());
+      typeAggregates.forEach((rowKeys, sums) -> typeStats.add(toValueKeys(type, rowKeys, sums)));
+      stats.put(type, typeStats);
+    });
+    return stats;
+  }
+
+  private List<String> toValueKeys(final StatType type, final List<String> rowKeys,
+      final long[] sums) {
+    final List<String> keys = config.getAllKeys(type);
+    final List<String> valueKeys = new ArrayList<>(keys.size());
+    int rowKeyIndex = 0;
+    int cumulIndex = 0;
+    for (String keyName : keys) {
+      if (config.isCumulKey(type, keyName)) {
+        valueKeys.add(String.valueOf(sums[cumulIndex++]));
+      } else {
+        valueKeys.add(rowKeys.get(rowKeyIndex++));
+      }
+    }
+    return valueKeys;
+  }
+
+  private long parseCumulValue(final StatType type, final String keyName, final String value) {
+    final StatDataType dataType = StatDataType.valueOf(config.getKeyType(type, keyName));
+    if (dataType == StatDataType.INTEGER) {
+      return StringUtil.isInteger(value) ? Integer.parseInt(value) : 0;
+    }
+    return StringUtil.isLong(value) ? Long.parseLong(value) : 0;
+  }
+}
@@ -68,7 +68,7 @@ public class SilverStatisticsMessageDriven implements MessageListener {
         if (typeOfStats.length() + SEPARATOR.length() < msg.length()) {
           String stat = msg.substring(typeOfStats.length() + SEPARATOR.length(), msg.length());
 
-          getSilverStatistics().putStats(StatType.valueOf(typeOfStats), stat);
+          getSilverStatistics().aggregateStats(StatType.valueOf(typeOfStats), stat);
         } else {
           SilverLogger.getLogger(this).error("Wrong message: {0}", msg);
         }
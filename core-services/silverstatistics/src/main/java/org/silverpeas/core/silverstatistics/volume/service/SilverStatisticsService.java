@@ -25,27 +25,67 @@ package org.silverpeas.core.silverstatistics.volume.service;
 
 import org.apache.commons.text.StringTokenizer;
 import org.silverpeas.core.annotation.Service;
+import org.silverpeas.core.initialization.Initialization;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.core.persistence.TransactionRuntimeException;
 import org.silverpeas.core.persistence.jdbc.DBUtil;
+import org.silverpeas.core.scheduler.Job;
+import org.silverpeas.core.scheduler.JobExecutionContext;
+import org.silverpeas.core.scheduler.Scheduler;
+import org.silverpeas.core.scheduler.SchedulerProvider;
+import org.silverpeas.core.scheduler.trigger.JobTrigger;
+import org.silverpeas.core.scheduler.trigger.TimeUnit;
 import org.silverpeas.core.silverstatistics.volume.dao.SilverStatisticsDAO;
 import org.silverpeas.core.silverstatistics.volume.dao.SilverStatisticsManagerDAO;
 import org.silverpeas.core.silverstatistics.volume.model.SilverStatisticsConfigException;
 import org.silverpeas.core.silverstatistics.volume.model.StatType;
 import org.silverpeas.core.silverstatistics.volume.model.StatisticsConfig;
 import org.silverpeas.core.silverstatistics.volume.model.StatisticsRuntimeException;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
 import org.silverpeas.kernel.logging.SilverLogger;
 
 import javax.inject.Singleton;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.silverpeas.core.silverstatistics.volume.model.SilverStatisticsConstants.SEPARATOR;
 
 @Service
 @Singleton
-public class SilverStatisticsService implements SilverStatistics {
+public class SilverStatisticsService implements SilverStatistics, Initialization {
+
+  private static final String AGGREGATION_JOB_NAME = "SilverStatisticsAggregationJob";
 
   private final StatisticsConfig myStatsConfig;
+  private final SilverStatisticsAggregator aggregator;
+  private final ReentrantLock aggregationLock = new ReentrantLock();
+  private int aggregationSize = 1000;
+
+  @Override
+  public void init() throws Exception {
+    final SettingBundle settings =
+        ResourceLocator.getSettingBundle("org.silverpeas.silverstatistics.SilverStatistics");
+    aggregationSize = settings.getInteger("stats.aggregation.size", 1000);
+    final Scheduler scheduler = SchedulerProvider.getVolatileScheduler();
+    scheduler.unscheduleJob(AGGREGATION_JOB_NAME);
+    scheduler.scheduleJob(new Job(AGGREGATION_JOB_NAME) {
+      @Override
+      public void execute(final JobExecutionContext context) {
+        flushAggregates();
+      }
+    }, JobTrigger.triggerEvery(settings.getInteger("stats.aggregation.delay", 5),
+        TimeUnit.SECOND));
+  }
+
+  @Override
+  public void release() throws Exception {
+    flushAggregates();
+  }
 
   /**
    * @param type the statistic type (Access, Size, Volume, Connexion)
@@ -56,21 +96,75 @@ public class SilverStatisticsService implements SilverStatistics {
     StringTokenizer stData = new StringTokenizer(data, SEPARATOR);
     List<String> dataArray = stData.getTokenList();
     if (myStatsConfig.areGoodData(type, dataArray)) {
-      try(Connection myCon = DBUtil.openConnection()) {
+      putStat(type, dataArray);
+    } else {
+      SilverLogger.getLogger(this).error("input data={0} for {1}", data, type);
+    }
+  }
 
-        SilverStatisticsDAO.putDataStats(myCon, type, dataArray, myStatsConfig);
-        if (!myCon.getAutoCommit()) {
-          myCon.commit();
-        }
-      } catch (SQLException | StatisticsRuntimeException e) {
-        SilverLogger.getLogger(this)
-            .error("typeOfStats={0}, dataArray={1}", new Object[]{type, dataArray}, e);
+  @Override
+  public void aggregateStats(StatType type, String data) {
+    StringTokenizer stData = new StringTokenizer(data, SEPARATOR);
+    List<String> dataArray = stData.getTokenList();
+    if (myStatsConfig.areGoodData(type, dataArray)) {
+      if (aggregator.add(type, dataArray) >= aggregationSize) {
+        flushAggregates();
       }
     } else {
       SilverLogger.getLogger(this).error("input data={0} for {1}", data, type);
     }
   }
 
+  /**
+   * Puts into the statistic tables all the statistics aggregated so far.
+   */
+  void flushAggregates() {
+    aggregationLock.lock();
+    try {
+      final Map<StatType, Collection<List<String>>> aggregates = aggregator.drain();
+      for (Map.Entry<StatType, Collection<List<String>>> typeAggregates : aggregates.entrySet()) {
+        putStats(typeAggregates.getKey(), typeAggregates.getValue());
+      }
+    } finally {
+      aggregationLock.unlock();
+    }
+  }
+
+  /**
+   * Puts the specified aggregated statistics into the statistic tables with batches of
+   * statements in a transaction of their own. If the batches fail, the transaction is rolled back
+   * and the statistics are then put one by one so that only the faulty ones are lost.
+   * @param type the statistic type.
+   * @param dataArrays the aggregated statistics.
+   */
+  void putStats(StatType type, Collection<List<String>> dataArrays) {
+    try {
+      Transaction.performInNew(() -> {
+        try (Connection myCon = DBUtil.openConnection()) {
+          SilverStatisticsDAO.putDataStats(myCon, type, dataArrays, myStatsConfig);
+        }
+        return null;
+      });
+    } catch (TransactionRuntimeException | StatisticsRuntimeException e) {
+      SilverLogger.getLogger(this)
+          .warn("typeOfStats={0}: the batch of {1} aggregated statistics failed ({2}), " +
+              "they are put one by one", type, dataArrays.size(), e.getMessage());
+      dataArrays.forEach(dataArray -> putStat(type, dataArray));
+    }
+  }
+
+  private void putStat(StatType type, List<String> dataArray) {
+    try (Connection myCon = DBUtil.openConnection()) {
+      SilverStatisticsDAO.putDataStats(myCon, type, dataArray, myStatsConfig);
+      if (!myCon.getAutoCommit()) {
+        myCon.commit();
+      }
+    } catch (SQLException | StatisticsRuntimeException e) {
+      SilverLogger.getLogger(this)
+          .error("typeOfStats={0}, dataArray={1}", new Object[]{type, dataArray}, e);
+    }
+  }
+
   @Override
   public void makeVolumeAlimentationForAllComponents() {
     SilverStatisticsVolumeAlimentation.makeVolumeAlimentationForAllComponents();
@@ -83,6 +177,7 @@ public class SilverStatisticsService implements SilverStatistics {
 
   public SilverStatisticsService() {
     myStatsConfig = new StatisticsConfig();
+    aggregator = new SilverStatisticsAggregator(myStatsConfig);
     try {
       myStatsConfig.init();
     } catch (SilverStatisticsConfigException e) {
@@ -26,45 +26,89 @@ package org.silverpeas.core.silverstatistics.volume.service;
 import org.silverpeas.core.admin.component.model.ComponentInst;
 import org.silverpeas.core.admin.service.AdminController;
 import org.silverpeas.core.admin.space.SpaceInst;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.core.persistence.jdbc.DBUtil;
+import org.silverpeas.core.silverstatistics.volume.dao.VolumeCheckpointDAO;
 import org.silverpeas.core.silverstatistics.volume.model.UserIdCountVolumeCouple;
+import org.silverpeas.core.thread.ManagedThreadPool;
+import org.silverpeas.core.thread.ManagedThreadPoolException;
 import org.silverpeas.core.util.CollectionUtil;
 import org.silverpeas.core.util.ServiceProvider;
+import org.silverpeas.kernel.SilverpeasException;
+import org.silverpeas.kernel.bundle.ResourceLocator;
 import org.silverpeas.kernel.logging.SilverLogger;
 
+import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.silverpeas.core.thread.ManagedThreadPool.ExecutionConfig.maxThreadPoolSizeOf;
 
 /**
  * This is the alimentation for the statistics on volume. It gets the number of elements from each
  * components from each space. All components must implements the ComponentStatisticsInterface.
+ * <p>
+ * When the provider of a component instance tracks its modifications, the volume of the instance
+ * is counted again only if the instance was modified since its last count, as told by
+ * {@link ComponentStatisticsProvider#isModifiedSince(String, Date)}. Otherwise, the volume saved
+ * at the last count is notified again. The volume of the other instances is always counted and it
+ * isn't saved. The component instances are processed in parallel by at most
+ * {@code volume.alimentation.threads} threads.
+ * </p>
  * @author sleroux
  */
 class SilverStatisticsVolumeAlimentation {
 
   static void makeVolumeAlimentationForAllComponents() {
-    java.util.Date now = new java.util.Date();
+    final Date now = new Date();
+    final Map<String, Date> checkpoints = getCheckpoints();
+    final Set<String> componentIds = new HashSet<>();
+    final List<Runnable> alimentations = new ArrayList<>();
     // get all spaces
-    final List<String> listAllSpacesId = getAllSpacesAndAllSubSpacesId();
-
-    if (!listAllSpacesId.isEmpty()) {
-
-      for (String currentSpaceId : listAllSpacesId) {
-        // get all components from a space
-        List<ComponentInst> listAllComponentsInst = getAllComponentsInst(currentSpaceId);
-
-        for (ComponentInst ci : listAllComponentsInst) {
-          String currentComponentsId = ci.getId();
-          // get all elements from a component
-          getCollectionUserIdCountVolume(currentSpaceId, ci).forEach(v ->
-              // notify statistics
-              SilverStatisticsManager.getInstance()
-                  .addStatVolume(v.getUserId(), v.getCountVolume(), now, ci.getName(),
-                      currentSpaceId, currentComponentsId));
-        }
+    for (String currentSpaceId : getAllSpacesAndAllSubSpacesId()) {
+      // get all components from a space
+      for (ComponentInst ci : getAllComponentsInst(currentSpaceId)) {
+        final Date checkpoint = checkpoints.get(ci.getId());
+        componentIds.add(ci.getId());
+        alimentations.add(() -> makeVolumeAlimentation(now, currentSpaceId, ci, checkpoint));
+      }
+    }
+    invoke(alimentations);
+    deleteCheckpointsExcept(checkpoints, componentIds);
+  }
+
+  private static void makeVolumeAlimentation(Date now, String spaceId, ComponentInst ci,
+      Date checkpoint) {
+    // get all elements from a component
+    getCollectionUserIdCountVolume(now, spaceId, ci, checkpoint).forEach(v ->
+        // notify statistics
+        SilverStatisticsManager.getInstance()
+            .addStatVolume(v.getUserId(), v.getCountVolume(), now, ci.getName(), spaceId,
+                ci.getId()));
+  }
+
+  private static void invoke(List<Runnable> alimentations) {
+    final int threads = ResourceLocator
+        .getSettingBundle("org.silverpeas.silverstatistics.SilverStatistics")
+        .getInteger("volume.alimentation.threads", 4);
+    if (threads <= 1 || alimentations.size() <= 1) {
+      alimentations.forEach(Runnable::run);
+    } else {
+      try {
+        ManagedThreadPool.getPool()
+            .invokeAndAwaitTermination(alimentations, maxThreadPoolSizeOf(threads));
+      } catch (ManagedThreadPoolException e) {
+        SilverLogger.getLogger(SilverStatisticsVolumeAlimentation.class).error(e);
       }
     }
   }
@@ -83,15 +127,14 @@ class SilverStatisticsVolumeAlimentation {
     return mySpaceInst.getAllComponentsInst();
   }
 
-  private static Collection<UserIdCountVolumeCouple> getCollectionUserIdCountVolume(String spaceId,
-      ComponentInst ci) {
+  private static Collection<UserIdCountVolumeCouple> getCollectionUserIdCountVolume(Date now,
+      String spaceId, ComponentInst ci, Date checkpoint) {
     Collection<UserIdCountVolumeCouple> result = Collections.emptyList();
     try {
       final Optional<ComponentStatisticsProvider> statistics = ComponentStatisticsProvider
           .getByComponentName(ci.getName());
       if (statistics.isPresent()) {
-        Collection<UserIdCountVolumeCouple> v = statistics.get().getVolume(spaceId, ci.getId());
-        result = aggregateUser(v);
+        result = getVolume(statistics.get(), now, spaceId, ci.getId(), checkpoint);
       }
     } catch (Exception e) {
       SilverLogger.getLogger(SilverStatisticsVolumeAlimentation.class).warn(e.getMessage(), e);
@@ -99,6 +142,99 @@ class SilverStatisticsVolumeAlimentation {
     return result;
   }
 
+  /**
+   * Gets the volume per user of the given component instance. The volume is counted by the
+   * provider unless the provider tracks the modifications and the instance is unchanged since its
+   * checkpoint. In that case, the volume saved at the checkpoint is returned.
+   * @param provider the statistics provider of the component instance.
+   * @param now the date of the alimentation.
+   * @param spaceId the identifier of the space of the component instance.
+   * @param componentId the identifier of the component instance.
+   * @param checkpoint the date of the last count of the volume. Null if none.
+   * @return a collection of {@link UserIdCountVolumeCouple}, one per user.
+   * @throws SilverpeasException on technical error.
+   */
+  static Collection<UserIdCountVolumeCouple> getVolume(ComponentStatisticsProvider provider,
+      Date now, String spaceId, String componentId, Date checkpoint) throws SilverpeasException {
+    if (!provider.isModificationTracked()) {
+      if (checkpoint != null) {
+        // the provider doesn't track anymore the modifications
+        deleteCheckpoints(List.of(componentId));
+      }
+      return aggregateUser(provider.getVolume(spaceId, componentId));
+    }
+    if (checkpoint != null && !provider.isModifiedSince(componentId, checkpoint)) {
+      return getSnapshot(componentId);
+    }
+    final Collection<UserIdCountVolumeCouple> result =
+        aggregateUser(provider.getVolume(spaceId, componentId));
+    saveCheckpoint(componentId, now, result);
+    return result;
+  }
+
+  /**
+   * Deletes the checkpoints of the component instances that don't exist anymore.
+   * @param checkpoints the checkpoints per component instance identifier.
+   * @param componentIds the identifiers of the existing component instances.
+   */
+  static void deleteCheckpointsExcept(Map<String, Date> checkpoints, Set<String> componentIds) {
+    deleteCheckpoints(checkpoints.keySet().stream()
+        .filter(id -> !componentIds.contains(id))
+        .collect(Collectors.toList()));
+  }
+
+  static Map<String, Date> getCheckpoints() {
+    try {
+      return Transaction.performInOne(() -> {
+        try (Connection con = DBUtil.openConnection()) {
+          return VolumeCheckpointDAO.getCheckpoints(con);
+        }
+      });
+    } catch (Exception e) {
+      SilverLogger.getLogger(SilverStatisticsVolumeAlimentation.class).error(e);
+      return new HashMap<>();
+    }
+  }
+
+  private static List<UserIdCountVolumeCouple> getSnapshot(String componentId) {
+    return Transaction.performInOne(() -> {
+      try (Connection con = DBUtil.openConnection()) {
+        return VolumeCheckpointDAO.getSnapshot(con, componentId);
+      }
+    });
+  }
+
+  private static void saveCheckpoint(String componentId, Date lastCount,
+      Collection<UserIdCountVolumeCouple> volumes) {
+    try {
+      Transaction.performInOne(() -> {
+        try (Connection con = DBUtil.openConnection()) {
+          VolumeCheckpointDAO.saveCheckpoint(con, componentId, lastCount, volumes);
+        }
+        return null;
+      });
+    } catch (Exception e) {
+      // the volume will be counted again at the next alimentation
+      SilverLogger.getLogger(SilverStatisticsVolumeAlimentation.class)
+          .warn("Checkpoint of the volume of " + componentId + " not saved", e);
+    }
+  }
+
+  private static void deleteCheckpoints(Collection<String> componentIds) {
+    for (String componentId : componentIds) {
+      try {
+        Transaction.performInOne(() -> {
+          try (Connection con = DBUtil.openConnection()) {
+            VolumeCheckpointDAO.delete(con, componentId);
+          }
+          return null;
+        });
+      } catch (Exception e) {
+        SilverLogger.getLogger(SilverStatisticsVolumeAlimentation.class).error(e);
+      }
+    }
+  }
+
   private static Collection<UserIdCountVolumeCouple> aggregateUser(
       Collection<UserIdCountVolumeCouple> in) {
 
@@ -0,0 +1,306 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.silverstatistics.access.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.silverpeas.core.ResourceReference;
+import org.silverpeas.core.silverstatistics.access.model.HistoryObjectAccess;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@EnableSilverTestEnv
+class HistoryWriteBufferTest {
+
+  private static final int NB_THREADS = 8;
+  private static final int NB_ACCESSES_PER_THREAD = 2000;
+
+  private final List<HistoryObjectAccess> written =
+      Collections.synchronizedList(new ArrayList<>());
+
+  @TempDir
+  Path spillDir;
+
+  @Test
+  void noAccessIsLostWhenOfferedAndFlushedConcurrently() throws Exception {
+    final AtomicInteger nbDirectWrites = new AtomicInteger(0);
+    final HistoryWriteBuffer buffer =
+        new HistoryWriteBuffer(written::addAll, 100, 50, spillDir, () -> {});
+    final AtomicBoolean offering = new AtomicBoolean(true);
+    final Thread flusher = new Thread(() -> {
+      while (offering.get()) {
+        buffer.flush();
+      }
+    });
+    flusher.start();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(NB_THREADS);
+    final CountDownLatch start = new CountDownLatch(1);
+    for (int t = 0; t < NB_THREADS; t++) {
+      final String userId = String.valueOf(t);
+      executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < NB_ACCESSES_PER_THREAD; i++) {
+          final HistoryObjectAccess access = newAccess(userId, String.valueOf(i));
+          if (!buffer.offer(access)) {
+            // the buffer is full: the access is written directly
+            written.add(access);
+            nbDirectWrites.incrementAndGet();
+          }
+        }
+        return null;
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(1, TimeUnit.MINUTES), is(true));
+    offering.set(false);
+    flusher.join();
+    buffer.close();
+
+    assertThat(buffer.size(), is(0));
+    assertThat(written, hasSize(NB_THREADS * NB_ACCESSES_PER_THREAD));
+    assertThat(written.stream().map(this::key).collect(Collectors.toSet()),
+        hasSize(NB_THREADS * NB_ACCESSES_PER_THREAD));
+    assertThat(segmentsIn(spillDir), empty());
+    assertThat(nbDirectWrites.get(), lessThan(NB_THREADS * NB_ACCESSES_PER_THREAD));
+  }
+
+  @Test
+  void theFlushTriggerIsInvokedOnceTheFlushSizeIsReached() throws Exception {
+    final AtomicInteger nbTriggers = new AtomicInteger(0);
+    final HistoryWriteBuffer buffer =
+        new HistoryWriteBuffer(written::addAll, 10, 3, null, nbTriggers::incrementAndGet);
+    buffer.offer(newAccess("1", "1"));
+    buffer.offer(newAccess("1", "2"));
+    assertThat(nbTriggers.get(), is(0));
+    buffer.offer(newAccess("1", "3"));
+    buffer.offer(newAccess("1", "4"));
+    assertThat(nbTriggers.get(), is(1));
+    buffer.flush();
+    assertThat(written, hasSize(4));
+  }
+
+  @Test
+  void theAccessesAreRefusedWhenTheBufferIsFull() throws Exception {
+    final HistoryWriteBuffer buffer =
+        new HistoryWriteBuffer(written::addAll, 2, 2, null, () -> {});
+    assertThat(buffer.offer(newAccess("1", "1")), is(true));
+    assertThat(buffer.offer(newAccess("1", "2")), is(true));
+    assertThat(buffer.offer(newAccess("1", "3")), is(false));
+    buffer.flush();
+    assertThat(buffer.offer(newAccess("1", "3")), is(true));
+  }
+
+  @Test
+  void thePendingAccessesAreTheBufferedOnesNotYetWritten() throws Exception {
+    final HistoryWriteBuffer buffer =
+        new HistoryWriteBuffer(written::addAll, 10, 10, null, () -> {});
+    buffer.offer(newAccess("1", "1"));
+    buffer.offer(newAccess("2", "2"));
+    buffer.offer(newAccess("1", "3"));
+    assertThat(buffer.getPending(a -> "1".equals(a.getUserId())).stream()
+        .map(this::key)
+        .collect(Collectors.toList()), contains("1-1", "1-3"));
+    buffer.flush();
+    assertThat(buffer.getPending(a -> true), empty());
+  }
+
+  @Test
+  void theJournaledAccessesAreWrittenAfterACrash() throws Exception {
+    final HistoryWriteBuffer crashed =
+        new HistoryWriteBuffer(written::addAll, 100, 100, spillDir, () -> {});
+    final HistoryObjectAccess access = newAccess("2", "26");
+    crashed.offer(access);
+    crashed.offer(newAccess("3", "38"));
+    crashed.offer(newAccess(null, "42"));
+    // no flush nor close: the server crashes
+
+    final HistoryWriteBuffer restarted =
+        new HistoryWriteBuffer(written::addAll, 100, 100, spillDir, () -> {});
+    assertThat(restarted.size(), is(0));
+    restarted.flush();
+
+    assertThat(written, hasSize(3));
+    final HistoryObjectAccess replayed = written.get(0);
+    assertThat(replayed.getDate(), is(access.getDate()));
+    assertThat(replayed.getUserId(), is("2"));
+    assertThat(replayed.getResourceReference().getId(), is("26"));
+    assertThat(replayed.getResourceReference().getInstanceId(), is("kmelia1"));
+    assertThat(replayed.getActionType(), is(1));
+    assertThat(replayed.getObjectType(), is("Publication"));
+    assertThat(written.get(2).getUserId(), nullValue());
+    assertThat(segmentsIn(spillDir), empty());
+  }
+
+  @Test
+  void theAccessesAreKeptWhenTheirWritingFails() throws Exception {
+    final AtomicBoolean failing = new AtomicBoolean(true);
+    final HistoryWriteBuffer buffer = new HistoryWriteBuffer(a -> {
+      if (failing.get()) {
+        throw new IllegalStateException("database unavailable");
+      }
+      written.addAll(a);
+    }, 100, 100, spillDir, () -> {});
+    buffer.offer(newAccess("1", "1"));
+    buffer.offer(newAccess("1", "2"));
+    buffer.flush();
+    assertThat(written, empty());
+    assertThat(segmentsIn(spillDir), hasSize(1));
+
+    failing.set(false);
+    buffer.offer(newAccess("1", "3"));
+    buffer.flush();
+    assertThat(written, hasSize(3));
+    assertThat(segmentsIn(spillDir), empty());
+  }
+
+  @Test
+  void theAccessesAreKeptInMemoryWhenTheirWritingFailsWithoutSpillDirectory() throws Exception {
+    final AtomicBoolean failing = new AtomicBoolean(true);
+    final HistoryWriteBuffer buffer = new HistoryWriteBuffer(a -> {
+      if (failing.get()) {
+        throw new IllegalStateException("database unavailable");
+      }
+      written.addAll(a);
+    }, 100, 100, null, () -> {});
+    buffer.offer(newAccess("1", "1"));
+    buffer.offer(newAccess("1", "2"));
+    buffer.flush();
+    assertThat(written, empty());
+    assertThat(buffer.size(), is(2));
+
+    failing.set(false);
+    buffer.flush();
+    assertThat(written, hasSize(2));
+    assertThat(buffer.size(), is(0));
+  }
+
+  @Test
+  void nothingIsWrittenWhenThereIsNothingToFlush() throws Exception {
+    final AtomicInteger nbWrites = new AtomicInteger(0);
+    final HistoryWriteBuffer buffer =
+        new HistoryWriteBuffer(a -> nbWrites.incrementAndGet(), 100, 100, spillDir, () -> {});
+    buffer.flush();
+    assertThat(nbWrites.get(), is(0));
+
+    buffer.offer(newAccess("1", "1"));
+    buffer.flush();
+    buffer.flush();
+    assertThat(nbWrites.get(), is(1));
+  }
+
+  @Test
+  void aSegmentFailingWhereasOthersAreWrittenIsPutInQuarantine() throws Exception {
+    final AtomicInteger nbFaultyWrites = new AtomicInteger(0);
+    final HistoryWriteBuffer buffer = new HistoryWriteBuffer(a -> {
+      if (a.stream().anyMatch(access -> "faulty".equals(access.getResourceReference().getId()))) {
+        nbFaultyWrites.incrementAndGet();
+        throw new IllegalArgumentException("faulty access");
+      }
+      written.addAll(a);
+    }, 100, 100, spillDir, () -> {});
+    buffer.offer(newAccess("1", "faulty"));
+    buffer.flush();
+    for (int i = 1; i <= HistoryWriteBuffer.MAX_WRITE_FAILURES; i++) {
+      assertThat(segmentsIn(spillDir), hasSize(1));
+      buffer.offer(newAccess("1", String.valueOf(i)));
+      buffer.flush();
+    }
+    assertThat(written, hasSize(HistoryWriteBuffer.MAX_WRITE_FAILURES));
+    assertThat(nbFaultyWrites.get(), is(HistoryWriteBuffer.MAX_WRITE_FAILURES + 1));
+    assertThat(segmentsIn(spillDir), empty());
+    assertThat(quarantinedSegmentsIn(spillDir), hasSize(1));
+
+    buffer.offer(newAccess("1", "4"));
+    buffer.flush();
+    assertThat(written, hasSize(HistoryWriteBuffer.MAX_WRITE_FAILURES + 1));
+    assertThat(nbFaultyWrites.get(), is(HistoryWriteBuffer.MAX_WRITE_FAILURES + 1));
+  }
+
+  @Test
+  void theSegmentsAreNotPutInQuarantineWhenNothingCanBeWritten() throws Exception {
+    final AtomicBoolean failing = new AtomicBoolean(true);
+    final HistoryWriteBuffer buffer = new HistoryWriteBuffer(a -> {
+      if (failing.get()) {
+        throw new IllegalStateException("database unavailable");
+      }
+      written.addAll(a);
+    }, 100, 100, spillDir, () -> {});
+    final int nbFlushes = HistoryWriteBuffer.MAX_WRITE_FAILURES * 2;
+    for (int i = 0; i < nbFlushes; i++) {
+      buffer.offer(newAccess("1", String.valueOf(i)));
+      buffer.flush();
+    }
+    assertThat(written, empty());
+    assertThat(segmentsIn(spillDir), hasSize(nbFlushes));
+    assertThat(quarantinedSegmentsIn(spillDir), empty());
+
+    failing.set(false);
+    buffer.flush();
+    assertThat(written, hasSize(nbFlushes));
+    assertThat(segmentsIn(spillDir), empty());
+  }
+
+  private HistoryObjectAccess newAccess(final String userId, final String resourceId) {
+    return new HistoryObjectAccess(new Date(), userId, new ResourceReference(resourceId, "kmelia1"),
+        1, "Publication");
+  }
+
+  private String key(final HistoryObjectAccess access) {
+    return access.getUserId() + "-" + access.getResourceReference().getId();
+  }
+
+  private static List<Path> segmentsIn(final Path dir) throws Exception {
+    return filesIn(dir, ".segment");
+  }
+
+  private static List<Path> quarantinedSegmentsIn(final Path dir) throws Exception {
+    return filesIn(dir, HistoryWriteBuffer.QUARANTINE_SUFFIX);
+  }
+
+  private static List<Path> filesIn(final Path dir, final String suffix) throws Exception {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(f -> f.getFileName().toString().endsWith(suffix))
+          .collect(Collectors.toList());
+    }
+  }
+}
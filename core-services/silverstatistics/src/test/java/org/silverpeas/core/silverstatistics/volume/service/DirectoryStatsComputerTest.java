@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.silverstatistics.volume.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.silverpeas.core.admin.component.PersonalComponentRegistry;
+import org.silverpeas.core.admin.component.WAComponentRegistry;
+import org.silverpeas.core.admin.component.model.WAComponent;
+import org.silverpeas.core.silverstatistics.volume.model.DirectoryStats;
+import org.silverpeas.kernel.test.annotations.TestManagedMock;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@EnableSilverTestEnv
+class DirectoryStatsComputerTest {
+
+  @TestManagedMock
+  private WAComponentRegistry componentRegistry;
+  @TestManagedMock
+  private PersonalComponentRegistry personalComponentRegistry;
+
+  @TempDir
+  Path uploadDir;
+
+  @BeforeEach
+  void registerKmelia() {
+    final WAComponent kmelia = mock(WAComponent.class);
+    when(kmelia.getName()).thenReturn("kmelia");
+    when(componentRegistry.getWAComponent("kmelia")).thenReturn(Optional.of(kmelia));
+  }
+
+  @Test
+  void bothTheSizeAndTheNumberOfFilesOfTheAttachmentsAreComputedInOneWalk() throws IOException {
+    final Path instanceDir = uploadDir.resolve("kmelia42");
+    createFile(instanceDir.resolve("simpledoc_1/fr/report.odt"), 100);
+    createFile(instanceDir.resolve("simpledoc_1/en/report.odt"), 50);
+    createFile(instanceDir.resolve("simpledoc_2/fr/sheet.ods"), 25);
+    createFile(instanceDir.resolve("simpledoc_2/fr/12wysiwyg_fr.txt"), 1000);
+    createFile(instanceDir.resolve("Images/picture.png"), 2000);
+
+    final DirectoryStats stats = new DirectoryStatsComputer(instanceDir.toFile(), true).call();
+    assertThat(stats.getDirectoryName(), is("kmelia42"));
+    assertThat(stats.getDirectorySize(), is(175L));
+    assertThat(stats.getNumberOfFiles(), is(3L));
+  }
+
+  @Test
+  void allTheFilesAreComputedWhenNotOnlyTheComponentDataAreAsked() throws IOException {
+    final Path instanceDir = uploadDir.resolve("kmelia42");
+    createFile(instanceDir.resolve("simpledoc_1/fr/report.odt"), 100);
+    createFile(instanceDir.resolve("simpledoc_1/fr/12wysiwyg_fr.txt"), 1000);
+    createFile(instanceDir.resolve("Images/picture.png"), 2000);
+
+    final DirectoryStats stats = new DirectoryStatsComputer(instanceDir.toFile(), false).call();
+    assertThat(stats.getDirectorySize(), is(2100L));
+    assertThat(stats.getNumberOfFiles(), is(2L));
+  }
+
+  @Test
+  void nothingIsComputedForADirectoryOfNoComponentInstance() throws IOException {
+    final Path otherDir = uploadDir.resolve("temp");
+    createFile(otherDir.resolve("simpledoc_1/fr/report.odt"), 100);
+
+    final DirectoryStats stats = new DirectoryStatsComputer(otherDir.toFile(), true).call();
+    assertThat(stats.getDirectoryName(), is("temp"));
+    assertThat(stats.getDirectorySize(), is(0L));
+    assertThat(stats.getNumberOfFiles(), is(0L));
+  }
+
+  @Test
+  void anEmptyComponentInstanceDirectoryHasNoFiles() throws IOException {
+    final Path instanceDir = Files.createDirectories(uploadDir.resolve("kmelia42"));
+
+    final DirectoryStats stats = new DirectoryStatsComputer(instanceDir.toFile(), true).call();
+    assertThat(stats.getDirectorySize(), is(0L));
+    assertThat(stats.getNumberOfFiles(), is(0L));
+  }
+
+  static void createFile(final Path file, final int size) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, new byte[size]);
+  }
+}
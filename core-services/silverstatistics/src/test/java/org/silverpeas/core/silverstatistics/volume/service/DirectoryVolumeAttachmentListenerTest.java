@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.silverstatistics.volume.service;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.contribution.attachment.model.SimpleDocument;
+import org.silverpeas.core.contribution.attachment.notification.AttachmentEvent;
+import org.silverpeas.core.notification.system.ResourceEvent;
+import org.silverpeas.kernel.test.annotations.TestManagedMock;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@EnableSilverTestEnv
+class DirectoryVolumeAttachmentListenerTest {
+
+  @TestManagedMock
+  private DirectoryVolumeTracker tracker;
+
+  private final DirectoryVolumeAttachmentListener listener =
+      new DirectoryVolumeAttachmentListener();
+
+  @Test
+  void theComponentInstanceOfACreatedAttachmentIsMarkedAsModified() {
+    listener.onEvent(new AttachmentEvent(ResourceEvent.Type.CREATION, document("kmelia1")));
+    verify(tracker).setModified("kmelia1");
+    verifyNoMoreInteractions(tracker);
+  }
+
+  @Test
+  void theComponentInstanceOfAnUpdatedAttachmentIsMarkedAsModified() {
+    listener.onEvent(new AttachmentEvent(ResourceEvent.Type.UPDATE, document("kmelia1"),
+        document("kmelia1")));
+    verify(tracker, times(2)).setModified("kmelia1");
+    verifyNoMoreInteractions(tracker);
+  }
+
+  @Test
+  void bothTheComponentInstancesOfAMovedAttachmentAreMarkedAsModified() {
+    listener.onEvent(new AttachmentEvent(ResourceEvent.Type.MOVE, document("kmelia1"),
+        document("kmelia2")));
+    verify(tracker).setModified("kmelia1");
+    verify(tracker).setModified("kmelia2");
+    verifyNoMoreInteractions(tracker);
+  }
+
+  @Test
+  void theComponentInstanceOfADeletedAttachmentIsMarkedAsModified() {
+    listener.onEvent(new AttachmentEvent(ResourceEvent.Type.DELETION, document("kmelia1")));
+    verify(tracker).setModified("kmelia1");
+    verifyNoMoreInteractions(tracker);
+  }
+
+  @Test
+  void noComponentInstanceIsMarkedAsModifiedWhenAnAttachmentIsUnlocked() {
+    listener.onEvent(new AttachmentEvent(ResourceEvent.Type.UNLOCK, document("kmelia1"),
+        document("kmelia1")));
+    verify(tracker, never()).setModified(anyString());
+  }
+
+  private static SimpleDocument document(final String instanceId) {
+    final SimpleDocument document = mock(SimpleDocument.class);
+    when(document.getInstanceId()).thenReturn(instanceId);
+    return document;
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.silverstatistics.volume.service;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.admin.component.PersonalComponentRegistry;
+import org.silverpeas.core.admin.component.WAComponentRegistry;
+import org.silverpeas.core.admin.component.model.WAComponent;
+import org.silverpeas.core.silverstatistics.volume.model.DirectoryStats;
+import org.silverpeas.core.test.unit.extention.JEETestContext;
+import org.silverpeas.core.util.file.FileRepositoryManager;
+import org.silverpeas.kernel.test.annotations.TestManagedMock;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@EnableSilverTestEnv(context = JEETestContext.class)
+class DirectoryVolumeTrackerTest {
+
+  private static final String KMELIA_1 = "kmelia90001";
+  private static final String KMELIA_2 = "kmelia90002";
+
+  @TestManagedMock
+  private WAComponentRegistry componentRegistry;
+  @TestManagedMock
+  private PersonalComponentRegistry personalComponentRegistry;
+
+  private final DirectoryVolumeTracker4Test tracker = new DirectoryVolumeTracker4Test();
+  private File directory1;
+  private File directory2;
+
+  @BeforeEach
+  void createComponentDirectories() throws Exception {
+    final WAComponent kmelia = mock(WAComponent.class);
+    when(kmelia.getName()).thenReturn("kmelia");
+    when(componentRegistry.getWAComponent("kmelia")).thenReturn(Optional.of(kmelia));
+    directory1 = new File(FileRepositoryManager.getUploadPath(), KMELIA_1);
+    directory2 = new File(FileRepositoryManager.getUploadPath(), KMELIA_2);
+    addAttachment(directory1, "a.odt", 10);
+    addAttachment(directory2, "b.odt", 20);
+    addAttachment(directory2, "c.odt", 30);
+  }
+
+  @AfterEach
+  void deleteComponentDirectories() {
+    FileUtils.deleteQuietly(directory1);
+    FileUtils.deleteQuietly(directory2);
+  }
+
+  @Test
+  void theStatsAreComputedAtTheirFirstRequest() throws Exception {
+    final Map<String, DirectoryStats> stats = tracker.getStats(directories());
+    assertThat(stats.keySet(), containsInAnyOrder(KMELIA_1, KMELIA_2));
+    assertStats(stats.get(KMELIA_1), 10L, 1L);
+    assertStats(stats.get(KMELIA_2), 50L, 2L);
+  }
+
+  @Test
+  void theStatsOfAnUnmodifiedComponentInstanceAreNotComputedAgain() throws Exception {
+    final Map<String, DirectoryStats> first = tracker.getStats(directories());
+    addAttachment(directory1, "d.odt", 40);
+
+    final Map<String, DirectoryStats> second = tracker.getStats(directories());
+    assertThat(second.get(KMELIA_1), sameInstance(first.get(KMELIA_1)));
+    assertThat(second.get(KMELIA_2), sameInstance(first.get(KMELIA_2)));
+    assertStats(second.get(KMELIA_1), 10L, 1L);
+    assertThat(tracker.nbBackgroundRefreshes, is(0));
+  }
+
+  @Test
+  void theLastStatsOfAModifiedComponentInstanceAreGotWhileTheyAreRefreshed() throws Exception {
+    final Map<String, DirectoryStats> first = tracker.getStats(directories());
+    addAttachment(directory1, "d.odt", 40);
+    tracker.setModified(KMELIA_1);
+
+    final Map<String, DirectoryStats> second = tracker.getStats(directories());
+    assertThat(second.get(KMELIA_1), sameInstance(first.get(KMELIA_1)));
+    assertThat(second.get(KMELIA_2), sameInstance(first.get(KMELIA_2)));
+    assertThat(tracker.nbBackgroundRefreshes, is(1));
+
+    // the refresh started in background
+    tracker.refresh();
+    final Map<String, DirectoryStats> third = tracker.getStats(directories());
+    assertStats(third.get(KMELIA_1), 50L, 2L);
+    assertThat(third.get(KMELIA_2), sameInstance(first.get(KMELIA_2)));
+    assertThat(tracker.nbBackgroundRefreshes, is(1));
+  }
+
+  @Test
+  void theRefreshComputesAgainOnlyTheModifiedComponentInstances() throws Exception {
+    final Map<String, DirectoryStats> first = tracker.getStats(directories());
+    addAttachment(directory1, "d.odt", 40);
+    addAttachment(directory2, "e.odt", 40);
+    tracker.setModified(KMELIA_1);
+
+    tracker.refresh();
+    // the computed stats are now kept up to the next modification
+    addAttachment(directory1, "f.odt", 100);
+    final Map<String, DirectoryStats> second = tracker.getStats(directories());
+    assertStats(second.get(KMELIA_1), 50L, 2L);
+    assertThat(second.get(KMELIA_2), sameInstance(first.get(KMELIA_2)));
+  }
+
+  @Test
+  void theRefreshForgetsTheModifiedComponentInstancesWithoutDirectory() throws Exception {
+    tracker.getStats(directories());
+    FileUtils.deleteDirectory(directory1);
+    tracker.setModified(KMELIA_1);
+
+    tracker.refresh();
+    addAttachment(directory1, "d.odt", 40);
+    final Map<String, DirectoryStats> stats = tracker.getStats(directories());
+    assertStats(stats.get(KMELIA_1), 40L, 1L);
+  }
+
+  @Test
+  void theReconciliationComputesAgainAllTheComponentInstances() throws Exception {
+    tracker.getStats(directories());
+    addAttachment(directory1, "d.odt", 40);
+    addAttachment(directory2, "e.odt", 40);
+
+    tracker.reconcile();
+    final Map<String, DirectoryStats> stats = tracker.getStats(directories());
+    assertStats(stats.get(KMELIA_1), 50L, 2L);
+    assertStats(stats.get(KMELIA_2), 90L, 3L);
+  }
+
+  @Test
+  void theReconciliationForgetsTheDeletedDirectories() throws Exception {
+    final Map<String, DirectoryStats> first = tracker.getStats(directories());
+    FileUtils.deleteDirectory(directory1);
+
+    tracker.reconcile();
+    // without the reconciliation, the stats computed before the deletion would be got
+    addAttachment(directory1, "d.odt", 40);
+    final Map<String, DirectoryStats> second = tracker.getStats(directories());
+    assertStats(second.get(KMELIA_1), 40L, 1L);
+    assertThat(second.get(KMELIA_2), not(sameInstance(first.get(KMELIA_2))));
+    assertStats(second.get(KMELIA_2), 50L, 2L);
+  }
+
+  @Test
+  void noComponentInstanceIsMarkedAsModifiedWithoutIdentifier() throws Exception {
+    final Map<String, DirectoryStats> first = tracker.getStats(directories());
+    tracker.setModified(null);
+    tracker.setModified("");
+
+    final Map<String, DirectoryStats> second = tracker.getStats(directories());
+    assertThat(second.get(KMELIA_1), sameInstance(first.get(KMELIA_1)));
+    assertThat(second.get(KMELIA_2), sameInstance(first.get(KMELIA_2)));
+  }
+
+  private File[] directories() {
+    return new File[]{directory1, directory2};
+  }
+
+  private static void addAttachment(final File componentDirectory, final String fileName,
+      final int size) throws Exception {
+    final Path file = componentDirectory.toPath().resolve("simpledoc_1").resolve("fr");
+    DirectoryStatsComputerTest.createFile(file.resolve(fileName), size);
+  }
+
+  private static void assertStats(final DirectoryStats stats, final long size,
+      final long nbFiles) {
+    assertThat(stats, notNullValue());
+    assertThat(stats.getDirectorySize(), is(size));
+    assertThat(stats.getNumberOfFiles(), is(nbFiles));
+  }
+
+  private static class DirectoryVolumeTracker4Test extends DirectoryVolumeTracker {
+
+    private int nbBackgroundRefreshes = 0;
+
+    @Override
+    void refreshInBackground() {
+      nbBackgroundRefreshes++;
+    }
+  }
+}
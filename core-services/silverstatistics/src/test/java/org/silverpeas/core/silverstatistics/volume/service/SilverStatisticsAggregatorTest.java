@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.silverstatistics.volume.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.silverstatistics.volume.model.StatType;
+import org.silverpeas.core.silverstatistics.volume.model.StatisticsConfig;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@EnableSilverTestEnv
+class SilverStatisticsAggregatorTest {
+
+  private SilverStatisticsAggregator aggregator;
+
+  @BeforeEach
+  void createAggregator() throws Exception {
+    final StatisticsConfig config = new StatisticsConfig();
+    config.init();
+    aggregator = new SilverStatisticsAggregator(config);
+  }
+
+  @Test
+  void theStatisticsOfTheSameMonthAndKeysAreSummedUp() {
+    aggregator.add(StatType.Connexion, Arrays.asList("2024-03-04", "42", "1", "100"));
+    aggregator.add(StatType.Connexion, Arrays.asList("2024-03-28", "42", "2", "50"));
+    final int size = aggregator.add(StatType.Connexion, Arrays.asList("2024-03-31", "42", "", "7"));
+
+    assertThat(size, is(1));
+    assertThat(aggregator.drain().get(StatType.Connexion),
+        contains(Arrays.asList("2024-03-01", "42", "3", "157")));
+  }
+
+  @Test
+  void theStatisticsOfAnotherMonthOrOtherKeysAreAggregatedApart() {
+    aggregator.add(StatType.Connexion, Arrays.asList("2024-03-04", "42", "1", "100"));
+    aggregator.add(StatType.Connexion, Arrays.asList("2024-04-01", "42", "2", "50"));
+    aggregator.add(StatType.Connexion, Arrays.asList("2024-03-04", "1308", "4", "10"));
+    final int size = aggregator.add(StatType.Access,
+        Arrays.asList("2024-03-04", "42", "kmelia", "WA1", "kmelia1", "1"));
+
+    assertThat(size, is(4));
+    final Map<StatType, Collection<List<String>>> aggregates = aggregator.drain();
+    assertThat(aggregates.get(StatType.Connexion), containsInAnyOrder(
+        Arrays.asList("2024-03-01", "42", "1", "100"),
+        Arrays.asList("2024-04-01", "42", "2", "50"),
+        Arrays.asList("2024-03-01", "1308", "4", "10")));
+    assertThat(aggregates.get(StatType.Access),
+        contains(Arrays.asList("2024-03-01", "42", "kmelia", "WA1", "kmelia1", "1")));
+  }
+
+  @Test
+  void theAggregatorIsEmptyOnceDrained() {
+    aggregator.add(StatType.Connexion, Arrays.asList("2024-03-04", "42", "1", "100"));
+    aggregator.drain();
+
+    assertThat(aggregator.drain().isEmpty(), is(true));
+    final int size =
+        aggregator.add(StatType.Connexion, Arrays.asList("2024-03-04", "42", "1", "1"));
+    assertThat(size, is(1));
+    assertThat(aggregator.drain().get(StatType.Connexion),
+        contains(Arrays.asList("2024-03-01", "42", "1", "1")));
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.silverstatistics.volume.service;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.silverstatistics.volume.model.StatType;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.silverpeas.core.silverstatistics.volume.model.SilverStatisticsConstants.SEPARATOR;
+
+@EnableSilverTestEnv
+class SilverStatisticsServiceTest {
+
+  private SilverStatisticsService4Test service;
+
+  @BeforeEach
+  void createService() throws IllegalAccessException {
+    service = new SilverStatisticsService4Test();
+    FieldUtils.writeDeclaredField(service, "aggregationSize", 3, true);
+  }
+
+  @Test
+  void theAggregatesArePutOnlyOnceTheAggregationSizeIsReached() {
+    service.aggregateStats(StatType.Connexion, connection("2024-03-04", 1));
+    service.aggregateStats(StatType.Connexion, connection("2024-03-05", 1));
+    service.aggregateStats(StatType.Connexion, connection("2024-03-05", 2));
+    assertThat(service.put, is(empty()));
+
+    service.aggregateStats(StatType.Connexion, connection("2024-03-05", 3));
+    assertThat(service.nbPuts, is(1));
+    assertThat(service.put, containsInAnyOrder(Arrays.asList("2024-03-01", "1", "2", "20"),
+        Arrays.asList("2024-03-01", "2", "1", "10"),
+        Arrays.asList("2024-03-01", "3", "1", "10")));
+  }
+
+  @Test
+  void theMalformedStatisticsAreNotAggregated() {
+    service.aggregateStats(StatType.Connexion, "2024-03-04" + SEPARATOR + "1");
+    service.flushAggregates();
+    assertThat(service.nbPuts, is(0));
+  }
+
+  @Test
+  void theAggregatesArePutWhenFlushed() {
+    service.aggregateStats(StatType.Connexion, connection("2024-03-04", 1));
+    service.flushAggregates();
+    assertThat(service.put, contains(Arrays.asList("2024-03-01", "1", "1", "10")));
+
+    service.flushAggregates();
+    assertThat(service.nbPuts, is(1));
+  }
+
+  @Test
+  void theAggregatesArePutAtShutdown() throws Exception {
+    service.aggregateStats(StatType.Connexion, connection("2024-03-04", 1));
+    service.aggregateStats(StatType.Connexion, connection("2024-03-04", 1));
+    service.release();
+    assertThat(service.put, contains(Arrays.asList("2024-03-01", "1", "2", "20")));
+  }
+
+  private static String connection(final String date, final int userId) {
+    return String.join(SEPARATOR, date, String.valueOf(userId), "1", "10");
+  }
+
+  private static class SilverStatisticsService4Test extends SilverStatisticsService {
+
+    private final List<List<String>> put = new ArrayList<>();
+    private int nbPuts = 0;
+
+    @Override
+    void putStats(final StatType type, final Collection<List<String>> dataArrays) {
+      nbPuts++;
+      put.addAll(dataArrays);
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.tagcloud.service;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.core.persistence.TransactionRuntimeException;
+import org.silverpeas.core.persistence.jdbc.DBUtil;
+import org.silverpeas.core.tagcloud.dao.TagCloudDAO;
+import org.silverpeas.core.tagcloud.dao.TagCloudPK;
+import org.silverpeas.core.tagcloud.model.TagCloud;
+import org.silverpeas.core.tagcloud.test.WarBuilder4TagCloud;
+import org.silverpeas.core.test.integration.rule.DbSetupRule;
+
+import javax.inject.Inject;
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.Assert.fail;
+
+@RunWith(Arquillian.class)
+public class DefaultTagCloudServiceIT {
+
+  private static final String TABLE_CREATION_SCRIPT = "create-database.sql";
+  private static final String DATASET_SCRIPT = "tagcloud-dataset.sql";
+
+  @Inject
+  private TagCloudService service;
+
+  @Rule
+  public DbSetupRule dbSetupRule =
+      DbSetupRule.createTablesFrom(TABLE_CREATION_SCRIPT).loadInitialDataSetFrom(DATASET_SCRIPT);
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4TagCloud.onWarForTestClass(DefaultTagCloudServiceIT.class).build();
+  }
+
+  @Test
+  public void allTheTagsOfAnInstanceAreAggregatedAndOrderedByTag() {
+    // tag | label | type | count
+    assertThat(tags(service.getInstanceTagClouds("kmelia1")), contains(
+        "api | API | 1 | 1",
+        "cloud | Cloud | 0 | 2",
+        "java | JAVA | 0 | 3",
+        "silverpeas | Silverpeas | 0 | 1"));
+    assertThat(tags(service.getInstanceTagClouds("kmelia2")), contains(
+        "java | Java | 0 | 1",
+        "zebra | Zebra | 0 | 1"));
+    assertThat(tags(service.getInstanceTagClouds("kmelia3")), empty());
+  }
+
+  @Test
+  public void onlyTheMostUsedTagsAreGotAndThenOrderedByTag() {
+    assertThat(tags(service.getInstanceTagClouds("kmelia1", 2)), contains(
+        "cloud | Cloud | 0 | 2",
+        "java | JAVA | 0 | 3"));
+    // among the tags used as many times, the first ones by tag are taken
+    assertThat(tags(service.getInstanceTagClouds("kmelia1", 3)), contains(
+        "api | API | 1 | 1",
+        "cloud | Cloud | 0 | 2",
+        "java | JAVA | 0 | 3"));
+    assertThat(tags(service.getInstanceTagClouds("kmelia1", 10)), contains(
+        "api | API | 1 | 1",
+        "cloud | Cloud | 0 | 2",
+        "java | JAVA | 0 | 3",
+        "silverpeas | Silverpeas | 0 | 1"));
+  }
+
+  @Test
+  public void theAggregatedTagsGotCannotAlterTheOnesOfTheNextCalls() {
+    service.getInstanceTagClouds("kmelia1").forEach(t -> t.setCount(100));
+    assertThat(tags(service.getInstanceTagClouds("kmelia1")), contains(
+        "api | API | 1 | 1",
+        "cloud | Cloud | 0 | 2",
+        "java | JAVA | 0 | 3",
+        "silverpeas | Silverpeas | 0 | 1"));
+  }
+
+  @Test
+  public void theAggregatedTagsAreComputedAgainAfterACreation() {
+    service.getInstanceTagClouds("kmelia1");
+    service.getInstanceTagClouds("kmelia1", 2);
+    service.createTagCloud(new TagCloud("silverpeas", "Silverpeas", "kmelia1", "2", 0));
+    service.createTagCloud(new TagCloud("silverpeas", "Silverpeas", "kmelia1", "3", 1));
+    assertThat(tags(service.getInstanceTagClouds("kmelia1")), contains(
+        "api | API | 1 | 1",
+        "cloud | Cloud | 0 | 2",
+        "java | JAVA | 0 | 3",
+        "silverpeas | Silverpeas | 0 | 3"));
+    assertThat(tags(service.getInstanceTagClouds("kmelia1", 2)), contains(
+        "java | JAVA | 0 | 3",
+        "silverpeas | Silverpeas | 0 | 3"));
+    assertThat(tags(service.getInstanceTagClouds("kmelia2")), contains(
+        "java | Java | 0 | 1",
+        "zebra | Zebra | 0 | 1"));
+  }
+
+  @Test
+  public void theAggregatedTagsAreComputedAgainAfterADeletion() {
+    service.getInstanceTagClouds("kmelia1");
+    service.deleteTagCloud(new TagCloudPK("1", "kmelia1"), 0);
+    assertThat(tags(service.getInstanceTagClouds("kmelia1")), contains(
+        "api | API | 1 | 1",
+        "cloud | Cloud | 0 | 1",
+        "java | JAVA | 0 | 2"));
+  }
+
+  @Test
+  public void theAggregatedTagsAreForgottenWithTheInstance() {
+    service.getInstanceTagClouds("kmelia1");
+    ((DefaultTagCloudService) service).delete("kmelia1");
+    assertThat(tags(service.getInstanceTagClouds("kmelia1")), empty());
+    assertThat(tags(service.getInstanceTagClouds("kmelia2")), contains(
+        "java | Java | 0 | 1",
+        "zebra | Zebra | 0 | 1"));
+  }
+
+  @Test
+  public void theAggregatedTagsAreComputedAgainOnlyOnceTheCreationIsCommitted() {
+    service.getInstanceTagClouds("kmelia1");
+    Transaction.performInOne(() -> {
+      service.createTagCloud(new TagCloud("api", "API", "kmelia1", "1", 0));
+      // within the transaction, the aggregated tags are loaded with its changes but not kept
+      assertThat(tags(service.getInstanceTagClouds("kmelia1")), contains(
+          "api | API | 0 | 2",
+          "cloud | Cloud | 0 | 2",
+          "java | JAVA | 0 | 3",
+          "silverpeas | Silverpeas | 0 | 1"));
+      return null;
+    });
+    assertThat(tags(service.getInstanceTagClouds("kmelia1")), contains(
+        "api | API | 0 | 2",
+        "cloud | Cloud | 0 | 2",
+        "java | JAVA | 0 | 3",
+        "silverpeas | Silverpeas | 0 | 1"));
+  }
+
+  @Test
+  public void theAggregatedTagsLoadedWithinARolledBackTransactionAreForgotten() {
+    try {
+      Transaction.performInOne(() -> {
+        service.createTagCloud(new TagCloud("newtag", "NewTag", "kmelia1", "1", 0));
+        assertThat(tags(service.getInstanceTagClouds("kmelia1")), contains(
+            "api | API | 1 | 1",
+            "cloud | Cloud | 0 | 2",
+            "java | JAVA | 0 | 3",
+            "newtag | NewTag | 0 | 1",
+            "silverpeas | Silverpeas | 0 | 1"));
+        throw new IllegalStateException("rollback");
+      });
+      fail("The transaction should have been rolled back");
+    } catch (TransactionRuntimeException e) {
+      // the creation is rolled back
+    }
+    assertThat(tags(service.getInstanceTagClouds("kmelia1")), contains(
+        "api | API | 1 | 1",
+        "cloud | Cloud | 0 | 2",
+        "java | JAVA | 0 | 3",
+        "silverpeas | Silverpeas | 0 | 1"));
+  }
+
+  @Test
+  public void theAggregatedTagsLoadedWithinATransactionAreNotKept() {
+    service.getInstanceTagClouds("kmelia1");
+    try {
+      Transaction.performInOne(() -> {
+        // a change of the tagclouds without any notification of it
+        try (Connection connection = DBUtil.openConnection()) {
+          TagCloudDAO.createTagCloud(connection,
+              new TagCloud("newtag", "NewTag", "kmelia1", "1", 0));
+        }
+        assertThat(tags(service.getInstanceTagClouds("kmelia1")), hasItem(
+            "newtag | NewTag | 0 | 1"));
+        throw new IllegalStateException("rollback");
+      });
+      fail("The transaction should have been rolled back");
+    } catch (TransactionRuntimeException e) {
+      // the creation is rolled back
+    }
+    assertThat(tags(service.getInstanceTagClouds("kmelia1")), contains(
+        "api | API | 1 | 1",
+        "cloud | Cloud | 0 | 2",
+        "java | JAVA | 0 | 3",
+        "silverpeas | Silverpeas | 0 | 1"));
+  }
+
+  private static List<String> tags(Collection<TagCloud> tagClouds) {
+    return tagClouds.stream()
+        .map(t -> t.getTag() + " | " + t.getLabel() + " | " + t.getExternalType() + " | " +
+            t.getCount())
+        .collect(Collectors.toList());
+  }
+}
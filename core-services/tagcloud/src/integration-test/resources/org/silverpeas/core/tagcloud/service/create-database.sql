@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS UniqueId (
+  maxId     INT          NOT NULL,
+  tableName VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE SB_TagCloud_TagCloud
+(
+  id           INT          NOT NULL,
+  tag          VARCHAR(100) NOT NULL,
+  label        VARCHAR(100) NOT NULL,
+  instanceId   VARCHAR(50)  NOT NULL,
+  externalId   VARCHAR(50)  NOT NULL,
+  externalType INT          NOT NULL,
+  CONSTRAINT PK_SB_TagCloud_TagCloud PRIMARY KEY (id)
+);
@@ -0,0 +1,20 @@
+INSERT INTO UniqueId (maxId, tableName) VALUES (10, 'sb_tagcloud_tagcloud');
+
+INSERT INTO SB_TagCloud_TagCloud (id, tag, label, instanceId, externalId, externalType)
+VALUES (1, 'java', 'Java', 'kmelia1', '1', 0);
+INSERT INTO SB_TagCloud_TagCloud (id, tag, label, instanceId, externalId, externalType)
+VALUES (2, 'java', 'JAVA', 'kmelia1', '2', 0);
+INSERT INTO SB_TagCloud_TagCloud (id, tag, label, instanceId, externalId, externalType)
+VALUES (3, 'java', 'java', 'kmelia1', '3', 1);
+INSERT INTO SB_TagCloud_TagCloud (id, tag, label, instanceId, externalId, externalType)
+VALUES (4, 'cloud', 'Cloud', 'kmelia1', '1', 0);
+INSERT INTO SB_TagCloud_TagCloud (id, tag, label, instanceId, externalId, externalType)
+VALUES (5, 'cloud', 'Cloud', 'kmelia1', '2', 0);
+INSERT INTO SB_TagCloud_TagCloud (id, tag, label, instanceId, externalId, externalType)
+VALUES (6, 'silverpeas', 'Silverpeas', 'kmelia1', '1', 0);
+INSERT INTO SB_TagCloud_TagCloud (id, tag, label, instanceId, externalId, externalType)
+VALUES (7, 'api', 'API', 'kmelia1', '3', 1);
+INSERT INTO SB_TagCloud_TagCloud (id, tag, label, instanceId, externalId, externalType)
+VALUES (8, 'java', 'Java', 'kmelia2', '1', 0);
+INSERT INTO SB_TagCloud_TagCloud (id, tag, label, instanceId, externalId, externalType)
+VALUES (9, 'zebra', 'Zebra', 'kmelia2', '1', 0);
@@ -122,24 +122,41 @@ public class TagCloudDAO {
   }
 
   /**
+   * Gets the tagclouds of the instance aggregated by tag: each tag is returned once with, as
+   * count, its number of occurrences in the instance. As a tag can be got from several labels or
+   * be used by elements of different types, the lowest label and type are taken.
    * @param con The database connection.
    * @param instanceId The id of the instance which the tagclouds are searched for.
-   * @return The list of tagclouds corresponding to the instance id.
+   * @param maxCount The maximum number of required tags, the most used ones (all are returned if
+   * it is lower than or equal to 0).
+   * @return The list of aggregated tagclouds of the instance: ordered by tag when all the tags
+   * are required, by decreasing count then by tag otherwise.
    * @throws SQLException
    */
-  public static Collection<TagCloud> getInstanceTagClouds(Connection con,
-      String instanceId) throws SQLException {
-    String query = new StringBuffer(100).append("SELECT ").append(ALL_COLUMNS)
-        .append(" FROM ").append(TABLE_NAME).append(" WHERE ").append(
-        COLUMN_INSTANCEID).append(" = ?").append(" ORDER BY ").append(
-        COLUMN_TAG).append(" ASC").toString();
+  public static List<TagCloud> getInstanceTagCloudsByTag(Connection con, String instanceId,
+      int maxCount) throws SQLException {
+    final StringBuilder querySb = new StringBuilder(200).append("SELECT ").append(COLUMN_TAG)
+        .append(", MIN(").append(COLUMN_LABEL).append("), MIN(").append(COLUMN_EXTERNALTYPE)
+        .append("), COUNT(*) FROM ").append(TABLE_NAME).append(" WHERE ")
+        .append(COLUMN_INSTANCEID).append(" = ?").append(" GROUP BY ").append(COLUMN_TAG)
+        .append(" ORDER BY ");
+    if (maxCount > 0) {
+      querySb.append("COUNT(*) DESC, ");
+    }
+    querySb.append(COLUMN_TAG).append(" ASC");
 
     List<TagCloud> tagClouds = new ArrayList<>(INITIAL_CAPACITY);
-    try (final PreparedStatement prepStmt = con.prepareStatement(query)) {
+    try (final PreparedStatement prepStmt = con.prepareStatement(querySb.toString())) {
       prepStmt.setString(1, instanceId);
+      if (maxCount > 0) {
+        prepStmt.setMaxRows(maxCount);
+      }
       try (ResultSet rs = prepStmt.executeQuery()) {
         while (rs.next()) {
-          tagClouds.add(resultSet2TagCloud(rs));
+          TagCloud tagCloud = new TagCloud(rs.getString(1), rs.getString(2), instanceId, null,
+              rs.getInt(3));
+          tagCloud.setCount(rs.getInt(4));
+          tagClouds.add(tagCloud);
         }
       }
     }
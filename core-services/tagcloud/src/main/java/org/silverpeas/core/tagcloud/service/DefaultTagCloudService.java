@@ -29,28 +29,46 @@ import org.silverpeas.core.tagcloud.model.TagCloud;
 import org.silverpeas.core.tagcloud.dao.TagCloudDAO;
 import org.silverpeas.core.tagcloud.dao.TagCloudPK;
 import org.silverpeas.core.tagcloud.model.TagCloudUtil;
-import org.silverpeas.core.tagcloud.model.comparator.TagCloudByCountComparator;
 import org.silverpeas.core.tagcloud.model.comparator.TagCloudByNameComparator;
+import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.persistence.jdbc.DBUtil;
 import org.silverpeas.core.exception.SilverpeasRuntimeException;
 
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.transaction.Status;
 import javax.transaction.Transactional;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
 @Singleton
 @Transactional(Transactional.TxType.SUPPORTS)
 public class DefaultTagCloudService implements TagCloudService, ComponentInstanceDeletion {
 
+  /**
+   * The tagclouds of the instances aggregated by tag, per instance and per maximum number of
+   * tags. The ones of an instance are removed once the transaction of each creation or deletion
+   * of one of its tagclouds is completed: removed before, they could be loaded again meanwhile
+   * without the change and then kept. Only the tagclouds loaded outside any transaction are
+   * kept, as the ones loaded within a transaction can include changes that will be rolled back.
+   */
+  private final Map<String, Map<Integer, List<TagCloud>>> aggregatedTagClouds =
+      new ConcurrentHashMap<>();
+
+  @Inject
+  private Event<InstanceTagCloudsChange> changes;
+
   private Connection openConnection() {
     try {
       return DBUtil.openConnection();
@@ -70,6 +88,7 @@ public class DefaultTagCloudService implements TagCloudService, ComponentInstanc
     Connection con = openConnection();
     try {
       TagCloudDAO.createTagCloud(con, tagCloud);
+      changes.fire(new InstanceTagCloudsChange(tagCloud.getInstanceId()));
     } catch (SQLException e) {
       throw new TagCloudRuntimeException("DefaultTagCloudService.createTagCloud()",
           SilverpeasRuntimeException.ERROR, "tagCloud.CREATING_NEW_TAGCLOUD_FAILED", e);
@@ -87,6 +106,7 @@ public class DefaultTagCloudService implements TagCloudService, ComponentInstanc
     Connection con = openConnection();
     try {
       TagCloudDAO.deleteTagCloud(con, pk, type);
+      changes.fire(new InstanceTagCloudsChange(pk.getInstanceId()));
     } catch (SQLException e) {
       throw new TagCloudRuntimeException("DefaultTagCloudService.deleteTagCloud()",
           SilverpeasRuntimeException.ERROR, "tagCloud.DELETE_TAGCLOUD_FAILED", e);
@@ -113,37 +133,33 @@ public class DefaultTagCloudService implements TagCloudService, ComponentInstanc
    */
   @Override
   public Collection<TagCloud> getInstanceTagClouds(String instanceId, int maxCount) {
+    final int count = maxCount > 0 ? maxCount : -1;
+    if (Transaction.getTransactionStatus() != Status.STATUS_NO_TRANSACTION) {
+      // not cached as they can include some changes of the transaction not yet committed
+      return loadInstanceTagClouds(instanceId, count);
+    }
+    final List<TagCloud> tagList = aggregatedTagClouds
+        .computeIfAbsent(instanceId, i -> new ConcurrentHashMap<>())
+        .computeIfAbsent(count, c -> loadInstanceTagClouds(instanceId, c));
+    return tagList.stream().map(DefaultTagCloudService::copyOf).collect(Collectors.toList());
+  }
+
+  /**
+   * Clears the aggregated tagclouds of the changed instance. Within a transaction, it is done
+   * once the transaction is completed, whatever its outcome, otherwise immediately.
+   * @param change the change of the tagclouds of an instance.
+   */
+  void onInstanceTagCloudsChange(
+      @Observes(during = TransactionPhase.AFTER_COMPLETION) InstanceTagCloudsChange change) {
+    aggregatedTagClouds.remove(change.getInstanceId());
+  }
+
+  private List<TagCloud> loadInstanceTagClouds(String instanceId, int maxCount) {
     Connection con = openConnection();
     try {
-      Collection<TagCloud> tagClouds = TagCloudDAO.getInstanceTagClouds(con, instanceId);
-      List<TagCloud> tagList = new ArrayList<TagCloud>(tagClouds.size());
-      if (!tagClouds.isEmpty()) {
-        Iterator<TagCloud> iter = tagClouds.iterator();
-        tagList.add(iter.next());
-        boolean tagExists;
-        while (iter.hasNext()) {
-          TagCloud iterTagCloud = iter.next();
-          String iterTag = iterTagCloud.getTag();
-          int i = 0;
-          tagExists = false;
-          while (i < tagList.size() && !tagExists) {
-            TagCloud currentTagCloud = tagList.get(i);
-            if (currentTagCloud.getTag().equals(iterTag)) {
-              tagExists = true;
-              currentTagCloud.incrementCount();
-            }
-            i++;
-          }
-          if (!tagExists) {
-            tagList.add(iterTagCloud);
-          }
-        }
-
-        if (maxCount > 0 && tagList.size() > maxCount) {
-          Collections.sort(tagList, new TagCloudByCountComparator());
-          tagList = tagList.subList(0, maxCount);
-          Collections.sort(tagList, new TagCloudByNameComparator());
-        }
+      List<TagCloud> tagList = TagCloudDAO.getInstanceTagCloudsByTag(con, instanceId, maxCount);
+      if (maxCount > 0) {
+        tagList.sort(new TagCloudByNameComparator());
       }
       return tagList;
     } catch (SQLException e) {
@@ -154,6 +170,13 @@ public class DefaultTagCloudService implements TagCloudService, ComponentInstanc
     }
   }
 
+  private static TagCloud copyOf(TagCloud tagCloud) {
+    TagCloud copy = new TagCloud(tagCloud.getTag(), tagCloud.getLabel(),
+        tagCloud.getInstanceId(), tagCloud.getExternalId(), tagCloud.getExternalType());
+    copy.setCount(tagCloud.getCount());
+    return copy;
+  }
+
   /**
    * @param pk The id of the element which tagclouds are searched for.
    * @return The list of tagclouds corresponding to the element.
@@ -237,6 +260,7 @@ public class DefaultTagCloudService implements TagCloudService, ComponentInstanc
   public void delete(final String componentInstanceId) {
     try (Connection connection = DBUtil.openConnection()) {
       TagCloudDAO.deleteAllTagClouds(connection, componentInstanceId);
+      changes.fire(new InstanceTagCloudsChange(componentInstanceId));
     } catch (SQLException e) {
       throw new RuntimeException(e.getMessage(), e);
     }
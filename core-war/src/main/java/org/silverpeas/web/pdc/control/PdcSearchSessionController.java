@@ -86,6 +86,7 @@ import java.util.*;
 import java.util.stream.Stream;
 
 import static java.util.Collections.*;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.silverpeas.kernel.util.StringUtil.defaultStringIfNotDefined;
 import static org.silverpeas.kernel.util.StringUtil.isDefined;
@@ -717,19 +718,22 @@ public class PdcSearchSessionController extends AbstractComponentSessionControll
   }
 
   private void setPopularityToResults() {
-    List<GlobalSilverResult> results = getGlobalSR();
-    StatisticService statisticService = getStatisticBm();
-    ResourceReference pk = new ResourceReference(ResourceReference.UNKNOWN_ID);
-    for (GlobalSilverResult result : results) {
-      if (isPopularityCompliant(result)) {
-        pk.setComponentName(result.getInstanceId());
-        pk.setId(result.isLinked() ? result.getLinkedResourceId() : result.getId());
-        int nbAccess = statisticService.getCount(pk, 1, PUBLICATION_RESOURCE);
-        result.setHits(nbAccess);
-      }
+    final List<GlobalSilverResult> results = getGlobalSR().stream()
+        .filter(this::isPopularityCompliant)
+        .collect(toList());
+    if (!results.isEmpty()) {
+      final Map<ResourceReference, Integer> nbAccesses = getStatisticBm().getCountByResource(
+          results.stream().map(this::getPopularityReference).collect(toSet()),
+          PUBLICATION_RESOURCE);
+      results.forEach(r -> r.setHits(nbAccesses.getOrDefault(getPopularityReference(r), 0)));
     }
   }
 
+  private ResourceReference getPopularityReference(final GlobalSilverResult result) {
+    return new ResourceReference(result.isLinked() ? result.getLinkedResourceId() : result.getId(),
+        result.getInstanceId());
+  }
+
   private boolean isPopularityCompliant(GlobalSilverResult gsr) {
     final String instanceId = gsr != null ? defaultStringIfNotDefined(gsr.getInstanceId()) : "";
     final String resourceType = gsr != null ? gsr.getType() : "";
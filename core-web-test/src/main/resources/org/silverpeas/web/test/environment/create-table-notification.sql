@@ -3,6 +3,7 @@ CREATE TABLE ST_LongText
     id          INT           NOT NULL,
     orderNum    INT           NOT NULL,
     bodyContent VARCHAR(2000) NOT NULL,
+    longContent CLOB          NULL,
     CONSTRAINT PK_ST_LongText PRIMARY KEY (id, orderNum)
 );
 
@@ -29,6 +30,7 @@ CREATE TABLE ST_SilverMailMessage
     SOURCE     varchar(255)  NULL,
     URL        varchar(255)  NULL,
     DATEMSG    varchar(255)  NULL,
+    MSGTIMESTAMP timestamp   NULL,
     READEN     int           NOT NULL
 );
 
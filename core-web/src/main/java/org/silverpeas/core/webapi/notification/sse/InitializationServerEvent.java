@@ -25,6 +25,7 @@ package org.silverpeas.core.webapi.notification.sse;
 
 import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.notification.sse.AbstractServerEvent;
+import org.silverpeas.core.notification.sse.ServerEventScope;
 import org.silverpeas.core.notification.sse.behavior.IgnoreStoring;
 
 /**
@@ -58,4 +59,9 @@ class InitializationServerEvent extends AbstractServerEvent implements IgnoreSto
   public boolean isConcerned(final String receiverSessionId, final User receiver) {
     return emitterSessionId.equals(receiverSessionId);
   }
+
+  @Override
+  public ServerEventScope getScope() {
+    return ServerEventScope.session(emitterSessionId);
+  }
 }
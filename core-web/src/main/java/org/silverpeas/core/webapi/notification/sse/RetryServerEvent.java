@@ -25,6 +25,7 @@ package org.silverpeas.core.webapi.notification.sse;
 
 import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.notification.sse.AbstractServerEvent;
+import org.silverpeas.core.notification.sse.ServerEventScope;
 import org.silverpeas.core.notification.sse.behavior.IgnoreStoring;
 
 /**
@@ -66,4 +67,9 @@ class RetryServerEvent extends AbstractServerEvent implements IgnoreStoring {
   public boolean isConcerned(final String receiverSessionId, final User receiver) {
     return emitterSessionId.equals(receiverSessionId);
   }
+
+  @Override
+  public ServerEventScope getScope() {
+    return ServerEventScope.session(emitterSessionId);
+  }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.webapi.util.monitoring;
+
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlStatistics.StatementStatistics;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Web entity representing the statistics about a normalized SQL statement. The times are
+ * expressed in milliseconds.
+ */
+@XmlRootElement
+@XmlAccessorType(XmlAccessType.FIELD)
+public class SqlStatementStatisticsEntity {
+
+  @XmlElement
+  private String sql;
+  @XmlElement
+  private long count;
+  @XmlElement
+  private long rows;
+  @XmlElement
+  private double totalTime;
+  @XmlElement
+  private double meanTime;
+  @XmlElement
+  private double p50Time;
+  @XmlElement
+  private double p99Time;
+  @XmlElement
+  private double maxTime;
+
+  /**
+   * Creates a new web entity from the specified statistics.
+   * @param statistics the statistics about a SQL statement.
+   * @return the entity representing the specified statistics.
+   */
+  public static SqlStatementStatisticsEntity createFrom(final StatementStatistics statistics) {
+    final SqlStatementStatisticsEntity entity = new SqlStatementStatisticsEntity();
+    entity.sql = statistics.getSql();
+    entity.count = statistics.getCount();
+    entity.rows = statistics.getRows();
+    entity.totalTime = toMillis(statistics.getTotalTime());
+    entity.meanTime = toMillis(statistics.getMeanTime());
+    entity.p50Time = toMillis(statistics.getP50Time());
+    entity.p99Time = toMillis(statistics.getP99Time());
+    entity.maxTime = toMillis(statistics.getMaxTime());
+    return entity;
+  }
+
+  protected SqlStatementStatisticsEntity() {
+    // for serialization
+  }
+
+  private static double toMillis(final long nanos) {
+    return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  protected String getSql() {
+    return sql;
+  }
+
+  protected long getCount() {
+    return count;
+  }
+
+  protected double getP50Time() {
+    return p50Time;
+  }
+
+  protected double getP99Time() {
+    return p99Time;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.webapi.util.monitoring;
+
+import org.silverpeas.core.annotation.WebService;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlStatistics;
+import org.silverpeas.core.web.rs.RESTWebService;
+import org.silverpeas.core.web.rs.UserPrivilegeValidation;
+import org.silverpeas.core.web.rs.annotation.Authorized;
+
+import javax.inject.Inject;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A REST Web resource giving the statistics about the SQL statements executed by Silverpeas
+ * through the JDBC layer (see {@link JdbcSqlStatistics}). It permits the administrators to find
+ * the statements that dominate the database time. Only the administrators can access it.
+ */
+@WebService
+@Authorized
+@Path(SqlStatisticsResource.PATH)
+public class SqlStatisticsResource extends RESTWebService {
+
+  static final String PATH = "monitoring/sql";
+
+  @Inject
+  private JdbcSqlStatistics statistics;
+
+  @Override
+  public void validateUserAuthorization(final UserPrivilegeValidation validation) {
+    if (!getUser().isAccessAdmin()) {
+      throw new WebApplicationException("Only administrators can consult the SQL statistics!",
+          Response.Status.FORBIDDEN);
+    }
+  }
+
+  /**
+   * Gets the statistics about the SQL statements, the most expensive ones first.
+   * @param limit the maximum number of statements to return. If not positive, all the
+   * statements are returned.
+   * @return a list of the statistics about the SQL statements.
+   */
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  public List<SqlStatementStatisticsEntity> getStatistics(@QueryParam("limit") int limit) {
+    return statistics.getStatistics()
+        .stream()
+        .limit(limit > 0 ? limit : Long.MAX_VALUE)
+        .map(SqlStatementStatisticsEntity::createFrom)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Resets the statistics about the SQL statements.
+   */
+  @DELETE
+  public void resetStatistics() {
+    statistics.reset();
+  }
+
+  @Override
+  public String getComponentId() {
+    return null;
+  }
+
+  @Override
+  protected String getResourceBasePath() {
+    return PATH;
+  }
+}
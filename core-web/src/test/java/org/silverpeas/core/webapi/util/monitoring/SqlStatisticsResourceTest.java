@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.webapi.util.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.admin.user.model.User;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlStatistics;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlStatistics.StatementStatistics;
+import org.silverpeas.core.test.unit.extention.JEETestContext;
+import org.silverpeas.kernel.test.annotations.TestManagedMock;
+import org.silverpeas.kernel.test.annotations.TestedBean;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests on the exposure of the statistics about the SQL statements by
+ * {@link SqlStatisticsResource}.
+ */
+@EnableSilverTestEnv(context = JEETestContext.class)
+class SqlStatisticsResourceTest {
+
+  @TestManagedMock
+  private JdbcSqlStatistics statistics;
+  @TestedBean
+  private SqlStatisticsResource4Test rest;
+
+  @BeforeEach
+  void setup() {
+    final List<StatementStatistics> allStatistics = List.of(
+        statementStatistics("UPDATE sb_table SET name = ?", 10, 30),
+        statementStatistics("SELECT id FROM sb_table", 200, 2),
+        statementStatistics("DELETE FROM sb_table", 1, 1));
+    when(statistics.getStatistics()).thenReturn(allStatistics);
+  }
+
+  @Test
+  void onlyTheAdministratorsCanConsultTheStatistics() {
+    rest.validateUserAuthorization(null);
+    when(rest.getUser().isAccessAdmin()).thenReturn(false);
+    final WebApplicationException e =
+        assertThrows(WebApplicationException.class, () -> rest.validateUserAuthorization(null));
+    assertThat(e.getResponse().getStatus(), is(Response.Status.FORBIDDEN.getStatusCode()));
+  }
+
+  @Test
+  void theStatisticsAreGotInTheOrderOfTheirCostAndInMilliseconds() {
+    final List<SqlStatementStatisticsEntity> entities = rest.getStatistics(0);
+    assertThat(entities.stream()
+            .map(SqlStatementStatisticsEntity::getSql)
+            .collect(Collectors.toList()),
+        contains("UPDATE sb_table SET name = ?", "SELECT id FROM sb_table",
+            "DELETE FROM sb_table"));
+    assertThat(entities.get(1).getCount(), is(200L));
+    assertThat(entities.get(1).getP50Time(), is(2.0));
+    assertThat(entities.get(1).getP99Time(), is(4.0));
+  }
+
+  @Test
+  void theStatisticsAreLimitedToTheMostExpensiveStatements() {
+    assertThat(rest.getStatistics(2)
+        .stream()
+        .map(SqlStatementStatisticsEntity::getSql)
+        .collect(Collectors.toList()), contains("UPDATE sb_table SET name = ?",
+        "SELECT id FROM sb_table"));
+  }
+
+  @Test
+  void theStatisticsAreReset() {
+    rest.resetStatistics();
+    verify(statistics).reset();
+  }
+
+  private static StatementStatistics statementStatistics(final String sql, final long count,
+      final long p50TimeInMillis) {
+    final StatementStatistics statementStatistics = mock(StatementStatistics.class);
+    when(statementStatistics.getSql()).thenReturn(sql);
+    when(statementStatistics.getCount()).thenReturn(count);
+    when(statementStatistics.getP50Time())
+        .thenReturn(TimeUnit.MILLISECONDS.toNanos(p50TimeInMillis));
+    when(statementStatistics.getP99Time())
+        .thenReturn(TimeUnit.MILLISECONDS.toNanos(2 * p50TimeInMillis));
+    return statementStatistics;
+  }
+
+  private static class SqlStatisticsResource4Test extends SqlStatisticsResource {
+
+    private final User user;
+
+    protected SqlStatisticsResource4Test() {
+      this.user = mock(User.class);
+      when(user.isAccessAdmin()).thenReturn(true);
+    }
+
+    @Override
+    protected User getUser() {
+      return user;
+    }
+  }
+}